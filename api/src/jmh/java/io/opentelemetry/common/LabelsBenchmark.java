@@ -0,0 +1,83 @@
+/*
+ * Copyright 2020, OpenTelemetry Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.opentelemetry.common;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks for creating {@link Labels} and looking them up in a map, as synchronous instruments
+ * do on every recording.
+ */
+@State(Scope.Thread)
+@Fork(1)
+@Measurement(iterations = 10, time = 1)
+@Warmup(iterations = 5, time = 1)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@BenchmarkMode(Mode.AverageTime)
+public class LabelsBenchmark {
+  private final ConcurrentHashMap<Labels, Object> map = new ConcurrentHashMap<>();
+  private Labels internedLabels;
+
+  @Setup
+  public void setup() {
+    internedLabels = eightLabels().intern();
+    map.put(internedLabels, new Object());
+  }
+
+  @Benchmark
+  public Labels threeLabels() {
+    return Labels.of("http.method", "GET", "http.status_code", "200", "http.route", "/users");
+  }
+
+  /** Builds eight labels, more than the few a recording usually has. */
+  @Benchmark
+  public Labels eightLabels() {
+    return Labels.newBuilder()
+        .setLabel("service", "frontend")
+        .setLabel("http.method", "GET")
+        .setLabel("http.status_code", "200")
+        .setLabel("http.route", "/users")
+        .setLabel("host", "host-1")
+        .setLabel("region", "eu-west-1")
+        .setLabel("zone", "eu-west-1a")
+        .setLabel("version", "1.2.3")
+        .build();
+  }
+
+  /** Creates new labels and looks them up, the hash code and equals are computed every time. */
+  @Benchmark
+  public Object lookup() {
+    return map.get(eightLabels());
+  }
+
+  /** Looks up the interned labels, the hash code is cached and equals is an identity check. */
+  @Benchmark
+  public Object lookupInterned() {
+    return map.get(internedLabels);
+  }
+}
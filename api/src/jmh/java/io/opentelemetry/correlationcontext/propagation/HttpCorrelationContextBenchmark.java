@@ -0,0 +1,126 @@
+/*
+ * Copyright 2020, OpenTelemetry Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.opentelemetry.correlationcontext.propagation;
+
+import io.grpc.Context;
+import io.opentelemetry.context.propagation.HttpTextFormat;
+import io.opentelemetry.correlationcontext.CorrelationContext;
+import io.opentelemetry.correlationcontext.CorrelationsContextUtils;
+import io.opentelemetry.correlationcontext.Entry;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import javax.annotation.Nullable;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks for {@link HttpCorrelationContext}, including extraction of a hostile header made of
+ * thousands of tiny entries, which must cost no more than a valid header of the maximum size.
+ */
+@State(Scope.Thread)
+@Fork(1)
+@Measurement(iterations = 15, time = 1)
+@Warmup(iterations = 5, time = 1)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@BenchmarkMode(Mode.AverageTime)
+public class HttpCorrelationContextBenchmark {
+  private static final HttpTextFormat.Setter<Map<String, String>> setter =
+      new HttpTextFormat.Setter<Map<String, String>>() {
+        @Override
+        public void set(Map<String, String> carrier, String key, String value) {
+          carrier.put(key, value);
+        }
+      };
+
+  private static final HttpTextFormat.Getter<Map<String, String>> getter =
+      new HttpTextFormat.Getter<Map<String, String>>() {
+        @Nullable
+        @Override
+        public String get(Map<String, String> carrier, String key) {
+          return carrier.get(key);
+        }
+      };
+
+  private final HttpCorrelationContext httpCorrelationContext = new HttpCorrelationContext();
+  private final Map<String, String> carrier = new HashMap<>();
+  private Context context;
+  private Map<String, String> validCarrier;
+  private Map<String, String> hostileCarrier;
+
+  @Setup
+  public void setup() {
+    final Collection<Entry> entries =
+        Arrays.asList(
+            Entry.create("userId", "cdc1b3d2", Entry.METADATA_UNLIMITED_PROPAGATION),
+            Entry.create("serverNode", "DF 28", Entry.METADATA_UNLIMITED_PROPAGATION),
+            Entry.create("isProduction", "false", Entry.METADATA_UNLIMITED_PROPAGATION));
+    CorrelationContext correlationContext =
+        new CorrelationContext() {
+          @Override
+          public Collection<Entry> getEntries() {
+            return entries;
+          }
+
+          @Nullable
+          @Override
+          public String getEntryValue(String entryKey) {
+            return null;
+          }
+        };
+    context = CorrelationsContextUtils.withCorrelationContext(correlationContext, Context.ROOT);
+    validCarrier =
+        Collections.singletonMap(
+            HttpCorrelationContext.FIELD,
+            "userId=cdc1b3d2,serverNode=DF%2028,isProduction=false;owner=team1");
+    StringBuilder hostile = new StringBuilder();
+    while (hostile.length() < 100_000) {
+      hostile.append("k=v,");
+    }
+    hostileCarrier = Collections.singletonMap(HttpCorrelationContext.FIELD, hostile.toString());
+  }
+
+  /** Injects the same context repeatedly, as fan-out calls of one request do. */
+  @Benchmark
+  public Map<String, String> inject() {
+    carrier.clear();
+    httpCorrelationContext.inject(context, carrier, setter);
+    return carrier;
+  }
+
+  @Benchmark
+  public Context extract() {
+    return httpCorrelationContext.extract(Context.ROOT, validCarrier, getter);
+  }
+
+  /** Extracts a 100 KB header, of which at most 180 entries are parsed. */
+  @Benchmark
+  public Context extractHostile() {
+    return httpCorrelationContext.extract(Context.ROOT, hostileCarrier, getter);
+  }
+}
@@ -75,6 +75,19 @@ public class DefaultTracerBenchmarks {
     }
   }
 
+  /** Benchmark the scope lifecycle with a lookup of the current span, as instrumented code does. */
+  @Benchmark
+  @BenchmarkMode({Mode.AverageTime})
+  @Fork(1)
+  @Measurement(iterations = 15, time = 1)
+  @OutputTimeUnit(TimeUnit.NANOSECONDS)
+  @Warmup(iterations = 5, time = 1)
+  public Span measureScopeLifecycleWithGetCurrentSpan() {
+    try (io.opentelemetry.context.Scope ignored = tracer.withSpan(span)) {
+      return tracer.getCurrentSpan();
+    }
+  }
+
   @Benchmark
   @BenchmarkMode({Mode.AverageTime})
   @Fork(1)
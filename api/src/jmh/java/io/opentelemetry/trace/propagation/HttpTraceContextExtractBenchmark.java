@@ -32,7 +32,9 @@ import org.openjdk.jmh.annotations.Measurement;
 import org.openjdk.jmh.annotations.Mode;
 import org.openjdk.jmh.annotations.OperationsPerInvocation;
 import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
 import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
 import org.openjdk.jmh.annotations.State;
 import org.openjdk.jmh.annotations.Warmup;
 
@@ -40,6 +42,7 @@ import org.openjdk.jmh.annotations.Warmup;
 public class HttpTraceContextExtractBenchmark {
 
   private static final String TRACEPARENT = "traceparent";
+  private static final String TRACESTATE = "tracestate";
   private static final int COUNT = 5;
   private static final List<String> traceparentsHeaders =
       Arrays.asList(
@@ -76,6 +79,40 @@ public class HttpTraceContextExtractBenchmark {
     return result;
   }
 
+  /** Benchmark for measuring HttpTraceContext extract with a tracestate header. */
+  @Benchmark
+  @BenchmarkMode({Mode.AverageTime})
+  @Fork(1)
+  @Measurement(iterations = 15, time = 1)
+  @OutputTimeUnit(TimeUnit.NANOSECONDS)
+  @Warmup(iterations = 5, time = 1)
+  public Context measureExtractWithTraceState(TraceStateCarrier traceStateCarrier) {
+    return httpTraceContext.extract(Context.ROOT, traceStateCarrier.carrier, getter);
+  }
+
+  /** A carrier with a {@code tracestate} header of {@link #members} list-members. */
+  @State(Scope.Thread)
+  public static class TraceStateCarrier {
+    @Param({"1", "8", "32"})
+    public int members;
+
+    private final Map<String, String> carrier = new HashMap<>();
+
+    /** Fills the carrier. */
+    @Setup
+    public void setup() {
+      StringBuilder traceState = new StringBuilder();
+      for (int i = 0; i < members; i++) {
+        if (i > 0) {
+          traceState.append(',');
+        }
+        traceState.append("vendor").append(i).append('=').append("opaque-value-").append(i);
+      }
+      carrier.put(TRACEPARENT, traceparentsHeaders.get(0));
+      carrier.put(TRACESTATE, traceState.toString());
+    }
+  }
+
   private static List<Map<String, String>> getCarrierForHeader(List<String> headers) {
     List<Map<String, String>> carriers = new ArrayList<>();
     for (String header : headers) {
@@ -53,6 +53,7 @@ public class HttpTraceContextInjectBenchmark {
           createTestSpanContext("905734c59b913b4a905734c59b913b4a", "776ff807b787538a"),
           createTestSpanContext("68ec932c33b3f2ee68ec932c33b3f2ee", "68ec932c33b3f2ee"));
   private static final int COUNT = 5; // spanContexts.size()
+  private static final int FAN_OUT = 50;
   private final HttpTraceContext httpTraceContext = new HttpTraceContext();
   private final Map<String, String> carrier = new HashMap<>();
   private final Setter<Map<String, String>> setter =
@@ -63,6 +64,15 @@ public class HttpTraceContextInjectBenchmark {
         }
       };
   private final List<Context> contexts = createContexts(spanContexts);
+  private final Context fanOutContext =
+      TracingContextUtils.withSpan(
+          DefaultSpan.create(
+              SpanContext.create(
+                  TraceId.fromLowerBase16("905734c59b913b4a905734c59b913b4a", 0),
+                  SpanId.fromLowerBase16("9909983295041501", 0),
+                  TraceFlags.fromByte((byte) 1),
+                  TraceState.builder().set("foo", "bar").set("congo", "t61rcWkgMzE").build())),
+          Context.ROOT);
 
   /** Benchmark for measuring inject with default trace state and sampled trace options. */
   @Benchmark
@@ -79,6 +89,24 @@ public class HttpTraceContextInjectBenchmark {
     return carrier;
   }
 
+  /**
+   * Benchmark for measuring inject of one context, with a trace state, into the carriers of many
+   * outgoing requests.
+   */
+  @Benchmark
+  @BenchmarkMode({Mode.AverageTime})
+  @Fork(1)
+  @Measurement(iterations = 15, time = 1)
+  @OutputTimeUnit(TimeUnit.NANOSECONDS)
+  @Warmup(iterations = 5, time = 1)
+  @OperationsPerInvocation(FAN_OUT)
+  public Map<String, String> measureInjectFanOut() {
+    for (int i = 0; i < FAN_OUT; i++) {
+      httpTraceContext.inject(fanOutContext, carrier, setter);
+    }
+    return carrier;
+  }
+
   private static SpanContext createTestSpanContext(String traceId, String spanId) {
     byte sampledTraceOptionsBytes = 1;
     TraceFlags sampledTraceOptions = TraceFlags.fromByte(sampledTraceOptionsBytes);
@@ -19,6 +19,7 @@ package io.opentelemetry.common;
 import static io.opentelemetry.internal.Utils.checkArgument;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import javax.annotation.Nullable;
@@ -36,6 +37,8 @@ import javax.annotation.concurrent.Immutable;
  */
 @Immutable
 abstract class ImmutableKeyValuePairs<V> implements ReadableKeyValuePairs<V> {
+  // Sets of up to this many pairs, by far the most common, are sorted by insertion.
+  private static final int INSERTION_SORT_MAX_PAIRS = 12;
 
   List<Object> data() {
     return Collections.emptyList();
@@ -71,14 +74,40 @@ abstract class ImmutableKeyValuePairs<V> implements ReadableKeyValuePairs<V> {
     return null;
   }
 
+  /**
+   * Sorts the pairs of {@code data} by key and drops the pairs with {@code null} or empty keys and
+   * all but the first pair of duplicate keys. The returned list may be backed by {@code data},
+   * which must not be modified afterwards.
+   */
   static List<Object> sortAndFilter(Object[] data) {
     checkArgument(
         data.length % 2 == 0, "You must provide an even number of key/value pair arguments.");
 
-    quickSort(data, 0, data.length - 2);
+    if (data.length <= 2 * INSERTION_SORT_MAX_PAIRS) {
+      insertionSort(data);
+    } else {
+      quickSort(data, 0, data.length - 2);
+    }
     return dedupe(data);
   }
 
+  // Stable, so the first of duplicate keys is kept, and linear for sorted pairs.
+  private static void insertionSort(Object[] data) {
+    for (int i = 2; i < data.length; i += 2) {
+      Object key = data[i];
+      Object value = data[i + 1];
+      String sortKey = key == null ? "" : (String) key;
+      int j = i - 2;
+      while (j >= 0 && sortKey.compareTo(data[j] == null ? "" : (String) data[j]) < 0) {
+        data[j + 2] = data[j];
+        data[j + 3] = data[j + 1];
+        j -= 2;
+      }
+      data[j + 2] = key;
+      data[j + 3] = value;
+    }
+  }
+
   private static void quickSort(Object[] data, int leftIndex, int rightIndex) {
     if (leftIndex >= rightIndex) {
       return;
@@ -100,6 +129,9 @@ abstract class ImmutableKeyValuePairs<V> implements ReadableKeyValuePairs<V> {
   }
 
   private static List<Object> dedupe(Object[] data) {
+    if (!needsDedupe(data)) {
+      return Arrays.asList(data);
+    }
     List<Object> result = new ArrayList<>(data.length);
     Object previousKey = null;
 
@@ -119,6 +151,18 @@ abstract class ImmutableKeyValuePairs<V> implements ReadableKeyValuePairs<V> {
     return result;
   }
 
+  private static boolean needsDedupe(Object[] data) {
+    Object previousKey = null;
+    for (int i = 0; i < data.length; i += 2) {
+      Object key = data[i];
+      if (key == null || "".equals(key) || key.equals(previousKey)) {
+        return true;
+      }
+      previousKey = key;
+    }
+    return false;
+  }
+
   private static void swap(Object[] data, int a, int b) {
     Object keyA = data[a];
     Object valueA = data[a + 1];
@@ -17,8 +17,10 @@
 package io.opentelemetry.common;
 
 import com.google.auto.value.AutoValue;
+import com.google.auto.value.extension.memoized.Memoized;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 import javax.annotation.concurrent.Immutable;
 
 /** An immutable container for labels, which are pairs of {@link String}. */
@@ -34,6 +36,11 @@ public abstract class Labels extends ImmutableKeyValuePairs<String> {
 
     @Override
     abstract List<Object> data();
+
+    // Labels are hashed on every record of a synchronous instrument.
+    @Memoized
+    @Override
+    public abstract int hashCode();
   }
 
   /** Returns a {@link Labels} instance with no attributes. */
@@ -103,13 +110,52 @@ public abstract class Labels extends ImmutableKeyValuePairs<String> {
   }
 
   public static Labels of(String[] keyValueLabelPairs) {
-    return sortAndFilterToLabels((Object[]) keyValueLabelPairs);
+    return sortAndFilterToLabels((Object[]) keyValueLabelPairs.clone());
   }
 
   private static Labels sortAndFilterToLabels(Object... data) {
     return new AutoValue_Labels_ArrayBackedLabels(sortAndFilter(data));
   }
 
+  /**
+   * Returns a canonical {@link Labels} instance equal to this one. Instruments look up their
+   * records by {@code Labels}, and a lookup with the same instance as the one of the record skips
+   * comparing the labels, so callers that build the same {@code Labels} over and over, e.g. for
+   * each request, can intern them and record with the canonical instance.
+   *
+   * <p>The canonical instances are kept in a fixed-size table, where an instance can be replaced by
+   * a different set of labels with a colliding hash code. Interning is therefore best-effort: it
+   * never changes the result of {@link #equals(Object)}, but equal {@code Labels} interned at
+   * different times are not guaranteed to be the same instance.
+   *
+   * @return a canonical {@code Labels} instance equal to this one.
+   * @since 0.8.0
+   */
+  public Labels intern() {
+    if (isEmpty()) {
+      return EMPTY;
+    }
+    AtomicReferenceArray<Labels> table = InternTable.TABLE;
+    int hashCode = hashCode();
+    // Spread the high bits, the table is indexed with the low bits only.
+    int index = (hashCode ^ (hashCode >>> 16)) & (InternTable.SIZE - 1);
+    while (true) {
+      Labels canonical = table.get(index);
+      if (canonical != null && canonical.equals(this)) {
+        return canonical;
+      }
+      if (table.compareAndSet(index, canonical, this)) {
+        return this;
+      }
+    }
+  }
+
+  // Only initialized by the first call to intern().
+  private static final class InternTable {
+    private static final int SIZE = 4096;
+    private static final AtomicReferenceArray<Labels> TABLE = new AtomicReferenceArray<>(SIZE);
+  }
+
   /** Create a {@link Builder} pre-populated with the contents of this Labels instance. */
   public Builder toBuilder() {
     Builder builder = new Builder();
@@ -17,13 +17,16 @@
 package io.opentelemetry.correlationcontext;
 
 import com.google.auto.value.AutoValue;
+import io.opentelemetry.internal.StringUtils;
+import io.opentelemetry.internal.Utils;
 import javax.annotation.concurrent.Immutable;
 
 /**
  * {@link EntryMetadata} contains properties associated with an {@link Entry}.
  *
- * <p>For now only the property {@link EntryTtl} is defined. In future, additional properties may be
- * added to address specific situations.
+ * <p>Besides the {@link EntryTtl}, an {@code EntryMetadata} carries the opaque properties that are
+ * propagated after the value of an entry, e.g. {@code propertyKey=propertyValue} in {@code
+ * key=value;propertyKey=propertyValue}.
  *
  * @since 0.1.0
  */
@@ -41,7 +44,30 @@ public abstract class EntryMetadata {
    * @since 0.1.0
    */
   public static EntryMetadata create(EntryTtl entryTtl) {
-    return new AutoValue_EntryMetadata(entryTtl);
+    return new AutoValue_EntryMetadata(entryTtl, "");
+  }
+
+  /**
+   * Creates an {@link EntryMetadata} with the given {@link EntryTtl} and propagated properties.
+   *
+   * @param entryTtl TTL of an {@code Entry}.
+   * @param properties the properties propagated with the {@code Entry}, without the leading {@code
+   *     ';'}, or an empty {@code String} if there are none. Properties are {@code ;}-separated
+   *     {@code key} or {@code key=value} pairs whose key is a token and whose value contains no
+   *     whitespace, {@code "}, {@code ,}, {@code ;} or {@code \}, so that they cannot change the
+   *     entries of a propagated header.
+   * @return an {@code EntryMetadata}.
+   * @throws IllegalArgumentException if {@code properties} are not valid.
+   * @since 0.8.0
+   */
+  public static EntryMetadata create(EntryTtl entryTtl, String properties) {
+    Utils.checkNotNull(properties, "properties");
+    Utils.checkArgument(
+        properties.isEmpty()
+            || StringUtils.isValidEntryProperties(properties, 0, properties.length()),
+        "Invalid entry properties: %s",
+        properties);
+    return new AutoValue_EntryMetadata(entryTtl, properties);
   }
 
   /**
@@ -52,6 +78,14 @@ public abstract class EntryMetadata {
    */
   public abstract EntryTtl getEntryTtl();
 
+  /**
+   * Returns the properties propagated with the {@link Entry}, without the leading {@code ';'}.
+   *
+   * @return the properties, or an empty {@code String} if there are none.
+   * @since 0.8.0
+   */
+  public abstract String getProperties();
+
   /**
    * {@link EntryTtl} is an integer that represents number of hops an entry can propagate.
    *
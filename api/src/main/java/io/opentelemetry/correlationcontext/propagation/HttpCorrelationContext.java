@@ -0,0 +1,392 @@
+/*
+ * Copyright 2020, OpenTelemetry Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.opentelemetry.correlationcontext.propagation;
+
+import static io.opentelemetry.internal.Utils.checkNotNull;
+
+import io.grpc.Context;
+import io.opentelemetry.OpenTelemetry;
+import io.opentelemetry.context.propagation.HttpTextFormat;
+import io.opentelemetry.correlationcontext.CorrelationContext;
+import io.opentelemetry.correlationcontext.CorrelationContextManager;
+import io.opentelemetry.correlationcontext.CorrelationsContextUtils;
+import io.opentelemetry.correlationcontext.Entry;
+import io.opentelemetry.correlationcontext.EntryMetadata;
+import io.opentelemetry.correlationcontext.EntryMetadata.EntryTtl;
+import io.opentelemetry.internal.EncodedHeaderCache;
+import io.opentelemetry.internal.StringUtils;
+import io.opentelemetry.internal.TemporaryBuffers;
+import java.util.Collections;
+import java.util.List;
+import java.util.logging.Logger;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.ThreadSafe;
+
+/**
+ * Implementation of the correlation context propagation protocol, carrying the {@link
+ * CorrelationContext} of a {@code Context} in the {@code otcorrelations} header. See <a
+ * href="https://w3c.github.io/correlation-context/">w3c/correlation-context</a>.
+ *
+ * <p>The header is a comma separated list of {@code key=value} entries, each optionally followed by
+ * {@code ;}-separated properties that are kept in {@link EntryMetadata#getProperties()}. Values are
+ * percent-encoded. Properties are propagated as is, {@link EntryMetadata} only accepts properties
+ * that cannot contain the delimiters of the header.
+ *
+ * <p>Extraction enforces the limits of the specification while parsing: at most 180 entries, 4096
+ * characters per entry and 8192 characters in total. Entries past a limit are never looked at, and
+ * invalid entries are skipped without allocating, so a large or hostile header costs no more than a
+ * valid one of the maximum size. Injection applies the same limits and skips entries with {@link
+ * EntryTtl#NO_PROPAGATION}.
+ *
+ * <p>The propagator is not registered by default. To register it together with the default
+ * propagator:
+ *
+ * <pre>{@code
+ * OpenTelemetry.setPropagators(
+ *   DefaultContextPropagators
+ *     .builder()
+ *     .addHttpTextFormat(new HttpTraceContext())
+ *     .addHttpTextFormat(new HttpCorrelationContext())
+ *     .build());
+ * }</pre>
+ *
+ * @since 0.8.0
+ */
+@ThreadSafe
+public class HttpCorrelationContext implements HttpTextFormat {
+  private static final Logger logger = Logger.getLogger(HttpCorrelationContext.class.getName());
+
+  static final String FIELD = "otcorrelations";
+  private static final List<String> FIELDS = Collections.singletonList(FIELD);
+
+  static final int MAX_ENTRIES = 180;
+  static final int MAX_ENTRY_LENGTH = 4096;
+  static final int MAX_HEADER_LENGTH = 8192;
+
+  private static final char ENTRY_DELIMITER = ',';
+  private static final char KEY_VALUE_DELIMITER = '=';
+  private static final char PROPERTIES_DELIMITER = ';';
+  private static final char PERCENT = '%';
+  private static final char[] HEX_DIGITS = "0123456789ABCDEF".toCharArray();
+
+  @Nullable private final CorrelationContextManager contextManager;
+
+  // CorrelationContexts are immutable, so the header of an instance can be reused for every
+  // outgoing request made while handling one incoming request.
+  private static final EncodedHeaderCache<CorrelationContext> HEADER_CACHE =
+      new EncodedHeaderCache<CorrelationContext>() {
+        @Override
+        protected String encode(CorrelationContext correlationContext) {
+          return encodeHeader(correlationContext);
+        }
+      };
+
+  /**
+   * Creates a new {@code HttpCorrelationContext} that extracts entries with the builder of {@link
+   * OpenTelemetry#getCorrelationContextManager()}.
+   *
+   * @since 0.8.0
+   */
+  public HttpCorrelationContext() {
+    this.contextManager = null;
+  }
+
+  /**
+   * Creates a new {@code HttpCorrelationContext} that extracts entries with the builder of the
+   * given {@code CorrelationContextManager}.
+   *
+   * @param contextManager the {@code CorrelationContextManager} building extracted contexts.
+   * @throws NullPointerException if {@code contextManager} is {@code null}.
+   * @since 0.8.0
+   */
+  public HttpCorrelationContext(CorrelationContextManager contextManager) {
+    this.contextManager = checkNotNull(contextManager, "contextManager");
+  }
+
+  @Override
+  public List<String> fields() {
+    return FIELDS;
+  }
+
+  @Override
+  public <C> void inject(Context context, C carrier, Setter<C> setter) {
+    checkNotNull(context, "context");
+    checkNotNull(setter, "setter");
+
+    CorrelationContext correlationContext =
+        CorrelationsContextUtils.getCorrelationContextWithoutDefault(context);
+    if (correlationContext == null) {
+      return;
+    }
+    String header = HEADER_CACHE.get(correlationContext);
+    if (header.isEmpty()) {
+      // No need to add an empty header.
+      return;
+    }
+    setter.set(carrier, FIELD, header);
+  }
+
+  private static String encodeHeader(CorrelationContext correlationContext) {
+    StringBuilder stringBuilder = null;
+    int entries = 0;
+    for (Entry entry : correlationContext.getEntries()) {
+      EntryMetadata entryMetadata = entry.getEntryMetadata();
+      if (entryMetadata.getEntryTtl() == EntryTtl.NO_PROPAGATION || !isToken(entry.getKey())) {
+        continue;
+      }
+      if (stringBuilder == null) {
+        stringBuilder = new StringBuilder();
+      }
+      int entryStart = stringBuilder.length();
+      if (entryStart != 0) {
+        stringBuilder.append(ENTRY_DELIMITER);
+      }
+      stringBuilder.append(entry.getKey()).append(KEY_VALUE_DELIMITER);
+      appendPercentEncoded(entry.getValue(), stringBuilder);
+      if (!entryMetadata.getProperties().isEmpty()) {
+        stringBuilder.append(PROPERTIES_DELIMITER).append(entryMetadata.getProperties());
+      }
+      int entryLength = stringBuilder.length() - entryStart - (entryStart != 0 ? 1 : 0);
+      if (entryLength > MAX_ENTRY_LENGTH || stringBuilder.length() > MAX_HEADER_LENGTH) {
+        stringBuilder.setLength(entryStart);
+        continue;
+      }
+      if (++entries == MAX_ENTRIES) {
+        break;
+      }
+    }
+    return stringBuilder == null ? "" : stringBuilder.toString();
+  }
+
+  private static void appendPercentEncoded(String value, StringBuilder stringBuilder) {
+    for (int i = 0; i < value.length(); i++) {
+      char c = value.charAt(i);
+      if (isValueOctet(c) && c != PERCENT) {
+        stringBuilder.append(c);
+      } else {
+        stringBuilder.append(PERCENT).append(HEX_DIGITS[c >>> 4]).append(HEX_DIGITS[c & 0xF]);
+      }
+    }
+  }
+
+  @Override
+  public <C /*>>> extends @NonNull Object*/> Context extract(
+      Context context, C carrier, Getter<C> getter) {
+    checkNotNull(context, "context");
+    checkNotNull(carrier, "carrier");
+    checkNotNull(getter, "getter");
+
+    String header = getter.get(carrier, FIELD);
+    if (header == null || header.isEmpty()) {
+      return context;
+    }
+    CorrelationContextManager contextManager =
+        this.contextManager != null
+            ? this.contextManager
+            : OpenTelemetry.getCorrelationContextManager();
+    CorrelationContext.Builder builder = contextManager.contextBuilder().setNoParent();
+    if (!extractEntries(header, builder)) {
+      return context;
+    }
+    return CorrelationsContextUtils.withCorrelationContext(builder.build(), context);
+  }
+
+  // Adds the valid entries of the header to the builder, returns whether there were any.
+  private static boolean extractEntries(String header, CorrelationContext.Builder builder) {
+    // Entries crossing MAX_HEADER_LENGTH are dropped, so nothing past it is ever scanned.
+    int headerEnd = Math.min(header.length(), MAX_HEADER_LENGTH);
+    int entries = 0;
+    int entryStart = 0;
+    while (entryStart < headerEnd && entries < MAX_ENTRIES) {
+      int entryEnd = indexOf(header, ENTRY_DELIMITER, entryStart, headerEnd);
+      if (entryEnd == -1) {
+        if (headerEnd < header.length()) {
+          logger.fine("Correlation context header is too long, dropping the trailing entries.");
+          break;
+        }
+        entryEnd = headerEnd;
+      }
+      int nextEntryStart = entryEnd + 1;
+      if (entryEnd - entryStart > MAX_ENTRY_LENGTH) {
+        logger.fine("Correlation context entry is too long, skipping it.");
+      } else if (extractEntry(header, entryStart, entryEnd, builder)) {
+        entries++;
+      }
+      entryStart = nextEntryStart;
+    }
+    if (entries == MAX_ENTRIES && entryStart < header.length()) {
+      logger.fine("Correlation context header has too many entries, dropping the trailing ones.");
+    }
+    return entries != 0;
+  }
+
+  private static boolean extractEntry(
+      String header, int entryStart, int entryEnd, CorrelationContext.Builder builder) {
+    entryStart = skipLeadingWhitespace(header, entryStart, entryEnd);
+    entryEnd = skipTrailingWhitespace(header, entryStart, entryEnd);
+    if (entryStart == entryEnd) {
+      // Empty entries are allowed and ignored.
+      return false;
+    }
+    int keyValueDelimiter = indexOf(header, KEY_VALUE_DELIMITER, entryStart, entryEnd);
+    if (keyValueDelimiter == -1) {
+      logger.fine("Correlation context entry has no value, skipping it.");
+      return false;
+    }
+    int keyEnd = skipTrailingWhitespace(header, entryStart, keyValueDelimiter);
+    int propertiesDelimiter = indexOf(header, PROPERTIES_DELIMITER, entryStart, entryEnd);
+    if (propertiesDelimiter != -1 && propertiesDelimiter < keyValueDelimiter) {
+      logger.fine("Correlation context entry has no value, skipping it.");
+      return false;
+    }
+    int valueEnd = propertiesDelimiter == -1 ? entryEnd : propertiesDelimiter;
+    int valueStart = skipLeadingWhitespace(header, keyValueDelimiter + 1, valueEnd);
+    valueEnd = skipTrailingWhitespace(header, valueStart, valueEnd);
+    if (keyEnd - entryStart > Entry.MAX_KEY_LENGTH
+        || !isToken(header, entryStart, keyEnd)
+        || !isValidValue(header, valueStart, valueEnd)) {
+      logger.fine("Invalid correlation context entry, skipping it.");
+      return false;
+    }
+    String value = decodeValue(header, valueStart, valueEnd);
+    if (value == null) {
+      logger.fine("Invalid correlation context entry value, skipping it.");
+      return false;
+    }
+    EntryMetadata entryMetadata = Entry.METADATA_UNLIMITED_PROPAGATION;
+    if (propertiesDelimiter != -1) {
+      int propertiesStart = skipLeadingWhitespace(header, propertiesDelimiter + 1, entryEnd);
+      if (propertiesStart < entryEnd) {
+        if (!StringUtils.isValidEntryProperties(header, propertiesStart, entryEnd)) {
+          logger.fine("Invalid correlation context entry properties, skipping them.");
+        } else {
+          entryMetadata =
+              EntryMetadata.create(
+                  EntryTtl.UNLIMITED_PROPAGATION, header.substring(propertiesStart, entryEnd));
+        }
+      }
+    }
+    builder.put(header.substring(entryStart, keyEnd), value, entryMetadata);
+    return true;
+  }
+
+  // Returns the percent-decoded value, or null if the result would not be a valid entry value.
+  // Called only after isValidValue, so every '%' is followed by two hex digits.
+  @Nullable
+  private static String decodeValue(String header, int start, int end) {
+    if (indexOf(header, PERCENT, start, end) == -1) {
+      return end - start > Entry.MAX_VALUE_LENGTH ? null : header.substring(start, end);
+    }
+    char[] chars = TemporaryBuffers.chars(end - start);
+    int length = 0;
+    for (int i = start; i < end; i++) {
+      char c = header.charAt(i);
+      if (c == PERCENT) {
+        c =
+            (char)
+                (Character.digit(header.charAt(i + 1), 16) << 4
+                    | Character.digit(header.charAt(i + 2), 16));
+        if (!isPrintable(c)) {
+          return null;
+        }
+        i += 2;
+      }
+      chars[length++] = c;
+    }
+    return length > Entry.MAX_VALUE_LENGTH ? null : new String(chars, 0, length);
+  }
+
+  // Every character is printable and every '%' starts a percent-encoded octet.
+  private static boolean isValidValue(String header, int start, int end) {
+    for (int i = start; i < end; i++) {
+      char c = header.charAt(i);
+      if (c == PERCENT) {
+        if (i + 2 >= end
+            || Character.digit(header.charAt(i + 1), 16) == -1
+            || Character.digit(header.charAt(i + 2), 16) == -1) {
+          return false;
+        }
+        i += 2;
+      } else if (!isPrintable(c)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static boolean isToken(String key) {
+    return isToken(key, 0, key.length());
+  }
+
+  // RFC 7230 token.
+  private static boolean isToken(String s, int start, int end) {
+    if (start == end) {
+      return false;
+    }
+    for (int i = start; i < end; i++) {
+      char c = s.charAt(i);
+      if (!((c >= 'a' && c <= 'z')
+          || (c >= 'A' && c <= 'Z')
+          || (c >= '0' && c <= '9')
+          || "!#$%&'*+-.^_`|~".indexOf(c) != -1)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  // Characters that are not percent-encoded in values.
+  private static boolean isValueOctet(char c) {
+    return c > ' '
+        && c < 0x7F
+        && c != '"'
+        && c != ENTRY_DELIMITER
+        && c != PROPERTIES_DELIMITER
+        && c != '\\';
+  }
+
+  private static boolean isPrintable(char c) {
+    return c >= ' ' && c < 0x7F;
+  }
+
+  private static int indexOf(String s, char c, int start, int end) {
+    for (int i = start; i < end; i++) {
+      if (s.charAt(i) == c) {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  private static int skipLeadingWhitespace(String s, int start, int end) {
+    while (start < end && isOptionalWhitespace(s.charAt(start))) {
+      start++;
+    }
+    return start;
+  }
+
+  private static int skipTrailingWhitespace(String s, int start, int end) {
+    while (end > start && isOptionalWhitespace(s.charAt(end - 1))) {
+      end--;
+    }
+    return end;
+  }
+
+  private static boolean isOptionalWhitespace(char c) {
+    return c == ' ' || c == '\t';
+  }
+}
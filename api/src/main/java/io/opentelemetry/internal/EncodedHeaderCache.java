@@ -0,0 +1,74 @@
+/*
+ * Copyright 2020, OpenTelemetry Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.opentelemetry.internal;
+
+import javax.annotation.concurrent.ThreadSafe;
+
+/**
+ * A small cache of encoded propagation headers, owned by a propagator and keyed by the identity of
+ * the immutable object the header is encoded from. Injecting the same context into the carriers of
+ * many outgoing requests then encodes its header only once.
+ *
+ * <p>The cache is direct-mapped: each key hashes to one of a fixed number of slots, and a miss
+ * replaces the slot. Concurrent requests with different contexts mostly use different slots, and at
+ * worst encode their header again. The cache holds on to at most {@link #SLOTS} keys.
+ *
+ * @param <K> the type of the object the header is encoded from.
+ */
+@ThreadSafe
+public abstract class EncodedHeaderCache<K> {
+  static final int SLOTS = 64;
+
+  // Slots are written without synchronization; entries are immutable, so a reader sees either a
+  // complete entry or an older one.
+  private final Entry[] entries = new Entry[SLOTS];
+
+  /**
+   * Returns the header encoded from {@code key}, encoding it if it is not cached.
+   *
+   * @param key the object to encode, compared by identity.
+   * @return the header encoded from {@code key}.
+   */
+  public final String get(K key) {
+    int slot = System.identityHashCode(key) & (SLOTS - 1);
+    Entry entry = entries[slot];
+    if (entry != null && entry.key == key) {
+      return entry.header;
+    }
+    String header = encode(key);
+    entries[slot] = new Entry(key, header);
+    return header;
+  }
+
+  /**
+   * Encodes the header for {@code key}.
+   *
+   * @param key the object to encode.
+   * @return the encoded header.
+   */
+  protected abstract String encode(K key);
+
+  private static final class Entry {
+    private final Object key;
+    private final String header;
+
+    private Entry(Object key, String header) {
+      this.key = key;
+      this.header = header;
+    }
+  }
+}
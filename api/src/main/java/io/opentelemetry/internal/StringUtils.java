@@ -46,6 +46,65 @@ public final class StringUtils {
     return ch >= ' ' && ch <= '~';
   }
 
+  /**
+   * Determines whether the characters of {@code str} from {@code start} to {@code end} are a valid
+   * list of correlation context entry properties: {@code ;}-separated {@code key} or {@code
+   * key=value} properties, where the key is an RFC 7230 token and the value has no whitespace,
+   * {@code "}, {@code ,}, {@code ;} or {@code \}, optionally surrounded by spaces or tabs.
+   *
+   * @param str the {@code String} holding the properties.
+   * @param start the index of the first character of the properties.
+   * @param end the index after the last character of the properties.
+   * @return whether the properties are valid.
+   */
+  public static boolean isValidEntryProperties(String str, int start, int end) {
+    int i = start;
+    while (true) {
+      i = skipOptionalWhitespace(str, i, end);
+      int keyStart = i;
+      while (i < end && isTokenChar(str.charAt(i))) {
+        i++;
+      }
+      if (i == keyStart) {
+        return false;
+      }
+      i = skipOptionalWhitespace(str, i, end);
+      if (i < end && str.charAt(i) == '=') {
+        i = skipOptionalWhitespace(str, i + 1, end);
+        while (i < end && isEntryPropertyValueChar(str.charAt(i))) {
+          i++;
+        }
+        i = skipOptionalWhitespace(str, i, end);
+      }
+      if (i == end) {
+        return true;
+      }
+      if (str.charAt(i) != ';') {
+        return false;
+      }
+      i++;
+    }
+  }
+
+  // RFC 7230 tchar.
+  private static boolean isTokenChar(char ch) {
+    return (ch >= 'a' && ch <= 'z')
+        || (ch >= 'A' && ch <= 'Z')
+        || (ch >= '0' && ch <= '9')
+        || "!#$%&'*+-.^_`|~".indexOf(ch) != -1;
+  }
+
+  private static boolean isEntryPropertyValueChar(char ch) {
+    return ch > ' ' && ch <= '~' && ch != '"' && ch != ',' && ch != ';' && ch != '\\';
+  }
+
+  private static int skipOptionalWhitespace(String str, int start, int end) {
+    while (start < end && (str.charAt(start) == ' ' || str.charAt(start) == '\t')) {
+      start++;
+    }
+    return start;
+  }
+
   /**
    * Determines whether the metric name contains a valid metric name.
    *
@@ -0,0 +1,129 @@
+/*
+ * Copyright 2020, OpenTelemetry Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.opentelemetry.metrics;
+
+import io.opentelemetry.common.Labels;
+import io.opentelemetry.metrics.AsynchronousInstrument.DoubleResult;
+import io.opentelemetry.metrics.AsynchronousInstrument.LongResult;
+import javax.annotation.concurrent.ThreadSafe;
+
+/**
+ * Reports the values of several {@link AsynchronousInstrument}s and label sets from a single
+ * callback, e.g. the statistics of every thread pool of an application read at once.
+ *
+ * <p>The values are reported through observations bound once to an instrument and a set of labels,
+ * and reused by every callback:
+ *
+ * <pre>{@code
+ * BatchObserver batchObserver = meter.newBatchObserver("thread_pools");
+ * final LongObservation ioActive =
+ *     batchObserver.bindLong(activeThreadsObserver, Labels.of("pool", "io"));
+ * final LongObservation ioQueued =
+ *     batchObserver.bindLong(queuedTasksObserver, Labels.of("pool", "io"));
+ * batchObserver.setCallback(
+ *     new BatchObserver.Callback() {
+ *       public void update() {
+ *         ioActive.observe(ioPool.getActiveCount());
+ *         ioQueued.observe(ioPool.getQueue().size());
+ *       }
+ *     });
+ * }</pre>
+ *
+ * <p>The callback is called once per collection, before the instruments are collected. An
+ * observation not observed by the callback does not update its series in that collection.
+ *
+ * @since 0.8.0
+ */
+@ThreadSafe
+public interface BatchObserver {
+  /**
+   * Returns an observation reporting {@code long} values of {@code instrument} with {@code labels}.
+   *
+   * @param instrument the asynchronous instrument of the observed values, created by the same
+   *     {@code Meter} as this {@code BatchObserver}.
+   * @param labels the set of labels of the observed values.
+   * @return an observation to call from the callback.
+   * @since 0.8.0
+   */
+  LongObservation bindLong(AsynchronousInstrument<? extends LongResult> instrument, Labels labels);
+
+  /**
+   * Returns an observation reporting {@code double} values of {@code instrument} with {@code
+   * labels}.
+   *
+   * @param instrument the asynchronous instrument of the observed values, created by the same
+   *     {@code Meter} as this {@code BatchObserver}.
+   * @param labels the set of labels of the observed values.
+   * @return an observation to call from the callback.
+   * @since 0.8.0
+   */
+  DoubleObservation bindDouble(
+      AsynchronousInstrument<? extends DoubleResult> instrument, Labels labels);
+
+  /**
+   * Sets the callback that observes the values of the bound observations. Replaces the previous
+   * callback, if any.
+   *
+   * @param callback the callback called once per collection.
+   * @since 0.8.0
+   */
+  void setCallback(Callback callback);
+
+  /**
+   * The callback of a {@code BatchObserver}.
+   *
+   * @since 0.8.0
+   */
+  interface Callback {
+    /** Observes the values of the bound observations. */
+    void update();
+  }
+
+  /**
+   * An observation of {@code long} values bound to an instrument and a set of labels.
+   *
+   * @since 0.8.0
+   */
+  interface LongObservation {
+    /**
+     * Observes {@code value} for the current collection.
+     *
+     * @param value the observed value.
+     */
+    void observe(long value);
+
+    /** Stops reporting this observation. */
+    void unbind();
+  }
+
+  /**
+   * An observation of {@code double} values bound to an instrument and a set of labels.
+   *
+   * @since 0.8.0
+   */
+  interface DoubleObservation {
+    /**
+     * Observes {@code value} for the current collection.
+     *
+     * @param value the observed value.
+     */
+    void observe(double value);
+
+    /** Stops reporting this observation. */
+    void unbind();
+  }
+}
@@ -138,6 +138,12 @@ public final class DefaultMeter implements Meter {
     return NoopBatchRecorder.INSTANCE;
   }
 
+  @Override
+  public BatchObserver newBatchObserver(String name) {
+    Utils.checkNotNull(name, "name");
+    return NoopBatchObserver.INSTANCE;
+  }
+
   private DefaultMeter() {}
 
   /** No-op implementation of {@link DoubleCounter} interface. */
@@ -606,6 +612,47 @@ public final class DefaultMeter implements Meter {
     public void record() {}
   }
 
+  private enum NoopBatchObserver implements BatchObserver {
+    INSTANCE;
+
+    @Override
+    public LongObservation bindLong(
+        AsynchronousInstrument<? extends AsynchronousInstrument.LongResult> instrument,
+        Labels labels) {
+      Utils.checkNotNull(instrument, "instrument");
+      Utils.checkNotNull(labels, "labels");
+      return NoopObservation.INSTANCE;
+    }
+
+    @Override
+    public DoubleObservation bindDouble(
+        AsynchronousInstrument<? extends AsynchronousInstrument.DoubleResult> instrument,
+        Labels labels) {
+      Utils.checkNotNull(instrument, "instrument");
+      Utils.checkNotNull(labels, "labels");
+      return NoopObservation.INSTANCE;
+    }
+
+    @Override
+    public void setCallback(Callback callback) {
+      Utils.checkNotNull(callback, "callback");
+    }
+  }
+
+  private enum NoopObservation
+      implements BatchObserver.LongObservation, BatchObserver.DoubleObservation {
+    INSTANCE;
+
+    @Override
+    public void observe(long value) {}
+
+    @Override
+    public void observe(double value) {}
+
+    @Override
+    public void unbind() {}
+  }
+
   private abstract static class NoopAbstractInstrumentBuilder<
           B extends NoopAbstractInstrumentBuilder<B>>
       implements Instrument.Builder {
@@ -202,4 +202,14 @@ public interface Meter {
    * @since 0.1.0
    */
   BatchRecorder newBatchRecorder(String... keyValuePairs);
+
+  /**
+   * Returns a new {@link BatchObserver} that can be used to report the values of several
+   * asynchronous instruments of this {@code Meter} from a single callback.
+   *
+   * @param name the name of the {@code BatchObserver}, used in diagnostics.
+   * @return a new {@code BatchObserver}.
+   * @since 0.8.0
+   */
+  BatchObserver newBatchObserver(String name);
 }
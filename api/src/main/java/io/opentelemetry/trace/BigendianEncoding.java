@@ -99,14 +99,18 @@ final class BigendianEncoding {
    */
   static long longFromBase16String(CharSequence chars, int offset) {
     Utils.checkArgument(chars.length() >= offset + LONG_BASE16, "chars too small");
-    return (decodeByte(chars.charAt(offset), chars.charAt(offset + 1)) & 0xFFL) << 56
-        | (decodeByte(chars.charAt(offset + 2), chars.charAt(offset + 3)) & 0xFFL) << 48
-        | (decodeByte(chars.charAt(offset + 4), chars.charAt(offset + 5)) & 0xFFL) << 40
-        | (decodeByte(chars.charAt(offset + 6), chars.charAt(offset + 7)) & 0xFFL) << 32
-        | (decodeByte(chars.charAt(offset + 8), chars.charAt(offset + 9)) & 0xFFL) << 24
-        | (decodeByte(chars.charAt(offset + 10), chars.charAt(offset + 11)) & 0xFFL) << 16
-        | (decodeByte(chars.charAt(offset + 12), chars.charAt(offset + 13)) & 0xFFL) << 8
-        | (decodeByte(chars.charAt(offset + 14), chars.charAt(offset + 15)) & 0xFFL);
+    long result = 0;
+    // Invalid characters decode to -1, so a single check after the loop is enough.
+    int invalid = 0;
+    for (int i = offset; i < offset + LONG_BASE16; i++) {
+      int digit = decodeDigit(chars.charAt(i));
+      invalid |= digit;
+      result = result << 4 | digit;
+    }
+    if (invalid < 0) {
+      throw invalidCharacter(chars, offset);
+    }
+    return result;
   }
 
   /**
@@ -153,10 +157,25 @@ final class BigendianEncoding {
   }
 
   private static byte decodeByte(char hi, char lo) {
-    Utils.checkArgument(lo < ASCII_CHARACTERS && DECODING[lo] != -1, "invalid character " + lo);
-    Utils.checkArgument(hi < ASCII_CHARACTERS && DECODING[hi] != -1, "invalid character " + hi);
-    int decoded = DECODING[hi] << 4 | DECODING[lo];
-    return (byte) decoded;
+    int decodedHi = decodeDigit(hi);
+    int decodedLo = decodeDigit(lo);
+    if ((decodedHi | decodedLo) < 0) {
+      throw new IllegalArgumentException("invalid character " + (decodedLo < 0 ? lo : hi));
+    }
+    return (byte) (decodedHi << 4 | decodedLo);
+  }
+
+  private static int decodeDigit(char c) {
+    return c < ASCII_CHARACTERS ? DECODING[c] : -1;
+  }
+
+  private static IllegalArgumentException invalidCharacter(CharSequence chars, int offset) {
+    for (int i = offset; i < offset + LONG_BASE16; i++) {
+      if (decodeDigit(chars.charAt(i)) < 0) {
+        return new IllegalArgumentException("invalid character " + chars.charAt(i));
+      }
+    }
+    return new IllegalArgumentException("invalid character");
   }
 
   private static void byteToBase16(byte value, char[] dest, int destOffset) {
@@ -37,6 +37,9 @@ public final class SpanId implements Comparable<SpanId> {
 
   // The internal representation of the SpanId.
   private final long id;
+  // Lazily computed lowercase base16 encoding. Like String.hashCode, racing threads at worst both
+  // compute the same immutable value.
+  @Nullable private String lowerBase16;
 
   /**
    * Constructs a {@code SpanId} whose representation is specified by a long value.
@@ -171,9 +174,14 @@ public final class SpanId implements Comparable<SpanId> {
    * @since 0.1.0
    */
   public String toLowerBase16() {
-    char[] chars = new char[BASE16_SIZE];
-    copyLowerBase16To(chars, 0);
-    return new String(chars);
+    String lowerBase16 = this.lowerBase16;
+    if (lowerBase16 == null) {
+      char[] chars = new char[BASE16_SIZE];
+      copyLowerBase16To(chars, 0);
+      lowerBase16 = new String(chars);
+      this.lowerBase16 = lowerBase16;
+    }
+    return lowerBase16;
   }
 
   @Override
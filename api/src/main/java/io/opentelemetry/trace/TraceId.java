@@ -38,6 +38,9 @@ public final class TraceId implements Comparable<TraceId> {
   // The internal representation of the TraceId.
   private final long idHi;
   private final long idLo;
+  // Lazily computed lowercase base16 encoding. Like String.hashCode, racing threads at worst both
+  // compute the same immutable value.
+  @Nullable private String lowerBase16;
 
   /**
    * Constructs a {@code TraceId} whose representation is specified by two long values representing
@@ -183,9 +186,14 @@ public final class TraceId implements Comparable<TraceId> {
    * @since 0.1.0
    */
   public String toLowerBase16() {
-    char[] chars = new char[BASE16_SIZE];
-    copyLowerBase16To(chars, 0);
-    return new String(chars);
+    String lowerBase16 = this.lowerBase16;
+    if (lowerBase16 == null) {
+      char[] chars = new char[BASE16_SIZE];
+      copyLowerBase16To(chars, 0);
+      lowerBase16 = new String(chars);
+      this.lowerBase16 = lowerBase16;
+    }
+    return lowerBase16;
   }
 
   @Override
@@ -19,6 +19,7 @@ package io.opentelemetry.trace;
 import com.google.auto.value.AutoValue;
 import io.opentelemetry.internal.Utils;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import javax.annotation.Nullable;
@@ -28,7 +29,7 @@ import javax.annotation.concurrent.Immutable;
  * Carries tracing-system specific context in a list of key-value pairs. TraceState allows different
  * vendors propagate additional information and inter-operate with their legacy Id formats.
  *
- * <p>Implementation is optimized for a small list of key-value pairs.
+ * <p>Implementation is optimized for a small list of key-value pairs, which are stored in an array.
  *
  * <p>Key is opaque string up to 256 characters printable. It MUST begin with a lowercase letter,
  * and can only contain lowercase letters a-z, digits 0-9, underscores _, dashes -, asterisks *, and
@@ -111,16 +112,18 @@ public abstract class TraceState {
    */
   public static final class Builder {
     private final TraceState parent;
-    @Nullable private ArrayList<Entry> entries;
+    // The entries in reverse order, the most recently set entry is the last one. This makes adding
+    // an entry to the front of the list an append.
+    @Nullable private ArrayList<Entry> reversedEntries;
 
     // Needs to be in this class to avoid initialization deadlock because super class depends on
     // subclass (the auto-value generate class).
-    private static final TraceState EMPTY = create(Collections.<Entry>emptyList());
+    private static final TraceState EMPTY = create(new Entry[0]);
 
     private Builder(TraceState parent) {
       Utils.checkNotNull(parent, "parent");
       this.parent = parent;
-      this.entries = null;
+      this.reversedEntries = null;
     }
 
     /**
@@ -135,19 +138,9 @@ public abstract class TraceState {
     public Builder set(String key, String value) {
       // Initially create the Entry to validate input.
       Entry entry = Entry.create(key, value);
-      if (entries == null) {
-        // Copy entries from the parent.
-        entries = new ArrayList<>(parent.getEntries());
-      }
-      for (int i = 0; i < entries.size(); i++) {
-        if (entries.get(i).getKey().equals(entry.getKey())) {
-          entries.remove(i);
-          // Exit now because the entries list cannot contain duplicates.
-          break;
-        }
-      }
-      // Inserts the element at the front of this list.
-      entries.add(0, entry);
+      ArrayList<Entry> reversedEntries = getReversedEntries();
+      removeEntry(reversedEntries, entry.getKey());
+      reversedEntries.add(entry);
       return this;
     }
 
@@ -160,17 +153,7 @@ public abstract class TraceState {
      */
     public Builder remove(String key) {
       Utils.checkNotNull(key, "key");
-      if (entries == null) {
-        // Copy entries from the parent.
-        entries = new ArrayList<>(parent.getEntries());
-      }
-      for (int i = 0; i < entries.size(); i++) {
-        if (entries.get(i).getKey().equals(key)) {
-          entries.remove(i);
-          // Exit now because the entries list cannot contain duplicates.
-          break;
-        }
-      }
+      removeEntry(getReversedEntries(), key);
       return this;
     }
 
@@ -182,11 +165,39 @@ public abstract class TraceState {
      * @since 0.1.0
      */
     public TraceState build() {
-      if (entries == null) {
+      if (reversedEntries == null) {
         return parent;
       }
+      int size = reversedEntries.size();
+      Entry[] entries = new Entry[size];
+      for (int i = 0; i < size; i++) {
+        entries[i] = reversedEntries.get(size - 1 - i);
+      }
       return TraceState.create(entries);
     }
+
+    private ArrayList<Entry> getReversedEntries() {
+      if (reversedEntries == null) {
+        // Copy entries from the parent.
+        List<Entry> parentEntries = parent.getEntries();
+        int size = parentEntries.size();
+        reversedEntries = new ArrayList<>(size + 1);
+        for (int i = size - 1; i >= 0; i--) {
+          reversedEntries.add(parentEntries.get(i));
+        }
+      }
+      return reversedEntries;
+    }
+
+    private static void removeEntry(ArrayList<Entry> entries, String key) {
+      for (int i = 0; i < entries.size(); i++) {
+        if (entries.get(i).getKey().equals(key)) {
+          entries.remove(i);
+          // Exit now because the entries list cannot contain duplicates.
+          return;
+        }
+      }
+    }
   }
 
   /**
@@ -273,9 +284,9 @@ public abstract class TraceState {
     return true;
   }
 
-  private static TraceState create(List<Entry> entries) {
-    Utils.checkState(entries.size() <= MAX_KEY_VALUE_PAIRS, "Invalid size");
-    return new AutoValue_TraceState(Collections.unmodifiableList(entries));
+  private static TraceState create(Entry[] entries) {
+    Utils.checkState(entries.length <= MAX_KEY_VALUE_PAIRS, "Invalid size");
+    return new AutoValue_TraceState(Collections.unmodifiableList(Arrays.asList(entries)));
   }
 
   TraceState() {}
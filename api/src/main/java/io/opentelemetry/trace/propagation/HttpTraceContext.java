@@ -21,6 +21,7 @@ import static io.opentelemetry.internal.Utils.checkNotNull;
 
 import io.grpc.Context;
 import io.opentelemetry.context.propagation.HttpTextFormat;
+import io.opentelemetry.internal.EncodedHeaderCache;
 import io.opentelemetry.internal.TemporaryBuffers;
 import io.opentelemetry.trace.DefaultSpan;
 import io.opentelemetry.trace.Span;
@@ -34,7 +35,6 @@ import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.logging.Logger;
-import java.util.regex.Pattern;
 import javax.annotation.concurrent.Immutable;
 
 /**
@@ -68,8 +68,21 @@ public class HttpTraceContext implements HttpTextFormat {
   private static final int TRACESTATE_MAX_MEMBERS = 32;
   private static final char TRACESTATE_KEY_VALUE_DELIMITER = '=';
   private static final char TRACESTATE_ENTRY_DELIMITER = ',';
-  private static final Pattern TRACESTATE_ENTRY_DELIMITER_SPLIT_PATTERN =
-      Pattern.compile("[ \t]*" + TRACESTATE_ENTRY_DELIMITER + "[ \t]*");
+  private static final EncodedHeaderCache<SpanContext> TRACE_PARENT_CACHE =
+      new EncodedHeaderCache<SpanContext>() {
+        @Override
+        protected String encode(SpanContext spanContext) {
+          return encodeTraceParent(spanContext);
+        }
+      };
+  // Child spans share the TraceState of their parent, so tracestate is cached by TraceState.
+  private static final EncodedHeaderCache<TraceState> TRACE_STATE_CACHE =
+      new EncodedHeaderCache<TraceState>() {
+        @Override
+        protected String encode(TraceState traceState) {
+          return encodeTraceState(traceState);
+        }
+      };
 
   @Override
   public List<String> fields() {
@@ -90,6 +103,16 @@ public class HttpTraceContext implements HttpTextFormat {
   }
 
   private static <C> void injectImpl(SpanContext spanContext, C carrier, Setter<C> setter) {
+    setter.set(carrier, TRACE_PARENT, TRACE_PARENT_CACHE.get(spanContext));
+    TraceState traceState = spanContext.getTraceState();
+    if (traceState.getEntries().isEmpty()) {
+      // No need to add an empty "tracestate" header.
+      return;
+    }
+    setter.set(carrier, TRACE_STATE, TRACE_STATE_CACHE.get(traceState));
+  }
+
+  private static String encodeTraceParent(SpanContext spanContext) {
     char[] chars = TemporaryBuffers.chars(TRACEPARENT_HEADER_SIZE);
     chars[0] = VERSION.charAt(0);
     chars[1] = VERSION.charAt(1);
@@ -99,14 +122,12 @@ public class HttpTraceContext implements HttpTextFormat {
     spanContext.getSpanId().copyLowerBase16To(chars, SPAN_ID_OFFSET);
     chars[TRACE_OPTION_OFFSET - 1] = TRACEPARENT_DELIMITER;
     spanContext.getTraceFlags().copyLowerBase16To(chars, TRACE_OPTION_OFFSET);
-    setter.set(carrier, TRACE_PARENT, new String(chars, 0, TRACEPARENT_HEADER_SIZE));
-    List<TraceState.Entry> entries = spanContext.getTraceState().getEntries();
-    if (entries.isEmpty()) {
-      // No need to add an empty "tracestate" header.
-      return;
-    }
+    return new String(chars, 0, TRACEPARENT_HEADER_SIZE);
+  }
+
+  private static String encodeTraceState(TraceState traceState) {
     StringBuilder stringBuilder = new StringBuilder(TRACESTATE_MAX_SIZE);
-    for (TraceState.Entry entry : entries) {
+    for (TraceState.Entry entry : traceState.getEntries()) {
       if (stringBuilder.length() != 0) {
         stringBuilder.append(TRACESTATE_ENTRY_DELIMITER);
       }
@@ -115,7 +136,7 @@ public class HttpTraceContext implements HttpTextFormat {
           .append(TRACESTATE_KEY_VALUE_DELIMITER)
           .append(entry.getValue());
     }
-    setter.set(carrier, TRACE_STATE, stringBuilder.toString());
+    return stringBuilder.toString();
   }
 
   @Override
@@ -139,68 +160,98 @@ public class HttpTraceContext implements HttpTextFormat {
       return SpanContext.getInvalid();
     }
 
-    SpanContext contextFromParentHeader = extractContextFromTraceParent(traceParent);
-    if (!contextFromParentHeader.isValid()) {
-      return contextFromParentHeader;
-    }
-
-    String traceStateHeader = getter.get(carrier, TRACE_STATE);
-    if (traceStateHeader == null || traceStateHeader.isEmpty()) {
-      return contextFromParentHeader;
-    }
-
-    try {
-      TraceState traceState = extractTraceState(traceStateHeader);
-      return SpanContext.createFromRemoteParent(
-          contextFromParentHeader.getTraceId(),
-          contextFromParentHeader.getSpanId(),
-          contextFromParentHeader.getTraceFlags(),
-          traceState);
-    } catch (IllegalArgumentException e) {
-      logger.info("Unparseable tracestate header. Returning span context without state.");
-      return contextFromParentHeader;
-    }
-  }
-
-  private static SpanContext extractContextFromTraceParent(String traceparent) {
-    // TODO(bdrutu): Do we need to verify that version is hex and that
-    // for the version the length is the expected one?
-    boolean isValid =
-        (traceparent.length() == TRACEPARENT_HEADER_SIZE
-                || (traceparent.length() > TRACEPARENT_HEADER_SIZE
-                    && traceparent.charAt(TRACEPARENT_HEADER_SIZE) == TRACEPARENT_DELIMITER))
-            && traceparent.charAt(TRACE_ID_OFFSET - 1) == TRACEPARENT_DELIMITER
-            && traceparent.charAt(SPAN_ID_OFFSET - 1) == TRACEPARENT_DELIMITER
-            && traceparent.charAt(TRACE_OPTION_OFFSET - 1) == TRACEPARENT_DELIMITER;
-    if (!isValid) {
+    // The fixed layout is validated up front so that hex decoding below only fails on invalid
+    // characters, each id is then decoded straight into its long representation.
+    if (!isTraceParentLayoutValid(traceParent)) {
       logger.info("Unparseable traceparent header. Returning INVALID span context.");
       return SpanContext.getInvalid();
     }
-
+    TraceId traceId;
+    SpanId spanId;
+    TraceFlags traceFlags;
     try {
-      TraceId traceId = TraceId.fromLowerBase16(traceparent, TRACE_ID_OFFSET);
-      SpanId spanId = SpanId.fromLowerBase16(traceparent, SPAN_ID_OFFSET);
-      TraceFlags traceFlags = TraceFlags.fromLowerBase16(traceparent, TRACE_OPTION_OFFSET);
-      return SpanContext.createFromRemoteParent(traceId, spanId, traceFlags, TRACE_STATE_DEFAULT);
+      traceId = TraceId.fromLowerBase16(traceParent, TRACE_ID_OFFSET);
+      spanId = SpanId.fromLowerBase16(traceParent, SPAN_ID_OFFSET);
+      traceFlags = TraceFlags.fromLowerBase16(traceParent, TRACE_OPTION_OFFSET);
     } catch (IllegalArgumentException e) {
       logger.info("Unparseable traceparent header. Returning INVALID span context.");
       return SpanContext.getInvalid();
     }
+    if (!traceId.isValid() || !spanId.isValid()) {
+      return SpanContext.getInvalid();
+    }
+
+    TraceState traceState = TRACE_STATE_DEFAULT;
+    String traceStateHeader = getter.get(carrier, TRACE_STATE);
+    if (traceStateHeader != null && !traceStateHeader.isEmpty()) {
+      try {
+        traceState = extractTraceState(traceStateHeader);
+      } catch (IllegalArgumentException e) {
+        logger.info("Unparseable tracestate header. Returning span context without state.");
+      }
+    }
+    return SpanContext.createFromRemoteParent(traceId, spanId, traceFlags, traceState);
+  }
+
+  private static boolean isTraceParentLayoutValid(String traceparent) {
+    // TODO(bdrutu): Do we need to verify that version is hex and that
+    // for the version the length is the expected one?
+    return (traceparent.length() == TRACEPARENT_HEADER_SIZE
+            || (traceparent.length() > TRACEPARENT_HEADER_SIZE
+                && traceparent.charAt(TRACEPARENT_HEADER_SIZE) == TRACEPARENT_DELIMITER))
+        && traceparent.charAt(TRACE_ID_OFFSET - 1) == TRACEPARENT_DELIMITER
+        && traceparent.charAt(SPAN_ID_OFFSET - 1) == TRACEPARENT_DELIMITER
+        && traceparent.charAt(TRACE_OPTION_OFFSET - 1) == TRACEPARENT_DELIMITER;
   }
 
   private static TraceState extractTraceState(String traceStateHeader) {
+    // Every list-member has exactly one key-value delimiter, so counting them bounds the number of
+    // members before anything is allocated.
+    int maxMembers = 0;
+    for (int i = traceStateHeader.indexOf(TRACESTATE_KEY_VALUE_DELIMITER);
+        i != -1;
+        i = traceStateHeader.indexOf(TRACESTATE_KEY_VALUE_DELIMITER, i + 1)) {
+      checkArgument(++maxMembers <= TRACESTATE_MAX_MEMBERS, "TraceState has too many elements.");
+    }
+    String[] keysAndValues = new String[2 * maxMembers];
+    int members = 0;
+    int length = traceStateHeader.length();
+    int memberStart = 0;
+    while (memberStart <= length) {
+      int memberEnd = traceStateHeader.indexOf(TRACESTATE_ENTRY_DELIMITER, memberStart);
+      if (memberEnd == -1) {
+        memberEnd = length;
+      }
+      int nextMemberStart = memberEnd + 1;
+      while (memberStart < memberEnd
+          && isOptionalWhitespace(traceStateHeader.charAt(memberStart))) {
+        memberStart++;
+      }
+      while (memberEnd > memberStart
+          && isOptionalWhitespace(traceStateHeader.charAt(memberEnd - 1))) {
+        memberEnd--;
+      }
+      // Empty list-members are allowed and ignored.
+      if (memberStart < memberEnd) {
+        int delimiter = traceStateHeader.indexOf(TRACESTATE_KEY_VALUE_DELIMITER, memberStart);
+        checkArgument(
+            delimiter != -1 && delimiter < memberEnd, "Invalid TraceState list-member format.");
+        keysAndValues[2 * members] = traceStateHeader.substring(memberStart, delimiter);
+        keysAndValues[2 * members + 1] = traceStateHeader.substring(delimiter + 1, memberEnd);
+        members++;
+      }
+      memberStart = nextMemberStart;
+    }
     TraceState.Builder traceStateBuilder = TraceState.builder();
-    String[] listMembers = TRACESTATE_ENTRY_DELIMITER_SPLIT_PATTERN.split(traceStateHeader);
-    checkArgument(
-        listMembers.length <= TRACESTATE_MAX_MEMBERS, "TraceState has too many elements.");
     // Iterate in reverse order because when call builder set the elements is added in the
     // front of the list.
-    for (int i = listMembers.length - 1; i >= 0; i--) {
-      String listMember = listMembers[i];
-      int index = listMember.indexOf(TRACESTATE_KEY_VALUE_DELIMITER);
-      checkArgument(index != -1, "Invalid TraceState list-member format.");
-      traceStateBuilder.set(listMember.substring(0, index), listMember.substring(index + 1));
+    for (int i = members - 1; i >= 0; i--) {
+      traceStateBuilder.set(keysAndValues[2 * i], keysAndValues[2 * i + 1]);
     }
     return traceStateBuilder.build();
   }
+
+  private static boolean isOptionalWhitespace(char c) {
+    return c == ' ' || c == '\t';
+  }
 }
@@ -27,6 +27,7 @@ import io.opentelemetry.correlationcontext.CorrelationContext;
 import io.opentelemetry.correlationcontext.CorrelationContextManager;
 import io.opentelemetry.correlationcontext.DefaultCorrelationContextManager;
 import io.opentelemetry.correlationcontext.spi.CorrelationContextManagerFactory;
+import io.opentelemetry.metrics.BatchObserver;
 import io.opentelemetry.metrics.BatchRecorder;
 import io.opentelemetry.metrics.DefaultMeterProvider;
 import io.opentelemetry.metrics.DoubleCounter;
@@ -395,6 +396,12 @@ class OpenTelemetryTest {
       return null;
     }
 
+    @Nullable
+    @Override
+    public BatchObserver newBatchObserver(String name) {
+      return null;
+    }
+
     @Override
     public Meter get(String instrumentationName) {
       return new FirstMeterProviderFactory();
@@ -131,4 +131,49 @@ class LabelsTest {
     assertThat(initial).isEqualTo(Labels.of("one", "a"));
     assertThat(second).isEqualTo(Labels.of("one", "a", "two", "b"));
   }
+
+  @Test
+  void of_DoesNotModifyArray() {
+    String[] pairs = {"key2", "value2", "key1", "value1"};
+    Labels labels = Labels.of(pairs);
+    assertThat(pairs).containsExactly("key2", "value2", "key1", "value1");
+    assertThat(labels).isEqualTo(Labels.of("key1", "value1", "key2", "value2"));
+  }
+
+  @Test
+  void manyLabels_SortedAndDeduped() {
+    String[] pairs = new String[40];
+    for (int i = 0; i < 19; i++) {
+      pairs[2 * i] = "key" + (char) ('z' - i);
+      pairs[2 * i + 1] = "value" + i;
+    }
+    pairs[38] = "keyz";
+    pairs[39] = "duplicateShouldBeIgnored";
+    Labels labels = Labels.of(pairs);
+
+    assertThat(labels.size()).isEqualTo(19);
+    assertThat(labels.get("keyz")).isEqualTo("value0");
+    final StringBuilder keys = new StringBuilder();
+    labels.forEach((key, value) -> keys.append(key.charAt(3)));
+    assertThat(keys.toString()).isEqualTo("hijklmnopqrstuvwxyz");
+  }
+
+  @Test
+  void hashCode_Stable() {
+    Labels labels = Labels.of("key1", "value1", "key2", "value2");
+    assertThat(labels.hashCode()).isEqualTo(labels.hashCode());
+    assertThat(labels.hashCode())
+        .isEqualTo(Labels.of("key2", "value2", "key1", "value1").hashCode());
+  }
+
+  @Test
+  void intern() {
+    Labels labels = Labels.of("key1", "value1", "key2", "value2").intern();
+    Labels other = Labels.of("key2", "value2", "key1", "value1");
+    assertThat(other).isNotSameAs(labels);
+    assertThat(other.intern()).isSameAs(labels);
+    assertThat(labels.intern()).isSameAs(labels);
+    assertThat(Labels.of("key1", "value1").intern()).isNotEqualTo(labels);
+    assertThat(Labels.newBuilder().build().intern()).isSameAs(Labels.empty());
+  }
 }
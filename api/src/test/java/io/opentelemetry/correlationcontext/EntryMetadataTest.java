@@ -17,6 +17,7 @@
 package io.opentelemetry.correlationcontext;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 
 import com.google.common.testing.EqualsTester;
 import io.opentelemetry.correlationcontext.EntryMetadata.EntryTtl;
@@ -30,12 +31,47 @@ class EntryMetadataTest {
     assertThat(entryMetadata.getEntryTtl()).isEqualTo(EntryTtl.NO_PROPAGATION);
   }
 
+  @Test
+  void testGetProperties() {
+    assertThat(EntryMetadata.create(EntryTtl.NO_PROPAGATION).getProperties()).isEmpty();
+    assertThat(
+            EntryMetadata.create(EntryTtl.UNLIMITED_PROPAGATION, "propKey=propValue")
+                .getProperties())
+        .isEqualTo("propKey=propValue");
+  }
+
+  @Test
+  void testNonPrintableProperties() {
+    assertThrows(
+        IllegalArgumentException.class,
+        () -> EntryMetadata.create(EntryTtl.UNLIMITED_PROPAGATION, "\2ab\3cd"));
+  }
+
+  @Test
+  void testPropertiesWithHeaderDelimiters() {
+    assertThat(
+            EntryMetadata.create(EntryTtl.UNLIMITED_PROPAGATION, " a=1 ; flag;b = x%2C ")
+                .getProperties())
+        .isEqualTo(" a=1 ; flag;b = x%2C ");
+    for (String properties :
+        new String[] {
+          "x,evil=1", "a=b c", "a=\"b\"", "a=b\\", "a;;b", ";a", "a;", "=b", "a=b=c,d"
+        }) {
+      assertThrows(
+          IllegalArgumentException.class,
+          () -> EntryMetadata.create(EntryTtl.UNLIMITED_PROPAGATION, properties),
+          properties);
+    }
+  }
+
   @Test
   void testEquals() {
     new EqualsTester()
         .addEqualityGroup(
             EntryMetadata.create(EntryTtl.NO_PROPAGATION),
-            EntryMetadata.create(EntryTtl.NO_PROPAGATION))
+            EntryMetadata.create(EntryTtl.NO_PROPAGATION),
+            EntryMetadata.create(EntryTtl.NO_PROPAGATION, ""))
+        .addEqualityGroup(EntryMetadata.create(EntryTtl.NO_PROPAGATION, "prop"))
         .addEqualityGroup(EntryMetadata.create(EntryTtl.UNLIMITED_PROPAGATION))
         .testEquals();
   }
@@ -0,0 +1,357 @@
+/*
+ * Copyright 2020, OpenTelemetry Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.opentelemetry.correlationcontext.propagation;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.entry;
+
+import io.grpc.Context;
+import io.opentelemetry.context.Scope;
+import io.opentelemetry.context.propagation.HttpTextFormat.Getter;
+import io.opentelemetry.context.propagation.HttpTextFormat.Setter;
+import io.opentelemetry.correlationcontext.CorrelationContext;
+import io.opentelemetry.correlationcontext.CorrelationContextManager;
+import io.opentelemetry.correlationcontext.CorrelationsContextUtils;
+import io.opentelemetry.correlationcontext.EmptyCorrelationContext;
+import io.opentelemetry.correlationcontext.Entry;
+import io.opentelemetry.correlationcontext.EntryMetadata;
+import io.opentelemetry.correlationcontext.EntryMetadata.EntryTtl;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import javax.annotation.Nullable;
+import org.junit.jupiter.api.Test;
+
+class HttpCorrelationContextTest {
+  private static final EntryMetadata NO_PROPAGATION = EntryMetadata.create(EntryTtl.NO_PROPAGATION);
+
+  private static final Setter<Map<String, String>> setter =
+      new Setter<Map<String, String>>() {
+        @Override
+        public void set(Map<String, String> carrier, String key, String value) {
+          carrier.put(key, value);
+        }
+      };
+
+  private static final Getter<Map<String, String>> getter =
+      new Getter<Map<String, String>>() {
+        @Nullable
+        @Override
+        public String get(Map<String, String> carrier, String key) {
+          return carrier.get(key);
+        }
+      };
+
+  private final TestCorrelationContextManager contextManager = new TestCorrelationContextManager();
+  private final HttpCorrelationContext httpCorrelationContext =
+      new HttpCorrelationContext(contextManager);
+
+  @Test
+  void fields() {
+    assertThat(httpCorrelationContext.fields()).containsExactly("otcorrelations");
+  }
+
+  @Test
+  void inject() {
+    CorrelationContext correlationContext =
+        contextManager
+            .contextBuilder()
+            .put("key1", "value1", Entry.METADATA_UNLIMITED_PROPAGATION)
+            .put("key2", "value 2,;%\"\\", Entry.METADATA_UNLIMITED_PROPAGATION)
+            .put(
+                "key3",
+                "value3",
+                EntryMetadata.create(EntryTtl.UNLIMITED_PROPAGATION, "propKey=propValue"))
+            .put("local", "value", NO_PROPAGATION)
+            .put("not a token", "value", Entry.METADATA_UNLIMITED_PROPAGATION)
+            .build();
+
+    Map<String, String> carrier = injectHeader(correlationContext);
+    assertThat(carrier)
+        .containsExactly(
+            entry(
+                "otcorrelations",
+                "key1=value1,key2=value%202%2C%3B%25%22%5C,key3=value3;propKey=propValue"));
+  }
+
+  @Test
+  void inject_Empty() {
+    assertThat(injectHeader(EmptyCorrelationContext.getInstance())).isEmpty();
+    assertThat(
+            injectHeader(
+                contextManager.contextBuilder().put("local", "value", NO_PROPAGATION).build()))
+        .isEmpty();
+
+    Map<String, String> carrier = new LinkedHashMap<>();
+    httpCorrelationContext.inject(Context.ROOT, carrier, setter);
+    assertThat(carrier).isEmpty();
+  }
+
+  @Test
+  void inject_CachedPerInstance() {
+    CorrelationContext correlationContext =
+        contextManager
+            .contextBuilder()
+            .put("key", "value", Entry.METADATA_UNLIMITED_PROPAGATION)
+            .build();
+    String first = injectHeader(correlationContext).get("otcorrelations");
+    assertThat(injectHeader(correlationContext).get("otcorrelations")).isSameAs(first);
+
+    CorrelationContext other =
+        contextManager
+            .contextBuilder()
+            .put("key", "other", Entry.METADATA_UNLIMITED_PROPAGATION)
+            .build();
+    assertThat(injectHeader(other)).containsEntry("otcorrelations", "key=other");
+  }
+
+  @Test
+  void inject_Limits() {
+    CorrelationContext.Builder builder = contextManager.contextBuilder();
+    for (int i = 0; i < HttpCorrelationContext.MAX_ENTRIES + 10; i++) {
+      builder.put("k" + i, "v", Entry.METADATA_UNLIMITED_PROPAGATION);
+    }
+    String header = injectHeader(builder.build()).get("otcorrelations");
+    assertThat(header.split(",")).hasSize(HttpCorrelationContext.MAX_ENTRIES);
+
+    CorrelationContext tooLong =
+        contextManager
+            .contextBuilder()
+            .put("key", "value", Entry.METADATA_UNLIMITED_PROPAGATION)
+            .put(
+                "big",
+                "value",
+                EntryMetadata.create(
+                    EntryTtl.UNLIMITED_PROPAGATION,
+                    repeat('p', HttpCorrelationContext.MAX_ENTRY_LENGTH)))
+            .build();
+    assertThat(injectHeader(tooLong)).containsExactly(entry("otcorrelations", "key=value"));
+  }
+
+  @Test
+  void extract() {
+    Context context =
+        extractHeader(" key1 = value1 , ,key2=value%202%2C%3B%25;propKey=propValue; flag,key3=");
+    CorrelationContext correlationContext = CorrelationsContextUtils.getCorrelationContext(context);
+    assertThat(correlationContext.getEntries())
+        .containsExactly(
+            Entry.create("key1", "value1", Entry.METADATA_UNLIMITED_PROPAGATION),
+            Entry.create(
+                "key2",
+                "value 2,;%",
+                EntryMetadata.create(EntryTtl.UNLIMITED_PROPAGATION, "propKey=propValue; flag")),
+            Entry.create("key3", "", Entry.METADATA_UNLIMITED_PROPAGATION));
+  }
+
+  @Test
+  void extract_InvalidEntriesSkipped() {
+    Context context =
+        extractHeader(
+            "noValue,;p=1,bad key=v,=v,key1=value1,bad%=%zz,bad%2=%2,nonPrintable=%0A,key2=value2");
+    assertThat(CorrelationsContextUtils.getCorrelationContext(context).getEntries())
+        .containsExactly(
+            Entry.create("key1", "value1", Entry.METADATA_UNLIMITED_PROPAGATION),
+            Entry.create("key2", "value2", Entry.METADATA_UNLIMITED_PROPAGATION));
+  }
+
+  @Test
+  void extract_InvalidPropertiesDropped() {
+    Context context = extractHeader("key1=value1;p=\"x\",key2=value2;p=a b");
+    assertThat(CorrelationsContextUtils.getCorrelationContext(context).getEntries())
+        .containsExactly(
+            Entry.create("key1", "value1", Entry.METADATA_UNLIMITED_PROPAGATION),
+            Entry.create("key2", "value2", Entry.METADATA_UNLIMITED_PROPAGATION));
+  }
+
+  @Test
+  void inject_DelimitersInPropertiesRejected() {
+    // Properties able to inject an entry never reach the header.
+    assertThatThrownBy(() -> EntryMetadata.create(EntryTtl.UNLIMITED_PROPAGATION, "x,evil=1"))
+        .isInstanceOf(IllegalArgumentException.class);
+    assertThatThrownBy(() -> EntryMetadata.create(EntryTtl.UNLIMITED_PROPAGATION, "x=1;y=a,evil=1"))
+        .isInstanceOf(IllegalArgumentException.class);
+  }
+
+  @Test
+  void extract_MissingOrInvalid() {
+    assertThat(
+            httpCorrelationContext.extract(
+                Context.ROOT, Collections.<String, String>emptyMap(), getter))
+        .isSameAs(Context.ROOT);
+    assertThat(extractHeader("")).isSameAs(Context.ROOT);
+    assertThat(extractHeader("invalid,=")).isSameAs(Context.ROOT);
+  }
+
+  @Test
+  void extract_TooManyEntries() {
+    StringBuilder header = new StringBuilder();
+    for (int i = 0; i < HttpCorrelationContext.MAX_ENTRIES + 10; i++) {
+      header.append("k").append(i).append("=v,");
+    }
+    Context context = extractHeader(header.toString());
+    Collection<Entry> entries =
+        CorrelationsContextUtils.getCorrelationContext(context).getEntries();
+    assertThat(entries).hasSize(HttpCorrelationContext.MAX_ENTRIES);
+    assertThat(entries)
+        .doesNotContain(
+            Entry.create(
+                "k" + HttpCorrelationContext.MAX_ENTRIES,
+                "v",
+                Entry.METADATA_UNLIMITED_PROPAGATION));
+  }
+
+  @Test
+  void extract_EntryTooLong() {
+    Context context =
+        extractHeader(
+            "key1=value1,big=v;"
+                + repeat('p', HttpCorrelationContext.MAX_ENTRY_LENGTH)
+                + ",key2=value2");
+    assertThat(CorrelationsContextUtils.getCorrelationContext(context).getEntries())
+        .containsExactly(
+            Entry.create("key1", "value1", Entry.METADATA_UNLIMITED_PROPAGATION),
+            Entry.create("key2", "value2", Entry.METADATA_UNLIMITED_PROPAGATION));
+  }
+
+  @Test
+  void extract_HeaderTooLong() {
+    String padding = "pad=" + repeat('p', 4000) + ",";
+    // The entry crossing the limit and everything after it are dropped without being parsed.
+    String header = "key1=value1," + padding + padding + padding + "key2=value2";
+    assertThat(header.length()).isGreaterThan(HttpCorrelationContext.MAX_HEADER_LENGTH);
+    Context context = extractHeader(header);
+    assertThat(CorrelationsContextUtils.getCorrelationContext(context).getEntryValue("key1"))
+        .isEqualTo("value1");
+    assertThat(CorrelationsContextUtils.getCorrelationContext(context).getEntryValue("key2"))
+        .isNull();
+  }
+
+  @Test
+  void extract_ValueTooLong() {
+    Context context =
+        extractHeader(
+            "key1=value1,big=" + repeat('v', Entry.MAX_VALUE_LENGTH + 1) + ",key2=value2");
+    assertThat(CorrelationsContextUtils.getCorrelationContext(context).getEntries()).hasSize(2);
+  }
+
+  @Test
+  void roundTrip() {
+    CorrelationContext correlationContext =
+        contextManager
+            .contextBuilder()
+            .put("key1", "value 1 = %", Entry.METADATA_UNLIMITED_PROPAGATION)
+            .put(
+                "key2",
+                "value2",
+                EntryMetadata.create(EntryTtl.UNLIMITED_PROPAGATION, "propKey=propValue"))
+            .build();
+    Context context =
+        httpCorrelationContext.extract(Context.ROOT, injectHeader(correlationContext), getter);
+    assertThat(CorrelationsContextUtils.getCorrelationContext(context).getEntries())
+        .containsExactlyElementsOf(correlationContext.getEntries());
+  }
+
+  private Map<String, String> injectHeader(CorrelationContext correlationContext) {
+    Map<String, String> carrier = new LinkedHashMap<>();
+    httpCorrelationContext.inject(
+        CorrelationsContextUtils.withCorrelationContext(correlationContext, Context.ROOT),
+        carrier,
+        setter);
+    return carrier;
+  }
+
+  private Context extractHeader(String header) {
+    return httpCorrelationContext.extract(
+        Context.ROOT, Collections.singletonMap("otcorrelations", header), getter);
+  }
+
+  private static String repeat(char c, int count) {
+    char[] chars = new char[count];
+    Arrays.fill(chars, c);
+    return new String(chars);
+  }
+
+  // Insertion ordered CorrelationContexts, as the API has no implementation of its own.
+  private static final class TestCorrelationContextManager implements CorrelationContextManager {
+    @Override
+    public CorrelationContext getCurrentContext() {
+      return CorrelationsContextUtils.getCurrentCorrelationContext();
+    }
+
+    @Override
+    public CorrelationContext.Builder contextBuilder() {
+      return new TestBuilder();
+    }
+
+    @Override
+    public Scope withContext(CorrelationContext correlationContext) {
+      return CorrelationsContextUtils.currentContextWith(correlationContext);
+    }
+  }
+
+  private static final class TestBuilder implements CorrelationContext.Builder {
+    private final Map<String, Entry> entries = new LinkedHashMap<>();
+
+    @Override
+    public CorrelationContext.Builder setParent(CorrelationContext parent) {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public CorrelationContext.Builder setParent(Context context) {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public CorrelationContext.Builder setNoParent() {
+      return this;
+    }
+
+    @Override
+    public CorrelationContext.Builder put(String key, String value, EntryMetadata entryMetadata) {
+      entries.put(key, Entry.create(key, value, entryMetadata));
+      return this;
+    }
+
+    @Override
+    public CorrelationContext.Builder remove(String key) {
+      entries.remove(key);
+      return this;
+    }
+
+    @Override
+    public CorrelationContext build() {
+      final Map<String, Entry> entries = new LinkedHashMap<>(this.entries);
+      return new CorrelationContext() {
+        @Override
+        public Collection<Entry> getEntries() {
+          return Collections.unmodifiableCollection(entries.values());
+        }
+
+        @Nullable
+        @Override
+        public String getEntryValue(String entryKey) {
+          Entry entry = entries.get(entryKey);
+          return entry == null ? null : entry.getValue();
+        }
+      };
+    }
+  }
+}
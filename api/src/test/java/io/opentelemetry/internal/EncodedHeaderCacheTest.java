@@ -0,0 +1,70 @@
+/*
+ * Copyright 2020, OpenTelemetry Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.opentelemetry.internal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+class EncodedHeaderCacheTest {
+
+  @Test
+  void get_EncodesOncePerKey() {
+    CountingCache cache = new CountingCache();
+    Object key = new Object();
+
+    String header = cache.get(key);
+    assertThat(cache.get(key)).isSameAs(header);
+    assertThat(cache.calls).isEqualTo(1);
+  }
+
+  @Test
+  void get_ComparesKeysByIdentity() {
+    CountingCache cache = new CountingCache();
+    String key = "key";
+    String equalKey = new String(key);
+
+    cache.get(key);
+    cache.get(equalKey);
+    assertThat(cache.calls).isEqualTo(2);
+  }
+
+  @Test
+  void get_EncodesAgainAfterEviction() {
+    CountingCache cache = new CountingCache();
+    Object[] keys = new Object[EncodedHeaderCache.SLOTS * 4];
+    for (int i = 0; i < keys.length; i++) {
+      keys[i] = new Object();
+      assertThat(cache.get(keys[i])).isEqualTo("header" + keys[i].hashCode());
+    }
+    // More keys than slots: some were evicted and are encoded again, with the same result.
+    for (Object key : keys) {
+      assertThat(cache.get(key)).isEqualTo("header" + key.hashCode());
+    }
+    assertThat(cache.calls).isGreaterThan(keys.length);
+  }
+
+  private static final class CountingCache extends EncodedHeaderCache<Object> {
+    private int calls;
+
+    @Override
+    protected String encode(Object key) {
+      calls++;
+      return "header" + key.hashCode();
+    }
+  }
+}
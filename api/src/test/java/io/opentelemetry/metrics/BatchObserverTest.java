@@ -0,0 +1,82 @@
+/*
+ * Copyright 2020, OpenTelemetry Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.opentelemetry.metrics;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import io.opentelemetry.common.Labels;
+import org.junit.jupiter.api.Test;
+
+class BatchObserverTest {
+  private static final Meter meter = DefaultMeter.getInstance();
+
+  @Test
+  void preventNull_Name() {
+    assertThrows(NullPointerException.class, () -> meter.newBatchObserver(null), "name");
+  }
+
+  @Test
+  void preventNull_LongInstrument() {
+    assertThrows(
+        NullPointerException.class,
+        () -> meter.newBatchObserver("batch").bindLong(null, Labels.empty()),
+        "instrument");
+  }
+
+  @Test
+  void preventNull_DoubleInstrument() {
+    assertThrows(
+        NullPointerException.class,
+        () -> meter.newBatchObserver("batch").bindDouble(null, Labels.empty()),
+        "instrument");
+  }
+
+  @Test
+  void preventNull_Labels() {
+    LongSumObserver longSumObserver = meter.longSumObserverBuilder("longSumObserver").build();
+    assertThrows(
+        NullPointerException.class,
+        () -> meter.newBatchObserver("batch").bindLong(longSumObserver, null),
+        "labels");
+  }
+
+  @Test
+  void preventNull_Callback() {
+    assertThrows(
+        NullPointerException.class,
+        () -> meter.newBatchObserver("batch").setCallback(null),
+        "callback");
+  }
+
+  @Test
+  void doesNotThrow() {
+    BatchObserver batchObserver = meter.newBatchObserver("batch");
+    final BatchObserver.LongObservation longObservation =
+        batchObserver.bindLong(
+            meter.longValueObserverBuilder("longValueObserver").build(), Labels.of("k", "v"));
+    final BatchObserver.DoubleObservation doubleObservation =
+        batchObserver.bindDouble(
+            meter.doubleSumObserverBuilder("doubleSumObserver").build(), Labels.empty());
+    batchObserver.setCallback(
+        () -> {
+          longObservation.observe(-44L);
+          doubleObservation.observe(77.556d);
+        });
+    longObservation.unbind();
+    doubleObservation.unbind();
+  }
+}
@@ -82,4 +82,9 @@ class SpanIdTest {
     assertThat(first.toString()).contains("0000000000000061");
     assertThat(second.toString()).contains("ff00000000000041");
   }
+
+  @Test
+  void toLowerBase16_Memoized() {
+    assertThat(first.toLowerBase16()).isSameAs(first.toLowerBase16());
+  }
 }
@@ -127,4 +127,9 @@ class TraceIdTest {
     assertThat(first.toString()).contains("00000000000000000000000000000061");
     assertThat(second.toString()).contains("ff000000000000000000000000000041");
   }
+
+  @Test
+  void toLowerBase16_Memoized() {
+    assertThat(first.toLowerBase16()).isSameAs(first.toLowerBase16());
+  }
 }
@@ -330,6 +330,52 @@ class HttpTraceContextTest {
                 TRACE_ID, SPAN_ID, SAMPLED_TRACE_OPTIONS, TRACE_STATE_DEFAULT));
   }
 
+  @Test
+  void extract_Tracestate_EmptyMembersIgnored() {
+    Map<String, String> carrier = new HashMap<>();
+    carrier.put(TRACE_PARENT, TRACEPARENT_HEADER_SAMPLED);
+    carrier.put(TRACE_STATE, " ,bar=baz ,, \tfoo=bar,\t");
+    assertThat(getSpanContext(httpTraceContext.extract(Context.current(), carrier, getter)))
+        .isEqualTo(
+            SpanContext.createFromRemoteParent(
+                TRACE_ID, SPAN_ID, SAMPLED_TRACE_OPTIONS, TRACE_STATE_NOT_DEFAULT));
+  }
+
+  @Test
+  void extract_Tracestate_DuplicateKeyKeepsFirst() {
+    Map<String, String> carrier = new HashMap<>();
+    carrier.put(TRACE_PARENT, TRACEPARENT_HEADER_SAMPLED);
+    carrier.put(TRACE_STATE, "foo=first,bar=baz,foo=second");
+    TraceState traceState =
+        getSpanContext(httpTraceContext.extract(Context.current(), carrier, getter))
+            .getTraceState();
+    assertThat(traceState.get("foo")).isEqualTo("first");
+    assertThat(traceState.getEntries()).hasSize(2);
+  }
+
+  @Test
+  void extract_Tracestate_MaxMembers() {
+    StringBuilder header = new StringBuilder();
+    for (int i = 0; i < 32; i++) {
+      header.append(i == 0 ? "" : ",").append("key").append(i).append("=value").append(i);
+    }
+    Map<String, String> carrier = new HashMap<>();
+    carrier.put(TRACE_PARENT, TRACEPARENT_HEADER_SAMPLED);
+    carrier.put(TRACE_STATE, header.toString());
+    TraceState traceState =
+        getSpanContext(httpTraceContext.extract(Context.current(), carrier, getter))
+            .getTraceState();
+    assertThat(traceState.getEntries()).hasSize(32);
+    assertThat(traceState.getEntries().get(0).getKey()).isEqualTo("key0");
+    assertThat(traceState.getEntries().get(31).getKey()).isEqualTo("key31");
+
+    carrier.put(TRACE_STATE, header.append(",key32=value32").toString());
+    assertThat(getSpanContext(httpTraceContext.extract(Context.current(), carrier, getter)))
+        .isEqualTo(
+            SpanContext.createFromRemoteParent(
+                TRACE_ID, SPAN_ID, SAMPLED_TRACE_OPTIONS, TRACE_STATE_DEFAULT));
+  }
+
   @Test
   void fieldsList() {
     assertThat(httpTraceContext.fields()).containsExactly(TRACE_PARENT, TRACE_STATE);
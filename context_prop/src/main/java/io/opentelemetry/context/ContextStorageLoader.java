@@ -0,0 +1,90 @@
+/*
+ * Copyright 2020, OpenTelemetry Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.opentelemetry.context;
+
+import io.grpc.Context;
+import io.opentelemetry.context.spi.ContextStorageFactory;
+import java.util.ServiceConfigurationError;
+import java.util.ServiceLoader;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Creates the {@link Context.Storage} selected through {@link ContextStorageFactory}, for
+ * applications that opt in to replacing the {@code ThreadLocal} storage of {@code grpc-context}.
+ *
+ * <p>{@code grpc-context} looks up its storage in a class named {@code
+ * io.grpc.override.ContextStorageOverride}. This library does not ship that class, since only one
+ * can be on the classpath. To opt in, an application adds it and delegates to this loader:
+ *
+ * <pre>{@code
+ * package io.grpc.override;
+ *
+ * public final class ContextStorageOverride extends Context.Storage {
+ *   private final Context.Storage delegate = ContextStorageLoader.load();
+ *
+ *   public Context doAttach(Context toAttach) {
+ *     return delegate.doAttach(toAttach);
+ *   }
+ *
+ *   public void detach(Context toDetach, Context toRestore) {
+ *     delegate.detach(toDetach, toRestore);
+ *   }
+ *
+ *   public Context current() {
+ *     return delegate.current();
+ *   }
+ * }
+ * }</pre>
+ *
+ * @since 0.8.0
+ */
+public final class ContextStorageLoader {
+  private static final Logger logger = Logger.getLogger(ContextStorageLoader.class.getName());
+
+  /**
+   * Returns a new storage from the {@link ContextStorageFactory} service provider, or a new {@link
+   * DefaultContextStorage} if there is none. The storage is created while {@code io.grpc.Context}
+   * initializes, so a provider that is selected by system property but not found, or that fails, is
+   * logged and the {@link DefaultContextStorage} is used instead.
+   *
+   * @return the {@code Context.Storage} to use.
+   * @since 0.8.0
+   */
+  public static Context.Storage load() {
+    String specifiedProvider = System.getProperty(ContextStorageFactory.class.getName());
+    try {
+      for (ContextStorageFactory provider : ServiceLoader.load(ContextStorageFactory.class)) {
+        if (specifiedProvider == null || specifiedProvider.equals(provider.getClass().getName())) {
+          return provider.create();
+        }
+      }
+      if (specifiedProvider != null) {
+        logger.log(
+            Level.SEVERE,
+            "Context storage provider {0} not found, using the default storage",
+            specifiedProvider);
+      }
+    } catch (RuntimeException | ServiceConfigurationError e) {
+      logger.log(
+          Level.SEVERE, "Failed to create the context storage, using the default storage", e);
+    }
+    return new DefaultContextStorage();
+  }
+
+  private ContextStorageLoader() {}
+}
@@ -0,0 +1,73 @@
+/*
+ * Copyright 2019, OpenTelemetry Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.opentelemetry.context;
+
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.annotation.concurrent.ThreadSafe;
+
+/**
+ * A {@link ThreadFactory} for threads that keep their current {@code Context} in a field instead of
+ * a {@code ThreadLocal}, which makes entering and leaving a {@link Scope} cheaper on these threads
+ * when the {@link DefaultContextStorage} is in use. Pass it to the thread pools and schedulers,
+ * e.g. of a reactive library, that run instrumented code:
+ *
+ * <pre>{@code
+ * ExecutorService executor =
+ *     Executors.newFixedThreadPool(8, new ContextThreadFactory("worker"));
+ * }</pre>
+ *
+ * @since 0.8.0
+ */
+@ThreadSafe
+public final class ContextThreadFactory implements ThreadFactory {
+  private final String namePrefix;
+  private final boolean daemon;
+  private final AtomicInteger threadCount = new AtomicInteger();
+
+  /**
+   * Creates a factory of non-daemon threads named {@code namePrefix-<n>}.
+   *
+   * @param namePrefix the prefix of the thread names.
+   * @since 0.8.0
+   */
+  public ContextThreadFactory(String namePrefix) {
+    this(namePrefix, false);
+  }
+
+  /**
+   * Creates a factory of threads named {@code namePrefix-<n>}.
+   *
+   * @param namePrefix the prefix of the thread names.
+   * @param daemon whether the created threads are daemon threads.
+   * @since 0.8.0
+   */
+  public ContextThreadFactory(String namePrefix, boolean daemon) {
+    if (namePrefix == null) {
+      throw new NullPointerException("namePrefix");
+    }
+    this.namePrefix = namePrefix;
+    this.daemon = daemon;
+  }
+
+  @Override
+  public Thread newThread(Runnable runnable) {
+    Thread thread = new ContextThread(runnable, namePrefix + "-" + threadCount.getAndIncrement());
+    thread.setDaemon(daemon);
+    return thread;
+  }
+}
@@ -0,0 +1,89 @@
+/*
+ * Copyright 2019, OpenTelemetry Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.opentelemetry.context;
+
+import io.grpc.Context;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.ThreadSafe;
+
+/**
+ * A {@link Context.Storage} that can replace the {@code ThreadLocal} storage of {@code
+ * grpc-context}. It is the storage returned by {@link ContextStorageLoader#load()} when no other
+ * provider is selected, and is only used by applications that opt in as described there.
+ *
+ * <p>Threads created by a {@link ContextThreadFactory} keep their current {@code Context} in a
+ * field of the thread itself, so attaching, detaching and reading the current {@code Context} are
+ * plain field accesses. Other threads fall back to a {@code ThreadLocal}, which is cleared as soon
+ * as the thread is back to {@link Context#ROOT}, so that threads, including pooled or virtual
+ * threads, never keep a detached {@code Context} reachable.
+ *
+ * @since 0.8.0
+ */
+@ThreadSafe
+public final class DefaultContextStorage extends Context.Storage {
+  private static final Logger logger = Logger.getLogger(DefaultContextStorage.class.getName());
+
+  // Visible for testing
+  static final ThreadLocal<Context> localContext = new ThreadLocal<>();
+
+  @Override
+  public Context doAttach(Context toAttach) {
+    Thread thread = Thread.currentThread();
+    Context previous;
+    if (thread instanceof ContextThread) {
+      ContextThread contextThread = (ContextThread) thread;
+      previous = contextThread.context;
+      contextThread.context = toAttach;
+    } else {
+      previous = localContext.get();
+      localContext.set(toAttach);
+    }
+    return previous == null ? Context.ROOT : previous;
+  }
+
+  @Override
+  public void detach(Context toDetach, Context toRestore) {
+    Thread thread = Thread.currentThread();
+    if (thread instanceof ContextThread) {
+      ContextThread contextThread = (ContextThread) thread;
+      checkCurrent(contextThread.context, toDetach);
+      contextThread.context = toRestore;
+      return;
+    }
+    checkCurrent(localContext.get(), toDetach);
+    // Back at the root, only null is kept so that no Context stays reachable from the thread.
+    // ThreadLocal.remove() is avoided as re-creating the entry on the next attach is expensive.
+    localContext.set(toRestore == Context.ROOT ? null : toRestore);
+  }
+
+  @Override
+  public Context current() {
+    Thread thread = Thread.currentThread();
+    Context current =
+        thread instanceof ContextThread ? ((ContextThread) thread).context : localContext.get();
+    return current == null ? Context.ROOT : current;
+  }
+
+  private static void checkCurrent(@Nullable Context current, Context toDetach) {
+    if ((current == null ? Context.ROOT : current) != toDetach) {
+      // Same as the grpc storage: detaching out of order is a bug, but not worth failing for.
+      logger.log(Level.SEVERE, "Context was not attached when detaching", new Throwable());
+    }
+  }
+}
@@ -0,0 +1,48 @@
+/*
+ * Copyright 2019, OpenTelemetry Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.opentelemetry.context.spi;
+
+import io.grpc.Context;
+import javax.annotation.concurrent.ThreadSafe;
+
+/**
+ * ContextStorageFactory is a service provider for the {@link Context.Storage} used by {@code
+ * io.grpc.Context}, e.g. one bound to the scheduler of a reactive or virtual-thread runtime. Fully
+ * qualified class name of the implementation should be registered in {@code
+ * META-INF/services/io.opentelemetry.context.spi.ContextStorageFactory}. <br>
+ * <br>
+ * A specific implementation can be selected by a system property {@code
+ * io.opentelemetry.context.spi.ContextStorageFactory} with value of fully qualified class name.
+ * Without any implementation the {@link io.opentelemetry.context.DefaultContextStorage} is used.
+ *
+ * <p>Providers are only loaded by applications that install {@link
+ * io.opentelemetry.context.ContextStorageLoader} as the storage of {@code io.grpc.Context}. The
+ * storage is then created once, the first time {@code io.grpc.Context} is used.
+ *
+ * @since 0.8.0
+ */
+@ThreadSafe
+public interface ContextStorageFactory {
+
+  /**
+   * Creates a new {@code Context.Storage}.
+   *
+   * @return a new {@code Context.Storage}.
+   * @since 0.8.0
+   */
+  Context.Storage create();
+}
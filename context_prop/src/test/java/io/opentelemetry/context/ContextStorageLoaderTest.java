@@ -0,0 +1,43 @@
+/*
+ * Copyright 2020, OpenTelemetry Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.opentelemetry.context;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.opentelemetry.context.spi.ContextStorageFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+class ContextStorageLoaderTest {
+
+  @AfterEach
+  void tearDown() {
+    System.clearProperty(ContextStorageFactory.class.getName());
+  }
+
+  @Test
+  void load_Default() {
+    assertThat(ContextStorageLoader.load()).isInstanceOf(DefaultContextStorage.class);
+  }
+
+  @Test
+  void load_ProviderNotFound() {
+    System.setProperty(ContextStorageFactory.class.getName(), "io.does.not.Exist");
+    // Falls back instead of failing the initialization of io.grpc.Context.
+    assertThat(ContextStorageLoader.load()).isInstanceOf(DefaultContextStorage.class);
+  }
+}
@@ -0,0 +1,129 @@
+/*
+ * Copyright 2019, OpenTelemetry Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.opentelemetry.context;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.grpc.Context;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+
+/** Unit tests for {@link DefaultContextStorage} and {@link ContextThreadFactory}. */
+class DefaultContextStorageTest {
+  private static final Context.Key<String> KEY = Context.key("key");
+
+  private final DefaultContextStorage storage = new DefaultContextStorage();
+
+  @Test
+  void attachDetach() {
+    Context context1 = Context.ROOT.withValue(KEY, "value1");
+    Context context2 = Context.ROOT.withValue(KEY, "value2");
+    assertThat(storage.current()).isSameAs(Context.ROOT);
+
+    Context previous1 = storage.doAttach(context1);
+    assertThat(previous1).isSameAs(Context.ROOT);
+    assertThat(storage.current()).isSameAs(context1);
+    Context previous2 = storage.doAttach(context2);
+    assertThat(previous2).isSameAs(context1);
+    assertThat(storage.current()).isSameAs(context2);
+
+    storage.detach(context2, previous2);
+    assertThat(storage.current()).isSameAs(context1);
+    storage.detach(context1, previous1);
+    assertThat(storage.current()).isSameAs(Context.ROOT);
+    // No Context is kept in the ThreadLocal once back to the root Context.
+    assertThat(DefaultContextStorage.localContext.get()).isNull();
+  }
+
+  @Test
+  void installedAsGrpcStorage() throws Exception {
+    final Context context = Context.ROOT.withValue(KEY, "value");
+    Thread thread =
+        new ContextThreadFactory("test")
+            .newThread(
+                new Runnable() {
+                  @Override
+                  public void run() {
+                    Context previous = context.attach();
+                    try {
+                      assertThat(((ContextThread) Thread.currentThread()).context)
+                          .isSameAs(context);
+                      assertThat(KEY.get()).isEqualTo("value");
+                    } finally {
+                      context.detach(previous);
+                    }
+                    assertThat(Context.current()).isSameAs(Context.ROOT);
+                  }
+                });
+    final Throwable[] failure = new Throwable[1];
+    thread.setUncaughtExceptionHandler(
+        new Thread.UncaughtExceptionHandler() {
+          @Override
+          public void uncaughtException(Thread t, Throwable e) {
+            failure[0] = e;
+          }
+        });
+    thread.start();
+    thread.join();
+    assertThat(failure[0]).isNull();
+  }
+
+  @Test
+  void contextThreadFactory() throws Exception {
+    ContextThreadFactory factory = new ContextThreadFactory("worker", true);
+    Runnable noop =
+        new Runnable() {
+          @Override
+          public void run() {}
+        };
+    Thread thread1 = factory.newThread(noop);
+    Thread thread2 = factory.newThread(noop);
+    assertThat(thread1).isInstanceOf(ContextThread.class);
+    assertThat(thread1.getName()).isEqualTo("worker-0");
+    assertThat(thread2.getName()).isEqualTo("worker-1");
+    assertThat(thread1.isDaemon()).isTrue();
+    assertThat(new ContextThreadFactory("worker").newThread(noop).isDaemon()).isFalse();
+
+    ExecutorService executor = Executors.newSingleThreadExecutor(factory);
+    try {
+      Context context = Context.ROOT.withValue(KEY, "value");
+      Context previous = context.attach();
+      try {
+        assertThat(
+                executor
+                    .submit(
+                        Context.current()
+                            .wrap(
+                                new Callable<String>() {
+                                  @Override
+                                  public String call() {
+                                    return KEY.get();
+                                  }
+                                }))
+                    .get(10, TimeUnit.SECONDS))
+            .isEqualTo("value");
+      } finally {
+        context.detach(previous);
+      }
+    } finally {
+      executor.shutdown();
+    }
+  }
+}
@@ -20,6 +20,7 @@ import io.opentelemetry.common.Labels;
 import io.opentelemetry.common.ReadableKeyValuePairs.KeyValueConsumer;
 import io.opentelemetry.proto.common.v1.StringKeyValue;
 import io.opentelemetry.proto.metrics.v1.DoubleDataPoint;
+import io.opentelemetry.proto.metrics.v1.HistogramDataPoint;
 import io.opentelemetry.proto.metrics.v1.InstrumentationLibraryMetrics;
 import io.opentelemetry.proto.metrics.v1.Int64DataPoint;
 import io.opentelemetry.proto.metrics.v1.Metric;
@@ -29,9 +30,11 @@ import io.opentelemetry.proto.metrics.v1.ResourceMetrics;
 import io.opentelemetry.proto.metrics.v1.SummaryDataPoint;
 import io.opentelemetry.proto.metrics.v1.SummaryDataPoint.ValueAtPercentile;
 import io.opentelemetry.sdk.common.InstrumentationLibraryInfo;
+import io.opentelemetry.sdk.metrics.data.AggregationTemporality;
 import io.opentelemetry.sdk.metrics.data.MetricData;
 import io.opentelemetry.sdk.metrics.data.MetricData.Descriptor;
 import io.opentelemetry.sdk.metrics.data.MetricData.DoublePoint;
+import io.opentelemetry.sdk.metrics.data.MetricData.HistogramPoint;
 import io.opentelemetry.sdk.metrics.data.MetricData.LongPoint;
 import io.opentelemetry.sdk.metrics.data.MetricData.Point;
 import io.opentelemetry.sdk.metrics.data.MetricData.SummaryPoint;
@@ -42,8 +45,13 @@ import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import javax.annotation.Nullable;
 
 final class MetricAdapter {
+  // OTLP exemplars only have string attachments to link to their span.
+  static final String TRACE_ID_ATTACHMENT = "trace_id";
+  static final String SPAN_ID_ATTACHMENT = "span_id";
+
   static List<ResourceMetrics> toProtoResourceMetrics(Collection<MetricData> metricData) {
     Map<Resource, Map<InstrumentationLibraryInfo, List<Metric>>> resourceAndLibraryMap =
         groupByResourceAndLibrary(metricData);
@@ -94,7 +102,9 @@ final class MetricAdapter {
   static Metric toProtoMetric(MetricData metricData) {
     Metric.Builder builder =
         Metric.newBuilder()
-            .setMetricDescriptor(toProtoMetricDescriptor(metricData.getDescriptor()));
+            .setMetricDescriptor(
+                toProtoMetricDescriptor(
+                    metricData.getDescriptor(), metricData.getAggregationTemporality()));
 
     // If no points available then return.
     if (metricData.getPoints().isEmpty()) {
@@ -115,7 +125,8 @@ final class MetricAdapter {
             toDoubleDataPoints(metricData.getPoints(), metricData.getDescriptor()));
         break;
       case HISTOGRAM:
-        // TODO: Add support for histogram.
+        builder.addAllHistogramDataPoints(
+            toHistogramDataPoints(metricData.getPoints(), metricData.getDescriptor()));
         break;
       case SUMMARY:
         builder.addAllSummaryDataPoints(
@@ -125,24 +136,22 @@ final class MetricAdapter {
     return builder.build();
   }
 
-  static MetricDescriptor toProtoMetricDescriptor(Descriptor descriptor) {
+  static MetricDescriptor toProtoMetricDescriptor(
+      Descriptor descriptor, AggregationTemporality aggregationTemporality) {
     return MetricDescriptor.newBuilder()
         .setName(descriptor.getName())
         .setDescription(descriptor.getDescription())
         .setUnit(descriptor.getUnit())
         .setType(toProtoMetricDescriptorType(descriptor.getType()))
-        .setTemporality(mapToTemporality(descriptor))
+        .setTemporality(toProtoTemporality(aggregationTemporality))
         .build();
   }
 
-  private static Temporality mapToTemporality(Descriptor descriptor) {
-    switch (descriptor.getType()) {
-      case NON_MONOTONIC_LONG:
-      case NON_MONOTONIC_DOUBLE:
-      case MONOTONIC_LONG:
-      case MONOTONIC_DOUBLE:
+  private static Temporality toProtoTemporality(AggregationTemporality aggregationTemporality) {
+    switch (aggregationTemporality) {
+      case CUMULATIVE:
         return Temporality.CUMULATIVE;
-      case SUMMARY:
+      case DELTA:
         return Temporality.DELTA;
     }
     return Temporality.UNRECOGNIZED;
@@ -226,6 +235,83 @@ final class MetricAdapter {
     return result;
   }
 
+  static Collection<HistogramDataPoint> toHistogramDataPoints(
+      Collection<Point> points, Descriptor descriptor) {
+    List<HistogramDataPoint> result = new ArrayList<>(points.size());
+    for (Point point : points) {
+      HistogramPoint histogramPoint = (HistogramPoint) point;
+      HistogramDataPoint.Builder builder =
+          HistogramDataPoint.newBuilder()
+              .setStartTimeUnixNano(histogramPoint.getStartEpochNanos())
+              .setTimeUnixNano(histogramPoint.getEpochNanos())
+              .setCount(histogramPoint.getCount())
+              .setSum(histogramPoint.getSum())
+              .addAllExplicitBounds(histogramPoint.getBoundaries());
+      // Not calling directly addAllLabels because that generates couple of unnecessary allocations
+      // if empty list.
+      if (descriptor.getConstantLabels() != null && !descriptor.getConstantLabels().isEmpty()) {
+        builder.addAllLabels(toProtoLabels(descriptor.getConstantLabels()));
+      }
+      Collection<StringKeyValue> labels = toProtoLabels(histogramPoint.getLabels());
+      if (!labels.isEmpty()) {
+        builder.addAllLabels(labels);
+      }
+      MetricData.Exemplar[] bucketExemplars =
+          toBucketExemplars(histogramPoint.getExemplars(), histogramPoint.getBoundaries());
+      int bucket = 0;
+      for (Long count : histogramPoint.getCounts()) {
+        HistogramDataPoint.Bucket.Builder bucketBuilder =
+            HistogramDataPoint.Bucket.newBuilder().setCount(count);
+        if (bucketExemplars != null && bucketExemplars[bucket] != null) {
+          bucketBuilder.setExemplar(toProtoExemplar(bucketExemplars[bucket]));
+        }
+        builder.addBuckets(bucketBuilder);
+        bucket++;
+      }
+      result.add(builder.build());
+    }
+    return result;
+  }
+
+  /**
+   * Returns the most recent exemplar of every bucket, as OTLP keeps at most one exemplar per bucket
+   * and none for the other points, or {@code null} if there are no exemplars.
+   */
+  @Nullable
+  private static MetricData.Exemplar[] toBucketExemplars(
+      List<MetricData.Exemplar> exemplars, List<Double> boundaries) {
+    if (exemplars.isEmpty()) {
+      return null;
+    }
+    MetricData.Exemplar[] bucketExemplars = new MetricData.Exemplar[boundaries.size() + 1];
+    for (MetricData.Exemplar exemplar : exemplars) {
+      int bucket = 0;
+      while (bucket < boundaries.size() && exemplar.getValue() > boundaries.get(bucket)) {
+        bucket++;
+      }
+      MetricData.Exemplar previous = bucketExemplars[bucket];
+      if (previous == null || previous.getEpochNanos() <= exemplar.getEpochNanos()) {
+        bucketExemplars[bucket] = exemplar;
+      }
+    }
+    return bucketExemplars;
+  }
+
+  static HistogramDataPoint.Bucket.Exemplar toProtoExemplar(MetricData.Exemplar exemplar) {
+    return HistogramDataPoint.Bucket.Exemplar.newBuilder()
+        .setValue(exemplar.getValue())
+        .setTimeUnixNano(exemplar.getEpochNanos())
+        .addAttachments(
+            StringKeyValue.newBuilder()
+                .setKey(TRACE_ID_ATTACHMENT)
+                .setValue(exemplar.getSpanContext().getTraceId().toLowerBase16()))
+        .addAttachments(
+            StringKeyValue.newBuilder()
+                .setKey(SPAN_ID_ATTACHMENT)
+                .setValue(exemplar.getSpanContext().getSpanId().toLowerBase16()))
+        .build();
+  }
+
   // TODO: Consider to pass the Builder and directly add values.
   @SuppressWarnings("MixedMutabilityReturnType")
   static List<ValueAtPercentile> toProtoValueAtPercentiles(
@@ -256,6 +342,8 @@ final class MetricAdapter {
         return MetricDescriptor.Type.MONOTONIC_DOUBLE;
       case SUMMARY:
         return MetricDescriptor.Type.SUMMARY;
+      case HISTOGRAM:
+        return MetricDescriptor.Type.HISTOGRAM;
     }
     return MetricDescriptor.Type.UNRECOGNIZED;
   }
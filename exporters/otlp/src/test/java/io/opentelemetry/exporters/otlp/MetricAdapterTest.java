@@ -28,6 +28,7 @@ import io.opentelemetry.proto.common.v1.InstrumentationLibrary;
 import io.opentelemetry.proto.common.v1.KeyValue;
 import io.opentelemetry.proto.common.v1.StringKeyValue;
 import io.opentelemetry.proto.metrics.v1.DoubleDataPoint;
+import io.opentelemetry.proto.metrics.v1.HistogramDataPoint;
 import io.opentelemetry.proto.metrics.v1.InstrumentationLibraryMetrics;
 import io.opentelemetry.proto.metrics.v1.Int64DataPoint;
 import io.opentelemetry.proto.metrics.v1.Metric;
@@ -36,9 +37,15 @@ import io.opentelemetry.proto.metrics.v1.ResourceMetrics;
 import io.opentelemetry.proto.metrics.v1.SummaryDataPoint;
 import io.opentelemetry.proto.metrics.v1.SummaryDataPoint.ValueAtPercentile;
 import io.opentelemetry.sdk.common.InstrumentationLibraryInfo;
+import io.opentelemetry.sdk.metrics.data.AggregationTemporality;
 import io.opentelemetry.sdk.metrics.data.MetricData;
 import io.opentelemetry.sdk.metrics.data.MetricData.Descriptor;
 import io.opentelemetry.sdk.resources.Resource;
+import io.opentelemetry.trace.SpanContext;
+import io.opentelemetry.trace.SpanId;
+import io.opentelemetry.trace.TraceFlags;
+import io.opentelemetry.trace.TraceId;
+import io.opentelemetry.trace.TraceState;
 import java.util.Arrays;
 import java.util.Collections;
 import org.junit.jupiter.api.Test;
@@ -68,6 +75,8 @@ class MetricAdapterTest {
         .isEqualTo(MetricDescriptor.Type.MONOTONIC_INT64);
     assertThat(MetricAdapter.toProtoMetricDescriptorType(Descriptor.Type.SUMMARY))
         .isEqualTo(MetricDescriptor.Type.SUMMARY);
+    assertThat(MetricAdapter.toProtoMetricDescriptorType(Descriptor.Type.HISTOGRAM))
+        .isEqualTo(MetricDescriptor.Type.HISTOGRAM);
   }
 
   @Test
@@ -255,6 +264,92 @@ class MetricAdapterTest {
                 .build());
   }
 
+  @Test
+  void toHistogramDataPoints() {
+    Descriptor descriptor =
+        Descriptor.create(
+            "test", "testDescription", "unit", Descriptor.Type.HISTOGRAM, Labels.of("ck", "cv"));
+    assertThat(
+            MetricAdapter.toHistogramDataPoints(
+                singletonList(
+                    MetricData.HistogramPoint.create(
+                        123,
+                        456,
+                        Labels.of("k", "v"),
+                        5,
+                        14.2,
+                        ImmutableList.of(1.0, 10.0),
+                        ImmutableList.of(1L, 4L, 0L))),
+                descriptor))
+        .containsExactly(
+            HistogramDataPoint.newBuilder()
+                .setStartTimeUnixNano(123)
+                .setTimeUnixNano(456)
+                .addAllLabels(
+                    Arrays.asList(
+                        StringKeyValue.newBuilder().setKey("ck").setValue("cv").build(),
+                        StringKeyValue.newBuilder().setKey("k").setValue("v").build()))
+                .setCount(5)
+                .setSum(14.2)
+                .addAllExplicitBounds(ImmutableList.of(1.0, 10.0))
+                .addBuckets(HistogramDataPoint.Bucket.newBuilder().setCount(1))
+                .addBuckets(HistogramDataPoint.Bucket.newBuilder().setCount(4))
+                .addBuckets(HistogramDataPoint.Bucket.newBuilder().setCount(0))
+                .build());
+  }
+
+  @Test
+  void toHistogramDataPoints_WithExemplars() {
+    SpanContext spanContext =
+        SpanContext.create(
+            new TraceId(1, 2),
+            new SpanId(3),
+            TraceFlags.builder().setIsSampled(true).build(),
+            TraceState.getDefault());
+    Descriptor descriptor =
+        Descriptor.create("test", "", "unit", Descriptor.Type.HISTOGRAM, Labels.empty());
+    assertThat(
+            MetricAdapter.toHistogramDataPoints(
+                singletonList(
+                    MetricData.HistogramPoint.create(
+                        123,
+                        456,
+                        Labels.empty(),
+                        3,
+                        17.5,
+                        ImmutableList.of(1.0, 10.0),
+                        ImmutableList.of(0L, 3L, 0L),
+                        Arrays.asList(
+                            MetricData.Exemplar.create(2.5, 200, spanContext),
+                            MetricData.Exemplar.create(7.5, 300, spanContext)))),
+                descriptor))
+        .containsExactly(
+            HistogramDataPoint.newBuilder()
+                .setStartTimeUnixNano(123)
+                .setTimeUnixNano(456)
+                .setCount(3)
+                .setSum(17.5)
+                .addAllExplicitBounds(ImmutableList.of(1.0, 10.0))
+                .addBuckets(HistogramDataPoint.Bucket.newBuilder().setCount(0))
+                .addBuckets(
+                    HistogramDataPoint.Bucket.newBuilder()
+                        .setCount(3)
+                        .setExemplar(
+                            HistogramDataPoint.Bucket.Exemplar.newBuilder()
+                                .setValue(7.5)
+                                .setTimeUnixNano(300)
+                                .addAttachments(
+                                    StringKeyValue.newBuilder()
+                                        .setKey("trace_id")
+                                        .setValue("00000000000000010000000000000002"))
+                                .addAttachments(
+                                    StringKeyValue.newBuilder()
+                                        .setKey("span_id")
+                                        .setValue("0000000000000003"))))
+                .addBuckets(HistogramDataPoint.Bucket.newBuilder().setCount(0))
+                .build());
+  }
+
   @Test
   void toProtoMetricDescriptor() {
     assertThat(
@@ -264,7 +359,8 @@ class MetricAdapterTest {
                     "description",
                     "1",
                     Descriptor.Type.MONOTONIC_DOUBLE,
-                    Labels.of("k", "v"))))
+                    Labels.of("k", "v")),
+                AggregationTemporality.CUMULATIVE))
         .isEqualTo(
             MetricDescriptor.newBuilder()
                 .setName("name")
@@ -280,7 +376,8 @@ class MetricAdapterTest {
                     "description",
                     "1",
                     Descriptor.Type.NON_MONOTONIC_DOUBLE,
-                    Labels.empty())))
+                    Labels.empty()),
+                AggregationTemporality.CUMULATIVE))
         .isEqualTo(
             MetricDescriptor.newBuilder()
                 .setName("name")
@@ -292,7 +389,8 @@ class MetricAdapterTest {
     assertThat(
             MetricAdapter.toProtoMetricDescriptor(
                 Descriptor.create(
-                    "name", "description", "1", Descriptor.Type.SUMMARY, Labels.empty())))
+                    "name", "description", "1", Descriptor.Type.SUMMARY, Labels.empty()),
+                AggregationTemporality.DELTA))
         .isEqualTo(
             MetricDescriptor.newBuilder()
                 .setName("name")
@@ -301,6 +399,19 @@ class MetricAdapterTest {
                 .setType(MetricDescriptor.Type.SUMMARY)
                 .setTemporality(MetricDescriptor.Temporality.DELTA)
                 .build());
+    assertThat(
+            MetricAdapter.toProtoMetricDescriptor(
+                Descriptor.create(
+                    "name", "description", "1", Descriptor.Type.MONOTONIC_LONG, Labels.empty()),
+                AggregationTemporality.DELTA))
+        .isEqualTo(
+            MetricDescriptor.newBuilder()
+                .setName("name")
+                .setDescription("description")
+                .setUnit("1")
+                .setType(MetricDescriptor.Type.MONOTONIC_INT64)
+                .setTemporality(MetricDescriptor.Temporality.DELTA)
+                .build());
   }
 
   @Test
@@ -22,6 +22,7 @@ import io.opentelemetry.common.ReadableKeyValuePairs.KeyValueConsumer;
 import io.opentelemetry.sdk.metrics.data.MetricData;
 import io.opentelemetry.sdk.metrics.data.MetricData.Descriptor;
 import io.opentelemetry.sdk.metrics.data.MetricData.DoublePoint;
+import io.opentelemetry.sdk.metrics.data.MetricData.HistogramPoint;
 import io.opentelemetry.sdk.metrics.data.MetricData.LongPoint;
 import io.opentelemetry.sdk.metrics.data.MetricData.Point;
 import io.opentelemetry.sdk.metrics.data.MetricData.SummaryPoint;
@@ -43,7 +44,8 @@ import java.util.List;
  *
  * <p>{@code DoublePoint}, {@code LongPoint} will be converted to a single {@link Sample}. {@code
  * Summary} will be converted to two {@link Sample}s (sum and count) plus the number of Percentile
- * values {@code Sample}s
+ * values {@code Sample}s. {@code Histogram} will be converted to two {@link Sample}s (sum and
+ * count) plus one cumulative {@code Sample} per bucket.
  *
  * <p>Please note that Prometheus Metric and Label name can only have alphanumeric characters and
  * underscore. All other characters will be sanitized by underscores.
@@ -52,7 +54,9 @@ final class MetricAdapter {
 
   static final String SAMPLE_SUFFIX_COUNT = "_count";
   static final String SAMPLE_SUFFIX_SUM = "_sum";
+  static final String SAMPLE_SUFFIX_BUCKET = "_bucket";
   static final String LABEL_NAME_QUANTILE = "quantile";
+  static final String LABEL_NAME_LE = "le";
 
   // Converts a MetricData to a Prometheus MetricFamilySamples.
   static MetricFamilySamples toMetricFamilySamples(MetricData metricData) {
@@ -67,7 +71,7 @@ final class MetricAdapter {
         toSamples(cleanMetricName, descriptor, metricData.getPoints()));
   }
 
-  private static String cleanMetricName(String descriptorMetricName) {
+  static String cleanMetricName(String descriptorMetricName) {
     return Collector.sanitizeMetricName(descriptorMetricName);
   }
 
@@ -81,6 +85,8 @@ final class MetricAdapter {
         return Collector.Type.COUNTER;
       case SUMMARY:
         return Collector.Type.SUMMARY;
+      case HISTOGRAM:
+        return Collector.Type.HISTOGRAM;
     }
     return Collector.Type.UNTYPED;
   }
@@ -127,6 +133,9 @@ final class MetricAdapter {
         case SUMMARY:
           addSummarySamples((SummaryPoint) point, name, labelNames, labelValues, samples);
           break;
+        case HISTOGRAM:
+          addHistogramSamples((HistogramPoint) point, name, labelNames, labelValues, samples);
+          break;
       }
     }
     return samples;
@@ -177,6 +186,35 @@ final class MetricAdapter {
     }
   }
 
+  // Prometheus buckets are cumulative, each counts the values less than or equal to its "le" label.
+  private static void addHistogramSamples(
+      HistogramPoint histogramPoint,
+      String name,
+      List<String> labelNames,
+      List<String> labelValues,
+      List<Sample> samples) {
+    samples.add(
+        new Sample(name + SAMPLE_SUFFIX_COUNT, labelNames, labelValues, histogramPoint.getCount()));
+    samples.add(
+        new Sample(name + SAMPLE_SUFFIX_SUM, labelNames, labelValues, histogramPoint.getSum()));
+    List<String> labelNamesWithLe = new ArrayList<>(labelNames.size() + 1);
+    labelNamesWithLe.addAll(labelNames);
+    labelNamesWithLe.add(LABEL_NAME_LE);
+    List<Double> boundaries = histogramPoint.getBoundaries();
+    List<Long> counts = histogramPoint.getCounts();
+    long cumulativeCount = 0;
+    for (int i = 0; i < counts.size(); i++) {
+      cumulativeCount += counts.get(i);
+      List<String> labelValuesWithLe = new ArrayList<>(labelValues.size() + 1);
+      labelValuesWithLe.addAll(labelValues);
+      labelValuesWithLe.add(
+          doubleToGoString(i < boundaries.size() ? boundaries.get(i) : Double.POSITIVE_INFINITY));
+      samples.add(
+          new Sample(
+              name + SAMPLE_SUFFIX_BUCKET, labelNamesWithLe, labelValuesWithLe, cumulativeCount));
+    }
+  }
+
   private static int estimateNumSamples(int numPoints, Descriptor.Type type) {
     switch (type) {
       case NON_MONOTONIC_LONG:
@@ -187,6 +225,9 @@ final class MetricAdapter {
       case SUMMARY:
         // count + sum + estimated 2 percentiles (default MinMaxSumCount aggregator).
         return numPoints * 4;
+      case HISTOGRAM:
+        // count + sum + estimated 10 buckets.
+        return numPoints * 12;
     }
     return numPoints;
   }
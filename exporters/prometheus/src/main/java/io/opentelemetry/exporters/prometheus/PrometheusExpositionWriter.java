@@ -0,0 +1,507 @@
+/*
+ * Copyright 2020, OpenTelemetry Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.opentelemetry.exporters.prometheus;
+
+import static io.prometheus.client.Collector.doubleToGoString;
+
+import io.opentelemetry.common.Labels;
+import io.opentelemetry.common.ReadableKeyValuePairs.KeyValueConsumer;
+import io.opentelemetry.sdk.metrics.data.MetricData;
+import io.opentelemetry.sdk.metrics.data.MetricData.Descriptor;
+import io.opentelemetry.sdk.metrics.data.MetricData.DoublePoint;
+import io.opentelemetry.sdk.metrics.data.MetricData.Exemplar;
+import io.opentelemetry.sdk.metrics.data.MetricData.HistogramPoint;
+import io.opentelemetry.sdk.metrics.data.MetricData.LongPoint;
+import io.opentelemetry.sdk.metrics.data.MetricData.Point;
+import io.opentelemetry.sdk.metrics.data.MetricData.SummaryPoint;
+import io.opentelemetry.sdk.metrics.data.MetricData.ValueAtPercentile;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.ThreadSafe;
+
+/**
+ * Writes {@link MetricData} directly in the Prometheus text format, version 0.0.4, or in the
+ * OpenMetrics text format, version 1.0.0, without converting them to {@code
+ * Collector.MetricFamilySamples} first. It writes the same samples as a {@link
+ * PrometheusCollector}, with integer values written without a fractional part.
+ *
+ * <p>The escaped label pairs of every {@link Labels} are cached, so that the labels of a series are
+ * only formatted once as long as the series is written at least every other call. The cache only
+ * keeps the labels written by the last two calls.
+ *
+ * @since 0.8.0
+ */
+@ThreadSafe
+public final class PrometheusExpositionWriter {
+  /**
+   * The content type of the Prometheus text format, version 0.0.4.
+   *
+   * @since 0.8.0
+   */
+  public static final String CONTENT_TYPE_004 = "text/plain; version=0.0.4; charset=utf-8";
+
+  /**
+   * The content type of the OpenMetrics text format, version 1.0.0.
+   *
+   * @since 0.8.0
+   */
+  public static final String CONTENT_TYPE_OPENMETRICS_100 =
+      "application/openmetrics-text; version=1.0.0; charset=utf-8";
+
+  private static final String COUNTER_SUFFIX_TOTAL = "_total";
+
+  private final ConcurrentMap<Labels, CachedLabels> labelsCache = new ConcurrentHashMap<>();
+  private final AtomicLong generation = new AtomicLong();
+
+  /**
+   * Returns a new {@code PrometheusExpositionWriter}, with its own cache of labels. Use one
+   * instance per set of exposed metrics.
+   *
+   * @return a new {@code PrometheusExpositionWriter}.
+   * @since 0.8.0
+   */
+  public static PrometheusExpositionWriter create() {
+    return new PrometheusExpositionWriter();
+  }
+
+  private PrometheusExpositionWriter() {}
+
+  /**
+   * Writes the metrics in the Prometheus text format, version 0.0.4, see {@link #CONTENT_TYPE_004}.
+   *
+   * @param writer the {@code Writer} to which the metrics are written.
+   * @param metrics the metrics to write.
+   * @throws IOException if {@code writer} throws one.
+   * @since 0.8.0
+   */
+  public void write004(Writer writer, Collection<MetricData> metrics) throws IOException {
+    write(writer, metrics, /* openMetrics= */ false);
+  }
+
+  /**
+   * Writes the metrics in the OpenMetrics text format, version 1.0.0, see {@link
+   * #CONTENT_TYPE_OPENMETRICS_100}.
+   *
+   * @param writer the {@code Writer} to which the metrics are written.
+   * @param metrics the metrics to write.
+   * @throws IOException if {@code writer} throws one.
+   * @since 0.8.0
+   */
+  public void writeOpenMetrics100(Writer writer, Collection<MetricData> metrics)
+      throws IOException {
+    write(writer, metrics, /* openMetrics= */ true);
+  }
+
+  private void write(Writer writer, Collection<MetricData> metrics, boolean openMetrics)
+      throws IOException {
+    long currentGeneration = generation.incrementAndGet();
+    for (MetricData metricData : metrics) {
+      writeMetric(writer, metricData, openMetrics, currentGeneration);
+    }
+    if (openMetrics) {
+      writer.write("# EOF\n");
+    }
+    // Keeps the labels of the previous call too, which may still run concurrently.
+    Iterator<CachedLabels> iterator = labelsCache.values().iterator();
+    while (iterator.hasNext()) {
+      if (iterator.next().generation < currentGeneration - 1) {
+        iterator.remove();
+      }
+    }
+  }
+
+  private void writeMetric(
+      Writer writer, MetricData metricData, boolean openMetrics, long currentGeneration)
+      throws IOException {
+    Descriptor descriptor = metricData.getDescriptor();
+    String name = MetricAdapter.cleanMetricName(descriptor.getName());
+    String familyName = name;
+    boolean counter =
+        descriptor.getType() == Descriptor.Type.MONOTONIC_LONG
+            || descriptor.getType() == Descriptor.Type.MONOTONIC_DOUBLE;
+    if (openMetrics && counter) {
+      // OpenMetrics counter samples are suffixed with _total, their family is not.
+      if (name.endsWith(COUNTER_SUFFIX_TOTAL)) {
+        familyName = name.substring(0, name.length() - COUNTER_SUFFIX_TOTAL.length());
+      } else {
+        name = name + COUNTER_SUFFIX_TOTAL;
+      }
+    }
+
+    writer.write("# HELP ");
+    writer.write(familyName);
+    writer.write(' ');
+    writeEscapedHelp(writer, descriptor.getDescription(), openMetrics);
+    writer.write("\n# TYPE ");
+    writer.write(familyName);
+    writer.write(' ');
+    writer.write(toTypeName(descriptor.getType(), openMetrics));
+    writer.write('\n');
+
+    String constantLabels = getLabels(descriptor.getConstantLabels(), currentGeneration);
+    for (Point point : metricData.getPoints()) {
+      String labels = getLabels(point.getLabels(), currentGeneration);
+      // OpenMetrics only allows exemplars on counter samples and histogram buckets.
+      Exemplar exemplar = openMetrics && counter ? getLatestExemplar(point.getExemplars()) : null;
+      switch (descriptor.getType()) {
+        case MONOTONIC_DOUBLE:
+        case NON_MONOTONIC_DOUBLE:
+          writeSample(
+              writer,
+              name,
+              "",
+              constantLabels,
+              labels,
+              null,
+              null,
+              ((DoublePoint) point).getValue(),
+              exemplar);
+          break;
+        case MONOTONIC_LONG:
+        case NON_MONOTONIC_LONG:
+          writeSample(
+              writer,
+              name,
+              "",
+              constantLabels,
+              labels,
+              null,
+              null,
+              ((LongPoint) point).getValue(),
+              exemplar);
+          break;
+        case SUMMARY:
+          writeSummary(writer, name, constantLabels, labels, (SummaryPoint) point);
+          break;
+        case HISTOGRAM:
+          writeHistogram(writer, name, constantLabels, labels, (HistogramPoint) point, openMetrics);
+          break;
+      }
+    }
+  }
+
+  private static void writeSummary(
+      Writer writer, String name, String constantLabels, String labels, SummaryPoint point)
+      throws IOException {
+    writeSample(
+        writer,
+        name,
+        MetricAdapter.SAMPLE_SUFFIX_COUNT,
+        constantLabels,
+        labels,
+        null,
+        null,
+        point.getCount(),
+        null);
+    writeSample(
+        writer,
+        name,
+        MetricAdapter.SAMPLE_SUFFIX_SUM,
+        constantLabels,
+        labels,
+        null,
+        null,
+        point.getSum(),
+        null);
+    for (ValueAtPercentile valueAtPercentile : point.getPercentileValues()) {
+      writeSample(
+          writer,
+          name,
+          "",
+          constantLabels,
+          labels,
+          MetricAdapter.LABEL_NAME_QUANTILE,
+          doubleToGoString(valueAtPercentile.getPercentile()),
+          valueAtPercentile.getValue(),
+          null);
+    }
+  }
+
+  // Prometheus buckets are cumulative, each counts the values less than or equal to its "le" label.
+  private static void writeHistogram(
+      Writer writer,
+      String name,
+      String constantLabels,
+      String labels,
+      HistogramPoint point,
+      boolean openMetrics)
+      throws IOException {
+    writeSample(
+        writer,
+        name,
+        MetricAdapter.SAMPLE_SUFFIX_COUNT,
+        constantLabels,
+        labels,
+        null,
+        null,
+        point.getCount(),
+        null);
+    writeSample(
+        writer,
+        name,
+        MetricAdapter.SAMPLE_SUFFIX_SUM,
+        constantLabels,
+        labels,
+        null,
+        null,
+        point.getSum(),
+        null);
+    List<Double> boundaries = point.getBoundaries();
+    List<Long> counts = point.getCounts();
+    List<Exemplar> exemplars =
+        openMetrics ? point.getExemplars() : Collections.<Exemplar>emptyList();
+    long cumulativeCount = 0;
+    for (int i = 0; i < counts.size(); i++) {
+      cumulativeCount += counts.get(i);
+      // The exemplar of a bucket is a value of this bucket, not of the lower ones it includes.
+      Exemplar bucketExemplar = null;
+      if (!exemplars.isEmpty()) {
+        double lowerBound = i == 0 ? Double.NEGATIVE_INFINITY : boundaries.get(i - 1);
+        double upperBound = i < boundaries.size() ? boundaries.get(i) : Double.POSITIVE_INFINITY;
+        for (Exemplar exemplar : exemplars) {
+          if (exemplar.getValue() > lowerBound
+              && exemplar.getValue() <= upperBound
+              && (bucketExemplar == null
+                  || bucketExemplar.getEpochNanos() <= exemplar.getEpochNanos())) {
+            bucketExemplar = exemplar;
+          }
+        }
+      }
+      writeSample(
+          writer,
+          name,
+          MetricAdapter.SAMPLE_SUFFIX_BUCKET,
+          constantLabels,
+          labels,
+          MetricAdapter.LABEL_NAME_LE,
+          doubleToGoString(i < boundaries.size() ? boundaries.get(i) : Double.POSITIVE_INFINITY),
+          cumulativeCount,
+          bucketExemplar);
+    }
+  }
+
+  @Nullable
+  private static Exemplar getLatestExemplar(List<Exemplar> exemplars) {
+    Exemplar latest = null;
+    for (Exemplar exemplar : exemplars) {
+      if (latest == null || latest.getEpochNanos() <= exemplar.getEpochNanos()) {
+        latest = exemplar;
+      }
+    }
+    return latest;
+  }
+
+  private static void writeSample(
+      Writer writer,
+      String name,
+      String suffix,
+      String constantLabels,
+      String labels,
+      @Nullable String extraLabelName,
+      @Nullable String extraLabelValue,
+      double value,
+      @Nullable Exemplar exemplar)
+      throws IOException {
+    writeSampleName(writer, name, suffix, constantLabels, labels, extraLabelName, extraLabelValue);
+    writer.write(doubleToGoString(value));
+    writeExemplar(writer, exemplar);
+    writer.write('\n');
+  }
+
+  private static void writeSample(
+      Writer writer,
+      String name,
+      String suffix,
+      String constantLabels,
+      String labels,
+      @Nullable String extraLabelName,
+      @Nullable String extraLabelValue,
+      long value,
+      @Nullable Exemplar exemplar)
+      throws IOException {
+    writeSampleName(writer, name, suffix, constantLabels, labels, extraLabelName, extraLabelValue);
+    writer.write(Long.toString(value));
+    writeExemplar(writer, exemplar);
+    writer.write('\n');
+  }
+
+  // Writes the OpenMetrics exemplar of a sample, if any, with the ids of its span as labels.
+  private static void writeExemplar(Writer writer, @Nullable Exemplar exemplar) throws IOException {
+    if (exemplar == null) {
+      return;
+    }
+    writer.write(" # {trace_id=\"");
+    writer.write(exemplar.getSpanContext().getTraceId().toLowerBase16());
+    writer.write("\",span_id=\"");
+    writer.write(exemplar.getSpanContext().getSpanId().toLowerBase16());
+    writer.write("\"} ");
+    writer.write(doubleToGoString(exemplar.getValue()));
+    writer.write(' ');
+    long epochMillis = exemplar.getEpochNanos() / 1_000_000;
+    writer.write(Long.toString(epochMillis / 1000));
+    writer.write('.');
+    long millis = epochMillis % 1000;
+    if (millis < 100) {
+      writer.write(millis < 10 ? "00" : "0");
+    }
+    writer.write(Long.toString(millis));
+  }
+
+  // Writes the name and the labels of a sample, followed by a space.
+  private static void writeSampleName(
+      Writer writer,
+      String name,
+      String suffix,
+      String constantLabels,
+      String labels,
+      @Nullable String extraLabelName,
+      @Nullable String extraLabelValue)
+      throws IOException {
+    writer.write(name);
+    writer.write(suffix);
+    if (!constantLabels.isEmpty() || !labels.isEmpty() || extraLabelName != null) {
+      writer.write('{');
+      writer.write(constantLabels);
+      if (!constantLabels.isEmpty() && !labels.isEmpty()) {
+        writer.write(',');
+      }
+      writer.write(labels);
+      if (extraLabelName != null) {
+        if (!constantLabels.isEmpty() || !labels.isEmpty()) {
+          writer.write(',');
+        }
+        writer.write(extraLabelName);
+        writer.write("=\"");
+        writer.write(extraLabelValue);
+        writer.write('"');
+      }
+      writer.write('}');
+    }
+    writer.write(' ');
+  }
+
+  // Returns the escaped label pairs of labels, without braces.
+  String getLabels(Labels labels, long currentGeneration) {
+    if (labels.isEmpty()) {
+      return "";
+    }
+    CachedLabels cachedLabels = labelsCache.get(labels);
+    if (cachedLabels == null) {
+      LabelsFormatter formatter = new LabelsFormatter();
+      labels.forEach(formatter);
+      cachedLabels = new CachedLabels(formatter.builder.toString());
+      labelsCache.put(labels, cachedLabels);
+    }
+    cachedLabels.generation = currentGeneration;
+    return cachedLabels.formatted;
+  }
+
+  int getCachedLabelsCount() {
+    return labelsCache.size();
+  }
+
+  private static String toTypeName(Descriptor.Type type, boolean openMetrics) {
+    switch (type) {
+      case NON_MONOTONIC_LONG:
+      case NON_MONOTONIC_DOUBLE:
+        return "gauge";
+      case MONOTONIC_LONG:
+      case MONOTONIC_DOUBLE:
+        return "counter";
+      case SUMMARY:
+        return "summary";
+      case HISTOGRAM:
+        return "histogram";
+    }
+    return openMetrics ? "unknown" : "untyped";
+  }
+
+  private static void writeEscapedHelp(Writer writer, String help, boolean openMetrics)
+      throws IOException {
+    for (int i = 0; i < help.length(); i++) {
+      char c = help.charAt(i);
+      switch (c) {
+        case '\\':
+          writer.write("\\\\");
+          break;
+        case '\n':
+          writer.write("\\n");
+          break;
+        case '"':
+          if (openMetrics) {
+            writer.write("\\\"");
+          } else {
+            writer.write(c);
+          }
+          break;
+        default:
+          writer.write(c);
+      }
+    }
+  }
+
+  private static void appendEscapedLabelValue(StringBuilder builder, String value) {
+    for (int i = 0; i < value.length(); i++) {
+      char c = value.charAt(i);
+      switch (c) {
+        case '\\':
+          builder.append("\\\\");
+          break;
+        case '\n':
+          builder.append("\\n");
+          break;
+        case '"':
+          builder.append("\\\"");
+          break;
+        default:
+          builder.append(c);
+      }
+    }
+  }
+
+  private static final class CachedLabels {
+    private final String formatted;
+    // The last call of write that used these labels.
+    private volatile long generation;
+
+    private CachedLabels(String formatted) {
+      this.formatted = formatted;
+    }
+  }
+
+  private static final class LabelsFormatter implements KeyValueConsumer<String> {
+    private final StringBuilder builder = new StringBuilder();
+
+    @Override
+    public void consume(String key, String value) {
+      if (builder.length() != 0) {
+        builder.append(',');
+      }
+      builder.append(MetricAdapter.toLabelName(key)).append("=\"");
+      appendEscapedLabelValue(builder, value == null ? "" : value);
+      builder.append('"');
+    }
+  }
+}
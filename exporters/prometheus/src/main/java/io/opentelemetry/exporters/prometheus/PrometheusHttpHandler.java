@@ -0,0 +1,129 @@
+/*
+ * Copyright 2020, OpenTelemetry Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.opentelemetry.exporters.prometheus;
+
+import com.sun.net.httpserver.Headers;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import io.opentelemetry.sdk.metrics.data.MetricData;
+import io.opentelemetry.sdk.metrics.export.MetricProducer;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * An {@link HttpHandler} that serves the metrics of a {@link MetricProducer} to Prometheus scrapes,
+ * without the Prometheus simpleclient registry and HTTP server:
+ *
+ * <pre>{@code
+ * HttpServer server = HttpServer.create(new InetSocketAddress(9464), 0);
+ * server.createContext("/metrics", PrometheusHttpHandler.create(metricProducer));
+ * server.start();
+ * }</pre>
+ *
+ * <p>The metrics are streamed with a {@link PrometheusExpositionWriter} in the OpenMetrics format
+ * when the scraper accepts it, in the Prometheus text format otherwise, and are compressed with
+ * gzip when the scraper accepts it.
+ *
+ * @since 0.8.0
+ */
+public final class PrometheusHttpHandler implements HttpHandler {
+  private static final String OPENMETRICS_MEDIA_TYPE = "application/openmetrics-text";
+
+  private final MetricProducer metricProducer;
+  private final PrometheusExpositionWriter expositionWriter = PrometheusExpositionWriter.create();
+
+  /**
+   * Returns a new {@code PrometheusHttpHandler} serving the metrics of {@code metricProducer}.
+   *
+   * @param metricProducer the {@code MetricProducer} collected on every scrape.
+   * @return a new {@code PrometheusHttpHandler}.
+   * @since 0.8.0
+   */
+  public static PrometheusHttpHandler create(MetricProducer metricProducer) {
+    return new PrometheusHttpHandler(Objects.requireNonNull(metricProducer, "metricProducer"));
+  }
+
+  private PrometheusHttpHandler(MetricProducer metricProducer) {
+    this.metricProducer = metricProducer;
+  }
+
+  @Override
+  public void handle(HttpExchange httpExchange) throws IOException {
+    try {
+      Headers requestHeaders = httpExchange.getRequestHeaders();
+      String accept = requestHeaders.getFirst("Accept");
+      boolean openMetrics = accept != null && accept.contains(OPENMETRICS_MEDIA_TYPE);
+      httpExchange
+          .getResponseHeaders()
+          .set(
+              "Content-Type",
+              openMetrics
+                  ? PrometheusExpositionWriter.CONTENT_TYPE_OPENMETRICS_100
+                  : PrometheusExpositionWriter.CONTENT_TYPE_004);
+      if ("HEAD".equals(httpExchange.getRequestMethod())) {
+        httpExchange.sendResponseHeaders(200, -1);
+        return;
+      }
+
+      Collection<MetricData> metrics = metricProducer.collectAllMetrics();
+      boolean gzip = acceptsGzip(requestHeaders.get("Accept-Encoding"));
+      if (gzip) {
+        httpExchange.getResponseHeaders().set("Content-Encoding", "gzip");
+      }
+      // The length is unknown, the response is streamed with chunked encoding.
+      httpExchange.sendResponseHeaders(200, 0);
+      OutputStream outputStream = httpExchange.getResponseBody();
+      if (gzip) {
+        outputStream = new GZIPOutputStream(outputStream);
+      }
+      try (Writer writer =
+          new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8))) {
+        if (openMetrics) {
+          expositionWriter.writeOpenMetrics100(writer, metrics);
+        } else {
+          expositionWriter.write004(writer, metrics);
+        }
+      }
+    } finally {
+      httpExchange.close();
+    }
+  }
+
+  private static boolean acceptsGzip(List<String> acceptEncodings) {
+    if (acceptEncodings == null) {
+      return false;
+    }
+    for (String acceptEncoding : acceptEncodings) {
+      for (String coding : acceptEncoding.split(",")) {
+        int parameters = coding.indexOf(';');
+        String name = parameters < 0 ? coding : coding.substring(0, parameters);
+        if (name.trim().equalsIgnoreCase("gzip")) {
+          return true;
+        }
+      }
+    }
+    return false;
+  }
+}
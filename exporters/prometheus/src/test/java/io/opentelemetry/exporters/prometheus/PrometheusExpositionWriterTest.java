@@ -0,0 +1,241 @@
+/*
+ * Copyright 2020, OpenTelemetry Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.opentelemetry.exporters.prometheus;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.opentelemetry.common.Labels;
+import io.opentelemetry.sdk.common.InstrumentationLibraryInfo;
+import io.opentelemetry.sdk.metrics.data.MetricData;
+import io.opentelemetry.sdk.metrics.data.MetricData.Descriptor;
+import io.opentelemetry.sdk.metrics.data.MetricData.DoublePoint;
+import io.opentelemetry.sdk.metrics.data.MetricData.Exemplar;
+import io.opentelemetry.sdk.metrics.data.MetricData.HistogramPoint;
+import io.opentelemetry.sdk.metrics.data.MetricData.LongPoint;
+import io.opentelemetry.sdk.metrics.data.MetricData.Point;
+import io.opentelemetry.sdk.metrics.data.MetricData.SummaryPoint;
+import io.opentelemetry.sdk.metrics.data.MetricData.ValueAtPercentile;
+import io.opentelemetry.sdk.resources.Resource;
+import io.opentelemetry.trace.SpanContext;
+import io.opentelemetry.trace.SpanId;
+import io.opentelemetry.trace.TraceFlags;
+import io.opentelemetry.trace.TraceId;
+import io.opentelemetry.trace.TraceState;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+/** Unit tests for {@link PrometheusExpositionWriter}. */
+class PrometheusExpositionWriterTest {
+  private static final InstrumentationLibraryInfo INSTRUMENTATION_LIBRARY_INFO =
+      InstrumentationLibraryInfo.create("io.opentelemetry.exporters.prometheus", null);
+
+  private final PrometheusExpositionWriter expositionWriter = PrometheusExpositionWriter.create();
+
+  @Test
+  void write004() throws IOException {
+    assertThat(writeToString(testData()))
+        .isEqualTo(
+            "# HELP grpc_requests Requests \\\\ with \"quotes\"\\nand lines\n"
+                + "# TYPE grpc_requests counter\n"
+                + "grpc_requests{kc=\"vc\",kp=\"vp\"} 5\n"
+                + "grpc_requests{kc=\"vc\",kp=\"a\\\"b\\\\c\\nd\"} 7\n"
+                + "# HELP temperature \n"
+                + "# TYPE temperature gauge\n"
+                + "temperature 3.5\n"
+                + "# HELP latency \n"
+                + "# TYPE latency summary\n"
+                + "latency_count{kp=\"vp\"} 2\n"
+                + "latency_sum{kp=\"vp\"} 7.0\n"
+                + "latency{kp=\"vp\",quantile=\"0.0\"} 3.0\n"
+                + "latency{kp=\"vp\",quantile=\"100.0\"} 4.0\n"
+                + "# HELP size \n"
+                + "# TYPE size histogram\n"
+                + "size_count 3\n"
+                + "size_sum 25.0\n"
+                + "size_bucket{le=\"10.0\"} 1\n"
+                + "size_bucket{le=\"+Inf\"} 3\n");
+  }
+
+  @Test
+  void writeOpenMetrics100() throws IOException {
+    StringWriter stringWriter = new StringWriter();
+    expositionWriter.writeOpenMetrics100(
+        stringWriter,
+        Arrays.asList(
+            counter("requests", "", Labels.empty(), Labels.of("kp", "vp"), 5),
+            counter("errors_total", "Errors", Labels.empty(), Labels.empty(), 1)));
+    assertThat(stringWriter.toString())
+        .isEqualTo(
+            "# HELP requests \n"
+                + "# TYPE requests counter\n"
+                + "requests_total{kp=\"vp\"} 5\n"
+                + "# HELP errors Errors\n"
+                + "# TYPE errors counter\n"
+                + "errors_total 1\n"
+                + "# EOF\n");
+  }
+
+  @Test
+  void writeOpenMetrics100_WithExemplars() throws IOException {
+    SpanContext spanContext =
+        SpanContext.create(
+            new TraceId(1, 2),
+            new SpanId(3),
+            TraceFlags.builder().setIsSampled(true).build(),
+            TraceState.getDefault());
+    List<Exemplar> exemplars =
+        Arrays.asList(
+            Exemplar.create(4, 1_600_000_000_005_000_000L, spanContext),
+            Exemplar.create(12.5, 1_600_000_000_120_000_000L, spanContext));
+    List<MetricData> metrics =
+        Arrays.asList(
+            MetricData.create(
+                Descriptor.create(
+                    "requests", "", "1", Descriptor.Type.MONOTONIC_LONG, Labels.empty()),
+                Resource.getEmpty(),
+                INSTRUMENTATION_LIBRARY_INFO,
+                Collections.<Point>singletonList(
+                    LongPoint.create(123, 456, Labels.empty(), 5, exemplars))),
+            MetricData.create(
+                Descriptor.create("size", "", "By", Descriptor.Type.HISTOGRAM, Labels.empty()),
+                Resource.getEmpty(),
+                INSTRUMENTATION_LIBRARY_INFO,
+                Collections.<Point>singletonList(
+                    HistogramPoint.create(
+                        123,
+                        456,
+                        Labels.empty(),
+                        3,
+                        25,
+                        Collections.singletonList(10.0),
+                        Arrays.asList(1L, 2L),
+                        exemplars))));
+    StringWriter stringWriter = new StringWriter();
+    expositionWriter.writeOpenMetrics100(stringWriter, metrics);
+    String exemplarLabels =
+        "{trace_id=\"00000000000000010000000000000002\",span_id=\"0000000000000003\"}";
+    assertThat(stringWriter.toString())
+        .isEqualTo(
+            "# HELP requests \n"
+                + "# TYPE requests counter\n"
+                + "requests_total 5 # "
+                + exemplarLabels
+                + " 12.5 1600000000.120\n"
+                + "# HELP size \n"
+                + "# TYPE size histogram\n"
+                + "size_count 3\n"
+                + "size_sum 25.0\n"
+                + "size_bucket{le=\"10.0\"} 1 # "
+                + exemplarLabels
+                + " 4.0 1600000000.005\n"
+                + "size_bucket{le=\"+Inf\"} 3 # "
+                + exemplarLabels
+                + " 12.5 1600000000.120\n"
+                + "# EOF\n");
+
+    // The 0.0.4 format has no exemplars.
+    assertThat(writeToString(metrics)).doesNotContain("trace_id");
+  }
+
+  @Test
+  void labelsCache() throws IOException {
+    Labels first = Labels.of("kp", "first");
+    Labels second = Labels.of("kp", "second");
+    List<MetricData> firstData =
+        Collections.singletonList(counter("requests", "", Labels.empty(), first, 1));
+    List<MetricData> secondData =
+        Collections.singletonList(counter("requests", "", Labels.empty(), second, 1));
+
+    writeToString(firstData);
+    assertThat(expositionWriter.getLabels(first, 0)).isSameAs(expositionWriter.getLabels(first, 0));
+    writeToString(firstData);
+    assertThat(expositionWriter.getCachedLabelsCount()).isEqualTo(1);
+
+    // The labels of the previous call are kept, older ones are evicted.
+    writeToString(secondData);
+    assertThat(expositionWriter.getCachedLabelsCount()).isEqualTo(2);
+    writeToString(secondData);
+    assertThat(expositionWriter.getCachedLabelsCount()).isEqualTo(1);
+  }
+
+  private String writeToString(List<MetricData> metrics) throws IOException {
+    StringWriter stringWriter = new StringWriter();
+    expositionWriter.write004(stringWriter, metrics);
+    return stringWriter.toString();
+  }
+
+  static List<MetricData> testData() {
+    return Arrays.asList(
+        MetricData.create(
+            Descriptor.create(
+                "grpc.requests",
+                "Requests \\ with \"quotes\"\nand lines",
+                "1",
+                Descriptor.Type.MONOTONIC_LONG,
+                Labels.of("kc", "vc")),
+            Resource.getEmpty(),
+            INSTRUMENTATION_LIBRARY_INFO,
+            Arrays.<Point>asList(
+                LongPoint.create(123, 456, Labels.of("kp", "vp"), 5),
+                LongPoint.create(123, 456, Labels.of("kp", "a\"b\\c\nd"), 7))),
+        MetricData.create(
+            Descriptor.create(
+                "temperature", "", "C", Descriptor.Type.NON_MONOTONIC_DOUBLE, Labels.empty()),
+            Resource.getEmpty(),
+            INSTRUMENTATION_LIBRARY_INFO,
+            Collections.<Point>singletonList(DoublePoint.create(123, 456, Labels.empty(), 3.5))),
+        MetricData.create(
+            Descriptor.create("latency", "", "ms", Descriptor.Type.SUMMARY, Labels.empty()),
+            Resource.getEmpty(),
+            INSTRUMENTATION_LIBRARY_INFO,
+            Collections.<Point>singletonList(
+                SummaryPoint.create(
+                    123,
+                    456,
+                    Labels.of("kp", "vp"),
+                    2,
+                    7,
+                    Arrays.asList(
+                        ValueAtPercentile.create(0.0, 3), ValueAtPercentile.create(100.0, 4))))),
+        MetricData.create(
+            Descriptor.create("size", "", "By", Descriptor.Type.HISTOGRAM, Labels.empty()),
+            Resource.getEmpty(),
+            INSTRUMENTATION_LIBRARY_INFO,
+            Collections.<Point>singletonList(
+                HistogramPoint.create(
+                    123,
+                    456,
+                    Labels.empty(),
+                    3,
+                    25,
+                    Collections.singletonList(10.0),
+                    Arrays.asList(1L, 2L)))));
+  }
+
+  private static MetricData counter(
+      String name, String description, Labels constantLabels, Labels labels, long value) {
+    return MetricData.create(
+        Descriptor.create(name, description, "1", Descriptor.Type.MONOTONIC_LONG, constantLabels),
+        Resource.getEmpty(),
+        INSTRUMENTATION_LIBRARY_INFO,
+        Collections.<Point>singletonList(LongPoint.create(123, 456, labels, value)));
+  }
+}
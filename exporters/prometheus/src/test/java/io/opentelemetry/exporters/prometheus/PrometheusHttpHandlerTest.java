@@ -0,0 +1,110 @@
+/*
+ * Copyright 2020, OpenTelemetry Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.opentelemetry.exporters.prometheus;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.sun.net.httpserver.HttpServer;
+import io.opentelemetry.sdk.metrics.data.MetricData;
+import io.opentelemetry.sdk.metrics.export.MetricProducer;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.StringWriter;
+import java.net.HttpURLConnection;
+import java.net.InetSocketAddress;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.zip.GZIPInputStream;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/** Unit tests for {@link PrometheusHttpHandler}. */
+class PrometheusHttpHandlerTest {
+  private HttpServer server;
+  private URL url;
+
+  @BeforeEach
+  void setUp() throws IOException {
+    MetricProducer metricProducer =
+        new MetricProducer() {
+          @Override
+          public Collection<MetricData> collectAllMetrics() {
+            return PrometheusExpositionWriterTest.testData();
+          }
+        };
+    server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+    server.createContext("/metrics", PrometheusHttpHandler.create(metricProducer));
+    server.start();
+    url = new URL("http://localhost:" + server.getAddress().getPort() + "/metrics");
+  }
+
+  @AfterEach
+  void tearDown() {
+    server.stop(0);
+  }
+
+  @Test
+  void prometheusText() throws IOException {
+    HttpURLConnection connection = (HttpURLConnection) url.openConnection();
+
+    assertThat(connection.getResponseCode()).isEqualTo(200);
+    assertThat(connection.getContentType()).isEqualTo(PrometheusExpositionWriter.CONTENT_TYPE_004);
+    assertThat(connection.getHeaderField("Content-Encoding")).isNull();
+    assertThat(read(connection.getInputStream())).isEqualTo(expected(false));
+  }
+
+  @Test
+  void openMetricsGzip() throws IOException {
+    HttpURLConnection connection = (HttpURLConnection) url.openConnection();
+    connection.setRequestProperty(
+        "Accept", "application/openmetrics-text; version=1.0.0,text/plain;q=0.5");
+    connection.setRequestProperty("Accept-Encoding", "deflate, gzip;q=1.0");
+
+    assertThat(connection.getResponseCode()).isEqualTo(200);
+    assertThat(connection.getContentType())
+        .isEqualTo(PrometheusExpositionWriter.CONTENT_TYPE_OPENMETRICS_100);
+    assertThat(connection.getHeaderField("Content-Encoding")).isEqualTo("gzip");
+    assertThat(read(new GZIPInputStream(connection.getInputStream()))).isEqualTo(expected(true));
+  }
+
+  private static String expected(boolean openMetrics) throws IOException {
+    StringWriter stringWriter = new StringWriter();
+    if (openMetrics) {
+      PrometheusExpositionWriter.create()
+          .writeOpenMetrics100(stringWriter, PrometheusExpositionWriterTest.testData());
+    } else {
+      PrometheusExpositionWriter.create()
+          .write004(stringWriter, PrometheusExpositionWriterTest.testData());
+    }
+    return stringWriter.toString();
+  }
+
+  private static String read(InputStream inputStream) throws IOException {
+    try (InputStream in = inputStream) {
+      ByteArrayOutputStream out = new ByteArrayOutputStream();
+      byte[] buffer = new byte[4096];
+      int read;
+      while ((read = in.read(buffer)) != -1) {
+        out.write(buffer, 0, read);
+      }
+      return new String(out.toByteArray(), StandardCharsets.UTF_8);
+    }
+  }
+}
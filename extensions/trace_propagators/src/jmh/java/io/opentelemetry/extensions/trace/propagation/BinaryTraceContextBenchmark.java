@@ -0,0 +1,145 @@
+/*
+ * Copyright 2020, OpenTelemetry Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.opentelemetry.extensions.trace.propagation;
+
+import io.grpc.Context;
+import io.opentelemetry.context.propagation.HttpTextFormat;
+import io.opentelemetry.trace.DefaultSpan;
+import io.opentelemetry.trace.SpanContext;
+import io.opentelemetry.trace.SpanId;
+import io.opentelemetry.trace.TraceFlags;
+import io.opentelemetry.trace.TraceId;
+import io.opentelemetry.trace.TraceState;
+import io.opentelemetry.trace.TracingContextUtils;
+import io.opentelemetry.trace.propagation.HttpTraceContext;
+import java.nio.ByteBuffer;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares the {@link BinaryTraceContext} encoding with the W3C {@link HttpTraceContext} text
+ * encoding of the same {@link SpanContext}. Each inject benchmark creates a new {@code SpanContext}
+ * so that neither side benefits from cached encodings.
+ */
+@State(Scope.Thread)
+@Fork(1)
+@Measurement(iterations = 15, time = 1)
+@Warmup(iterations = 5, time = 1)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@BenchmarkMode(Mode.AverageTime)
+public class BinaryTraceContextBenchmark {
+  private static final TraceId TRACE_ID =
+      TraceId.fromLowerBase16("905734c59b913b4a905734c59b913b4a", 0);
+  private static final SpanId SPAN_ID = SpanId.fromLowerBase16("9909983295041501", 0);
+  private static final TraceFlags SAMPLED = TraceFlags.builder().setIsSampled(true).build();
+
+  private static final HttpTextFormat.Setter<Map<String, String>> setter =
+      new HttpTextFormat.Setter<Map<String, String>>() {
+        @Override
+        public void set(Map<String, String> carrier, String key, String value) {
+          carrier.put(key, value);
+        }
+      };
+
+  private static final HttpTextFormat.Getter<Map<String, String>> getter =
+      new HttpTextFormat.Getter<Map<String, String>>() {
+        @Override
+        public String get(Map<String, String> carrier, String key) {
+          return carrier.get(key);
+        }
+      };
+
+  @Param({"false", "true"})
+  public boolean withTraceState;
+
+  private final BinaryTraceContext binaryTraceContext = BinaryTraceContext.getInstance();
+  private final HttpTraceContext httpTraceContext = new HttpTraceContext();
+  private final ByteBuffer buffer = ByteBuffer.allocate(512);
+  private final Map<String, String> carrier = new HashMap<>();
+  private TraceState traceState;
+  private byte[] encodedBinary;
+  private Map<String, String> encodedText;
+
+  @Setup
+  public void setup() {
+    traceState =
+        withTraceState
+            ? TraceState.builder()
+                .set("rojo", "00f067aa0ba902b7")
+                .set("congo", "t61rcWkgMzE")
+                .build()
+            : TraceState.getDefault();
+    SpanContext spanContext = newSpanContext();
+    encodedBinary = binaryTraceContext.toByteArray(spanContext);
+    encodedText = new HashMap<>();
+    httpTraceContext.inject(
+        TracingContextUtils.withSpan(DefaultSpan.create(spanContext), Context.ROOT),
+        encodedText,
+        setter);
+  }
+
+  /** Encodes into a new byte array, as a gRPC binary metadata marshaller does. */
+  @Benchmark
+  public byte[] binaryToByteArray() {
+    return binaryTraceContext.toByteArray(newSpanContext());
+  }
+
+  /** Encodes into a reused buffer, as a message queue producer writing a frame header does. */
+  @Benchmark
+  public ByteBuffer binaryEncodeByteBuffer() {
+    buffer.clear();
+    binaryTraceContext.encode(newSpanContext(), buffer);
+    return buffer;
+  }
+
+  @Benchmark
+  public SpanContext binaryFromByteArray() {
+    return binaryTraceContext.fromByteArray(encodedBinary);
+  }
+
+  /** Injects the traceparent and tracestate headers into a reused map. */
+  @Benchmark
+  public Map<String, String> httpTraceContextInject() {
+    carrier.clear();
+    httpTraceContext.inject(
+        TracingContextUtils.withSpan(DefaultSpan.create(newSpanContext()), Context.ROOT),
+        carrier,
+        setter);
+    return carrier;
+  }
+
+  @Benchmark
+  public Context httpTraceContextExtract() {
+    return httpTraceContext.extract(Context.ROOT, encodedText, getter);
+  }
+
+  private SpanContext newSpanContext() {
+    return SpanContext.create(TRACE_ID, SPAN_ID, SAMPLED, traceState);
+  }
+}
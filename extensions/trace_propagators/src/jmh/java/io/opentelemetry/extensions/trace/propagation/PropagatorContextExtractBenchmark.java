@@ -20,6 +20,7 @@ import io.grpc.Context;
 import io.opentelemetry.context.propagation.HttpTextFormat;
 import io.opentelemetry.trace.Span;
 import io.opentelemetry.trace.TracingContextUtils;
+import io.opentelemetry.trace.propagation.HttpTraceContext;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
@@ -33,6 +34,7 @@ import org.openjdk.jmh.annotations.Level;
 import org.openjdk.jmh.annotations.Measurement;
 import org.openjdk.jmh.annotations.Mode;
 import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
 import org.openjdk.jmh.annotations.Scope;
 import org.openjdk.jmh.annotations.Setup;
 import org.openjdk.jmh.annotations.State;
@@ -256,4 +258,121 @@ public class PropagatorContextExtractBenchmark {
       return traceHeaders;
     }
   }
+
+  /** Benchmark for extracting context from the AWS X-Ray header, as sent by an ALB. */
+  public static class AwsXRayContextExtractBenchmark extends AbstractContextExtractBenchmark {
+
+    private static final List<Map<String, String>> traceHeaders =
+        Arrays.asList(
+            Collections.singletonMap(
+                AwsXRayPropagator.TRACE_HEADER_KEY,
+                "Root=1-905734c5-9b913b4a905734c59b913b4a;Parent=9909983295041501;Sampled=1"),
+            Collections.singletonMap(
+                AwsXRayPropagator.TRACE_HEADER_KEY,
+                "Root=1-21196a77-f299580e21196a77f299580e;Parent=993a97ee3691eb26;Sampled=0"),
+            Collections.singletonMap(
+                AwsXRayPropagator.TRACE_HEADER_KEY,
+                "Self=1-5f1e2b3c-0123456789abcdef01234567;"
+                    + "Root=1-2e7d0ad2-390617702e7d0ad239061770;Parent=d49582a2de984b86;Sampled=1"),
+            Collections.singletonMap(
+                AwsXRayPropagator.TRACE_HEADER_KEY,
+                "Root=1-905734c5-9b913b4a905734c59b913b4a;Parent=776ff807b787538a;Sampled=0"),
+            Collections.singletonMap(
+                AwsXRayPropagator.TRACE_HEADER_KEY,
+                "Root=1-68ec932c-33b3f2ee68ec932c33b3f2ee;Parent=68ec932c33b3f2ee;Sampled=0"));
+
+    private final HttpTextFormat.Getter<Map<String, String>> getter =
+        new HttpTextFormat.Getter<Map<String, String>>() {
+          @Override
+          public String get(Map<String, String> carrier, String key) {
+            return carrier.get(key);
+          }
+        };
+
+    private final AwsXRayPropagator xrayPropagator = new AwsXRayPropagator();
+
+    @Override
+    protected Context doExtract() {
+      return xrayPropagator.extract(Context.current(), getCarrier(), getter);
+    }
+
+    @Override
+    protected List<Map<String, String>> getHeaders() {
+      return traceHeaders;
+    }
+  }
+
+  /**
+   * Benchmark for extracting context with a {@link TraceMultiPropagator} from a carrier whose
+   * lookups are a case-insensitive scan over all the headers, like servlet requests. Only the last
+   * tried propagator, {@link HttpTraceContext}, finds its header.
+   */
+  public static class MultiPropagatorSlowGetterContextExtractBenchmark
+      extends AbstractContextExtractBenchmark {
+
+    private static final List<Map<String, String>> traceHeaders;
+
+    static {
+      traceHeaders =
+          Arrays.asList(
+              createHeaders("00-905734c59b913b4a905734c59b913b4a-9909983295041501-01"),
+              createHeaders("00-21196a77f299580e21196a77f299580e-993a97ee3691eb26-00"),
+              createHeaders("00-2e7d0ad2390617702e7d0ad239061770-d49582a2de984b86-01"),
+              createHeaders("00-905734c59b913b4a905734c59b913b4a-776ff807b787538a-00"),
+              createHeaders("00-68ec932c33b3f2ee68ec932c33b3f2ee-68ec932c33b3f2ee-00"));
+    }
+
+    private static Map<String, String> createHeaders(String traceparent) {
+      Map<String, String> headers = new HashMap<>();
+      headers.put("Accept", "application/json");
+      headers.put("Accept-Encoding", "gzip, deflate");
+      headers.put("Connection", "keep-alive");
+      headers.put("Content-Type", "application/json");
+      headers.put("Host", "example.com");
+      headers.put("User-Agent", "benchmark");
+      headers.put("Traceparent", traceparent);
+      return headers;
+    }
+
+    private static final HttpTextFormat.Getter<Map<String, String>> getter =
+        new HttpTextFormat.Getter<Map<String, String>>() {
+          @Override
+          public String get(Map<String, String> carrier, String key) {
+            for (Map.Entry<String, String> entry : carrier.entrySet()) {
+              if (entry.getKey().equalsIgnoreCase(key)) {
+                return entry.getValue();
+              }
+            }
+            return null;
+          }
+        };
+
+    @Param({"false", "true"})
+    public boolean cacheCarrierFields;
+
+    private HttpTextFormat propagator;
+
+    @Setup
+    public void setupPropagator() {
+      propagator =
+          TraceMultiPropagator.builder()
+              .addPropagator(new HttpTraceContext())
+              .addPropagator(B3Propagator.getMultipleHeaderPropagator())
+              .addPropagator(B3Propagator.getSingleHeaderPropagator())
+              .addPropagator(new JaegerPropagator())
+              .addPropagator(OtTracerPropagator.getInstance())
+              .setCacheCarrierFields(cacheCarrierFields)
+              .build();
+    }
+
+    @Override
+    protected Context doExtract() {
+      return propagator.extract(Context.current(), getCarrier(), getter);
+    }
+
+    @Override
+    protected List<Map<String, String>> getHeaders() {
+      return traceHeaders;
+    }
+  }
 }
@@ -36,6 +36,7 @@ import org.openjdk.jmh.annotations.Fork;
 import org.openjdk.jmh.annotations.Level;
 import org.openjdk.jmh.annotations.Measurement;
 import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
 import org.openjdk.jmh.annotations.OutputTimeUnit;
 import org.openjdk.jmh.annotations.Scope;
 import org.openjdk.jmh.annotations.State;
@@ -62,6 +63,8 @@ public class PropagatorContextInjectBenchmark {
             createTestSpanContext("905734c59b913b4a905734c59b913b4a", "776ff807b787538a"),
             createTestSpanContext("68ec932c33b3f2ee68ec932c33b3f2ee", "68ec932c33b3f2ee"));
 
+    private static final int FAN_OUT = 50;
+
     private final Map<String, String> carrier = new HashMap<>();
 
     private Integer iteration = 0;
@@ -81,6 +84,23 @@ public class PropagatorContextInjectBenchmark {
       return carrier;
     }
 
+    /** Benchmark for measuring inject of one context into the carriers of many requests. */
+    @Benchmark
+    @Measurement(iterations = 15, time = 1)
+    @Warmup(iterations = 5, time = 1)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    @BenchmarkMode(Mode.AverageTime)
+    @Fork(1)
+    @OperationsPerInvocation(FAN_OUT)
+    public Map<String, String> measureInjectFanOut() {
+      Context context =
+          TracingContextUtils.withSpan(DefaultSpan.create(contextToTest), Context.current());
+      for (int i = 0; i < FAN_OUT; i++) {
+        doInject(context, carrier);
+      }
+      return carrier;
+    }
+
     protected abstract void doInject(Context context, Map<String, String> carrier);
 
     @TearDown(Level.Iteration)
@@ -18,6 +18,7 @@ package io.opentelemetry.extensions.trace.propagation;
 
 import io.grpc.Context;
 import io.opentelemetry.context.propagation.HttpTextFormat;
+import io.opentelemetry.internal.EncodedHeaderCache;
 import io.opentelemetry.trace.DefaultSpan;
 import io.opentelemetry.trace.Span;
 import io.opentelemetry.trace.SpanContext;
@@ -37,6 +38,10 @@ import javax.annotation.Nullable;
  * https://https://docs.aws.amazon.com/xray/latest/devguide/xray-concepts.html#xray-concepts-tracingheader>AWS
  * Tracing header spec</a>
  *
+ * <p>Header pairs other than {@code Root}, {@code Parent}, {@code Sampled} and {@code Self} are
+ * kept in a single {@code xray} trace state entry and written back to the header on injection. The
+ * {@code Self} pair describes a single hop and is dropped.
+ *
  * <p>To register the X-Ray propagator together with default propagator:
  *
  * <pre>{@code
@@ -52,19 +57,24 @@ public class AwsXRayPropagator implements HttpTextFormat {
 
   // Visible for testing
   static final String TRACE_HEADER_KEY = "X-Amzn-Trace-Id";
+  // Visible for testing
+  static final String TRACE_STATE_KEY = "xray";
 
   private static final Logger logger = Logger.getLogger(AwsXRayPropagator.class.getName());
 
   private static final char TRACE_HEADER_DELIMITER = ';';
   private static final char KV_DELIMITER = '=';
+  // '=' is not allowed in trace state values, so extra header pairs are kept as key:value.
+  private static final char TRACE_STATE_KV_DELIMITER = ':';
 
   private static final String TRACE_ID_KEY = "Root";
   private static final int TRACE_ID_LENGTH = 35;
-  private static final String TRACE_ID_VERSION = "1";
+  private static final char TRACE_ID_VERSION = '1';
   private static final char TRACE_ID_DELIMITER = '-';
   private static final int TRACE_ID_DELIMITER_INDEX_1 = 1;
   private static final int TRACE_ID_DELIMITER_INDEX_2 = 10;
   private static final int TRACE_ID_FIRST_PART_LENGTH = 8;
+  private static final int TRACE_ID_HIGH_RANDOM_PART_LENGTH = 8;
 
   private static final String PARENT_ID_KEY = "Parent";
   private static final int PARENT_ID_LENGTH = 16;
@@ -74,8 +84,35 @@ public class AwsXRayPropagator implements HttpTextFormat {
   private static final char IS_SAMPLED = '1';
   private static final char NOT_SAMPLED = '0';
 
+  private static final String SELF_KEY = "Self";
+
+  private static final TraceFlags SAMPLED_FLAGS = TraceFlags.builder().setIsSampled(true).build();
+  private static final TraceFlags NOT_SAMPLED_FLAGS =
+      TraceFlags.builder().setIsSampled(false).build();
+
+  private static final String TRACE_HEADER_PREFIX = TRACE_ID_KEY + KV_DELIMITER;
+  private static final String PARENT_ID_PREFIX =
+      "" + TRACE_HEADER_DELIMITER + PARENT_ID_KEY + KV_DELIMITER;
+  private static final String SAMPLED_FLAG_PREFIX =
+      "" + TRACE_HEADER_DELIMITER + SAMPLED_FLAG_KEY + KV_DELIMITER;
+  private static final int TRACE_HEADER_SIZE =
+      TRACE_HEADER_PREFIX.length()
+          + TRACE_ID_LENGTH
+          + PARENT_ID_PREFIX.length()
+          + PARENT_ID_LENGTH
+          + SAMPLED_FLAG_PREFIX.length()
+          + SAMPLED_FLAG_LENGTH;
+
   private static final List<String> FIELDS = Collections.singletonList(TRACE_HEADER_KEY);
 
+  private static final EncodedHeaderCache<SpanContext> HEADER_CACHE =
+      new EncodedHeaderCache<SpanContext>() {
+        @Override
+        protected String encode(SpanContext spanContext) {
+          return AwsXRayPropagator.encode(spanContext);
+        }
+      };
+
   @Override
   public List<String> fields() {
     return FIELDS;
@@ -91,32 +128,57 @@ public class AwsXRayPropagator implements HttpTextFormat {
       return;
     }
 
-    SpanContext spanContext = span.getContext();
-
-    String otTraceId = spanContext.getTraceId().toLowerBase16();
-    String xrayTraceId =
-        TRACE_ID_VERSION
-            + TRACE_ID_DELIMITER
-            + otTraceId.substring(0, TRACE_ID_FIRST_PART_LENGTH)
-            + TRACE_ID_DELIMITER
-            + otTraceId.substring(TRACE_ID_FIRST_PART_LENGTH);
-    String parentId = spanContext.getSpanId().toLowerBase16();
-    char samplingFlag = spanContext.getTraceFlags().isSampled() ? IS_SAMPLED : NOT_SAMPLED;
-    // TODO: Add OT trace state to the X-Ray trace header
-
-    String traceHeader =
-        TRACE_ID_KEY
-            + KV_DELIMITER
-            + xrayTraceId
-            + TRACE_HEADER_DELIMITER
-            + PARENT_ID_KEY
-            + KV_DELIMITER
-            + parentId
-            + TRACE_HEADER_DELIMITER
-            + SAMPLED_FLAG_KEY
-            + KV_DELIMITER
-            + samplingFlag;
-    setter.set(carrier, TRACE_HEADER_KEY, traceHeader);
+    setter.set(carrier, TRACE_HEADER_KEY, HEADER_CACHE.get(span.getContext()));
+  }
+
+  private static String encode(SpanContext spanContext) {
+    String extraPairs = spanContext.getTraceState().get(TRACE_STATE_KEY);
+    int size = extraPairs == null ? TRACE_HEADER_SIZE : TRACE_HEADER_SIZE + 1 + extraPairs.length();
+    char[] chars = new char[size];
+
+    // X-Ray trace id format is 1-{8 digit hex}-{24 digit hex}. The 32 hex digits of the trace id
+    // are written after the version and shifted right by one to make room for the second '-'.
+    int pos = copyTo(TRACE_HEADER_PREFIX, chars, 0);
+    chars[pos] = TRACE_ID_VERSION;
+    chars[pos + TRACE_ID_DELIMITER_INDEX_1] = TRACE_ID_DELIMITER;
+    spanContext.getTraceId().copyLowerBase16To(chars, pos + TRACE_ID_DELIMITER_INDEX_1 + 1);
+    System.arraycopy(
+        chars,
+        pos + TRACE_ID_DELIMITER_INDEX_2,
+        chars,
+        pos + TRACE_ID_DELIMITER_INDEX_2 + 1,
+        TRACE_ID_LENGTH - TRACE_ID_DELIMITER_INDEX_2 - 1);
+    chars[pos + TRACE_ID_DELIMITER_INDEX_2] = TRACE_ID_DELIMITER;
+    pos += TRACE_ID_LENGTH;
+
+    pos = copyTo(PARENT_ID_PREFIX, chars, pos);
+    spanContext.getSpanId().copyLowerBase16To(chars, pos);
+    pos += PARENT_ID_LENGTH;
+
+    pos = copyTo(SAMPLED_FLAG_PREFIX, chars, pos);
+    chars[pos++] = spanContext.getTraceFlags().isSampled() ? IS_SAMPLED : NOT_SAMPLED;
+
+    if (extraPairs != null) {
+      // Restore the '=' of each key:value pair kept in the trace state.
+      chars[pos++] = TRACE_HEADER_DELIMITER;
+      boolean inKey = true;
+      for (int i = 0; i < extraPairs.length(); i++) {
+        char c = extraPairs.charAt(i);
+        if (c == TRACE_HEADER_DELIMITER) {
+          inKey = true;
+        } else if (inKey && c == TRACE_STATE_KV_DELIMITER) {
+          c = KV_DELIMITER;
+          inKey = false;
+        }
+        chars[pos++] = c;
+      }
+    }
+    return new String(chars);
+  }
+
+  private static int copyTo(String value, char[] dest, int destOffset) {
+    value.getChars(0, value.length(), dest, destOffset);
+    return destOffset + value.length();
   }
 
   @Override
@@ -141,39 +203,58 @@ public class AwsXRayPropagator implements HttpTextFormat {
     TraceId traceId = TraceId.getInvalid();
     SpanId spanId = SpanId.getInvalid();
     TraceFlags traceFlags = TraceFlags.getDefault();
+    // Header pairs other than the trace id, parent id, sampled flag and self id, allocated on first
+    // use.
+    StringBuilder extraPairs = null;
 
+    int length = traceHeader.length();
     int pos = 0;
-    while (pos < traceHeader.length()) {
-      int delimiterIndex = traceHeader.indexOf(TRACE_HEADER_DELIMITER, pos);
-      final String part;
-      if (delimiterIndex >= 0) {
-        part = traceHeader.substring(pos, delimiterIndex);
-        pos = delimiterIndex + 1;
-      } else {
+    while (pos < length) {
+      int partEnd = traceHeader.indexOf(TRACE_HEADER_DELIMITER, pos);
+      if (partEnd < 0) {
         // Last part.
-        part = traceHeader.substring(pos);
-        pos = traceHeader.length();
+        partEnd = length;
+      }
+      // Trim the part in place, like String.trim().
+      int start = pos;
+      int end = partEnd;
+      pos = partEnd + 1;
+      while (start < end && traceHeader.charAt(start) <= ' ') {
+        start++;
+      }
+      while (end > start && traceHeader.charAt(end - 1) <= ' ') {
+        end--;
       }
-      String trimmedPart = part.trim();
-      int equalsIndex = trimmedPart.indexOf(KV_DELIMITER);
-      if (equalsIndex < 0) {
+
+      int equalsIndex = traceHeader.indexOf(KV_DELIMITER, start);
+      if (equalsIndex < 0 || equalsIndex >= end) {
         logger.fine(
             "Error parsing X-Ray trace header. Invalid key value pair: "
-                + part
+                + traceHeader.substring(start, end)
                 + " Returning INVALID span context.");
         return SpanContext.getInvalid();
       }
 
-      String value = trimmedPart.substring(equalsIndex + 1);
-
-      if (trimmedPart.startsWith(TRACE_ID_KEY)) {
-        traceId = parseTraceId(value);
-      } else if (trimmedPart.startsWith(PARENT_ID_KEY)) {
-        spanId = parseSpanId(value);
-      } else if (trimmedPart.startsWith(SAMPLED_FLAG_KEY)) {
-        traceFlags = parseTraceFlag(value);
+      int valueStart = equalsIndex + 1;
+      if (isKey(traceHeader, start, equalsIndex, TRACE_ID_KEY)) {
+        traceId = parseTraceId(traceHeader, valueStart, end);
+      } else if (isKey(traceHeader, start, equalsIndex, PARENT_ID_KEY)) {
+        spanId = parseSpanId(traceHeader, valueStart, end);
+      } else if (isKey(traceHeader, start, equalsIndex, SAMPLED_FLAG_KEY)) {
+        traceFlags = parseTraceFlag(traceHeader, valueStart, end);
+      } else if (!isKey(traceHeader, start, equalsIndex, SELF_KEY)) {
+        // The Self pair added by load balancers describes this hop only and is not kept. Other
+        // pairs are kept in the trace state and injected again.
+        if (extraPairs == null) {
+          extraPairs = new StringBuilder(end - start);
+        } else {
+          extraPairs.append(TRACE_HEADER_DELIMITER);
+        }
+        extraPairs
+            .append(traceHeader, start, equalsIndex)
+            .append(TRACE_STATE_KV_DELIMITER)
+            .append(traceHeader, valueStart, end);
       }
-      // TODO: Put the arbitrary TraceHeader keys in OT trace state
     }
 
     if (!traceId.isValid()) {
@@ -206,63 +287,99 @@ public class AwsXRayPropagator implements HttpTextFormat {
       return SpanContext.getInvalid();
     }
 
-    return SpanContext.createFromRemoteParent(traceId, spanId, traceFlags, TraceState.getDefault());
+    return SpanContext.createFromRemoteParent(
+        traceId, spanId, traceFlags, toTraceState(extraPairs));
+  }
+
+  private static TraceState toTraceState(@Nullable StringBuilder extraPairs) {
+    if (extraPairs == null) {
+      return TraceState.getDefault();
+    }
+    try {
+      return TraceState.builder().set(TRACE_STATE_KEY, extraPairs.toString()).build();
+    } catch (IllegalArgumentException e) {
+      logger.fine(
+          "Unable to keep the extra X-Ray trace header pairs in the trace state: " + extraPairs);
+      return TraceState.getDefault();
+    }
+  }
+
+  private static boolean isKey(String traceHeader, int start, int end, String key) {
+    return end - start == key.length() && traceHeader.startsWith(key, start);
   }
 
-  private static TraceId parseTraceId(String xrayTraceId) {
-    if (xrayTraceId.length() != TRACE_ID_LENGTH) {
+  private static TraceId parseTraceId(String traceHeader, int start, int end) {
+    if (end - start != TRACE_ID_LENGTH) {
       return TraceId.getInvalid();
     }
 
     // Check version trace id version
-    if (!xrayTraceId.startsWith(TRACE_ID_VERSION)) {
+    if (traceHeader.charAt(start) != TRACE_ID_VERSION) {
       return TraceId.getInvalid();
     }
 
     // Check delimiters
-    if (xrayTraceId.charAt(TRACE_ID_DELIMITER_INDEX_1) != TRACE_ID_DELIMITER
-        || xrayTraceId.charAt(TRACE_ID_DELIMITER_INDEX_2) != TRACE_ID_DELIMITER) {
+    int epochStart = start + TRACE_ID_DELIMITER_INDEX_1 + 1;
+    int randomStart = start + TRACE_ID_DELIMITER_INDEX_2 + 1;
+    if (traceHeader.charAt(epochStart - 1) != TRACE_ID_DELIMITER
+        || traceHeader.charAt(randomStart - 1) != TRACE_ID_DELIMITER
+        || !isLowerBase16(traceHeader, epochStart, randomStart - 1)
+        || !isLowerBase16(traceHeader, randomStart, end)) {
       return TraceId.getInvalid();
     }
 
-    String epochPart =
-        xrayTraceId.substring(TRACE_ID_DELIMITER_INDEX_1 + 1, TRACE_ID_DELIMITER_INDEX_2);
-    String uniquePart = xrayTraceId.substring(TRACE_ID_DELIMITER_INDEX_2 + 1, TRACE_ID_LENGTH);
-
-    try {
-      // X-Ray trace id format is 1-{8 digit hex}-{24 digit hex}
-      return TraceId.fromLowerBase16(epochPart + uniquePart, 0);
-    } catch (Exception e) {
-      return TraceId.getInvalid();
-    }
+    // X-Ray trace id format is 1-{8 digit hex}-{24 digit hex}: the epoch and the first 8 digits of
+    // the random part make up the high half of the trace id.
+    int lowStart = randomStart + TRACE_ID_HIGH_RANDOM_PART_LENGTH;
+    long idHi =
+        decodeLowerBase16(traceHeader, epochStart, randomStart - 1) << 32
+            | decodeLowerBase16(traceHeader, randomStart, lowStart);
+    long idLo = decodeLowerBase16(traceHeader, lowStart, end);
+    return new TraceId(idHi, idLo);
   }
 
-  private static SpanId parseSpanId(String xrayParentId) {
-    if (xrayParentId.length() != PARENT_ID_LENGTH) {
+  private static SpanId parseSpanId(String traceHeader, int start, int end) {
+    if (end - start != PARENT_ID_LENGTH || !isLowerBase16(traceHeader, start, end)) {
       return SpanId.getInvalid();
     }
 
-    try {
-      return SpanId.fromLowerBase16(xrayParentId, 0);
-    } catch (Exception e) {
-      return SpanId.getInvalid();
-    }
+    return new SpanId(decodeLowerBase16(traceHeader, start, end));
   }
 
   @Nullable
-  private static TraceFlags parseTraceFlag(String xraySampledFlag) {
-    if (xraySampledFlag.length() != SAMPLED_FLAG_LENGTH) {
+  private static TraceFlags parseTraceFlag(String traceHeader, int start, int end) {
+    if (end - start != SAMPLED_FLAG_LENGTH) {
       // Returning null as there is no invalid trace flag defined.
       return null;
     }
 
-    char flag = xraySampledFlag.charAt(0);
+    char flag = traceHeader.charAt(start);
     if (flag == IS_SAMPLED) {
-      return TraceFlags.builder().setIsSampled(true).build();
+      return SAMPLED_FLAGS;
     } else if (flag == NOT_SAMPLED) {
-      return TraceFlags.builder().setIsSampled(false).build();
+      return NOT_SAMPLED_FLAGS;
     } else {
       return null;
     }
   }
+
+  private static boolean isLowerBase16(String chars, int start, int end) {
+    for (int i = start; i < end; i++) {
+      char c = chars.charAt(i);
+      if (!((c >= '0' && c <= '9') || (c >= 'a' && c <= 'f'))) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  // Decodes at most 16 lowercase base16 digits, already validated with isLowerBase16.
+  private static long decodeLowerBase16(String chars, int start, int end) {
+    long result = 0;
+    for (int i = start; i < end; i++) {
+      char c = chars.charAt(i);
+      result = result << 4 | (c <= '9' ? c - '0' : c - 'a' + 10);
+    }
+    return result;
+  }
 }
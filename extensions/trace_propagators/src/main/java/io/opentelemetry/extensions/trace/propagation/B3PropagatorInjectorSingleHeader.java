@@ -18,6 +18,7 @@ package io.opentelemetry.extensions.trace.propagation;
 
 import io.grpc.Context;
 import io.opentelemetry.context.propagation.HttpTextFormat;
+import io.opentelemetry.internal.EncodedHeaderCache;
 import io.opentelemetry.trace.Span;
 import io.opentelemetry.trace.SpanContext;
 import io.opentelemetry.trace.SpanId;
@@ -36,6 +37,13 @@ final class B3PropagatorInjectorSingleHeader implements B3PropagatorInjector {
   private static final int SAMPLED_FLAG_OFFSET =
       SPAN_ID_OFFSET + SPAN_ID_HEX_SIZE + COMBINED_HEADER_DELIMITER_SIZE;
   private static final int COMBINED_HEADER_SIZE = SAMPLED_FLAG_OFFSET + SAMPLED_FLAG_SIZE;
+  private static final EncodedHeaderCache<SpanContext> HEADER_CACHE =
+      new EncodedHeaderCache<SpanContext>() {
+        @Override
+        protected String encode(SpanContext spanContext) {
+          return B3PropagatorInjectorSingleHeader.encode(spanContext);
+        }
+      };
 
   @Override
   public <C> void inject(Context context, C carrier, HttpTextFormat.Setter<C> setter) {
@@ -47,8 +55,10 @@ final class B3PropagatorInjectorSingleHeader implements B3PropagatorInjector {
       return;
     }
 
-    SpanContext spanContext = span.getContext();
+    setter.set(carrier, B3Propagator.COMBINED_HEADER, HEADER_CACHE.get(span.getContext()));
+  }
 
+  private static String encode(SpanContext spanContext) {
     char[] chars = new char[COMBINED_HEADER_SIZE];
     spanContext.getTraceId().copyLowerBase16To(chars, 0);
     chars[SPAN_ID_OFFSET - 1] = B3Propagator.COMBINED_HEADER_DELIMITER_CHAR;
@@ -58,6 +68,6 @@ final class B3PropagatorInjectorSingleHeader implements B3PropagatorInjector {
         spanContext.getTraceFlags().isSampled()
             ? B3Propagator.IS_SAMPLED
             : B3Propagator.NOT_SAMPLED;
-    setter.set(carrier, B3Propagator.COMBINED_HEADER, new String(chars));
+    return new String(chars);
   }
 }
@@ -0,0 +1,337 @@
+/*
+ * Copyright 2020, OpenTelemetry Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.opentelemetry.extensions.trace.propagation;
+
+import io.opentelemetry.trace.SpanContext;
+import io.opentelemetry.trace.SpanId;
+import io.opentelemetry.trace.TraceFlags;
+import io.opentelemetry.trace.TraceId;
+import io.opentelemetry.trace.TraceState;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.util.List;
+import java.util.Objects;
+import java.util.logging.Logger;
+import javax.annotation.concurrent.Immutable;
+
+/**
+ * Binary encoding of a {@link SpanContext}, for RPC and messaging hops that carry bytes rather than
+ * text headers. Ids are written as raw bytes, avoiding the hex encoding and the intermediate
+ * strings of the text propagators.
+ *
+ * <p>The encoding starts with the 29 bytes of the OpenCensus {@code grpc-trace-bin} format, so
+ * peers that only understand that format can still read the ids:
+ *
+ * <pre>
+ *   version (1 byte, 0)
+ *   0 | trace id (16 bytes)
+ *   1 | span id (8 bytes)
+ *   2 | trace flags (1 byte)
+ *   3 | entry count (1 byte) | (key length (2 bytes) | key | value length (2 bytes) | value)*
+ * </pre>
+ *
+ * <p>The trailing trace state field is only written when the trace state is not empty. Lengths are
+ * big-endian and keys and values are ASCII, as required by the W3C trace state. Decoding stops at
+ * the first unknown field id so that new fields can be appended in later versions.
+ *
+ * <p>Malformed input decodes to {@link SpanContext#getInvalid()}; an invalid trace state is dropped
+ * while the ids are kept.
+ *
+ * @since 0.8.0
+ */
+@Immutable
+public final class BinaryTraceContext {
+  private static final Logger logger = Logger.getLogger(BinaryTraceContext.class.getName());
+  private static final Charset US_ASCII = Charset.forName("US-ASCII");
+
+  private static final byte VERSION_ID = 0;
+  private static final byte TRACE_ID_FIELD_ID = 0;
+  private static final byte SPAN_ID_FIELD_ID = 1;
+  private static final byte TRACE_FLAGS_FIELD_ID = 2;
+  private static final byte TRACE_STATE_FIELD_ID = 3;
+
+  private static final int ID_SIZE = 1;
+  private static final int TRACE_ID_OFFSET = 1 + ID_SIZE;
+  private static final int SPAN_ID_OFFSET = TRACE_ID_OFFSET + TraceId.getSize() + ID_SIZE;
+  private static final int TRACE_FLAGS_OFFSET = SPAN_ID_OFFSET + SpanId.getSize() + ID_SIZE;
+  private static final int TRACE_STATE_OFFSET = TRACE_FLAGS_OFFSET + TraceFlags.getSize();
+  private static final int LENGTH_SIZE = 2;
+  private static final int ENTRY_COUNT_SIZE = 1;
+
+  /** The size in bytes of an encoded {@link SpanContext} with an empty trace state. */
+  static final int MIN_ENCODED_SIZE = TRACE_STATE_OFFSET;
+
+  private static final BinaryTraceContext INSTANCE = new BinaryTraceContext();
+
+  private BinaryTraceContext() {
+    // singleton
+  }
+
+  /**
+   * Returns the singleton {@code BinaryTraceContext}.
+   *
+   * @return the singleton {@code BinaryTraceContext}.
+   * @since 0.8.0
+   */
+  public static BinaryTraceContext getInstance() {
+    return INSTANCE;
+  }
+
+  /**
+   * Returns the number of bytes needed to encode the given {@code SpanContext}.
+   *
+   * @param spanContext the {@code SpanContext} to encode.
+   * @return the number of bytes needed to encode the given {@code SpanContext}.
+   * @throws NullPointerException if {@code spanContext} is {@code null}.
+   * @since 0.8.0
+   */
+  public int getEncodedSize(SpanContext spanContext) {
+    Objects.requireNonNull(spanContext, "spanContext");
+    List<TraceState.Entry> entries = spanContext.getTraceState().getEntries();
+    if (entries.isEmpty()) {
+      return MIN_ENCODED_SIZE;
+    }
+    int size = MIN_ENCODED_SIZE + ID_SIZE + ENTRY_COUNT_SIZE;
+    for (int i = 0; i < entries.size(); i++) {
+      TraceState.Entry entry = entries.get(i);
+      size += 2 * LENGTH_SIZE + entry.getKey().length() + entry.getValue().length();
+    }
+    return size;
+  }
+
+  /**
+   * Encodes the given {@code SpanContext} into a new byte array.
+   *
+   * @param spanContext the {@code SpanContext} to encode.
+   * @return the encoded {@code SpanContext}.
+   * @throws NullPointerException if {@code spanContext} is {@code null}.
+   * @since 0.8.0
+   */
+  public byte[] toByteArray(SpanContext spanContext) {
+    byte[] bytes = new byte[getEncodedSize(spanContext)];
+    encode(spanContext, bytes, 0);
+    return bytes;
+  }
+
+  /**
+   * Encodes the given {@code SpanContext} into {@code dest}, starting at {@code destOffset}.
+   *
+   * @param spanContext the {@code SpanContext} to encode.
+   * @param dest the destination array.
+   * @param destOffset the offset in {@code dest} of the first encoded byte.
+   * @return the number of bytes written, as returned by {@link #getEncodedSize(SpanContext)}.
+   * @throws NullPointerException if {@code spanContext} or {@code dest} is {@code null}.
+   * @throws IndexOutOfBoundsException if {@code dest} is too small to hold the encoding.
+   * @since 0.8.0
+   */
+  public int encode(SpanContext spanContext, byte[] dest, int destOffset) {
+    int size = getEncodedSize(spanContext);
+    Objects.requireNonNull(dest, "dest");
+    if (destOffset < 0 || size > dest.length - destOffset) {
+      throw new IndexOutOfBoundsException(
+          "Need " + size + " bytes at offset " + destOffset + " of " + dest.length);
+    }
+    dest[destOffset] = VERSION_ID;
+    dest[destOffset + TRACE_ID_OFFSET - ID_SIZE] = TRACE_ID_FIELD_ID;
+    spanContext.getTraceId().copyBytesTo(dest, destOffset + TRACE_ID_OFFSET);
+    dest[destOffset + SPAN_ID_OFFSET - ID_SIZE] = SPAN_ID_FIELD_ID;
+    spanContext.getSpanId().copyBytesTo(dest, destOffset + SPAN_ID_OFFSET);
+    dest[destOffset + TRACE_FLAGS_OFFSET - ID_SIZE] = TRACE_FLAGS_FIELD_ID;
+    spanContext.getTraceFlags().copyBytesTo(dest, destOffset + TRACE_FLAGS_OFFSET);
+
+    List<TraceState.Entry> entries = spanContext.getTraceState().getEntries();
+    if (!entries.isEmpty()) {
+      int pos = destOffset + TRACE_STATE_OFFSET;
+      dest[pos++] = TRACE_STATE_FIELD_ID;
+      dest[pos++] = (byte) entries.size();
+      for (int i = 0; i < entries.size(); i++) {
+        TraceState.Entry entry = entries.get(i);
+        pos = writeAscii(entry.getKey(), dest, pos);
+        pos = writeAscii(entry.getValue(), dest, pos);
+      }
+    }
+    return size;
+  }
+
+  /**
+   * Encodes the given {@code SpanContext} into {@code dest}, starting at its current position. On
+   * return the position is advanced past the encoded bytes.
+   *
+   * @param spanContext the {@code SpanContext} to encode.
+   * @param dest the destination buffer.
+   * @throws NullPointerException if {@code spanContext} or {@code dest} is {@code null}.
+   * @throws java.nio.BufferOverflowException if {@code dest} has not enough remaining bytes.
+   * @throws java.nio.ReadOnlyBufferException if {@code dest} is read-only.
+   * @since 0.8.0
+   */
+  public void encode(SpanContext spanContext, ByteBuffer dest) {
+    Objects.requireNonNull(dest, "dest");
+    if (dest.hasArray()) {
+      int size = getEncodedSize(spanContext);
+      if (size > dest.remaining()) {
+        throw new BufferOverflowException();
+      }
+      encode(spanContext, dest.array(), dest.arrayOffset() + dest.position());
+      dest.position(dest.position() + size);
+    } else {
+      // Direct and read-only buffers don't expose their backing array.
+      dest.put(toByteArray(spanContext));
+    }
+  }
+
+  /**
+   * Decodes a {@code SpanContext} from the whole of {@code src}.
+   *
+   * @param src the encoded {@code SpanContext}.
+   * @return the decoded {@code SpanContext}, or {@link SpanContext#getInvalid()} if {@code src} is
+   *     malformed.
+   * @throws NullPointerException if {@code src} is {@code null}.
+   * @since 0.8.0
+   */
+  public SpanContext fromByteArray(byte[] src) {
+    Objects.requireNonNull(src, "src");
+    return decode(src, 0, src.length);
+  }
+
+  /**
+   * Decodes a {@code SpanContext} from {@code length} bytes of {@code src}, starting at {@code
+   * srcOffset}.
+   *
+   * @param src the array holding the encoded {@code SpanContext}.
+   * @param srcOffset the offset in {@code src} of the first encoded byte.
+   * @param length the number of encoded bytes.
+   * @return the decoded {@code SpanContext}, or {@link SpanContext#getInvalid()} if the bytes are
+   *     malformed.
+   * @throws NullPointerException if {@code src} is {@code null}.
+   * @throws IndexOutOfBoundsException if the range is outside of {@code src}.
+   * @since 0.8.0
+   */
+  public SpanContext fromByteArray(byte[] src, int srcOffset, int length) {
+    Objects.requireNonNull(src, "src");
+    if (srcOffset < 0 || length < 0 || length > src.length - srcOffset) {
+      throw new IndexOutOfBoundsException(
+          "Range [" + srcOffset + ", " + srcOffset + " + " + length + ") of " + src.length);
+    }
+    return decode(src, srcOffset, length);
+  }
+
+  /**
+   * Decodes a {@code SpanContext} from the remaining bytes of {@code src}. On return the position
+   * of {@code src} is set to its limit.
+   *
+   * @param src the buffer holding the encoded {@code SpanContext}.
+   * @return the decoded {@code SpanContext}, or {@link SpanContext#getInvalid()} if the bytes are
+   *     malformed.
+   * @throws NullPointerException if {@code src} is {@code null}.
+   * @since 0.8.0
+   */
+  public SpanContext fromByteBuffer(ByteBuffer src) {
+    Objects.requireNonNull(src, "src");
+    int length = src.remaining();
+    SpanContext spanContext;
+    if (src.hasArray()) {
+      spanContext = decode(src.array(), src.arrayOffset() + src.position(), length);
+      src.position(src.limit());
+    } else {
+      byte[] bytes = new byte[length];
+      src.get(bytes);
+      spanContext = decode(bytes, 0, length);
+    }
+    return spanContext;
+  }
+
+  private static SpanContext decode(byte[] src, int offset, int length) {
+    if (length < TRACE_FLAGS_OFFSET - ID_SIZE
+        || src[offset] != VERSION_ID
+        || src[offset + TRACE_ID_OFFSET - ID_SIZE] != TRACE_ID_FIELD_ID
+        || src[offset + SPAN_ID_OFFSET - ID_SIZE] != SPAN_ID_FIELD_ID) {
+      logger.fine("Invalid binary trace context. Returning INVALID span context.");
+      return SpanContext.getInvalid();
+    }
+    TraceId traceId = TraceId.fromBytes(src, offset + TRACE_ID_OFFSET);
+    SpanId spanId = SpanId.fromBytes(src, offset + SPAN_ID_OFFSET);
+    if (!traceId.isValid() || !spanId.isValid()) {
+      return SpanContext.getInvalid();
+    }
+
+    TraceFlags traceFlags = TraceFlags.getDefault();
+    TraceState traceState = TraceState.getDefault();
+    int end = offset + length;
+    int pos = offset + TRACE_FLAGS_OFFSET - ID_SIZE;
+    if (pos < end && src[pos] == TRACE_FLAGS_FIELD_ID) {
+      if (end - pos < ID_SIZE + TraceFlags.getSize()) {
+        logger.fine(
+            "Truncated trace flags in binary trace context. Returning INVALID span context.");
+        return SpanContext.getInvalid();
+      }
+      traceFlags = TraceFlags.fromByte(src[pos + ID_SIZE]);
+      pos += ID_SIZE + TraceFlags.getSize();
+      if (pos < end && src[pos] == TRACE_STATE_FIELD_ID) {
+        traceState = decodeTraceState(src, pos + ID_SIZE, end);
+      }
+    }
+    return SpanContext.createFromRemoteParent(traceId, spanId, traceFlags, traceState);
+  }
+
+  private static TraceState decodeTraceState(byte[] src, int pos, int end) {
+    if (pos >= end) {
+      return TraceState.getDefault();
+    }
+    int count = src[pos++] & 0xFF;
+    String[] keysAndValues = new String[2 * count];
+    for (int i = 0; i < keysAndValues.length; i++) {
+      if (end - pos < LENGTH_SIZE) {
+        return invalidTraceState();
+      }
+      int stringLength = ((src[pos] & 0xFF) << 8) | (src[pos + 1] & 0xFF);
+      pos += LENGTH_SIZE;
+      if (stringLength == 0 || end - pos < stringLength) {
+        return invalidTraceState();
+      }
+      keysAndValues[i] = new String(src, pos, stringLength, US_ASCII);
+      pos += stringLength;
+    }
+    TraceState.Builder builder = TraceState.builder();
+    try {
+      // The builder prepends, so add the entries in reverse to preserve their order.
+      for (int i = keysAndValues.length - 2; i >= 0; i -= 2) {
+        builder.set(keysAndValues[i], keysAndValues[i + 1]);
+      }
+      return builder.build();
+    } catch (IllegalArgumentException e) {
+      return invalidTraceState();
+    } catch (IllegalStateException e) {
+      return invalidTraceState();
+    }
+  }
+
+  private static TraceState invalidTraceState() {
+    logger.fine("Invalid trace state in binary trace context. Dropping the trace state.");
+    return TraceState.getDefault();
+  }
+
+  private static int writeAscii(String value, byte[] dest, int pos) {
+    int length = value.length();
+    dest[pos++] = (byte) (length >>> 8);
+    dest[pos++] = (byte) length;
+    for (int i = 0; i < length; i++) {
+      dest[pos++] = (byte) value.charAt(i);
+    }
+    return pos;
+  }
+}
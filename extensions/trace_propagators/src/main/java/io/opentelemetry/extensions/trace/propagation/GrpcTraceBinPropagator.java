@@ -0,0 +1,126 @@
+/*
+ * Copyright 2020, OpenTelemetry Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.opentelemetry.extensions.trace.propagation;
+
+import io.grpc.Context;
+import io.grpc.Metadata;
+import io.opentelemetry.trace.DefaultSpan;
+import io.opentelemetry.trace.Span;
+import io.opentelemetry.trace.SpanContext;
+import io.opentelemetry.trace.TracingContextUtils;
+import java.util.Objects;
+import javax.annotation.concurrent.Immutable;
+
+/**
+ * Propagates the {@link SpanContext} of a {@link Context} through the {@code grpc-trace-bin} binary
+ * metadata key of gRPC, using the {@link BinaryTraceContext} encoding.
+ *
+ * <p>This class requires {@code io.grpc:grpc-api} on the classpath, which is always the case for
+ * gRPC clients and servers:
+ *
+ * <pre>{@code
+ * // Client interceptor:
+ * GrpcTraceBinPropagator.getInstance().inject(Context.current(), headers);
+ * // Server interceptor:
+ * Context context = GrpcTraceBinPropagator.getInstance().extract(Context.current(), headers);
+ * }</pre>
+ *
+ * @since 0.8.0
+ */
+@Immutable
+public final class GrpcTraceBinPropagator {
+  static final String METADATA_KEY_NAME = "grpc-trace-bin";
+
+  /**
+   * The gRPC binary metadata key carrying the encoded {@link SpanContext}.
+   *
+   * @since 0.8.0
+   */
+  public static final Metadata.Key<SpanContext> METADATA_KEY =
+      Metadata.Key.of(METADATA_KEY_NAME, new SpanContextMarshaller());
+
+  private static final GrpcTraceBinPropagator INSTANCE = new GrpcTraceBinPropagator();
+
+  private GrpcTraceBinPropagator() {
+    // singleton
+  }
+
+  /**
+   * Returns the singleton {@code GrpcTraceBinPropagator}.
+   *
+   * @return the singleton {@code GrpcTraceBinPropagator}.
+   * @since 0.8.0
+   */
+  public static GrpcTraceBinPropagator getInstance() {
+    return INSTANCE;
+  }
+
+  /**
+   * Replaces the {@link #METADATA_KEY} of {@code metadata} with the {@code SpanContext} of the span
+   * in {@code context}, if it has a valid one.
+   *
+   * @param context the {@code Context} containing the span to propagate.
+   * @param metadata the outgoing gRPC metadata.
+   * @throws NullPointerException if {@code context} or {@code metadata} is {@code null}.
+   * @since 0.8.0
+   */
+  public void inject(Context context, Metadata metadata) {
+    Objects.requireNonNull(context, "context");
+    Objects.requireNonNull(metadata, "metadata");
+
+    Span span = TracingContextUtils.getSpanWithoutDefault(context);
+    if (span == null || !span.getContext().isValid()) {
+      return;
+    }
+    metadata.discardAll(METADATA_KEY);
+    metadata.put(METADATA_KEY, span.getContext());
+  }
+
+  /**
+   * Returns {@code context} with a remote span built from the {@link #METADATA_KEY} of {@code
+   * metadata}, or {@code context} itself if the key is missing or malformed.
+   *
+   * @param context the {@code Context} to add the remote span to.
+   * @param metadata the incoming gRPC metadata.
+   * @return the {@code Context} containing the extracted span.
+   * @throws NullPointerException if {@code context} or {@code metadata} is {@code null}.
+   * @since 0.8.0
+   */
+  public Context extract(Context context, Metadata metadata) {
+    Objects.requireNonNull(context, "context");
+    Objects.requireNonNull(metadata, "metadata");
+
+    SpanContext spanContext = metadata.get(METADATA_KEY);
+    if (spanContext == null || !spanContext.isValid()) {
+      return context;
+    }
+    return TracingContextUtils.withSpan(DefaultSpan.create(spanContext), context);
+  }
+
+  private static final class SpanContextMarshaller
+      implements Metadata.BinaryMarshaller<SpanContext> {
+    @Override
+    public byte[] toBytes(SpanContext spanContext) {
+      return BinaryTraceContext.getInstance().toByteArray(spanContext);
+    }
+
+    @Override
+    public SpanContext parseBytes(byte[] serialized) {
+      return BinaryTraceContext.getInstance().fromByteArray(serialized);
+    }
+  }
+}
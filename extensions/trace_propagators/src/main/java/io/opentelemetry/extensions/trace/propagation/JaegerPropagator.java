@@ -18,6 +18,7 @@ package io.opentelemetry.extensions.trace.propagation;
 
 import io.grpc.Context;
 import io.opentelemetry.context.propagation.HttpTextFormat;
+import io.opentelemetry.internal.EncodedHeaderCache;
 import io.opentelemetry.trace.DefaultSpan;
 import io.opentelemetry.trace.Span;
 import io.opentelemetry.trace.SpanContext;
@@ -75,6 +76,13 @@ public class JaegerPropagator implements HttpTextFormat {
       TraceFlags.builder().setIsSampled(false).build();
 
   private static final List<String> FIELDS = Collections.singletonList(PROPAGATION_HEADER);
+  private static final EncodedHeaderCache<SpanContext> HEADER_CACHE =
+      new EncodedHeaderCache<SpanContext>() {
+        @Override
+        protected String encode(SpanContext spanContext) {
+          return JaegerPropagator.encode(spanContext);
+        }
+      };
 
   @Override
   public List<String> fields() {
@@ -91,8 +99,10 @@ public class JaegerPropagator implements HttpTextFormat {
       return;
     }
 
-    SpanContext spanContext = span.getContext();
+    setter.set(carrier, PROPAGATION_HEADER, HEADER_CACHE.get(span.getContext()));
+  }
 
+  private static String encode(SpanContext spanContext) {
     char[] chars = new char[PROPAGATION_HEADER_SIZE];
     spanContext.getTraceId().copyLowerBase16To(chars, 0);
     chars[SPAN_ID_OFFSET - 1] = PROPAGATION_HEADER_DELIMITER;
@@ -101,7 +111,7 @@ public class JaegerPropagator implements HttpTextFormat {
     chars[PARENT_SPAN_ID_OFFSET] = DEPRECATED_PARENT_SPAN;
     chars[SAMPLED_FLAG_OFFSET - 1] = PROPAGATION_HEADER_DELIMITER;
     chars[SAMPLED_FLAG_OFFSET] = spanContext.getTraceFlags().isSampled() ? IS_SAMPLED : NOT_SAMPLED;
-    setter.set(carrier, PROPAGATION_HEADER, new String(chars));
+    return new String(chars);
   }
 
   @Override
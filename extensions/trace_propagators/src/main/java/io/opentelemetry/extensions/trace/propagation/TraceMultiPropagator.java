@@ -21,8 +21,11 @@ import io.opentelemetry.context.propagation.HttpTextFormat;
 import io.opentelemetry.trace.TracingContextUtils;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import javax.annotation.Nullable;
 import javax.annotation.concurrent.Immutable;
 
 /**
@@ -36,6 +39,11 @@ import javax.annotation.concurrent.Immutable;
  * <p>Upon extraction, this propagator invokes {@code HttpTextFormat#extract()} for every registered
  * trace propagator, returning immediately when a successful extraction happened.
  *
+ * <p>When the carrier lookups are expensive, for example case-insensitive scans over servlet
+ * headers or gRPC {@code Metadata}, {@link Builder#setCacheCarrierFields(boolean)} makes the
+ * propagator remember, for the duration of one extraction, the value of every field declared by the
+ * registered propagators, so that each field is read from the carrier at most once.
+ *
  * <pre>{@code
  * HttpTextFormat traceFormats = TraceMultiPropagator.builder()
  *   .addPropagator(new MyCustomTracePropagator())
@@ -60,8 +68,10 @@ import javax.annotation.concurrent.Immutable;
 public class TraceMultiPropagator implements HttpTextFormat {
   private final HttpTextFormat[] propagators;
   private final List<String> propagatorsFields;
+  // Index of each distinct field in the per-extraction value cache, or null if caching is disabled.
+  @Nullable private final Map<String, Integer> cachedFieldIndexes;
 
-  private TraceMultiPropagator(List<HttpTextFormat> propagatorList) {
+  private TraceMultiPropagator(List<HttpTextFormat> propagatorList, boolean cacheCarrierFields) {
     this.propagators = new HttpTextFormat[propagatorList.size()];
     propagatorList.toArray(this.propagators);
 
@@ -70,6 +80,17 @@ public class TraceMultiPropagator implements HttpTextFormat {
       fields.addAll(propagator.fields());
     }
     this.propagatorsFields = Collections.unmodifiableList(fields);
+    if (cacheCarrierFields) {
+      Map<String, Integer> fieldIndexes = new HashMap<>();
+      for (String field : fields) {
+        if (!fieldIndexes.containsKey(field)) {
+          fieldIndexes.put(field, fieldIndexes.size());
+        }
+      }
+      this.cachedFieldIndexes = Collections.unmodifiableMap(fieldIndexes);
+    } else {
+      this.cachedFieldIndexes = null;
+    }
   }
 
   /**
@@ -126,6 +147,9 @@ public class TraceMultiPropagator implements HttpTextFormat {
    */
   @Override
   public <C> Context extract(Context context, C carrier, Getter<C> getter) {
+    if (cachedFieldIndexes != null) {
+      return extractCachingFields(context, carrier, getter, cachedFieldIndexes);
+    }
     for (int i = propagators.length - 1; i >= 0; i--) {
       context = propagators[i].extract(context, carrier, getter);
       if (isSpanContextExtracted(context)) {
@@ -136,10 +160,66 @@ public class TraceMultiPropagator implements HttpTextFormat {
     return context;
   }
 
+  private <C> Context extractCachingFields(
+      Context context, C carrier, Getter<C> getter, Map<String, Integer> fieldIndexes) {
+    FieldCachingCarrier<C> cachingCarrier =
+        new FieldCachingCarrier<>(fieldIndexes, carrier, getter);
+    for (int i = propagators.length - 1; i >= 0; i--) {
+      context = propagators[i].extract(context, cachingCarrier, FIELD_CACHING_GETTER);
+      if (isSpanContextExtracted(context)) {
+        break;
+      }
+    }
+
+    return context;
+  }
+
   private static boolean isSpanContextExtracted(Context context) {
     return TracingContextUtils.getSpanWithoutDefault(context) != null;
   }
 
+  // Wraps the original carrier, reading each field declared by the propagators from it at most
+  // once.
+  // Keys not declared in fields() are always looked up in the original carrier.
+  private static final class FieldCachingCarrier<C> {
+    private final Map<String, Integer> fieldIndexes;
+    private final String[] values;
+    private final boolean[] fetched;
+    private final C carrier;
+    private final Getter<C> getter;
+
+    private FieldCachingCarrier(Map<String, Integer> fieldIndexes, C carrier, Getter<C> getter) {
+      this.fieldIndexes = fieldIndexes;
+      this.values = new String[fieldIndexes.size()];
+      this.fetched = new boolean[fieldIndexes.size()];
+      this.carrier = carrier;
+      this.getter = getter;
+    }
+
+    @Nullable
+    private String get(String key) {
+      Integer index = fieldIndexes.get(key);
+      if (index == null) {
+        return getter.get(carrier, key);
+      }
+      int i = index;
+      if (!fetched[i]) {
+        values[i] = getter.get(carrier, key);
+        fetched[i] = true;
+      }
+      return values[i];
+    }
+  }
+
+  private static final Getter<FieldCachingCarrier<?>> FIELD_CACHING_GETTER =
+      new Getter<FieldCachingCarrier<?>>() {
+        @Nullable
+        @Override
+        public String get(FieldCachingCarrier<?> carrier, String key) {
+          return carrier.get(key);
+        }
+      };
+
   /**
    * {@link Builder} is used to construct a new {@code TraceMultiPropagator} object with the
    * specified propagators.
@@ -148,6 +228,7 @@ public class TraceMultiPropagator implements HttpTextFormat {
    */
   public static class Builder {
     private final List<HttpTextFormat> propagators;
+    private boolean cacheCarrierFields;
 
     private Builder() {
       propagators = new ArrayList<>();
@@ -171,6 +252,22 @@ public class TraceMultiPropagator implements HttpTextFormat {
       return this;
     }
 
+    /**
+     * Sets whether the values of the fields declared by the registered propagators are cached for
+     * the duration of an extraction. When enabled, each field is read from the carrier at most
+     * once, in a small array indexed by field, even if several propagators read it. Useful when
+     * {@link HttpTextFormat.Getter#get} is expensive, for example a case-insensitive scan over all
+     * the headers. Defaults to {@code false}.
+     *
+     * @param cacheCarrierFields {@code true} to read each field from the carrier at most once.
+     * @return this.
+     * @since 0.8.0
+     */
+    public Builder setCacheCarrierFields(boolean cacheCarrierFields) {
+      this.cacheCarrierFields = cacheCarrierFields;
+      return this;
+    }
+
     /**
      * Builds a new {@code TraceMultiPropagator} with the specified propagators.
      *
@@ -178,7 +275,7 @@ public class TraceMultiPropagator implements HttpTextFormat {
      * @since 0.6.0
      */
     public TraceMultiPropagator build() {
-      return new TraceMultiPropagator(propagators);
+      return new TraceMultiPropagator(propagators, cacheCarrierFields);
     }
   }
 }
@@ -102,13 +102,37 @@ class AwsXRayPropagatorTest {
         carrier,
         setter);
 
-    // TODO: assert trace state when the propagator supports it
+    // Only the X-Ray entry of the trace state is propagated.
     assertThat(carrier)
         .containsEntry(
             TRACE_HEADER_KEY,
             "Root=1-8a3c60f7-d188f8fa79d48a391a778fa6;Parent=53995c3f42cd8ad8;Sampled=0");
   }
 
+  @Test
+  void inject_WithXRayTraceState() {
+    Map<String, String> carrier = new LinkedHashMap<>();
+    xrayPropagator.inject(
+        withSpanContext(
+            SpanContext.create(
+                TRACE_ID,
+                SPAN_ID,
+                TraceFlags.getDefault(),
+                TraceState.builder()
+                    .set("foo", "bar")
+                    .set(AwsXRayPropagator.TRACE_STATE_KEY, "Foo:Bar;Lineage:a87bd80c:0")
+                    .build()),
+            Context.current()),
+        carrier,
+        setter);
+
+    assertThat(carrier)
+        .containsEntry(
+            TRACE_HEADER_KEY,
+            "Root=1-8a3c60f7-d188f8fa79d48a391a778fa6;Parent=53995c3f42cd8ad8;Sampled=0;"
+                + "Foo=Bar;Lineage=a87bd80c:0");
+  }
+
   @Test
   void extract_Nothing() {
     // Context remains untouched.
@@ -164,13 +188,109 @@ class AwsXRayPropagatorTest {
         TRACE_HEADER_KEY,
         "Root=1-8a3c60f7-d188f8fa79d48a391a778fa6;Parent=53995c3f42cd8ad8;Sampled=1;Foo=Bar");
 
-    // TODO: assert additional fields when the propagator supports it
+    assertThat(getSpanContext(xrayPropagator.extract(Context.current(), carrier, getter)))
+        .isEqualTo(
+            SpanContext.createFromRemoteParent(
+                TRACE_ID,
+                SPAN_ID,
+                SAMPLED_TRACE_FLAG,
+                TraceState.builder().set(AwsXRayPropagator.TRACE_STATE_KEY, "Foo:Bar").build()));
+  }
+
+  @Test
+  void extract_AdditionalFields_RoundTrip() {
+    String traceHeader =
+        "Root=1-8a3c60f7-d188f8fa79d48a391a778fa6;Parent=53995c3f42cd8ad8;Sampled=1;"
+            + "Foo=Bar;Lineage=a87bd80c:0";
+    Map<String, String> carrier = new LinkedHashMap<>();
+    carrier.put(TRACE_HEADER_KEY, traceHeader);
+
+    Map<String, String> injected = new LinkedHashMap<>();
+    xrayPropagator.inject(
+        xrayPropagator.extract(Context.current(), carrier, getter), injected, setter);
+    assertThat(injected).containsEntry(TRACE_HEADER_KEY, traceHeader);
+  }
+
+  @Test
+  void extract_AdditionalFields_SelfDropped() {
+    Map<String, String> carrier = new LinkedHashMap<>();
+    carrier.put(
+        TRACE_HEADER_KEY,
+        "Root=1-8a3c60f7-d188f8fa79d48a391a778fa6;Self=1-5f1e2b3c-0123456789abcdef01234567;"
+            + "Parent=53995c3f42cd8ad8;Sampled=1;Lineage=a87bd80c:0");
+
+    Context context = xrayPropagator.extract(Context.current(), carrier, getter);
+    assertThat(getSpanContext(context))
+        .isEqualTo(
+            SpanContext.createFromRemoteParent(
+                TRACE_ID,
+                SPAN_ID,
+                SAMPLED_TRACE_FLAG,
+                TraceState.builder()
+                    .set(AwsXRayPropagator.TRACE_STATE_KEY, "Lineage:a87bd80c:0")
+                    .build()));
+
+    Map<String, String> injected = new LinkedHashMap<>();
+    xrayPropagator.inject(context, injected, setter);
+    assertThat(injected)
+        .containsEntry(
+            TRACE_HEADER_KEY,
+            "Root=1-8a3c60f7-d188f8fa79d48a391a778fa6;Parent=53995c3f42cd8ad8;Sampled=1;"
+                + "Lineage=a87bd80c:0");
+  }
+
+  @Test
+  void extract_OnlySelf_DefaultTraceState() {
+    Map<String, String> carrier = new LinkedHashMap<>();
+    carrier.put(
+        TRACE_HEADER_KEY,
+        "Root=1-8a3c60f7-d188f8fa79d48a391a778fa6;Parent=53995c3f42cd8ad8;Sampled=1;"
+            + "Self=1-5f1e2b3c-0123456789abcdef01234567");
+
+    assertThat(getSpanContext(xrayPropagator.extract(Context.current(), carrier, getter)))
+        .isEqualTo(
+            SpanContext.createFromRemoteParent(
+                TRACE_ID, SPAN_ID, SAMPLED_TRACE_FLAG, TRACE_STATE_DEFAULT));
+  }
+
+  @Test
+  void extract_AdditionalFields_Invalid() {
+    Map<String, String> carrier = new LinkedHashMap<>();
+    carrier.put(
+        TRACE_HEADER_KEY,
+        "Root=1-8a3c60f7-d188f8fa79d48a391a778fa6;Parent=53995c3f42cd8ad8;Sampled=1;Foo=a,b");
+
+    // The ids are kept even if the extra pairs can't be stored in the trace state.
     assertThat(getSpanContext(xrayPropagator.extract(Context.current(), carrier, getter)))
         .isEqualTo(
             SpanContext.createFromRemoteParent(
                 TRACE_ID, SPAN_ID, SAMPLED_TRACE_FLAG, TRACE_STATE_DEFAULT));
   }
 
+  @Test
+  void extract_Whitespace() {
+    Map<String, String> carrier = new LinkedHashMap<>();
+    carrier.put(
+        TRACE_HEADER_KEY,
+        " Root=1-8a3c60f7-d188f8fa79d48a391a778fa6 ; Parent=53995c3f42cd8ad8;Sampled=1 ");
+
+    assertThat(getSpanContext(xrayPropagator.extract(Context.current(), carrier, getter)))
+        .isEqualTo(
+            SpanContext.createFromRemoteParent(
+                TRACE_ID, SPAN_ID, SAMPLED_TRACE_FLAG, TRACE_STATE_DEFAULT));
+  }
+
+  @Test
+  void extract_UppercaseTraceId() {
+    Map<String, String> invalidHeaders = new LinkedHashMap<>();
+    invalidHeaders.put(
+        TRACE_HEADER_KEY,
+        "Root=1-8A3C60F7-d188f8fa79d48a391a778fa6;Parent=53995c3f42cd8ad8;Sampled=1");
+
+    assertThat(getSpanContext(xrayPropagator.extract(Context.current(), invalidHeaders, getter)))
+        .isSameAs(SpanContext.getInvalid());
+  }
+
   @Test
   void extract_EmptyHeaderValue() {
     Map<String, String> invalidHeaders = new LinkedHashMap<>();
@@ -0,0 +1,200 @@
+/*
+ * Copyright 2020, OpenTelemetry Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.opentelemetry.extensions.trace.propagation;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import io.opentelemetry.trace.SpanContext;
+import io.opentelemetry.trace.SpanId;
+import io.opentelemetry.trace.TraceFlags;
+import io.opentelemetry.trace.TraceId;
+import io.opentelemetry.trace.TraceState;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import org.junit.jupiter.api.Test;
+
+class BinaryTraceContextTest {
+  private static final TraceId TRACE_ID =
+      TraceId.fromLowerBase16("ff000000000000000000000000000041", 0);
+  private static final SpanId SPAN_ID = SpanId.fromLowerBase16("ff00000000000041", 0);
+  private static final TraceFlags SAMPLED = TraceFlags.builder().setIsSampled(true).build();
+  private static final TraceState TRACE_STATE =
+      TraceState.builder().set("bar", "qux").set("foo", "bar").build();
+  private static final SpanContext SPAN_CONTEXT =
+      SpanContext.createFromRemoteParent(TRACE_ID, SPAN_ID, SAMPLED, TraceState.getDefault());
+  private static final SpanContext SPAN_CONTEXT_WITH_TRACE_STATE =
+      SpanContext.createFromRemoteParent(TRACE_ID, SPAN_ID, SAMPLED, TRACE_STATE);
+  // OpenCensus grpc-trace-bin encoding of SPAN_CONTEXT.
+  private static final byte[] SPAN_CONTEXT_BYTES =
+      new byte[] {
+        0,
+        0,
+        (byte) 0xff,
+        0,
+        0,
+        0,
+        0,
+        0,
+        0,
+        0,
+        0,
+        0,
+        0,
+        0,
+        0,
+        0,
+        0,
+        0x41,
+        1,
+        (byte) 0xff,
+        0,
+        0,
+        0,
+        0,
+        0,
+        0,
+        0x41,
+        2,
+        1
+      };
+
+  private final BinaryTraceContext binaryTraceContext = BinaryTraceContext.getInstance();
+
+  @Test
+  void toByteArray_OpenCensusCompatible() {
+    assertThat(binaryTraceContext.toByteArray(SPAN_CONTEXT)).isEqualTo(SPAN_CONTEXT_BYTES);
+    assertThat(binaryTraceContext.getEncodedSize(SPAN_CONTEXT))
+        .isEqualTo(BinaryTraceContext.MIN_ENCODED_SIZE);
+  }
+
+  @Test
+  void roundTrip() {
+    assertThat(binaryTraceContext.fromByteArray(binaryTraceContext.toByteArray(SPAN_CONTEXT)))
+        .isEqualTo(SPAN_CONTEXT);
+  }
+
+  @Test
+  void roundTrip_TraceState() {
+    byte[] bytes = binaryTraceContext.toByteArray(SPAN_CONTEXT_WITH_TRACE_STATE);
+    assertThat(bytes).hasSize(binaryTraceContext.getEncodedSize(SPAN_CONTEXT_WITH_TRACE_STATE));
+    SpanContext decoded = binaryTraceContext.fromByteArray(bytes);
+    assertThat(decoded).isEqualTo(SPAN_CONTEXT_WITH_TRACE_STATE);
+    assertThat(decoded.getTraceState().getEntries())
+        .containsExactlyElementsOf(TRACE_STATE.getEntries());
+    assertThat(decoded.isRemote()).isTrue();
+  }
+
+  @Test
+  void encode_Offset() {
+    byte[] dest = new byte[BinaryTraceContext.MIN_ENCODED_SIZE + 3];
+    assertThat(binaryTraceContext.encode(SPAN_CONTEXT, dest, 3))
+        .isEqualTo(BinaryTraceContext.MIN_ENCODED_SIZE);
+    assertThat(binaryTraceContext.fromByteArray(dest, 3, BinaryTraceContext.MIN_ENCODED_SIZE))
+        .isEqualTo(SPAN_CONTEXT);
+  }
+
+  @Test
+  void encode_DestTooSmall() {
+    assertThrows(
+        IndexOutOfBoundsException.class,
+        () ->
+            binaryTraceContext.encode(
+                SPAN_CONTEXT, new byte[BinaryTraceContext.MIN_ENCODED_SIZE], 1));
+  }
+
+  @Test
+  void byteBuffer_Heap() {
+    ByteBuffer buffer = ByteBuffer.allocate(100);
+    buffer.position(7);
+    binaryTraceContext.encode(SPAN_CONTEXT_WITH_TRACE_STATE, buffer);
+    buffer.flip();
+    buffer.position(7);
+    assertThat(binaryTraceContext.fromByteBuffer(buffer)).isEqualTo(SPAN_CONTEXT_WITH_TRACE_STATE);
+    assertThat(buffer.hasRemaining()).isFalse();
+  }
+
+  @Test
+  void byteBuffer_Direct() {
+    ByteBuffer buffer = ByteBuffer.allocateDirect(100);
+    binaryTraceContext.encode(SPAN_CONTEXT_WITH_TRACE_STATE, buffer);
+    buffer.flip();
+    assertThat(binaryTraceContext.fromByteBuffer(buffer)).isEqualTo(SPAN_CONTEXT_WITH_TRACE_STATE);
+  }
+
+  @Test
+  void byteBuffer_Overflow() {
+    ByteBuffer buffer = ByteBuffer.allocate(BinaryTraceContext.MIN_ENCODED_SIZE - 1);
+    assertThrows(
+        BufferOverflowException.class, () -> binaryTraceContext.encode(SPAN_CONTEXT, buffer));
+    assertThat(buffer.position()).isEqualTo(0);
+  }
+
+  @Test
+  void fromByteArray_WithoutTraceFlags() {
+    assertThat(
+            binaryTraceContext.fromByteArray(
+                Arrays.copyOf(SPAN_CONTEXT_BYTES, SPAN_CONTEXT_BYTES.length - 2)))
+        .isEqualTo(
+            SpanContext.createFromRemoteParent(
+                TRACE_ID, SPAN_ID, TraceFlags.getDefault(), TraceState.getDefault()));
+  }
+
+  @Test
+  void fromByteArray_UnknownTrailingField() {
+    byte[] bytes = Arrays.copyOf(SPAN_CONTEXT_BYTES, SPAN_CONTEXT_BYTES.length + 2);
+    bytes[SPAN_CONTEXT_BYTES.length] = 42;
+    assertThat(binaryTraceContext.fromByteArray(bytes)).isEqualTo(SPAN_CONTEXT);
+  }
+
+  @Test
+  void fromByteArray_Invalid() {
+    assertThat(binaryTraceContext.fromByteArray(new byte[0])).isEqualTo(SpanContext.getInvalid());
+    assertThat(
+            binaryTraceContext.fromByteArray(
+                Arrays.copyOf(SPAN_CONTEXT_BYTES, SPAN_CONTEXT_BYTES.length - 3)))
+        .isEqualTo(SpanContext.getInvalid());
+
+    byte[] unsupportedVersion = SPAN_CONTEXT_BYTES.clone();
+    unsupportedVersion[0] = 1;
+    assertThat(binaryTraceContext.fromByteArray(unsupportedVersion))
+        .isEqualTo(SpanContext.getInvalid());
+
+    byte[] invalidTraceId = SPAN_CONTEXT_BYTES.clone();
+    Arrays.fill(invalidTraceId, 2, 18, (byte) 0);
+    assertThat(binaryTraceContext.fromByteArray(invalidTraceId))
+        .isEqualTo(SpanContext.getInvalid());
+  }
+
+  @Test
+  void fromByteArray_TruncatedTraceStateDropped() {
+    byte[] bytes = binaryTraceContext.toByteArray(SPAN_CONTEXT_WITH_TRACE_STATE);
+    SpanContext decoded = binaryTraceContext.fromByteArray(Arrays.copyOf(bytes, bytes.length - 1));
+    assertThat(decoded).isEqualTo(SPAN_CONTEXT);
+    assertThat(decoded.getTraceState()).isEqualTo(TraceState.getDefault());
+  }
+
+  @Test
+  void fromByteArray_InvalidTraceStateDropped() {
+    byte[] bytes = binaryTraceContext.toByteArray(SPAN_CONTEXT_WITH_TRACE_STATE);
+    // Uppercase characters are not allowed in trace state keys.
+    bytes[BinaryTraceContext.MIN_ENCODED_SIZE + 4] = 'B';
+    assertThat(binaryTraceContext.fromByteArray(bytes).getTraceState())
+        .isEqualTo(TraceState.getDefault());
+  }
+}
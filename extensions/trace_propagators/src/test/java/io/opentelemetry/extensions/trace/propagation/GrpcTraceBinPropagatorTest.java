@@ -0,0 +1,88 @@
+/*
+ * Copyright 2020, OpenTelemetry Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.opentelemetry.extensions.trace.propagation;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.grpc.Context;
+import io.grpc.Metadata;
+import io.opentelemetry.trace.DefaultSpan;
+import io.opentelemetry.trace.SpanContext;
+import io.opentelemetry.trace.SpanId;
+import io.opentelemetry.trace.TraceFlags;
+import io.opentelemetry.trace.TraceId;
+import io.opentelemetry.trace.TraceState;
+import io.opentelemetry.trace.TracingContextUtils;
+import org.junit.jupiter.api.Test;
+
+class GrpcTraceBinPropagatorTest {
+  private static final SpanContext SPAN_CONTEXT =
+      SpanContext.createFromRemoteParent(
+          TraceId.fromLowerBase16("ff000000000000000000000000000041", 0),
+          SpanId.fromLowerBase16("ff00000000000041", 0),
+          TraceFlags.builder().setIsSampled(true).build(),
+          TraceState.builder().set("foo", "bar").build());
+  private static final Metadata.Key<byte[]> RAW_KEY =
+      Metadata.Key.of(GrpcTraceBinPropagator.METADATA_KEY_NAME, Metadata.BINARY_BYTE_MARSHALLER);
+
+  private final GrpcTraceBinPropagator propagator = GrpcTraceBinPropagator.getInstance();
+
+  private static Context withSpanContext(SpanContext spanContext, Context context) {
+    return TracingContextUtils.withSpan(DefaultSpan.create(spanContext), context);
+  }
+
+  @Test
+  void inject_Extract() {
+    Metadata metadata = new Metadata();
+    propagator.inject(withSpanContext(SPAN_CONTEXT, Context.current()), metadata);
+    assertThat(metadata.get(RAW_KEY))
+        .isEqualTo(BinaryTraceContext.getInstance().toByteArray(SPAN_CONTEXT));
+
+    Context context = propagator.extract(Context.current(), metadata);
+    assertThat(TracingContextUtils.getSpan(context).getContext()).isEqualTo(SPAN_CONTEXT);
+  }
+
+  @Test
+  void inject_ReplacesExisting() {
+    Metadata metadata = new Metadata();
+    metadata.put(RAW_KEY, new byte[] {1, 2, 3});
+    propagator.inject(withSpanContext(SPAN_CONTEXT, Context.current()), metadata);
+    assertThat(metadata.getAll(RAW_KEY)).hasSize(1);
+  }
+
+  @Test
+  void inject_InvalidContext() {
+    Metadata metadata = new Metadata();
+    propagator.inject(withSpanContext(SpanContext.getInvalid(), Context.current()), metadata);
+    propagator.inject(Context.current(), metadata);
+    assertThat(metadata.containsKey(GrpcTraceBinPropagator.METADATA_KEY)).isFalse();
+  }
+
+  @Test
+  void extract_Missing() {
+    Context context = Context.current();
+    assertThat(propagator.extract(context, new Metadata())).isSameAs(context);
+  }
+
+  @Test
+  void extract_Malformed() {
+    Metadata metadata = new Metadata();
+    metadata.put(RAW_KEY, new byte[] {0, 0, 1});
+    Context context = Context.current();
+    assertThat(propagator.extract(context, metadata)).isSameAs(context);
+  }
+}
@@ -172,6 +172,72 @@ class TraceMultiPropagatorTest {
     verifyNoMoreInteractions(mockPropagator);
   }
 
+  @Test
+  void extract_cacheCarrierFields_found() {
+    HttpTextFormat prop =
+        TraceMultiPropagator.builder()
+            .addPropagator(PROPAGATOR1)
+            .addPropagator(PROPAGATOR2)
+            .addPropagator(PROPAGATOR3)
+            .setCacheCarrierFields(true)
+            .build();
+
+    Map<String, String> carrier = new HashMap<>();
+    PROPAGATOR2.inject(withSpan(SPAN, Context.current()), carrier, Map::put);
+    assertThat(getSpan(prop.extract(Context.current(), carrier, Map::get)).getContext())
+        .isEqualTo(SPAN.getContext());
+  }
+
+  @Test
+  void extract_cacheCarrierFields_undeclaredFieldReadFromCarrier() {
+    HttpTextFormat prop =
+        TraceMultiPropagator.builder()
+            .addPropagator(PROPAGATOR1)
+            .addPropagator(PROPAGATOR3)
+            .setCacheCarrierFields(true)
+            .build();
+
+    Map<String, String> carrier = new HashMap<>();
+    PROPAGATOR1.inject(withSpan(SPAN, Context.current()), carrier, Map::put);
+    assertThat(getSpan(prop.extract(Context.current(), carrier, Map::get)).getContext())
+        .isEqualTo(SPAN.getContext());
+  }
+
+  @Test
+  void extract_cacheCarrierFields_readsEachFieldOnce() {
+    HttpTextFormat prop =
+        TraceMultiPropagator.builder()
+            .addPropagator(new ReadingPropagator("foo", "bar"))
+            .addPropagator(new ReadingPropagator("bar", "baz"))
+            .setCacheCarrierFields(true)
+            .build();
+
+    Map<String, Integer> reads = new HashMap<>();
+    prop.extract(
+        Context.current(),
+        new HashMap<String, String>(),
+        (carrier, key) -> {
+          reads.merge(key, 1, Integer::sum);
+          return carrier.get(key);
+        });
+    assertThat(reads).containsOnlyKeys("foo", "bar", "baz");
+    assertThat(reads.values()).containsOnly(1);
+  }
+
+  private static class ReadingPropagator extends EmptyPropagator {
+    ReadingPropagator(String... fields) {
+      super(fields);
+    }
+
+    @Override
+    public <C> Context extract(Context context, C carrier, Getter<C> getter) {
+      for (String field : fields) {
+        getter.get(carrier, field);
+      }
+      return context;
+    }
+  }
+
   private static class EmptyPropagator implements HttpTextFormat {
     List<String> fields;
 
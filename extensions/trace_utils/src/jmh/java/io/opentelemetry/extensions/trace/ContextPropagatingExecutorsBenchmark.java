@@ -0,0 +1,90 @@
+/*
+ * Copyright 2020, OpenTelemetry Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.opentelemetry.extensions.trace;
+
+import io.grpc.Context;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Submits batches of tiny tasks to a thread pool, either directly or through {@link
+ * ContextPropagatingExecutors}, with a non-root {@link Context} current at submission.
+ */
+@State(Scope.Benchmark)
+@Fork(1)
+@Measurement(iterations = 10, time = 1)
+@Warmup(iterations = 5, time = 1)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@BenchmarkMode(Mode.AverageTime)
+public class ContextPropagatingExecutorsBenchmark {
+  private static final int TASKS = 1000;
+  private static final Context.Key<String> KEY = Context.key("benchmark-key");
+
+  @Param({"false", "true"})
+  public boolean propagateContext;
+
+  private ExecutorService executor;
+  private Context context;
+
+  @Setup
+  public void setup() {
+    ExecutorService pool = Executors.newFixedThreadPool(4);
+    executor = propagateContext ? ContextPropagatingExecutors.wrap(pool) : pool;
+    context = Context.ROOT.withValue(KEY, "value");
+  }
+
+  @TearDown
+  public void tearDown() {
+    executor.shutdown();
+  }
+
+  /** Submits {@value #TASKS} tasks and waits for all of them to complete. */
+  @Benchmark
+  public void submitBatch() throws InterruptedException {
+    final CountDownLatch done = new CountDownLatch(TASKS);
+    Runnable task =
+        new Runnable() {
+          @Override
+          public void run() {
+            done.countDown();
+          }
+        };
+    Context previous = context.attach();
+    try {
+      for (int i = 0; i < TASKS; i++) {
+        executor.execute(task);
+      }
+    } finally {
+      context.detach(previous);
+    }
+    done.await();
+  }
+}
@@ -0,0 +1,262 @@
+/*
+ * Copyright 2020, OpenTelemetry Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.opentelemetry.extensions.trace;
+
+import io.grpc.Context;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Decorators for {@link ExecutorService}s that run every task in the {@link Context} that was
+ * current when the task was submitted, so that the current {@code Span} and {@code
+ * CorrelationContext} follow the work across threads.
+ *
+ * <pre>{@code
+ * ExecutorService executor = ContextPropagatingExecutors.wrap(Executors.newFixedThreadPool(8));
+ * try (Scope scope = tracer.withSpan(span)) {
+ *   executor.submit(task); // task runs with span as the current Span.
+ * }
+ * }</pre>
+ *
+ * <p>The {@code Context} is captured once per submission, or once per {@code invokeAll} and {@code
+ * invokeAny} call, and attached only for the duration of the task. When the worker thread already
+ * has the captured {@code Context} as current, e.g. for tasks submitted from the executor's own
+ * threads, nothing is attached at all. The decorators keep no state besides the captured {@code
+ * Context} of each task, and restoring the worker's previous {@code Context} leaves no value behind
+ * in the thread's {@code Context} storage, so they are safe to use with executors that create a
+ * thread per task, including virtual threads.
+ *
+ * @since 0.8.0
+ */
+public final class ContextPropagatingExecutors {
+  // No instance of this class.
+  private ContextPropagatingExecutors() {}
+
+  /**
+   * Returns an {@link ExecutorService} that submits tasks to {@code executor} and runs them in the
+   * {@link Context} current at submission. Shutting down the returned {@code ExecutorService} shuts
+   * down {@code executor}.
+   *
+   * @param executor the {@code ExecutorService} running the tasks.
+   * @return the context propagating {@code ExecutorService}.
+   * @throws NullPointerException if {@code executor} is {@code null}.
+   * @since 0.8.0
+   */
+  public static ExecutorService wrap(ExecutorService executor) {
+    Objects.requireNonNull(executor, "executor");
+    if (executor instanceof ContextPropagatingExecutorService) {
+      return executor;
+    }
+    return new ContextPropagatingExecutorService<>(executor);
+  }
+
+  /**
+   * Returns a {@link ScheduledExecutorService} that submits tasks to {@code executor} and runs them
+   * in the {@link Context} current at submission. Periodic tasks run in the same {@code Context} on
+   * every execution. Shutting down the returned {@code ScheduledExecutorService} shuts down {@code
+   * executor}.
+   *
+   * @param executor the {@code ScheduledExecutorService} running the tasks.
+   * @return the context propagating {@code ScheduledExecutorService}.
+   * @throws NullPointerException if {@code executor} is {@code null}.
+   * @since 0.8.0
+   */
+  public static ScheduledExecutorService wrap(ScheduledExecutorService executor) {
+    Objects.requireNonNull(executor, "executor");
+    if (executor instanceof ContextPropagatingScheduledExecutorService) {
+      return executor;
+    }
+    return new ContextPropagatingScheduledExecutorService(executor);
+  }
+
+  private static <T> List<Callable<T>> wrapAll(
+      Context context, Collection<? extends Callable<T>> tasks) {
+    List<Callable<T>> wrapped = new ArrayList<>(tasks.size());
+    for (Callable<T> task : tasks) {
+      wrapped.add(new ContextCallable<>(context, task));
+    }
+    return wrapped;
+  }
+
+  private static class ContextPropagatingExecutorService<E extends ExecutorService>
+      implements ExecutorService {
+    final E delegate;
+
+    ContextPropagatingExecutorService(E delegate) {
+      this.delegate = delegate;
+    }
+
+    @Override
+    public void execute(Runnable command) {
+      delegate.execute(new ContextRunnable(Context.current(), command));
+    }
+
+    @Override
+    public <T> Future<T> submit(Callable<T> task) {
+      return delegate.submit(new ContextCallable<>(Context.current(), task));
+    }
+
+    @Override
+    public <T> Future<T> submit(Runnable task, T result) {
+      return delegate.submit(new ContextRunnable(Context.current(), task), result);
+    }
+
+    @Override
+    public Future<?> submit(Runnable task) {
+      return delegate.submit(new ContextRunnable(Context.current(), task));
+    }
+
+    @Override
+    public <T> List<Future<T>> invokeAll(Collection<? extends Callable<T>> tasks)
+        throws InterruptedException {
+      return delegate.invokeAll(wrapAll(Context.current(), tasks));
+    }
+
+    @Override
+    public <T> List<Future<T>> invokeAll(
+        Collection<? extends Callable<T>> tasks, long timeout, TimeUnit unit)
+        throws InterruptedException {
+      return delegate.invokeAll(wrapAll(Context.current(), tasks), timeout, unit);
+    }
+
+    @Override
+    public <T> T invokeAny(Collection<? extends Callable<T>> tasks)
+        throws InterruptedException, ExecutionException {
+      return delegate.invokeAny(wrapAll(Context.current(), tasks));
+    }
+
+    @Override
+    public <T> T invokeAny(Collection<? extends Callable<T>> tasks, long timeout, TimeUnit unit)
+        throws InterruptedException, ExecutionException, TimeoutException {
+      return delegate.invokeAny(wrapAll(Context.current(), tasks), timeout, unit);
+    }
+
+    @Override
+    public void shutdown() {
+      delegate.shutdown();
+    }
+
+    @Override
+    public List<Runnable> shutdownNow() {
+      return delegate.shutdownNow();
+    }
+
+    @Override
+    public boolean isShutdown() {
+      return delegate.isShutdown();
+    }
+
+    @Override
+    public boolean isTerminated() {
+      return delegate.isTerminated();
+    }
+
+    @Override
+    public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+      return delegate.awaitTermination(timeout, unit);
+    }
+  }
+
+  private static final class ContextPropagatingScheduledExecutorService
+      extends ContextPropagatingExecutorService<ScheduledExecutorService>
+      implements ScheduledExecutorService {
+    ContextPropagatingScheduledExecutorService(ScheduledExecutorService delegate) {
+      super(delegate);
+    }
+
+    @Override
+    public ScheduledFuture<?> schedule(Runnable command, long delay, TimeUnit unit) {
+      return delegate.schedule(new ContextRunnable(Context.current(), command), delay, unit);
+    }
+
+    @Override
+    public <V> ScheduledFuture<V> schedule(Callable<V> callable, long delay, TimeUnit unit) {
+      return delegate.schedule(new ContextCallable<>(Context.current(), callable), delay, unit);
+    }
+
+    @Override
+    public ScheduledFuture<?> scheduleAtFixedRate(
+        Runnable command, long initialDelay, long period, TimeUnit unit) {
+      return delegate.scheduleAtFixedRate(
+          new ContextRunnable(Context.current(), command), initialDelay, period, unit);
+    }
+
+    @Override
+    public ScheduledFuture<?> scheduleWithFixedDelay(
+        Runnable command, long initialDelay, long delay, TimeUnit unit) {
+      return delegate.scheduleWithFixedDelay(
+          new ContextRunnable(Context.current(), command), initialDelay, delay, unit);
+    }
+  }
+
+  private static final class ContextRunnable implements Runnable {
+    private final Context context;
+    private final Runnable runnable;
+
+    private ContextRunnable(Context context, Runnable runnable) {
+      this.context = context;
+      this.runnable = Objects.requireNonNull(runnable, "runnable");
+    }
+
+    @Override
+    public void run() {
+      if (Context.current() == context) {
+        runnable.run();
+        return;
+      }
+      Context previous = context.attach();
+      try {
+        runnable.run();
+      } finally {
+        context.detach(previous);
+      }
+    }
+  }
+
+  private static final class ContextCallable<V> implements Callable<V> {
+    private final Context context;
+    private final Callable<V> callable;
+
+    private ContextCallable(Context context, Callable<V> callable) {
+      this.context = context;
+      this.callable = Objects.requireNonNull(callable, "callable");
+    }
+
+    @Override
+    public V call() throws Exception {
+      if (Context.current() == context) {
+        return callable.call();
+      }
+      Context previous = context.attach();
+      try {
+        return callable.call();
+      } finally {
+        context.detach(previous);
+      }
+    }
+  }
+}
@@ -0,0 +1,190 @@
+/*
+ * Copyright 2020, OpenTelemetry Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.opentelemetry.extensions.trace;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.grpc.Context;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+/** Unit tests for {@link ContextPropagatingExecutors}. */
+class ContextPropagatingExecutorsTest {
+  private static final Context.Key<String> KEY = Context.key("test-key");
+  private static final Callable<String> GET_VALUE =
+      new Callable<String>() {
+        @Override
+        public String call() {
+          return KEY.get();
+        }
+      };
+
+  private final ScheduledExecutorService delegate = Executors.newSingleThreadScheduledExecutor();
+  private final ScheduledExecutorService executor = ContextPropagatingExecutors.wrap(delegate);
+
+  @AfterEach
+  void tearDown() {
+    executor.shutdownNow();
+  }
+
+  @Test
+  void wrap_Idempotent() {
+    assertThat(ContextPropagatingExecutors.wrap(executor)).isSameAs(executor);
+    assertThat(ContextPropagatingExecutors.wrap((ExecutorService) executor)).isSameAs(executor);
+  }
+
+  @Test
+  void submit() throws Exception {
+    Future<String> callable = submitInContext("callable", GET_VALUE);
+    final AtomicReference<String> value = new AtomicReference<>();
+    Runnable runnable =
+        new Runnable() {
+          @Override
+          public void run() {
+            value.set(KEY.get());
+          }
+        };
+    Context previous = Context.current().withValue(KEY, "runnable").attach();
+    Future<?> future;
+    try {
+      future = executor.submit(runnable);
+    } finally {
+      Context.current().detach(previous);
+    }
+
+    assertThat(callable.get()).isEqualTo("callable");
+    future.get();
+    assertThat(value.get()).isEqualTo("runnable");
+    // The worker thread is back to its own Context after each task.
+    assertThat(executor.submit(GET_VALUE).get()).isNull();
+    assertThat(delegate.submit(GET_VALUE).get()).isNull();
+  }
+
+  @Test
+  void execute() throws Exception {
+    final AtomicReference<String> value = new AtomicReference<>();
+    final CountDownLatch done = new CountDownLatch(1);
+    Context previous = Context.current().withValue(KEY, "execute").attach();
+    try {
+      executor.execute(
+          new Runnable() {
+            @Override
+            public void run() {
+              value.set(KEY.get());
+              done.countDown();
+            }
+          });
+    } finally {
+      Context.current().detach(previous);
+    }
+    assertThat(done.await(10, TimeUnit.SECONDS)).isTrue();
+    assertThat(value.get()).isEqualTo("execute");
+  }
+
+  @Test
+  void invokeAll() throws Exception {
+    Context previous = Context.current().withValue(KEY, "invokeAll").attach();
+    List<Future<String>> futures;
+    String any;
+    try {
+      futures = executor.invokeAll(Arrays.asList(GET_VALUE, GET_VALUE));
+      any = executor.invokeAny(Arrays.asList(GET_VALUE, GET_VALUE));
+    } finally {
+      Context.current().detach(previous);
+    }
+    for (Future<String> future : futures) {
+      assertThat(future.get()).isEqualTo("invokeAll");
+    }
+    assertThat(any).isEqualTo("invokeAll");
+  }
+
+  @Test
+  void schedule() throws Exception {
+    Context previous = Context.current().withValue(KEY, "schedule").attach();
+    ScheduledFuture<String> future;
+    try {
+      future = executor.schedule(GET_VALUE, 1, TimeUnit.MILLISECONDS);
+    } finally {
+      Context.current().detach(previous);
+    }
+    assertThat(future.get()).isEqualTo("schedule");
+  }
+
+  @Test
+  void scheduleAtFixedRate() throws Exception {
+    final CountDownLatch runs = new CountDownLatch(3);
+    final AtomicReference<String> wrongValue = new AtomicReference<>();
+    Context previous = Context.current().withValue(KEY, "periodic").attach();
+    ScheduledFuture<?> future;
+    try {
+      future =
+          executor.scheduleAtFixedRate(
+              new Runnable() {
+                @Override
+                public void run() {
+                  if (!"periodic".equals(KEY.get())) {
+                    wrongValue.set(KEY.get());
+                  }
+                  runs.countDown();
+                }
+              },
+              0,
+              1,
+              TimeUnit.MILLISECONDS);
+    } finally {
+      Context.current().detach(previous);
+    }
+    assertThat(runs.await(10, TimeUnit.SECONDS)).isTrue();
+    future.cancel(false);
+    assertThat(wrongValue.get()).isNull();
+  }
+
+  @Test
+  void nestedSubmission_SameContext() throws Exception {
+    Future<Future<String>> outer =
+        submitInContext(
+            "outer",
+            new Callable<Future<String>>() {
+              @Override
+              public Future<String> call() {
+                // Runs on the worker thread, whose current Context is already the captured one.
+                return executor.submit(GET_VALUE);
+              }
+            });
+    assertThat(outer.get().get()).isEqualTo("outer");
+  }
+
+  private <T> Future<T> submitInContext(String value, Callable<T> callable) {
+    Context previous = Context.current().withValue(KEY, value).attach();
+    try {
+      return executor.submit(callable);
+    } finally {
+      Context.current().detach(previous);
+    }
+  }
+}
@@ -0,0 +1,86 @@
+/*
+ * Copyright 2020, OpenTelemetry Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.opentelemetry.sdk.correlationcontext;
+
+import io.opentelemetry.correlationcontext.CorrelationContext;
+import io.opentelemetry.correlationcontext.Entry;
+import io.opentelemetry.correlationcontext.EntryMetadata;
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks for chains of {@link CorrelationContext}s where every hop adds one entry to its
+ * parent, as services adding baggage on each hop do.
+ */
+@State(Scope.Thread)
+@Fork(1)
+@Measurement(iterations = 10, time = 1)
+@Warmup(iterations = 5, time = 1)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@BenchmarkMode(Mode.AverageTime)
+public class CorrelationContextBenchmark {
+  private static final EntryMetadata METADATA =
+      EntryMetadata.create(EntryMetadata.EntryTtl.UNLIMITED_PROPAGATION);
+
+  @Param({"1", "8", "32"})
+  public int depth;
+
+  private final CorrelationContextManagerSdk contextManager = new CorrelationContextManagerSdk();
+  private String[] keys;
+  private CorrelationContext deepContext;
+
+  @Setup
+  public void setup() {
+    keys = new String[depth];
+    for (int i = 0; i < depth; i++) {
+      keys[i] = "key" + i;
+    }
+    deepContext = buildChain();
+  }
+
+  /** Builds a chain of {@code depth} contexts, each adding one entry to its parent. */
+  @Benchmark
+  public CorrelationContext buildChain() {
+    CorrelationContext context = contextManager.contextBuilder().setNoParent().build();
+    for (String key : keys) {
+      context = contextManager.contextBuilder().setParent(context).put(key, key, METADATA).build();
+    }
+    return context;
+  }
+
+  /** Looks up the entry added by the first hop from the last context of the chain. */
+  @Benchmark
+  public String getEntryValue() {
+    return deepContext.getEntryValue(keys[0]);
+  }
+
+  @Benchmark
+  public Collection<Entry> getEntries() {
+    return deepContext.getEntries();
+  }
+}
@@ -0,0 +1,117 @@
+/*
+ * Copyright 2020, OpenTelemetry Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.opentelemetry.sdk.metrics;
+
+import io.opentelemetry.common.Labels;
+import io.opentelemetry.metrics.AsynchronousInstrument;
+import io.opentelemetry.metrics.AsynchronousInstrument.LongResult;
+import io.opentelemetry.metrics.BatchObserver;
+import io.opentelemetry.sdk.common.InstrumentationLibraryInfo;
+import io.opentelemetry.sdk.internal.MillisClock;
+import io.opentelemetry.sdk.metrics.data.MetricData;
+import io.opentelemetry.sdk.resources.Resource;
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks a collection of an observer reporting many series, either from its own callback or
+ * from a {@link BatchObserver} with one bound observation per series. Run with {@code -prof gc} to
+ * see the garbage created per collection.
+ */
+@State(Scope.Benchmark)
+@Fork(1)
+@Measurement(iterations = 10, time = 1)
+@Warmup(iterations = 5, time = 1)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@BenchmarkMode(Mode.AverageTime)
+public class BatchObserverBenchmark {
+  @Param({"100", "10000"})
+  public int series;
+
+  private MeterSdk callbackMeter;
+  private MeterSdk batchMeter;
+
+  /** Creates one meter per variant, each with an observer reporting {@code series} series. */
+  @Setup
+  public void setup() {
+    final Labels[] labels = new Labels[series];
+    for (int i = 0; i < series; i++) {
+      labels[i] = Labels.of("key", "value" + i);
+    }
+
+    callbackMeter = newMeter();
+    callbackMeter
+        .longSumObserverBuilder("observer")
+        .build()
+        .setCallback(
+            new AsynchronousInstrument.Callback<LongResult>() {
+              @Override
+              public void update(LongResult result) {
+                for (int i = 0; i < labels.length; i++) {
+                  result.observe(i, labels[i]);
+                }
+              }
+            });
+
+    batchMeter = newMeter();
+    LongSumObserverSdk observer = batchMeter.longSumObserverBuilder("observer").build();
+    BatchObserver batchObserver = batchMeter.newBatchObserver("batch");
+    final BatchObserver.LongObservation[] observations = new BatchObserver.LongObservation[series];
+    for (int i = 0; i < series; i++) {
+      observations[i] = batchObserver.bindLong(observer, labels[i]);
+    }
+    batchObserver.setCallback(
+        new BatchObserver.Callback() {
+          @Override
+          public void update() {
+            for (int i = 0; i < observations.length; i++) {
+              observations[i].observe(i);
+            }
+          }
+        });
+  }
+
+  /** Collects an observer reporting every series from its own callback. */
+  @Benchmark
+  public Collection<MetricData> callback() {
+    return callbackMeter.collectAll();
+  }
+
+  /** Collects an observer reporting every series through bound batch observations. */
+  @Benchmark
+  public Collection<MetricData> batchObserver() {
+    return batchMeter.collectAll();
+  }
+
+  private static MeterSdk newMeter() {
+    return new MeterSdk(
+        MeterProviderSharedState.create(MillisClock.getInstance(), Resource.getEmpty()),
+        InstrumentationLibraryInfo.create("io.opentelemetry.sdk.metrics", null),
+        new ViewRegistry());
+  }
+}
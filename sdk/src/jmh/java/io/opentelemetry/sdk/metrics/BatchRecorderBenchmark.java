@@ -0,0 +1,81 @@
+/*
+ * Copyright 2020, OpenTelemetry Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.opentelemetry.sdk.metrics;
+
+import io.opentelemetry.common.Labels;
+import io.opentelemetry.metrics.BatchRecorder;
+import io.opentelemetry.sdk.common.InstrumentationLibraryInfo;
+import io.opentelemetry.sdk.internal.MillisClock;
+import io.opentelemetry.sdk.resources.Resource;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks recording one measurement into each of eight instruments with the same labels, as a
+ * request handler would, either individually or through a reused {@link BatchRecorder}.
+ */
+@State(Scope.Benchmark)
+@Fork(1)
+@Measurement(iterations = 10, time = 1)
+@Warmup(iterations = 5, time = 1)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@BenchmarkMode(Mode.AverageTime)
+public class BatchRecorderBenchmark {
+  private static final int INSTRUMENTS = 8;
+  private static final Labels LABELS = Labels.of("method", "GET", "route", "/users/:id");
+
+  private final LongCounterSdk[] counters = new LongCounterSdk[INSTRUMENTS];
+  private BatchRecorder batchRecorder;
+
+  /** Creates the counters and a batch recorder putting one value into each. */
+  @Setup
+  public void setup() {
+    MeterSdk meter =
+        new MeterSdk(
+            MeterProviderSharedState.create(MillisClock.getInstance(), Resource.getEmpty()),
+            InstrumentationLibraryInfo.create("io.opentelemetry.sdk.metrics", null),
+            new ViewRegistry());
+    batchRecorder = meter.newBatchRecorder("method", "GET", "route", "/users/:id");
+    for (int i = 0; i < INSTRUMENTS; i++) {
+      counters[i] = meter.longCounterBuilder("counter" + i).build();
+      batchRecorder.put(counters[i], 1);
+    }
+  }
+
+  /** Adds to every counter individually. */
+  @Benchmark
+  public void individual() {
+    for (LongCounterSdk counter : counters) {
+      counter.add(1, LABELS);
+    }
+  }
+
+  /** Records the same measurements through the batch recorder. */
+  @Benchmark
+  public void batch() {
+    batchRecorder.record();
+  }
+}
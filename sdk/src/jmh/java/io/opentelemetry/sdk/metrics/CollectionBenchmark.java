@@ -0,0 +1,89 @@
+/*
+ * Copyright 2020, OpenTelemetry Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.opentelemetry.sdk.metrics;
+
+import io.opentelemetry.common.Labels;
+import io.opentelemetry.sdk.common.InstrumentationLibraryInfo;
+import io.opentelemetry.sdk.internal.MillisClock;
+import io.opentelemetry.sdk.metrics.data.MetricData;
+import io.opentelemetry.sdk.resources.Resource;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks a collection cycle of instruments with many series, each recorded once per cycle. Run
+ * with {@code -prof gc} to see the garbage created per cycle. Counters use cumulative batchers and
+ * value recorders delta batchers.
+ */
+@State(Scope.Benchmark)
+@Fork(1)
+@Measurement(iterations = 10, time = 1)
+@Warmup(iterations = 5, time = 1)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@BenchmarkMode(Mode.AverageTime)
+public class CollectionBenchmark {
+  @Param({"1000", "10000"})
+  public int series;
+
+  private Labels[] labels;
+  private LongCounterSdk counter;
+  private LongValueRecorderSdk valueRecorder;
+
+  @Setup
+  public void setup() {
+    MeterSdk meter =
+        new MeterSdk(
+            MeterProviderSharedState.create(MillisClock.getInstance(), Resource.getEmpty()),
+            InstrumentationLibraryInfo.create("io.opentelemetry.sdk.metrics", null),
+            new ViewRegistry());
+    counter = meter.longCounterBuilder("counter").build();
+    valueRecorder = meter.longValueRecorderBuilder("recorder").build();
+    labels = new Labels[series];
+    for (int i = 0; i < series; i++) {
+      labels[i] = Labels.of("key", "value" + i);
+    }
+  }
+
+  /** Records once into every series of a counter and collects it. */
+  @Benchmark
+  public List<MetricData> counter() {
+    for (Labels labelSet : labels) {
+      counter.add(1, labelSet);
+    }
+    return counter.collectAll();
+  }
+
+  /** Records once into every series of a value recorder and collects it. */
+  @Benchmark
+  public List<MetricData> valueRecorder() {
+    for (Labels labelSet : labels) {
+      valueRecorder.record(1, labelSet);
+    }
+    return valueRecorder.collectAll();
+  }
+}
@@ -0,0 +1,109 @@
+/*
+ * Copyright 2020, OpenTelemetry Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.opentelemetry.sdk.metrics;
+
+import io.opentelemetry.common.Labels;
+import io.opentelemetry.metrics.LongValueRecorder.BoundLongValueRecorder;
+import io.opentelemetry.sdk.common.InstrumentationLibraryInfo;
+import io.opentelemetry.sdk.internal.MillisClock;
+import io.opentelemetry.sdk.resources.Resource;
+import io.opentelemetry.trace.DefaultSpan;
+import io.opentelemetry.trace.SpanContext;
+import io.opentelemetry.trace.SpanId;
+import io.opentelemetry.trace.TraceFlags;
+import io.opentelemetry.trace.TraceId;
+import io.opentelemetry.trace.TraceState;
+import io.opentelemetry.trace.TracingContextUtils;
+import java.util.concurrent.TimeUnit;
+import javax.annotation.Nullable;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks a recording into a bound value recorder with exemplars disabled or enabled, and with
+ * no span, a span that is not sampled or a sampled span current.
+ */
+@State(Scope.Thread)
+@Fork(1)
+@Measurement(iterations = 10, time = 1)
+@Warmup(iterations = 5, time = 1)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@BenchmarkMode(Mode.AverageTime)
+public class ExemplarBenchmark {
+  /** The span current while recording. */
+  public enum CurrentSpan {
+    NONE,
+    NOT_SAMPLED,
+    SAMPLED
+  }
+
+  @Param({"0", "4"})
+  public int exemplarReservoirSize;
+
+  @Param public CurrentSpan currentSpan;
+
+  private BoundLongValueRecorder boundRecorder;
+  @Nullable private io.opentelemetry.context.Scope spanScope;
+
+  /** Creates the bound recorder and makes the span current. */
+  @Setup
+  public void setup() {
+    MeterSdk meter =
+        new MeterSdk(
+            MeterProviderSharedState.create(
+                MillisClock.getInstance(),
+                Resource.getEmpty(),
+                CardinalityLimiter.getDefault(),
+                exemplarReservoirSize),
+            InstrumentationLibraryInfo.create("io.opentelemetry.sdk.metrics", null),
+            new ViewRegistry());
+    boundRecorder = meter.longValueRecorderBuilder("recorder").build().bind(Labels.empty());
+    if (currentSpan != CurrentSpan.NONE) {
+      SpanContext spanContext =
+          SpanContext.create(
+              new TraceId(1, 2),
+              new SpanId(3),
+              TraceFlags.builder().setIsSampled(currentSpan == CurrentSpan.SAMPLED).build(),
+              TraceState.getDefault());
+      spanScope = TracingContextUtils.currentContextWith(DefaultSpan.create(spanContext));
+    }
+  }
+
+  /** Closes the span scope. */
+  @TearDown
+  public void tearDown() {
+    if (spanScope != null) {
+      spanScope.close();
+    }
+  }
+
+  /** Records one value. */
+  @Benchmark
+  public void record() {
+    boundRecorder.record(100);
+  }
+}
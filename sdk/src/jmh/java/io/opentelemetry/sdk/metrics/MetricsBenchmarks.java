@@ -88,4 +88,40 @@ public class MetricsBenchmarks {
   public void eightThreadsBound(ThreadState threadState) {
     threadState.op.performBound();
   }
+
+  @Benchmark
+  @Threads(4)
+  public void fourThreadsCommonLabelSet(ThreadState threadState) {
+    threadState.op.perform(threadState.sharedLabelSet);
+  }
+
+  @Benchmark
+  @Threads(4)
+  public void fourThreadsBound(ThreadState threadState) {
+    threadState.op.performBound();
+  }
+
+  @Benchmark
+  @Threads(16)
+  public void sixteenThreadsCommonLabelSet(ThreadState threadState) {
+    threadState.op.perform(threadState.sharedLabelSet);
+  }
+
+  @Benchmark
+  @Threads(16)
+  public void sixteenThreadsBound(ThreadState threadState) {
+    threadState.op.performBound();
+  }
+
+  @Benchmark
+  @Threads(64)
+  public void sixtyFourThreadsCommonLabelSet(ThreadState threadState) {
+    threadState.op.perform(threadState.sharedLabelSet);
+  }
+
+  @Benchmark
+  @Threads(64)
+  public void sixtyFourThreadsBound(ThreadState threadState) {
+    threadState.op.performBound();
+  }
 }
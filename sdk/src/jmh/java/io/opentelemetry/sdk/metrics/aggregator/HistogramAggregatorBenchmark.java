@@ -0,0 +1,85 @@
+/*
+ * Copyright 2020, OpenTelemetry Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.opentelemetry.sdk.metrics.aggregator;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/** Records latencies in nanoseconds, from a microsecond to ten seconds, in a histogram. */
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@BenchmarkMode(Mode.AverageTime)
+public class HistogramAggregatorBenchmark {
+  private static final int VALUE_COUNT = 1024;
+
+  /** The bucket layout, explicit with a dozen buckets or log-linear with 202 buckets. */
+  @Param({"explicit", "logLinear"})
+  public String buckets;
+
+  private Aggregator aggregator;
+  private final long[] values = new long[VALUE_COUNT];
+
+  @Setup(Level.Trial)
+  public final void setup() {
+    AggregatorFactory factory =
+        buckets.equals("explicit")
+            ? HistogramAggregator.getFactory(
+                new double[] {1e3, 5e3, 1e4, 5e4, 1e5, 5e5, 1e6, 5e6, 1e7, 5e7, 1e8, 1e9})
+            : HistogramAggregator.getLogLinearFactory(1e3, 1e10, 8);
+    aggregator = factory.getAggregator();
+    for (int i = 0; i < VALUE_COUNT; i++) {
+      values[i] = (long) Math.pow(10, ThreadLocalRandom.current().nextDouble(3, 10));
+    }
+  }
+
+  @State(Scope.Thread)
+  public static class ThreadState {
+    int index;
+  }
+
+  @Benchmark
+  @Threads(1)
+  public void record_1Threads(ThreadState threadState) {
+    record(threadState);
+  }
+
+  @Benchmark
+  @Threads(8)
+  public void record_8Threads(ThreadState threadState) {
+    record(threadState);
+  }
+
+  private void record(ThreadState threadState) {
+    aggregator.recordLong(values[threadState.index++ & (VALUE_COUNT - 1)]);
+  }
+}
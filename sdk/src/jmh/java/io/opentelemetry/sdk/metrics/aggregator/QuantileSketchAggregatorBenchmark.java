@@ -0,0 +1,102 @@
+/*
+ * Copyright 2020, OpenTelemetry Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.opentelemetry.sdk.metrics.aggregator;
+
+import io.opentelemetry.common.Labels;
+import io.opentelemetry.sdk.metrics.data.MetricData.Point;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Records log-normal latencies in nanoseconds in a quantile sketch. Run with {@code -prof gc}, the
+ * normalized allocation of {@link #newSeries()} is the memory of one series.
+ */
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@BenchmarkMode(Mode.AverageTime)
+public class QuantileSketchAggregatorBenchmark {
+  private static final int VALUE_COUNT = 1024;
+  private static final double[] PERCENTILES = {50, 90, 99, 99.9};
+
+  @Param({"0.01", "0.001"})
+  public double relativeAccuracy;
+
+  private AggregatorFactory factory;
+  private Aggregator aggregator;
+  private final double[] values = new double[VALUE_COUNT];
+
+  @Setup(Level.Trial)
+  public final void setup() {
+    factory = QuantileSketchAggregator.getFactory(relativeAccuracy, PERCENTILES);
+    aggregator = factory.getAggregator();
+    Random random = new Random(1234);
+    for (int i = 0; i < VALUE_COUNT; i++) {
+      values[i] = Math.exp(random.nextGaussian() * 2 + 14);
+      aggregator.recordDouble(values[i]);
+    }
+  }
+
+  @State(Scope.Thread)
+  public static class ThreadState {
+    int index;
+  }
+
+  @Benchmark
+  @Threads(1)
+  public void record_1Threads(ThreadState threadState) {
+    aggregator.recordDouble(values[threadState.index++ & (VALUE_COUNT - 1)]);
+  }
+
+  @Benchmark
+  @Threads(8)
+  public void record_8Threads(ThreadState threadState) {
+    aggregator.recordDouble(values[threadState.index++ & (VALUE_COUNT - 1)]);
+  }
+
+  /** Creates a series and records {@value #VALUE_COUNT} values in it. */
+  @Benchmark
+  @Threads(1)
+  public Aggregator newSeries() {
+    Aggregator series = factory.getAggregator();
+    for (double value : values) {
+      series.recordDouble(value);
+    }
+    return series;
+  }
+
+  @Benchmark
+  @Threads(1)
+  public Point toPoint() {
+    return aggregator.toPoint(0, 100, Labels.empty());
+  }
+}
@@ -22,65 +22,55 @@ import io.opentelemetry.correlationcontext.CorrelationContext;
 import io.opentelemetry.correlationcontext.CorrelationsContextUtils;
 import io.opentelemetry.correlationcontext.Entry;
 import io.opentelemetry.correlationcontext.EntryMetadata;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.HashMap;
-import java.util.Iterator;
 import java.util.Map;
 import java.util.Objects;
 import javax.annotation.Nullable;
 import javax.annotation.concurrent.Immutable;
 
+/**
+ * {@link CorrelationContext} holding all of its entries, including the ones inherited from its
+ * parent, in a single array sorted by key. The array is built once per {@link Builder#build()} by
+ * merging the changes of the builder into the already flattened entries of the parent, so reads
+ * never walk a parent chain and a context that adds one entry per hop costs a single array copy.
+ * Correlation contexts are small, so a sorted array beats hashed or tree structures both in memory
+ * and in lookup time.
+ */
 @Immutable
 // TODO: Migrate to AutoValue
 // @AutoValue
 class CorrelationContextSdk implements CorrelationContext {
+  private static final Entry[] NO_ENTRIES = new Entry[0];
+
+  private static final Comparator<Entry> BY_KEY =
+      new Comparator<Entry>() {
+        @Override
+        public int compare(Entry e1, Entry e2) {
+          return e1.getKey().compareTo(e2.getKey());
+        }
+      };
 
-  // The types of the EntryKey and Entry must match for each entry.
-  private final Map<String, Entry> entries;
-  @Nullable private final CorrelationContext parent;
-
-  /**
-   * Creates a new {@link CorrelationContextSdk} with the given entries.
-   *
-   * @param entries the initial entries for this {@code CorrelationContextSdk}.
-   * @param parent providing a default set of entries
-   */
-  private CorrelationContextSdk(Map<String, ? extends Entry> entries, CorrelationContext parent) {
-    this.entries =
-        Collections.unmodifiableMap(new HashMap<>(Objects.requireNonNull(entries, "entries")));
-    this.parent = parent;
+  // Sorted by key, without duplicate keys. Never modified.
+  private final Entry[] entries;
+
+  private CorrelationContextSdk(Entry[] entries) {
+    this.entries = entries;
   }
 
   @Override
   public Collection<Entry> getEntries() {
-    Map<String, Entry> combined = new HashMap<>(entries);
-    if (parent != null) {
-      for (Entry entry : parent.getEntries()) {
-        if (!combined.containsKey(entry.getKey())) {
-          combined.put(entry.getKey(), entry);
-        }
-      }
-    }
-    // Clean out any null values that may have been added by Builder.remove.
-    for (Iterator<Entry> it = combined.values().iterator(); it.hasNext(); ) {
-      if (it.next() == null) {
-        it.remove();
-      }
-    }
-
-    return Collections.unmodifiableCollection(combined.values());
+    return Collections.unmodifiableList(Arrays.asList(entries));
   }
 
   @Nullable
   @Override
   public String getEntryValue(String entryKey) {
-    Entry entry = entries.get(entryKey);
-    if (entry != null) {
-      return entry.getValue();
-    } else {
-      return parent == null ? null : parent.getEntryValue(entryKey);
-    }
+    int index = indexOf(entries, entryKey);
+    return index >= 0 ? entries[index].getValue() : null;
   }
 
   @Override
@@ -94,17 +84,43 @@ class CorrelationContextSdk implements CorrelationContext {
 
     CorrelationContextSdk distContextSdk = (CorrelationContextSdk) o;
 
-    if (!entries.equals(distContextSdk.entries)) {
-      return false;
-    }
-    return parent != null ? parent.equals(distContextSdk.parent) : distContextSdk.parent == null;
+    return Arrays.equals(entries, distContextSdk.entries);
   }
 
   @Override
   public int hashCode() {
-    int result = entries.hashCode();
-    result = 31 * result + (parent != null ? parent.hashCode() : 0);
-    return result;
+    return Arrays.hashCode(entries);
+  }
+
+  // Binary search of the key, with the same return value as Arrays.binarySearch.
+  private static int indexOf(Entry[] entries, String key) {
+    int low = 0;
+    int high = entries.length - 1;
+    while (low <= high) {
+      int mid = (low + high) >>> 1;
+      int cmp = entries[mid].getKey().compareTo(key);
+      if (cmp < 0) {
+        low = mid + 1;
+      } else if (cmp > 0) {
+        high = mid - 1;
+      } else {
+        return mid;
+      }
+    }
+    return -(low + 1);
+  }
+
+  private static Entry[] sortedEntries(CorrelationContext correlationContext) {
+    if (correlationContext instanceof CorrelationContextSdk) {
+      return ((CorrelationContextSdk) correlationContext).entries;
+    }
+    Collection<Entry> entries = correlationContext.getEntries();
+    if (entries.isEmpty()) {
+      return NO_ENTRIES;
+    }
+    Entry[] sorted = entries.toArray(new Entry[0]);
+    Arrays.sort(sorted, BY_KEY);
+    return sorted;
   }
 
   // TODO: Migrate to AutoValue.Builder
@@ -112,11 +128,12 @@ class CorrelationContextSdk implements CorrelationContext {
   static class Builder implements CorrelationContext.Builder {
     @Nullable private CorrelationContext parent;
     private boolean noImplicitParent;
-    private final Map<String, Entry> entries;
+    // Changes to apply on top of the parent entries. A null value removes the key.
+    private final Map<String, Entry> changes;
 
     /** Create a new empty CorrelationContext builder. */
     Builder() {
-      this.entries = new HashMap<>();
+      this.changes = new HashMap<>();
     }
 
     @Override
@@ -141,7 +158,7 @@ class CorrelationContextSdk implements CorrelationContext {
 
     @Override
     public CorrelationContext.Builder put(String key, String value, EntryMetadata entryMetadata) {
-      entries.put(
+      changes.put(
           Objects.requireNonNull(key, "key"),
           Entry.create(
               key,
@@ -152,10 +169,7 @@ class CorrelationContextSdk implements CorrelationContext {
 
     @Override
     public CorrelationContext.Builder remove(String key) {
-      entries.remove(Objects.requireNonNull(key, "key"));
-      if (parent != null && parent.getEntryValue(key) != null) {
-        entries.put(key, null);
-      }
+      changes.put(Objects.requireNonNull(key, "key"), null);
       return this;
     }
 
@@ -164,7 +178,70 @@ class CorrelationContextSdk implements CorrelationContext {
       if (parent == null && !noImplicitParent) {
         parent = OpenTelemetry.getCorrelationContextManager().getCurrentContext();
       }
-      return new CorrelationContextSdk(entries, parent);
+      if (changes.isEmpty() && parent instanceof CorrelationContextSdk) {
+        return (CorrelationContextSdk) parent;
+      }
+      Entry[] parentEntries = parent == null ? NO_ENTRIES : sortedEntries(parent);
+      return new CorrelationContextSdk(merge(parentEntries, changes));
+    }
+
+    // Merges the sorted parent entries with the changes, in O(parent + changes * log(changes)).
+    private static Entry[] merge(Entry[] parentEntries, Map<String, Entry> changes) {
+      if (changes.size() == 1) {
+        Map.Entry<String, Entry> change = changes.entrySet().iterator().next();
+        return apply(parentEntries, change.getKey(), change.getValue());
+      }
+      String[] changedKeys = changes.keySet().toArray(new String[0]);
+      Arrays.sort(changedKeys);
+      Entry[] merged = new Entry[parentEntries.length + changedKeys.length];
+      int size = 0;
+      int parentIndex = 0;
+      for (String changedKey : changedKeys) {
+        while (parentIndex < parentEntries.length
+            && parentEntries[parentIndex].getKey().compareTo(changedKey) < 0) {
+          merged[size++] = parentEntries[parentIndex++];
+        }
+        if (parentIndex < parentEntries.length
+            && parentEntries[parentIndex].getKey().equals(changedKey)) {
+          // Overridden or removed.
+          parentIndex++;
+        }
+        Entry change = changes.get(changedKey);
+        if (change != null) {
+          merged[size++] = change;
+        }
+      }
+      int remaining = parentEntries.length - parentIndex;
+      System.arraycopy(parentEntries, parentIndex, merged, size, remaining);
+      size += remaining;
+      return size == merged.length ? merged : Arrays.copyOf(merged, size);
+    }
+
+    // Sets or, if change is null, removes a single key with two array copies.
+    private static Entry[] apply(Entry[] parentEntries, String key, @Nullable Entry change) {
+      int index = indexOf(parentEntries, key);
+      if (index >= 0) {
+        if (change == null) {
+          Entry[] removed = new Entry[parentEntries.length - 1];
+          System.arraycopy(parentEntries, 0, removed, 0, index);
+          System.arraycopy(
+              parentEntries, index + 1, removed, index, parentEntries.length - index - 1);
+          return removed;
+        }
+        Entry[] replaced = parentEntries.clone();
+        replaced[index] = change;
+        return replaced;
+      }
+      if (change == null) {
+        return parentEntries;
+      }
+      int insertion = -(index + 1);
+      Entry[] inserted = new Entry[parentEntries.length + 1];
+      System.arraycopy(parentEntries, 0, inserted, 0, insertion);
+      inserted[insertion] = change;
+      System.arraycopy(
+          parentEntries, insertion, inserted, insertion + 1, parentEntries.length - insertion);
+      return inserted;
     }
   }
 }
@@ -0,0 +1,233 @@
+/*
+ * Copyright 2020, OpenTelemetry Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.opentelemetry.sdk.internal;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.ThreadSafe;
+
+/**
+ * Common state of the striped adders, a Java 7 version of the {@code Striped64} scheme of the Java
+ * 8 adders: a base value updated while there is no contention, and a table of cache-line padded
+ * cells that is only created once an update of the base fails because of contention. Cells are
+ * added one at a time where threads collide, a thread that collides on its cell moves to another
+ * one, and the table doubles in size while collisions continue, up to one cell per CPU. Values are
+ * stored as {@code long} bits, starting at zero.
+ */
+@ThreadSafe
+abstract class AbstractStripedAdder {
+  private static final int MAX_CELLS = 64;
+  private static final int CELL_LIMIT = stripes(Runtime.getRuntime().availableProcessors());
+
+  private static final AtomicLongFieldUpdater<AbstractStripedAdder> BASE_UPDATER =
+      AtomicLongFieldUpdater.newUpdater(AbstractStripedAdder.class, "base");
+  private static final AtomicIntegerFieldUpdater<AbstractStripedAdder> CELLS_BUSY_UPDATER =
+      AtomicIntegerFieldUpdater.newUpdater(AbstractStripedAdder.class, "cellsBusy");
+
+  // The probe of each thread, a hash that selects its cell and is changed when the thread collides
+  // with another one on that cell. Only read once the adder has cells.
+  private static final ThreadLocal<int[]> PROBE =
+      new ThreadLocal<int[]>() {
+        @Override
+        protected int[] initialValue() {
+          // Fibonacci hashing spreads sequential thread ids, the probe is never zero.
+          long id = Thread.currentThread().getId() * 0x9E3779B97F4A7C15L;
+          return new int[] {(int) (id >>> 32) | 1};
+        }
+      };
+
+  private volatile long base;
+  @Nullable private volatile Cell[] cells;
+  // Spin lock held while creating or growing the table of cells.
+  private volatile int cellsBusy;
+
+  @Nullable
+  final Cell[] getCells() {
+    return cells;
+  }
+
+  final long getBase() {
+    return base;
+  }
+
+  final boolean compareAndSetBase(long expect, long update) {
+    return BASE_UPDATER.compareAndSet(this, expect, update);
+  }
+
+  final long getAndSetBase(long update) {
+    return BASE_UPDATER.getAndSet(this, update);
+  }
+
+  /** Returns the probe of the calling thread, to be masked with the length of the cells. */
+  static int probe() {
+    return PROBE.get()[0];
+  }
+
+  /** Returns the bits of {@code valueBits} added to {@code bits}. */
+  abstract long combine(long bits, long valueBits);
+
+  /**
+   * Adds {@code valueBits} after a failed update of the base or of the cell of the calling thread,
+   * creating, moving to or growing cells as needed.
+   *
+   * @param valueBits the value to add.
+   * @param wasUncontended {@code false} if the update of the cell of the calling thread failed.
+   */
+  final void addContended(long valueBits, boolean wasUncontended) {
+    int[] probe = PROBE.get();
+    int h = probe[0];
+    boolean collide = false;
+    while (true) {
+      Cell[] cells = this.cells;
+      if (cells != null) {
+        int n = cells.length;
+        Cell cell = cells[h & (n - 1)];
+        if (cell == null) {
+          if (cellsBusy == 0 && lockCells()) {
+            try {
+              // Checked again under the lock.
+              Cell[] current = this.cells;
+              int index = h & (current.length - 1);
+              if (current[index] == null) {
+                current[index] = new Cell(combine(0, valueBits));
+                return;
+              }
+            } finally {
+              cellsBusy = 0;
+            }
+            continue;
+          }
+          collide = false;
+        } else if (!wasUncontended) {
+          // Move to another cell before retrying.
+          wasUncontended = true;
+        } else {
+          long current = cell.get();
+          if (cell.compareAndSet(current, combine(current, valueBits))) {
+            return;
+          }
+          if (n >= CELL_LIMIT || this.cells != cells) {
+            // At the maximum size, or the table just changed: only move to another cell.
+            collide = false;
+          } else if (!collide) {
+            collide = true;
+          } else if (cellsBusy == 0 && lockCells()) {
+            try {
+              if (this.cells == cells) {
+                this.cells = Arrays.copyOf(cells, n << 1);
+              }
+            } finally {
+              cellsBusy = 0;
+            }
+            collide = false;
+            continue;
+          }
+        }
+        h = advanceProbe(h);
+        probe[0] = h;
+      } else if (cellsBusy == 0 && lockCells()) {
+        try {
+          if (this.cells == null) {
+            Cell[] created = new Cell[2];
+            created[h & 1] = new Cell(combine(0, valueBits));
+            this.cells = created;
+            return;
+          }
+        } finally {
+          cellsBusy = 0;
+        }
+      } else {
+        // Another thread is creating the cells, fall back to the base.
+        long base = this.base;
+        if (compareAndSetBase(base, combine(base, valueBits))) {
+          return;
+        }
+      }
+    }
+  }
+
+  private boolean lockCells() {
+    return CELLS_BUSY_UPDATER.compareAndSet(this, 0, 1);
+  }
+
+  private static int advanceProbe(int probe) {
+    // Xorshift.
+    probe ^= probe << 13;
+    probe ^= probe >>> 17;
+    probe ^= probe << 5;
+    return probe;
+  }
+
+  // Visible for testing
+  static int stripes(int availableProcessors) {
+    int stripes = 1;
+    while (stripes < availableProcessors && stripes < MAX_CELLS) {
+      stripes <<= 1;
+    }
+    return stripes;
+  }
+
+  // Fields of a superclass are laid out first, so the value is padded on both sides by 56 bytes,
+  // keeping cells on separate cache lines.
+  @SuppressWarnings("unused")
+  private static class LeftPadding {
+    long p1;
+    long p2;
+    long p3;
+    long p4;
+    long p5;
+    long p6;
+    long p7;
+  }
+
+  private static class CellValue extends LeftPadding {
+    volatile long value;
+  }
+
+  /** A padded cell of a striped adder, holding value bits. */
+  @SuppressWarnings("unused")
+  static final class Cell extends CellValue {
+    private static final AtomicLongFieldUpdater<CellValue> VALUE_UPDATER =
+        AtomicLongFieldUpdater.newUpdater(CellValue.class, "value");
+
+    long q1;
+    long q2;
+    long q3;
+    long q4;
+    long q5;
+    long q6;
+    long q7;
+
+    Cell(long value) {
+      this.value = value;
+    }
+
+    long get() {
+      return value;
+    }
+
+    boolean compareAndSet(long expect, long update) {
+      return VALUE_UPDATER.compareAndSet(this, expect, update);
+    }
+
+    long getAndSet(long update) {
+      return VALUE_UPDATER.getAndSet(this, update);
+    }
+  }
+}
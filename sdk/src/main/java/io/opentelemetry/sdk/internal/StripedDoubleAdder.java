@@ -0,0 +1,103 @@
+/*
+ * Copyright 2019, OpenTelemetry Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.opentelemetry.sdk.internal;
+
+import javax.annotation.concurrent.ThreadSafe;
+
+/**
+ * A {@code double} sum that scales with the number of updating threads, like the Java 8 {@code
+ * DoubleAdder}. See {@link StripedLongAdder} for the striping scheme.
+ *
+ * <p>As for any concurrent floating point sum, the order of the additions, and therefore the
+ * rounding of the result, is not deterministic.
+ */
+@ThreadSafe
+public final class StripedDoubleAdder extends AbstractStripedAdder {
+  // 0.0 is all zero bits, so new cells and reset cells hold 0.0.
+  private static final long ZERO_BITS = Double.doubleToRawLongBits(0.0);
+
+  /**
+   * Adds {@code value} to the sum.
+   *
+   * @param value the value to add.
+   */
+  public void add(double value) {
+    Cell[] cells = getCells();
+    if (cells == null) {
+      long base = getBase();
+      if (compareAndSetBase(base, plus(base, value))) {
+        return;
+      }
+      addContended(Double.doubleToRawLongBits(value), true);
+      return;
+    }
+    Cell cell = cells[probe() & (cells.length - 1)];
+    if (cell == null) {
+      addContended(Double.doubleToRawLongBits(value), true);
+      return;
+    }
+    long current = cell.get();
+    if (!cell.compareAndSet(current, plus(current, value))) {
+      addContended(Double.doubleToRawLongBits(value), false);
+    }
+  }
+
+  /**
+   * Returns the current sum.
+   *
+   * @return the current sum.
+   */
+  public double sum() {
+    double sum = Double.longBitsToDouble(getBase());
+    Cell[] cells = getCells();
+    if (cells != null) {
+      for (Cell cell : cells) {
+        if (cell != null) {
+          sum += Double.longBitsToDouble(cell.get());
+        }
+      }
+    }
+    return sum;
+  }
+
+  /**
+   * Returns the current sum and resets it to zero.
+   *
+   * @return the sum before the reset.
+   */
+  public double sumThenReset() {
+    double sum = Double.longBitsToDouble(getAndSetBase(ZERO_BITS));
+    Cell[] cells = getCells();
+    if (cells != null) {
+      for (Cell cell : cells) {
+        if (cell != null) {
+          sum += Double.longBitsToDouble(cell.getAndSet(ZERO_BITS));
+        }
+      }
+    }
+    return sum;
+  }
+
+  @Override
+  long combine(long bits, long valueBits) {
+    return plus(bits, Double.longBitsToDouble(valueBits));
+  }
+
+  private static long plus(long bits, double value) {
+    return Double.doubleToRawLongBits(Double.longBitsToDouble(bits) + value);
+  }
+}
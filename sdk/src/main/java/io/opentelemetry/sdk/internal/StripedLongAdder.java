@@ -0,0 +1,98 @@
+/*
+ * Copyright 2019, OpenTelemetry Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.opentelemetry.sdk.internal;
+
+import javax.annotation.concurrent.ThreadSafe;
+
+/**
+ * A {@code long} sum that scales with the number of updating threads, like the Java 8 {@code
+ * LongAdder}. Uncontended updates use a single base value; padded cells are only created, and grown
+ * up to one per CPU, where threads actually collide.
+ *
+ * <p>{@link #sum()} and {@link #sumThenReset()} are not atomic snapshots: updates made concurrently
+ * may or may not be included, but {@code sumThenReset} never loses or double counts an update.
+ */
+@ThreadSafe
+public final class StripedLongAdder extends AbstractStripedAdder {
+
+  /**
+   * Adds {@code value} to the sum.
+   *
+   * @param value the value to add.
+   */
+  public void add(long value) {
+    Cell[] cells = getCells();
+    if (cells == null) {
+      long base = getBase();
+      if (compareAndSetBase(base, base + value)) {
+        return;
+      }
+      addContended(value, true);
+      return;
+    }
+    Cell cell = cells[probe() & (cells.length - 1)];
+    if (cell == null) {
+      addContended(value, true);
+      return;
+    }
+    long current = cell.get();
+    if (!cell.compareAndSet(current, current + value)) {
+      addContended(value, false);
+    }
+  }
+
+  /**
+   * Returns the current sum.
+   *
+   * @return the current sum.
+   */
+  public long sum() {
+    long sum = getBase();
+    Cell[] cells = getCells();
+    if (cells != null) {
+      for (Cell cell : cells) {
+        if (cell != null) {
+          sum += cell.get();
+        }
+      }
+    }
+    return sum;
+  }
+
+  /**
+   * Returns the current sum and resets it to zero.
+   *
+   * @return the sum before the reset.
+   */
+  public long sumThenReset() {
+    long sum = getAndSetBase(0);
+    Cell[] cells = getCells();
+    if (cells != null) {
+      for (Cell cell : cells) {
+        if (cell != null) {
+          sum += cell.getAndSet(0);
+        }
+      }
+    }
+    return sum;
+  }
+
+  @Override
+  long combine(long bits, long valueBits) {
+    return bits + valueBits;
+  }
+}
@@ -18,11 +18,16 @@ package io.opentelemetry.sdk.metrics;
 
 import io.opentelemetry.common.Labels;
 import io.opentelemetry.metrics.AsynchronousInstrument;
+import io.opentelemetry.metrics.BatchObserver;
 import io.opentelemetry.sdk.metrics.aggregator.Aggregator;
 import io.opentelemetry.sdk.metrics.data.MetricData;
+import io.opentelemetry.sdk.metrics.data.MetricData.Exemplar;
 import java.util.Collections;
 import java.util.List;
 import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.concurrent.locks.ReentrantLock;
 import javax.annotation.Nullable;
 
@@ -30,6 +35,9 @@ abstract class AbstractAsynchronousInstrument<T extends AsynchronousInstrument.R
     extends AbstractInstrument implements AsynchronousInstrument<T> {
   @Nullable private volatile Callback<T> metricUpdater = null;
   private final ReentrantLock collectLock = new ReentrantLock();
+  // Observations bound by BatchObservers, batched by every collection in which they were observed.
+  private final Set<ObservationCell> observationCells =
+      Collections.newSetFromMap(new ConcurrentHashMap<ObservationCell, Boolean>());
 
   AbstractAsynchronousInstrument(
       InstrumentDescriptor descriptor,
@@ -42,13 +50,18 @@ abstract class AbstractAsynchronousInstrument<T extends AsynchronousInstrument.R
   @Override
   List<MetricData> collectAll() {
     Callback<T> currentMetricUpdater = metricUpdater;
-    if (currentMetricUpdater == null) {
+    if (currentMetricUpdater == null && observationCells.isEmpty()) {
       return Collections.emptyList();
     }
     collectLock.lock();
     try {
       final ActiveBatcher activeBatcher = getActiveBatcher();
-      currentMetricUpdater.update(newResult(activeBatcher));
+      if (currentMetricUpdater != null) {
+        currentMetricUpdater.update(newResult(activeBatcher));
+      }
+      for (ObservationCell observationCell : observationCells) {
+        observationCell.batchTo(activeBatcher);
+      }
       return activeBatcher.completeCollectionCycle();
     } finally {
       collectLock.unlock();
@@ -62,6 +75,72 @@ abstract class AbstractAsynchronousInstrument<T extends AsynchronousInstrument.R
 
   abstract T newResult(ActiveBatcher activeBatcher);
 
+  /**
+   * Binds a new observation of this instrument with the given {@code labels}, reported by every
+   * collection following an {@code observe} call until it is unbound.
+   */
+  final ObservationCell bindObservation(Labels labels) {
+    ActiveBatcher activeBatcher = getActiveBatcher();
+    ObservationCell observationCell =
+        new ObservationCell(activeBatcher.projectLabels(labels), activeBatcher.getAggregator());
+    observationCells.add(observationCell);
+    return observationCell;
+  }
+
+  /**
+   * An observation bound to a set of labels. Unlike the {@code Result} passed to the callbacks, it
+   * keeps its {@link Aggregator} across collections: the observed value is merged into the series
+   * of the {@link Batcher} and the {@code Aggregator} is reset.
+   *
+   * <p>The last value observed since the previous collection is swapped out atomically by the
+   * collection, which alone records it into the {@code Aggregator}. A callback still running while
+   * the instrument is collected then either reports its value in this collection or in the next
+   * one, never in both and never as an empty series.
+   */
+  final class ObservationCell
+      implements BatchObserver.LongObservation, BatchObserver.DoubleObservation {
+    private final Labels labels;
+    // Only accessed under the collectLock.
+    private final Aggregator aggregator;
+    // A Long or a Double, null if nothing was observed since the previous collection.
+    private final AtomicReference<Number> pendingValue = new AtomicReference<>();
+
+    private ObservationCell(Labels labels, Aggregator aggregator) {
+      this.labels = labels;
+      this.aggregator = aggregator;
+    }
+
+    @Override
+    public void observe(long value) {
+      pendingValue.set(value);
+    }
+
+    @Override
+    public void observe(double value) {
+      pendingValue.set(value);
+    }
+
+    @Override
+    public void unbind() {
+      observationCells.remove(this);
+    }
+
+    // Called under the collectLock.
+    private void batchTo(ActiveBatcher activeBatcher) {
+      Number value = pendingValue.getAndSet(null);
+      if (value == null) {
+        return;
+      }
+      if (value instanceof Long) {
+        aggregator.recordLong(value.longValue());
+      } else {
+        aggregator.recordDouble(value.doubleValue());
+      }
+      activeBatcher.batch(
+          labels, aggregator, /* mappedAggregator= */ false, Collections.<Exemplar>emptyList());
+    }
+  }
+
   abstract static class Builder<B extends AbstractInstrument.Builder<?>>
       extends AbstractInstrument.Builder<B> {
     Builder(
@@ -100,7 +179,11 @@ abstract class AbstractAsynchronousInstrument<T extends AsynchronousInstrument.R
       public void observe(long sum, Labels labels) {
         Aggregator aggregator = activeBatcher.getAggregator();
         aggregator.recordLong(sum);
-        activeBatcher.batch(labels, aggregator, /* mappedAggregator= */ false);
+        activeBatcher.batch(
+            activeBatcher.projectLabels(labels),
+            aggregator,
+            /* mappedAggregator= */ false,
+            Collections.<Exemplar>emptyList());
       }
     }
   }
@@ -132,7 +215,11 @@ abstract class AbstractAsynchronousInstrument<T extends AsynchronousInstrument.R
       public void observe(double sum, Labels labels) {
         Aggregator aggregator = activeBatcher.getAggregator();
         aggregator.recordDouble(sum);
-        activeBatcher.batch(labels, aggregator, /* mappedAggregator= */ false);
+        activeBatcher.batch(
+            activeBatcher.projectLabels(labels),
+            aggregator,
+            /* mappedAggregator= */ false,
+            Collections.<Exemplar>emptyList());
       }
     }
   }
@@ -17,27 +17,52 @@
 package io.opentelemetry.sdk.metrics;
 
 import io.opentelemetry.metrics.SynchronousInstrument.BoundInstrument;
+import io.opentelemetry.sdk.internal.StripedLongAdder;
 import io.opentelemetry.sdk.metrics.aggregator.Aggregator;
+import io.opentelemetry.sdk.metrics.data.MetricData.Exemplar;
+import java.util.Collections;
+import java.util.List;
 import java.util.concurrent.atomic.AtomicLong;
+import javax.annotation.Nullable;
 
 /**
  * Abstract class that implements the basic the functionality of the BoundInstrument.
  *
  * <p>It atomically counts the number of references (usages) while also keeping a state of
- * mapped/unmapped into an external map. It uses an atomic value where the least significant bit is
- * used to keep the state of mapping ('1' is used for unmapped and '0' is for mapped) and the rest
- * of the bits are used for reference (usage) counting.
+ * mapped/unmapped into an external map. It uses an atomic value where the two least significant
+ * bits are used to keep the state of mapping (mapped, unmapping or unmapped) and the rest of the
+ * bits are used for reference (usage) counting.
+ *
+ * <p>The short-lived references taken by the recordings of unbound instruments, see {@link
+ * #acquire()}, are counted apart in a striped counter, so that threads recording with the same
+ * labels do not all update one cache line twice per recording.
  */
 abstract class AbstractBoundInstrument implements BoundInstrument {
+  private static final long MAPPED = 0;
+  private static final long UNMAPPING = 1;
+  private static final long UNMAPPED = 2;
+  private static final long STATE_MASK = 3;
+  // Every reference adds/removes 4 instead of 1 to avoid changing the mapping state.
+  private static final long REFERENCE = 4;
+
   // Atomically counts the number of references (usages) while also keeping a state of
   // mapped/unmapped into a registry map.
   private final AtomicLong refCountMapped;
+  // Counts the short-lived references, see acquire(). Holds no cells until threads contend on it.
+  private final StripedLongAdder shortLivedRefCount = new StripedLongAdder();
   private final Aggregator aggregator;
+  // Null if exemplars are disabled.
+  @Nullable private final ExemplarReservoir exemplarReservoir;
 
   AbstractBoundInstrument(Aggregator aggregator) {
+    this(aggregator, null);
+  }
+
+  AbstractBoundInstrument(Aggregator aggregator, @Nullable ExemplarReservoir exemplarReservoir) {
     // Start with this binding already bound.
-    this.refCountMapped = new AtomicLong(2);
+    this.refCountMapped = new AtomicLong(REFERENCE);
     this.aggregator = aggregator;
+    this.exemplarReservoir = exemplarReservoir;
   }
 
   /**
@@ -47,14 +72,46 @@ abstract class AbstractBoundInstrument implements BoundInstrument {
    * @return {@code true} if successful.
    */
   final boolean bind() {
-    // Every reference adds/removes 2 instead of 1 to avoid changing the mapping bit.
-    return (refCountMapped.addAndGet(2L) & 1L) == 0;
+    long state = refCountMapped.addAndGet(REFERENCE) & STATE_MASK;
+    while (state == UNMAPPING) {
+      // Only lasts while the collector sums the short-lived references.
+      Thread.yield();
+      state = refCountMapped.get() & STATE_MASK;
+    }
+    return state == MAPPED;
   }
 
   @Override
   public final void unbind() {
-    // Every reference adds/removes 2 instead of 1 to avoid changing the mapping bit.
-    refCountMapped.getAndAdd(-2L);
+    refCountMapped.getAndAdd(-REFERENCE);
+  }
+
+  /**
+   * Like {@link #bind()}, for a reference only held for the duration of a recording and released
+   * with {@link #release()}. Unlike {@link #bind()}, it writes to no cache line shared with the
+   * other threads recording with the same labels.
+   *
+   * @return {@code true} if successful.
+   */
+  final boolean acquire() {
+    // The reference is added before reading the state, and tryUnmap changes the state before
+    // summing the references, so either tryUnmap sees this reference or this sees UNMAPPING.
+    shortLivedRefCount.add(1);
+    long state = refCountMapped.get() & STATE_MASK;
+    while (state == UNMAPPING) {
+      Thread.yield();
+      state = refCountMapped.get() & STATE_MASK;
+    }
+    if (state == UNMAPPED) {
+      shortLivedRefCount.add(-1);
+      return false;
+    }
+    return true;
+  }
+
+  /** Releases a reference taken by {@link #acquire()}. */
+  final void release() {
+    shortLivedRefCount.add(-1);
   }
 
   /**
@@ -65,22 +122,45 @@ abstract class AbstractBoundInstrument implements BoundInstrument {
    * @return {@code true} if successful.
    */
   final boolean tryUnmap() {
-    if (refCountMapped.get() != 0) {
+    if (refCountMapped.get() != MAPPED
+        || shortLivedRefCount.sum() != 0
+        || !refCountMapped.compareAndSet(MAPPED, UNMAPPING)) {
       // Still references (usages) to this bound or already unmapped.
       return false;
     }
-    return refCountMapped.compareAndSet(0L, 1L);
+    // References acquired from now on wait for the outcome. The ones acquired before are seen by
+    // the sum, which then can't miss the increment of a decrement it sees.
+    if (shortLivedRefCount.sum() != 0) {
+      // Keeps the long-lived references taken meanwhile.
+      refCountMapped.getAndAdd(MAPPED - UNMAPPING);
+      return false;
+    }
+    refCountMapped.getAndAdd(UNMAPPED - UNMAPPING);
+    return true;
   }
 
   final void recordLong(long value) {
     aggregator.recordLong(value);
+    if (exemplarReservoir != null) {
+      exemplarReservoir.offer(value);
+    }
   }
 
   final void recordDouble(double value) {
     aggregator.recordDouble(value);
+    if (exemplarReservoir != null) {
+      exemplarReservoir.offer(value);
+    }
   }
 
   final Aggregator getAggregator() {
     return aggregator;
   }
+
+  /** Returns the exemplars sampled since the last call. */
+  final List<Exemplar> collectExemplars() {
+    return exemplarReservoir == null
+        ? Collections.<Exemplar>emptyList()
+        : exemplarReservoir.collectAndReset();
+  }
 }
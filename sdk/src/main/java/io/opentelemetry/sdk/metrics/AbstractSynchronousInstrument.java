@@ -18,15 +18,21 @@ package io.opentelemetry.sdk.metrics;
 
 import io.opentelemetry.common.Labels;
 import io.opentelemetry.sdk.metrics.data.MetricData;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.locks.ReentrantLock;
+import javax.annotation.Nullable;
 
 abstract class AbstractSynchronousInstrument<B extends AbstractBoundInstrument>
     extends AbstractInstrument {
   private final ConcurrentHashMap<Labels, B> boundLabels;
+  // The label sets rejected by the cardinality limit and already counted, see
+  // CardinalityLimiter.recordRejected().
+  private final Set<Labels> rejectedLabels;
   private final ReentrantLock collectLock;
 
   AbstractSynchronousInstrument(
@@ -36,23 +42,52 @@ abstract class AbstractSynchronousInstrument<B extends AbstractBoundInstrument>
       ActiveBatcher activeBatcher) {
     super(descriptor, meterProviderSharedState, meterSharedState, activeBatcher);
     boundLabels = new ConcurrentHashMap<>();
+    rejectedLabels = Collections.newSetFromMap(new ConcurrentHashMap<Labels, Boolean>());
     collectLock = new ReentrantLock();
   }
 
   public B bind(Labels labels) {
     Objects.requireNonNull(labels, "labels");
+    // Measurements only differing by labels dropped by the View share one binding.
+    return bindProjected(getActiveBatcher().projectLabels(labels), /* shortLived= */ false);
+  }
+
+  /**
+   * Returns the binding for the given labels with a short-lived reference, see {@link
+   * AbstractBoundInstrument#acquire()}, that the caller must release once done recording.
+   */
+  final B acquire(Labels labels) {
+    Objects.requireNonNull(labels, "labels");
+    return bindProjected(getActiveBatcher().projectLabels(labels), /* shortLived= */ true);
+  }
+
+  private B bindProjected(Labels labels, boolean shortLived) {
     B binding = boundLabels.get(labels);
-    if (binding != null && binding.bind()) {
+    if (binding != null && (shortLived ? binding.acquire() : binding.bind())) {
       // At this moment it is guaranteed that the Bound is in the map and will not be removed.
       return binding;
     }
 
-    // Missing entry or no longer mapped, try to add a new entry.
-    binding = newBinding(getActiveBatcher());
+    // Missing entry or no longer mapped, try to add a new entry. The limit is only checked here so
+    // that recordings with already bound labels pay nothing for it.
+    CardinalityLimiter cardinalityLimiter = getMeterProviderSharedState().getCardinalityLimiter();
+    if (cardinalityLimiter.isInstrumentFull(boundLabels.size())
+        && !CardinalityLimiter.OVERFLOW_LABELS.equals(labels)) {
+      cardinalityLimiter.recordRejected(getDescriptor().getName(), labels, rejectedLabels);
+      return bindProjected(CardinalityLimiter.OVERFLOW_LABELS, shortLived);
+    }
+    int exemplarReservoirSize = getMeterProviderSharedState().getExemplarReservoirSize();
+    binding =
+        newBinding(
+            getActiveBatcher(),
+            exemplarReservoirSize == 0
+                ? null
+                : new ExemplarReservoir(
+                    getMeterProviderSharedState().getClock(), exemplarReservoirSize));
     while (true) {
       B oldBound = boundLabels.putIfAbsent(labels, binding);
       if (oldBound != null) {
-        if (oldBound.bind()) {
+        if (shortLived ? oldBound.acquire() : oldBound.bind()) {
           // At this moment it is guaranteed that the Bound is in the map and will not be removed.
           return oldBound;
         }
@@ -61,6 +96,11 @@ abstract class AbstractSynchronousInstrument<B extends AbstractBoundInstrument>
         boundLabels.remove(labels, oldBound);
         continue;
       }
+      if (shortLived) {
+        // Trades the reference the binding is created with for a short-lived one.
+        binding.acquire();
+        binding.unbind();
+      }
       return binding;
     }
   }
@@ -81,7 +121,11 @@ abstract class AbstractSynchronousInstrument<B extends AbstractBoundInstrument>
           // acquire but because we requested a specific value only one will succeed.
           boundLabels.remove(entry.getKey(), entry.getValue());
         }
-        batcher.batch(entry.getKey(), entry.getValue().getAggregator(), unmappedEntry);
+        batcher.batch(
+            entry.getKey(),
+            entry.getValue().getAggregator(),
+            unmappedEntry,
+            entry.getValue().collectExemplars());
       }
       return batcher.completeCollectionCycle();
     } finally {
@@ -89,5 +133,5 @@ abstract class AbstractSynchronousInstrument<B extends AbstractBoundInstrument>
     }
   }
 
-  abstract B newBinding(Batcher batcher);
+  abstract B newBinding(Batcher batcher, @Nullable ExemplarReservoir exemplarReservoir);
 }
@@ -19,6 +19,7 @@ package io.opentelemetry.sdk.metrics;
 import io.opentelemetry.common.Labels;
 import io.opentelemetry.sdk.metrics.aggregator.Aggregator;
 import io.opentelemetry.sdk.metrics.data.MetricData;
+import io.opentelemetry.sdk.metrics.data.MetricData.Exemplar;
 import java.util.List;
 
 /**
@@ -42,8 +43,14 @@ final class ActiveBatcher implements Batcher {
   }
 
   @Override
-  public void batch(Labels labelSet, Aggregator aggregator, boolean mappedAggregator) {
-    batcher.batch(labelSet, aggregator, mappedAggregator);
+  public Labels projectLabels(Labels labels) {
+    return batcher.projectLabels(labels);
+  }
+
+  @Override
+  public void batch(
+      Labels labelSet, Aggregator aggregator, boolean mappedAggregator, List<Exemplar> exemplars) {
+    batcher.batch(labelSet, aggregator, mappedAggregator, exemplars);
   }
 
   @Override
@@ -0,0 +1,87 @@
+/*
+ * Copyright 2020, OpenTelemetry Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.opentelemetry.sdk.metrics;
+
+import io.opentelemetry.common.Labels;
+import io.opentelemetry.internal.Utils;
+import io.opentelemetry.metrics.AsynchronousInstrument;
+import io.opentelemetry.metrics.AsynchronousInstrument.DoubleResult;
+import io.opentelemetry.metrics.AsynchronousInstrument.LongResult;
+import io.opentelemetry.metrics.BatchObserver;
+import java.util.Objects;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import javax.annotation.Nullable;
+
+/**
+ * Implementation of the {@link BatchObserver}. The observations are cells bound to the instruments,
+ * filled by the callback called by the {@link MeterSdk} before its instruments are collected.
+ */
+final class BatchObserverSdk implements BatchObserver {
+  private static final Logger logger = Logger.getLogger(BatchObserverSdk.class.getName());
+
+  private final String name;
+  @Nullable private volatile Callback callback = null;
+
+  BatchObserverSdk(String name) {
+    this.name = name;
+  }
+
+  @Override
+  public LongObservation bindLong(
+      AsynchronousInstrument<? extends LongResult> instrument, Labels labels) {
+    return bind(instrument, labels);
+  }
+
+  @Override
+  public DoubleObservation bindDouble(
+      AsynchronousInstrument<? extends DoubleResult> instrument, Labels labels) {
+    return bind(instrument, labels);
+  }
+
+  @Override
+  public void setCallback(Callback callback) {
+    this.callback = Objects.requireNonNull(callback, "callback");
+  }
+
+  String getName() {
+    return name;
+  }
+
+  /** Calls the callback, if any. Exceptions thrown by the callback are logged. */
+  void observe() {
+    Callback currentCallback = callback;
+    if (currentCallback == null) {
+      return;
+    }
+    try {
+      currentCallback.update();
+    } catch (RuntimeException e) {
+      logger.log(Level.WARNING, "Callback of BatchObserver " + name + " failed.", e);
+    }
+  }
+
+  private static AbstractAsynchronousInstrument<?>.ObservationCell bind(
+      AsynchronousInstrument<?> instrument, Labels labels) {
+    Objects.requireNonNull(instrument, "instrument");
+    Objects.requireNonNull(labels, "labels");
+    Utils.checkArgument(
+        instrument instanceof AbstractAsynchronousInstrument,
+        "instrument must be created by the SDK.");
+    return ((AbstractAsynchronousInstrument<?>) instrument).bindObservation(labels);
+  }
+}
@@ -24,15 +24,26 @@ import io.opentelemetry.metrics.DoubleValueRecorder;
 import io.opentelemetry.metrics.LongCounter;
 import io.opentelemetry.metrics.LongUpDownCounter;
 import io.opentelemetry.metrics.LongValueRecorder;
+import io.opentelemetry.sdk.metrics.common.InstrumentValueType;
+import java.util.Arrays;
+import java.util.Objects;
+import javax.annotation.Nullable;
 
 /**
- * Minimal implementation of the {@link BatchRecorder} that simply redirects the calls to the
- * instruments.
+ * Implementation of the {@link BatchRecorder} that keeps the measurements and records them all in
+ * {@link #record()}.
  *
- * <p>TODO: Add an async queue processing to process batch records.
+ * <p>The label set is parsed once, and the binding of every instrument is kept between {@link
+ * #record()} calls without holding a reference on it: while the instrument did not unmap it, it is
+ * bound again with a single atomic update instead of projecting and looking up the labels.
  */
 final class BatchRecorderSdk implements BatchRecorder {
+  private static final Measurement[] EMPTY = new Measurement[0];
+
   private final Labels labelSet;
+  // Copied on write by put of a new instrument, so that record() does not need the lock. Small,
+  // usually 5-10 instruments, a linear search is cheaper than a map.
+  private volatile Measurement[] measurements = EMPTY;
 
   BatchRecorderSdk(String... keyValuePairs) {
     this.labelSet = Labels.of(keyValuePairs);
@@ -40,42 +51,126 @@ final class BatchRecorderSdk implements BatchRecorder {
 
   @Override
   public BatchRecorder put(LongValueRecorder valueRecorder, long value) {
-    ((LongValueRecorderSdk) valueRecorder).record(value, labelSet);
+    getMeasurement((LongValueRecorderSdk) Objects.requireNonNull(valueRecorder, "valueRecorder"))
+            .longValue =
+        value;
     return this;
   }
 
   @Override
   public BatchRecorder put(DoubleValueRecorder valueRecorder, double value) {
-    ((DoubleValueRecorderSdk) valueRecorder).record(value, labelSet);
+    getMeasurement((DoubleValueRecorderSdk) Objects.requireNonNull(valueRecorder, "valueRecorder"))
+            .doubleValue =
+        value;
     return this;
   }
 
   @Override
   public BatchRecorder put(LongCounter counter, long value) {
-    ((LongCounterSdk) counter).add(value, labelSet);
+    Objects.requireNonNull(counter, "counter");
+    checkIncrement(value >= 0);
+    getMeasurement((LongCounterSdk) counter).longValue = value;
     return this;
   }
 
   @Override
   public BatchRecorder put(DoubleCounter counter, double value) {
-    ((DoubleCounterSdk) counter).add(value, labelSet);
+    Objects.requireNonNull(counter, "counter");
+    checkIncrement(value >= 0);
+    getMeasurement((DoubleCounterSdk) counter).doubleValue = value;
     return this;
   }
 
   @Override
   public BatchRecorder put(LongUpDownCounter upDownCounter, long value) {
-    ((LongUpDownCounterSdk) upDownCounter).add(value, labelSet);
+    getMeasurement((LongUpDownCounterSdk) Objects.requireNonNull(upDownCounter, "upDownCounter"))
+            .longValue =
+        value;
     return this;
   }
 
   @Override
   public BatchRecorder put(DoubleUpDownCounter upDownCounter, double value) {
-    ((DoubleUpDownCounterSdk) upDownCounter).add(value, labelSet);
+    getMeasurement((DoubleUpDownCounterSdk) Objects.requireNonNull(upDownCounter, "upDownCounter"))
+            .doubleValue =
+        value;
     return this;
   }
 
+  /**
+   * Records all the measurements in one pass. A {@code put} concurrent with this method may or may
+   * not be recorded by it.
+   */
   @Override
   public void record() {
-    // No-op in this minimal implementation.
+    for (Measurement measurement : measurements) {
+      measurement.record(labelSet);
+    }
+  }
+
+  private Measurement getMeasurement(AbstractSynchronousInstrument<?> instrument) {
+    Measurement measurement = findMeasurement(measurements, instrument);
+    if (measurement != null) {
+      return measurement;
+    }
+    synchronized (this) {
+      Measurement[] current = measurements;
+      measurement = findMeasurement(current, instrument);
+      if (measurement == null) {
+        measurement = new Measurement(instrument);
+        Measurement[] updated = Arrays.copyOf(current, current.length + 1);
+        updated[current.length] = measurement;
+        measurements = updated;
+      }
+      return measurement;
+    }
+  }
+
+  @Nullable
+  private static Measurement findMeasurement(
+      Measurement[] measurements, AbstractSynchronousInstrument<?> instrument) {
+    for (Measurement measurement : measurements) {
+      if (measurement.instrument == instrument) {
+        return measurement;
+      }
+    }
+    return null;
+  }
+
+  private static void checkIncrement(boolean valid) {
+    if (!valid) {
+      throw new IllegalArgumentException("Counters can only increase");
+    }
+  }
+
+  private static final class Measurement {
+    private final AbstractSynchronousInstrument<?> instrument;
+    private final boolean isLong;
+    private volatile long longValue;
+    private volatile double doubleValue;
+    // The binding of the last record(), not referenced between calls.
+    @Nullable private volatile AbstractBoundInstrument binding;
+
+    private Measurement(AbstractSynchronousInstrument<?> instrument) {
+      this.instrument = instrument;
+      this.isLong = instrument.getDescriptor().getValueType() == InstrumentValueType.LONG;
+    }
+
+    private void record(Labels labelSet) {
+      AbstractBoundInstrument currentBinding = binding;
+      if (currentBinding == null || !currentBinding.acquire()) {
+        currentBinding = instrument.acquire(labelSet);
+        binding = currentBinding;
+      }
+      try {
+        if (isLong) {
+          currentBinding.recordLong(longValue);
+        } else {
+          currentBinding.recordDouble(doubleValue);
+        }
+      } finally {
+        currentBinding.release();
+      }
+    }
   }
 }
@@ -19,6 +19,7 @@ package io.opentelemetry.sdk.metrics;
 import io.opentelemetry.common.Labels;
 import io.opentelemetry.sdk.metrics.aggregator.Aggregator;
 import io.opentelemetry.sdk.metrics.data.MetricData;
+import io.opentelemetry.sdk.metrics.data.MetricData.Exemplar;
 import java.util.List;
 
 /**
@@ -39,6 +40,16 @@ interface Batcher {
    */
   Aggregator getAggregator();
 
+  /**
+   * Returns the {@link Labels} under which measurements recorded with {@code labels} are batched.
+   * Labels that are not kept by the {@code View} of the instrument are dropped. This method is
+   * thread safe.
+   *
+   * @param labels the {@link Labels} of the measurements.
+   * @return the {@link Labels} under which the measurements are batched.
+   */
+  Labels projectLabels(Labels labels);
+
   /**
    * Batches multiple entries together that are part of the same metric. It may remove labels from
    * the {@link Labels} and merge aggregations together.
@@ -48,8 +59,10 @@ interface Batcher {
    *     {@code LabelSetSdk}.
    * @param mappedAggregator {@code true} if the {@code Aggregator} is still in used by a binding.
    *     If {@code false} the {@code Batcher} can reuse the {@code Aggregator} instance.
+   * @param exemplars the exemplars sampled with the values of the {@code Aggregator}.
    */
-  void batch(Labels labelSet, Aggregator aggregator, boolean mappedAggregator);
+  void batch(
+      Labels labelSet, Aggregator aggregator, boolean mappedAggregator, List<Exemplar> exemplars);
 
   /**
    * Ends the current collection cycle and returns the list of metrics batched in this Batcher.
@@ -22,16 +22,27 @@ import io.opentelemetry.sdk.common.InstrumentationLibraryInfo;
 import io.opentelemetry.sdk.metrics.aggregator.Aggregator;
 import io.opentelemetry.sdk.metrics.aggregator.AggregatorFactory;
 import io.opentelemetry.sdk.metrics.aggregator.NoopAggregator;
+import io.opentelemetry.sdk.metrics.data.AggregationTemporality;
 import io.opentelemetry.sdk.metrics.data.MetricData;
 import io.opentelemetry.sdk.metrics.data.MetricData.Descriptor;
+import io.opentelemetry.sdk.metrics.data.MetricData.DoublePoint;
+import io.opentelemetry.sdk.metrics.data.MetricData.Exemplar;
+import io.opentelemetry.sdk.metrics.data.MetricData.HistogramPoint;
+import io.opentelemetry.sdk.metrics.data.MetricData.LongPoint;
 import io.opentelemetry.sdk.metrics.data.MetricData.Point;
+import io.opentelemetry.sdk.metrics.data.MetricData.SummaryPoint;
 import io.opentelemetry.sdk.metrics.view.Aggregation;
 import io.opentelemetry.sdk.resources.Resource;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import javax.annotation.Nullable;
 
 /** A collection of available Batchers. */
 final class Batchers {
@@ -41,39 +52,48 @@ final class Batchers {
   }
 
   /**
-   * Create a Batcher that uses the "cumulative" Temporality and uses all labels for aggregation.
-   * "Cumulative" means that all metrics that are generated will be considered for the lifetime of
-   * the Instrument being aggregated.
+   * Create a Batcher that uses the "cumulative" Temporality and uses all labels kept by the {@code
+   * labelsProjection} for aggregation. "Cumulative" means that all metrics that are generated will
+   * be considered for the lifetime of the Instrument being aggregated.
    */
   static Batcher getCumulativeAllLabels(
       InstrumentDescriptor descriptor,
       MeterProviderSharedState meterProviderSharedState,
       MeterSharedState meterSharedState,
-      Aggregation aggregation) {
+      Aggregation aggregation,
+      LabelsProjection labelsProjection) {
     return new AllLabels(
         getDefaultMetricDescriptor(descriptor, aggregation),
         meterProviderSharedState.getResource(),
         meterSharedState.getInstrumentationLibraryInfo(),
         aggregation.getAggregatorFactory(descriptor.getValueType()),
+        labelsProjection,
         meterProviderSharedState.getClock(),
+        meterProviderSharedState.getCardinalityLimiter(),
+        meterProviderSharedState.getExemplarReservoirSize(),
         /* delta= */ false);
   }
 
   /**
-   * Create a Batcher that uses the "delta" Temporality and uses all labels for aggregation. "Delta"
-   * means that all metrics that are generated are only for the most recent collection interval.
+   * Create a Batcher that uses the "delta" Temporality and uses all labels kept by the {@code
+   * labelsProjection} for aggregation. "Delta" means that all metrics that are generated are only
+   * for the most recent collection interval.
    */
   static Batcher getDeltaAllLabels(
       InstrumentDescriptor descriptor,
       MeterProviderSharedState meterProviderSharedState,
       MeterSharedState meterSharedState,
-      Aggregation aggregation) {
+      Aggregation aggregation,
+      LabelsProjection labelsProjection) {
     return new AllLabels(
         getDefaultMetricDescriptor(descriptor, aggregation),
         meterProviderSharedState.getResource(),
         meterSharedState.getInstrumentationLibraryInfo(),
         aggregation.getAggregatorFactory(descriptor.getValueType()),
+        labelsProjection,
         meterProviderSharedState.getClock(),
+        meterProviderSharedState.getCardinalityLimiter(),
+        meterProviderSharedState.getExemplarReservoirSize(),
         /* delta= */ true);
   }
 
@@ -86,7 +106,16 @@ final class Batchers {
     }
 
     @Override
-    public void batch(Labels labelSet, Aggregator aggregator, boolean mappedAggregator) {}
+    public Labels projectLabels(Labels labels) {
+      return labels;
+    }
+
+    @Override
+    public void batch(
+        Labels labelSet,
+        Aggregator aggregator,
+        boolean mappedAggregator,
+        List<Exemplar> exemplars) {}
 
     @Override
     public List<MetricData> completeCollectionCycle() {
@@ -100,7 +129,20 @@ final class Batchers {
     private final InstrumentationLibraryInfo instrumentationLibraryInfo;
     private final Clock clock;
     private final AggregatorFactory aggregatorFactory;
-    private Map<Labels, Aggregator> aggregatorMap;
+    private final LabelsProjection labelsProjection;
+    private final CardinalityLimiter cardinalityLimiter;
+    // The label sets rejected by the cardinality limit and already counted, a rejected label set
+    // that stays bound is rejected again by every cycle.
+    private final Set<Labels> rejectedLabels;
+    // The maximum number of exemplars reported per series and cycle.
+    private final int maxExemplars;
+    // In delta mode, the series batched in the previous cycle are kept, with their Aggregator, and
+    // reused if they are batched again, so that a cycle batching the same label sets as the
+    // previous one allocates no entries nor Aggregators.
+    private final Map<Labels, Series> seriesMap;
+    // The label sets in seriesMap reserved from the cardinalityLimiter. In delta mode only the
+    // series batched in the current cycle are reserved.
+    private int acquiredLabelSets;
     private long startEpochNanos;
     private final boolean delta;
 
@@ -109,15 +151,22 @@ final class Batchers {
         Resource resource,
         InstrumentationLibraryInfo instrumentationLibraryInfo,
         AggregatorFactory aggregatorFactory,
+        LabelsProjection labelsProjection,
         Clock clock,
+        CardinalityLimiter cardinalityLimiter,
+        int maxExemplars,
         boolean delta) {
       this.descriptor = descriptor;
       this.resource = resource;
       this.instrumentationLibraryInfo = instrumentationLibraryInfo;
       this.clock = clock;
       this.aggregatorFactory = aggregatorFactory;
+      this.labelsProjection = labelsProjection;
+      this.cardinalityLimiter = cardinalityLimiter;
+      this.maxExemplars = maxExemplars;
       this.delta = delta;
-      this.aggregatorMap = new HashMap<>();
+      this.seriesMap = new HashMap<>();
+      this.rejectedLabels = new HashSet<>();
       startEpochNanos = clock.now();
     }
 
@@ -127,37 +176,179 @@ final class Batchers {
     }
 
     @Override
-    public final void batch(Labels labelSet, Aggregator aggregator, boolean unmappedAggregator) {
-      Aggregator currentAggregator = aggregatorMap.get(labelSet);
-      if (currentAggregator == null) {
+    public Labels projectLabels(Labels labels) {
+      return labelsProjection.project(labels);
+    }
+
+    @Override
+    public final void batch(
+        Labels labelSet,
+        Aggregator aggregator,
+        boolean unmappedAggregator,
+        List<Exemplar> exemplars) {
+      Series series = batchAggregator(labelSet, aggregator, unmappedAggregator);
+      if (!exemplars.isEmpty()) {
+        series.addExemplars(exemplars, maxExemplars);
+      }
+    }
+
+    private Series batchAggregator(
+        Labels labelSet, Aggregator aggregator, boolean unmappedAggregator) {
+      Series series = seriesMap.get(labelSet);
+      if ((series == null || !series.batched)
+          && !CardinalityLimiter.OVERFLOW_LABELS.equals(labelSet)) {
+        if (cardinalityLimiter.tryAcquire(acquiredLabelSets)) {
+          acquiredLabelSets++;
+        } else {
+          cardinalityLimiter.recordRejected(descriptor.getName(), labelSet, rejectedLabels);
+          labelSet = CardinalityLimiter.OVERFLOW_LABELS;
+          series = seriesMap.get(labelSet);
+        }
+      }
+      if (series == null) {
         // This aggregator is not mapped, we can use this instance.
         if (unmappedAggregator) {
-          aggregatorMap.put(labelSet, aggregator);
-          return;
+          series = new Series(aggregator);
+          seriesMap.put(labelSet, series);
+          return series;
+        }
+        series = new Series(aggregatorFactory.getAggregator());
+        seriesMap.put(labelSet, series);
+      } else if (!series.batched) {
+        // First batch of this cycle for a delta series batched in the previous cycle.
+        series.batched = true;
+        if (unmappedAggregator) {
+          series.aggregator = aggregator;
+          return series;
         }
-        currentAggregator = aggregatorFactory.getAggregator();
-        aggregatorMap.put(labelSet, currentAggregator);
+        // Drop the value exported in the previous cycle, keeping the Aggregator.
+        series.aggregator.reset();
       }
-      aggregator.mergeToAndReset(currentAggregator);
+      aggregator.mergeToAndReset(series.aggregator);
+      return series;
     }
 
     @Override
     public final List<MetricData> completeCollectionCycle() {
-      List<Point> points = new ArrayList<>(aggregatorMap.size());
+      List<Point> points = new ArrayList<>(seriesMap.size());
       long epochNanos = clock.now();
-      for (Map.Entry<Labels, Aggregator> entry : aggregatorMap.entrySet()) {
-        Point point = entry.getValue().toPoint(startEpochNanos, epochNanos, entry.getKey());
+      Iterator<Map.Entry<Labels, Series>> iterator = seriesMap.entrySet().iterator();
+      while (iterator.hasNext()) {
+        Map.Entry<Labels, Series> entry = iterator.next();
+        Series series = entry.getValue();
+        if (!series.batched) {
+          // A delta series not batched in this cycle, the label set may not be used anymore.
+          iterator.remove();
+          continue;
+        }
+        Point point = series.aggregator.toPoint(startEpochNanos, epochNanos, entry.getKey());
         if (point != null) {
-          points.add(point);
+          points.add(
+              series.exemplars == null
+                  ? point
+                  : withExemplars(point, Collections.unmodifiableList(series.exemplars)));
+        }
+        // Exemplars are only reported by the collection following their recording.
+        series.exemplars = null;
+        series.exemplarsBatched = 0;
+        if (delta) {
+          series.batched = false;
         }
       }
       if (delta) {
         startEpochNanos = epochNanos;
-        aggregatorMap = new HashMap<>();
+        cardinalityLimiter.release(acquiredLabelSets);
+        acquiredLabelSets = 0;
       }
       return Collections.singletonList(
-          MetricData.create(descriptor, resource, instrumentationLibraryInfo, points));
+          MetricData.create(
+              descriptor,
+              resource,
+              instrumentationLibraryInfo,
+              points,
+              delta ? AggregationTemporality.DELTA : AggregationTemporality.CUMULATIVE));
+    }
+  }
+
+  private static final class Series {
+    private Aggregator aggregator;
+    // The exemplars batched in the current cycle, null if none.
+    @Nullable private List<Exemplar> exemplars;
+    // The number of exemplars batched in the current cycle, kept or not.
+    private int exemplarsBatched;
+    // Whether the series was batched in the current cycle, always true in cumulative mode.
+    private boolean batched = true;
+
+    private Series(Aggregator aggregator) {
+      this.aggregator = aggregator;
+    }
+
+    /**
+     * Keeps at most {@code maxExemplars} of the exemplars of all the bindings batched into this
+     * series in the cycle, e.g. the ones folded into the overflow series, with reservoir sampling.
+     */
+    private void addExemplars(List<Exemplar> batchedExemplars, int maxExemplars) {
+      if (exemplars == null) {
+        exemplars = new ArrayList<>(Math.min(batchedExemplars.size(), maxExemplars));
+      }
+      for (Exemplar exemplar : batchedExemplars) {
+        int index = exemplarsBatched++;
+        if (index < maxExemplars) {
+          exemplars.add(exemplar);
+          continue;
+        }
+        // Keeps the exemplar with probability maxExemplars / exemplarsBatched.
+        index = ThreadLocalRandom.current().nextInt(exemplarsBatched);
+        if (index < maxExemplars) {
+          exemplars.set(index, exemplar);
+        }
+      }
+    }
+  }
+
+  private static Point withExemplars(Point point, List<Exemplar> exemplars) {
+    if (point instanceof LongPoint) {
+      LongPoint longPoint = (LongPoint) point;
+      return LongPoint.create(
+          longPoint.getStartEpochNanos(),
+          longPoint.getEpochNanos(),
+          longPoint.getLabels(),
+          longPoint.getValue(),
+          exemplars);
+    }
+    if (point instanceof DoublePoint) {
+      DoublePoint doublePoint = (DoublePoint) point;
+      return DoublePoint.create(
+          doublePoint.getStartEpochNanos(),
+          doublePoint.getEpochNanos(),
+          doublePoint.getLabels(),
+          doublePoint.getValue(),
+          exemplars);
+    }
+    if (point instanceof SummaryPoint) {
+      SummaryPoint summaryPoint = (SummaryPoint) point;
+      return SummaryPoint.create(
+          summaryPoint.getStartEpochNanos(),
+          summaryPoint.getEpochNanos(),
+          summaryPoint.getLabels(),
+          summaryPoint.getCount(),
+          summaryPoint.getSum(),
+          summaryPoint.getPercentileValues(),
+          exemplars);
+    }
+    if (point instanceof HistogramPoint) {
+      HistogramPoint histogramPoint = (HistogramPoint) point;
+      return HistogramPoint.create(
+          histogramPoint.getStartEpochNanos(),
+          histogramPoint.getEpochNanos(),
+          histogramPoint.getLabels(),
+          histogramPoint.getCount(),
+          histogramPoint.getSum(),
+          histogramPoint.getBoundaries(),
+          histogramPoint.getCounts(),
+          exemplars);
     }
+    return point;
   }
 
   private static Descriptor getDefaultMetricDescriptor(
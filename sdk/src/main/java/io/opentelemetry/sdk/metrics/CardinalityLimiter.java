@@ -0,0 +1,120 @@
+/*
+ * Copyright 2020, OpenTelemetry Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.opentelemetry.sdk.metrics;
+
+import io.opentelemetry.common.Labels;
+import io.opentelemetry.sdk.internal.StripedLongAdder;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Limits the number of label sets, i.e. of series, that the instruments of one {@link
+ * MeterSdkProvider} keep. Measurements with a label set beyond a limit are folded into the series
+ * with the {@link #OVERFLOW_LABELS}.
+ *
+ * <p>The limits are checked only when a label set is seen for the first time, and the counts are
+ * approximate: concurrent checks may each see the count just below the limit, so a limit can be
+ * exceeded by the number of threads adding new label sets at the same time.
+ */
+final class CardinalityLimiter {
+  private static final Logger logger = Logger.getLogger(CardinalityLimiter.class.getName());
+
+  /** The labels of the series into which measurements beyond a limit are folded. */
+  static final Labels OVERFLOW_LABELS = Labels.of("otel.metric.overflow", "true");
+
+  static final int DEFAULT_MAX_LABEL_SETS_PER_INSTRUMENT = 2000;
+  static final int DEFAULT_MAX_LABEL_SETS_PER_PROVIDER = 100000;
+
+  private final int maxLabelSetsPerInstrument;
+  private final int maxLabelSetsPerProvider;
+  // The label sets kept by the Batchers of all the instruments.
+  private final AtomicInteger providerLabelSets = new AtomicInteger();
+  private final StripedLongAdder rejectedLabelSets = new StripedLongAdder();
+  private final AtomicBoolean rejectionLogged = new AtomicBoolean();
+
+  CardinalityLimiter(int maxLabelSetsPerInstrument, int maxLabelSetsPerProvider) {
+    this.maxLabelSetsPerInstrument = maxLabelSetsPerInstrument;
+    this.maxLabelSetsPerProvider = maxLabelSetsPerProvider;
+  }
+
+  static CardinalityLimiter getDefault() {
+    return new CardinalityLimiter(
+        DEFAULT_MAX_LABEL_SETS_PER_INSTRUMENT, DEFAULT_MAX_LABEL_SETS_PER_PROVIDER);
+  }
+
+  /**
+   * Returns {@code true} if an instrument that has {@code instrumentLabelSets} label sets bound
+   * cannot bind another one.
+   */
+  boolean isInstrumentFull(int instrumentLabelSets) {
+    return instrumentLabelSets >= maxLabelSetsPerInstrument;
+  }
+
+  /**
+   * Tries to reserve one label set for a Batcher that already keeps {@code instrumentLabelSets}
+   * label sets. Returns {@code false} if either limit is reached. Every reserved label set must be
+   * returned with {@link #release(int)} when the Batcher drops it.
+   */
+  boolean tryAcquire(int instrumentLabelSets) {
+    if (isInstrumentFull(instrumentLabelSets)
+        || providerLabelSets.get() >= maxLabelSetsPerProvider) {
+      return false;
+    }
+    providerLabelSets.incrementAndGet();
+    return true;
+  }
+
+  void release(int labelSets) {
+    providerLabelSets.addAndGet(-labelSets);
+  }
+
+  /**
+   * Counts the label set {@code labels} folded into the overflow series of the instrument {@code
+   * name}, unless it is in {@code rejectedLabels}, the label sets already counted for the
+   * instrument, so that a label set rejected by every recording or every collection is counted
+   * once. At most as many label sets as the per-instrument limit are remembered, older ones are
+   * then forgotten and may be counted again.
+   */
+  void recordRejected(String name, Labels labels, Set<Labels> rejectedLabels) {
+    if (rejectedLabels.contains(labels)) {
+      return;
+    }
+    if (rejectedLabels.size() >= maxLabelSetsPerInstrument) {
+      rejectedLabels.clear();
+    }
+    if (!rejectedLabels.add(labels)) {
+      return;
+    }
+    rejectedLabelSets.add(1);
+    if (!rejectionLogged.get() && rejectionLogged.compareAndSet(false, true)) {
+      logger.log(
+          Level.WARNING,
+          "Instrument "
+              + name
+              + " reached a cardinality limit, new label sets are recorded with the labels "
+              + OVERFLOW_LABELS
+              + ". Further rejections are counted but not logged.");
+    }
+  }
+
+  long getRejectedLabelSets() {
+    return rejectedLabelSets.sum();
+  }
+}
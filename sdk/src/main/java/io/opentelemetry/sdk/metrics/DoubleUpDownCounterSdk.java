@@ -21,6 +21,7 @@ import io.opentelemetry.metrics.DoubleUpDownCounter;
 import io.opentelemetry.sdk.metrics.DoubleUpDownCounterSdk.BoundInstrument;
 import io.opentelemetry.sdk.metrics.common.InstrumentType;
 import io.opentelemetry.sdk.metrics.common.InstrumentValueType;
+import javax.annotation.Nullable;
 
 final class DoubleUpDownCounterSdk extends AbstractSynchronousInstrument<BoundInstrument>
     implements DoubleUpDownCounter {
@@ -35,21 +36,21 @@ final class DoubleUpDownCounterSdk extends AbstractSynchronousInstrument<BoundIn
 
   @Override
   public void add(double increment, Labels labels) {
-    BoundInstrument boundInstrument = bind(labels);
+    BoundInstrument boundInstrument = acquire(labels);
     boundInstrument.add(increment);
-    boundInstrument.unbind();
+    boundInstrument.release();
   }
 
   @Override
-  BoundInstrument newBinding(Batcher batcher) {
-    return new BoundInstrument(batcher);
+  BoundInstrument newBinding(Batcher batcher, @Nullable ExemplarReservoir exemplarReservoir) {
+    return new BoundInstrument(batcher, exemplarReservoir);
   }
 
   static final class BoundInstrument extends AbstractBoundInstrument
       implements BoundDoubleUpDownCounter {
 
-    BoundInstrument(Batcher batcher) {
-      super(batcher.getAggregator());
+    BoundInstrument(Batcher batcher, @Nullable ExemplarReservoir exemplarReservoir) {
+      super(batcher.getAggregator(), exemplarReservoir);
     }
 
     @Override
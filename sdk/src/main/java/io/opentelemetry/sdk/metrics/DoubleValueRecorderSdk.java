@@ -21,6 +21,7 @@ import io.opentelemetry.metrics.DoubleValueRecorder;
 import io.opentelemetry.sdk.metrics.DoubleValueRecorderSdk.BoundInstrument;
 import io.opentelemetry.sdk.metrics.common.InstrumentType;
 import io.opentelemetry.sdk.metrics.common.InstrumentValueType;
+import javax.annotation.Nullable;
 
 final class DoubleValueRecorderSdk extends AbstractSynchronousInstrument<BoundInstrument>
     implements DoubleValueRecorder {
@@ -35,21 +36,21 @@ final class DoubleValueRecorderSdk extends AbstractSynchronousInstrument<BoundIn
 
   @Override
   public void record(double value, Labels labels) {
-    BoundInstrument boundInstrument = bind(labels);
+    BoundInstrument boundInstrument = acquire(labels);
     boundInstrument.record(value);
-    boundInstrument.unbind();
+    boundInstrument.release();
   }
 
   @Override
-  BoundInstrument newBinding(Batcher batcher) {
-    return new BoundInstrument(batcher);
+  BoundInstrument newBinding(Batcher batcher, @Nullable ExemplarReservoir exemplarReservoir) {
+    return new BoundInstrument(batcher, exemplarReservoir);
   }
 
   static final class BoundInstrument extends AbstractBoundInstrument
       implements BoundDoubleValueRecorder {
 
-    BoundInstrument(Batcher batcher) {
-      super(batcher.getAggregator());
+    BoundInstrument(Batcher batcher, @Nullable ExemplarReservoir exemplarReservoir) {
+      super(batcher.getAggregator(), exemplarReservoir);
     }
 
     @Override
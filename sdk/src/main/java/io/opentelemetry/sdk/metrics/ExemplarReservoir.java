@@ -0,0 +1,83 @@
+/*
+ * Copyright 2020, OpenTelemetry Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.opentelemetry.sdk.metrics;
+
+import io.opentelemetry.sdk.common.Clock;
+import io.opentelemetry.sdk.metrics.data.MetricData.Exemplar;
+import io.opentelemetry.trace.SpanContext;
+import io.opentelemetry.trace.TracingContextUtils;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Samples a fixed number of the measurements recorded by a binding while a sampled span is current,
+ * with reservoir sampling so that every such measurement of a collection cycle has the same chance
+ * to be kept.
+ *
+ * <p>Lock-free: a measurement takes one atomic increment and, if kept, one array write. A
+ * measurement recorded without a sampled span only reads the current span.
+ */
+final class ExemplarReservoir {
+  private final Clock clock;
+  private final AtomicReferenceArray<Exemplar> exemplars;
+  // The number of measurements offered since the last collection.
+  private final AtomicLong offered = new AtomicLong();
+
+  ExemplarReservoir(Clock clock, int size) {
+    this.clock = clock;
+    this.exemplars = new AtomicReferenceArray<>(size);
+  }
+
+  void offer(double value) {
+    SpanContext spanContext = TracingContextUtils.getCurrentSpan().getContext();
+    if (!spanContext.getTraceFlags().isSampled()) {
+      return;
+    }
+    long index = offered.getAndIncrement();
+    if (index >= exemplars.length()) {
+      // Keeps the measurement with probability size / (index + 1), replacing a random exemplar.
+      index = ThreadLocalRandom.current().nextLong(index + 1);
+      if (index >= exemplars.length()) {
+        return;
+      }
+    }
+    exemplars.set((int) index, Exemplar.create(value, clock.now(), spanContext));
+  }
+
+  /**
+   * Returns the exemplars sampled since the last call and empties the reservoir. A concurrent
+   * {@link #offer(double)} may be kept for this or the next collection.
+   */
+  List<Exemplar> collectAndReset() {
+    if (offered.get() == 0) {
+      return Collections.emptyList();
+    }
+    offered.set(0);
+    List<Exemplar> result = new ArrayList<>(exemplars.length());
+    for (int i = 0; i < exemplars.length(); i++) {
+      Exemplar exemplar = exemplars.getAndSet(i, null);
+      if (exemplar != null) {
+        result.add(exemplar);
+      }
+    }
+    return result;
+  }
+}
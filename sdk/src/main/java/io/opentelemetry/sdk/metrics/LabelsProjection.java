@@ -0,0 +1,75 @@
+/*
+ * Copyright 2020, OpenTelemetry Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.opentelemetry.sdk.metrics;
+
+import io.opentelemetry.common.Labels;
+import java.util.Arrays;
+import java.util.List;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.Immutable;
+
+/**
+ * Drops the labels whose keys are not configured by the {@link
+ * io.opentelemetry.sdk.metrics.view.View} of an instrument, so that measurements only differing by
+ * dropped labels are recorded into the same series.
+ */
+@Immutable
+final class LabelsProjection {
+  private static final LabelsProjection ALL_LABELS = new LabelsProjection(null);
+
+  // The sorted keys that are kept, or null if all the labels are kept.
+  @Nullable private final String[] labelKeys;
+
+  static LabelsProjection create(@Nullable List<String> labelKeys) {
+    return labelKeys == null
+        ? ALL_LABELS
+        : new LabelsProjection(labelKeys.toArray(new String[labelKeys.size()]));
+  }
+
+  private LabelsProjection(@Nullable String[] labelKeys) {
+    this.labelKeys = labelKeys;
+  }
+
+  /**
+   * Returns the labels of {@code labels} whose keys are kept. Returns {@code labels} itself when
+   * all its labels are kept.
+   */
+  Labels project(Labels labels) {
+    if (labelKeys == null || labels.isEmpty()) {
+      return labels;
+    }
+    String[] keptPairs = null;
+    int kept = 0;
+    for (String key : labelKeys) {
+      String value = labels.get(key);
+      if (value != null) {
+        if (keptPairs == null) {
+          keptPairs = new String[2 * Math.min(labelKeys.length, labels.size())];
+        }
+        keptPairs[kept++] = key;
+        keptPairs[kept++] = value;
+      }
+    }
+    if (kept == 0) {
+      return Labels.empty();
+    }
+    if (kept == 2 * labels.size()) {
+      return labels;
+    }
+    return Labels.of(kept == keptPairs.length ? keptPairs : Arrays.copyOf(keptPairs, kept));
+  }
+}
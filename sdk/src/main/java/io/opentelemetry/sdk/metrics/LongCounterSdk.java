@@ -21,6 +21,7 @@ import io.opentelemetry.metrics.LongCounter;
 import io.opentelemetry.sdk.metrics.LongCounterSdk.BoundInstrument;
 import io.opentelemetry.sdk.metrics.common.InstrumentType;
 import io.opentelemetry.sdk.metrics.common.InstrumentValueType;
+import javax.annotation.Nullable;
 
 final class LongCounterSdk extends AbstractSynchronousInstrument<BoundInstrument>
     implements LongCounter {
@@ -35,24 +36,24 @@ final class LongCounterSdk extends AbstractSynchronousInstrument<BoundInstrument
 
   @Override
   public void add(long increment, Labels labels) {
-    BoundInstrument boundInstrument = bind(labels);
+    BoundInstrument boundInstrument = acquire(labels);
     try {
       boundInstrument.add(increment);
     } finally {
-      boundInstrument.unbind();
+      boundInstrument.release();
     }
   }
 
   @Override
-  BoundInstrument newBinding(Batcher batcher) {
-    return new BoundInstrument(batcher);
+  BoundInstrument newBinding(Batcher batcher, @Nullable ExemplarReservoir exemplarReservoir) {
+    return new BoundInstrument(batcher, exemplarReservoir);
   }
 
   static final class BoundInstrument extends AbstractBoundInstrument
       implements LongCounter.BoundLongCounter {
 
-    BoundInstrument(Batcher batcher) {
-      super(batcher.getAggregator());
+    BoundInstrument(Batcher batcher, @Nullable ExemplarReservoir exemplarReservoir) {
+      super(batcher.getAggregator(), exemplarReservoir);
     }
 
     @Override
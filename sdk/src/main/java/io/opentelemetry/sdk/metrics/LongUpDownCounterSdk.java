@@ -21,6 +21,7 @@ import io.opentelemetry.metrics.LongUpDownCounter;
 import io.opentelemetry.sdk.metrics.LongUpDownCounterSdk.BoundInstrument;
 import io.opentelemetry.sdk.metrics.common.InstrumentType;
 import io.opentelemetry.sdk.metrics.common.InstrumentValueType;
+import javax.annotation.Nullable;
 
 final class LongUpDownCounterSdk extends AbstractSynchronousInstrument<BoundInstrument>
     implements LongUpDownCounter {
@@ -35,21 +36,21 @@ final class LongUpDownCounterSdk extends AbstractSynchronousInstrument<BoundInst
 
   @Override
   public void add(long increment, Labels labels) {
-    BoundInstrument boundInstrument = bind(labels);
+    BoundInstrument boundInstrument = acquire(labels);
     boundInstrument.add(increment);
-    boundInstrument.unbind();
+    boundInstrument.release();
   }
 
   @Override
-  BoundInstrument newBinding(Batcher batcher) {
-    return new BoundInstrument(batcher);
+  BoundInstrument newBinding(Batcher batcher, @Nullable ExemplarReservoir exemplarReservoir) {
+    return new BoundInstrument(batcher, exemplarReservoir);
   }
 
   static final class BoundInstrument extends AbstractBoundInstrument
       implements BoundLongUpDownCounter {
 
-    BoundInstrument(Batcher batcher) {
-      super(batcher.getAggregator());
+    BoundInstrument(Batcher batcher, @Nullable ExemplarReservoir exemplarReservoir) {
+      super(batcher.getAggregator(), exemplarReservoir);
     }
 
     @Override
@@ -25,10 +25,30 @@ import javax.annotation.concurrent.Immutable;
 @Immutable
 abstract class MeterProviderSharedState {
   static MeterProviderSharedState create(Clock clock, Resource resource) {
-    return new AutoValue_MeterProviderSharedState(clock, resource);
+    return create(clock, resource, CardinalityLimiter.getDefault());
+  }
+
+  static MeterProviderSharedState create(
+      Clock clock, Resource resource, CardinalityLimiter cardinalityLimiter) {
+    return create(
+        clock, resource, cardinalityLimiter, MeterSdkProvider.DEFAULT_EXEMPLAR_RESERVOIR_SIZE);
+  }
+
+  static MeterProviderSharedState create(
+      Clock clock,
+      Resource resource,
+      CardinalityLimiter cardinalityLimiter,
+      int exemplarReservoirSize) {
+    return new AutoValue_MeterProviderSharedState(
+        clock, resource, cardinalityLimiter, exemplarReservoirSize);
   }
 
   abstract Clock getClock();
 
   abstract Resource getResource();
+
+  abstract CardinalityLimiter getCardinalityLimiter();
+
+  /** Returns the number of exemplars sampled per series and collection, 0 if disabled. */
+  abstract int getExemplarReservoirSize();
 }
@@ -22,12 +22,15 @@ import io.opentelemetry.sdk.metrics.data.MetricData;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 /** {@link MeterSdk} is SDK implementation of {@link Meter}. */
 final class MeterSdk implements Meter {
   private final MeterProviderSharedState meterProviderSharedState;
   private final MeterSharedState meterSharedState;
   private final ViewRegistry viewRegistry;
+  private final List<BatchObserverSdk> batchObservers = new CopyOnWriteArrayList<>();
 
   MeterSdk(
       MeterProviderSharedState meterProviderSharedState,
@@ -112,11 +115,19 @@ final class MeterSdk implements Meter {
     return new BatchRecorderSdk(keyValuePairs);
   }
 
+  @Override
+  public BatchObserverSdk newBatchObserver(String name) {
+    BatchObserverSdk batchObserver = new BatchObserverSdk(Objects.requireNonNull(name, "name"));
+    batchObservers.add(batchObserver);
+    return batchObserver;
+  }
+
   /**
    * Collects all the metric recordings that changed since the last {@link MeterSdk#collectAll()}
    * call.
    */
   Collection<MetricData> collectAll() {
+    runBatchObservers();
     InstrumentRegistry instrumentRegistry = meterSharedState.getInstrumentRegistry();
     Collection<AbstractInstrument> instruments = instrumentRegistry.getInstruments();
     List<MetricData> result = new ArrayList<>(instruments.size());
@@ -126,6 +137,26 @@ final class MeterSdk implements Meter {
     return result;
   }
 
+  /**
+   * Calls the callbacks of the {@link BatchObserverSdk}s of this {@code MeterSdk}, must be called
+   * before its instruments are collected.
+   */
+  void runBatchObservers() {
+    for (BatchObserverSdk batchObserver : batchObservers) {
+      batchObserver.observe();
+    }
+  }
+
+  /** Returns the batch observers created by this {@code MeterSdk}. */
+  List<BatchObserverSdk> getBatchObservers() {
+    return batchObservers;
+  }
+
+  /** Returns the instruments registered with this {@code MeterSdk}. */
+  Collection<AbstractInstrument> getInstruments() {
+    return meterSharedState.getInstrumentRegistry().getInstruments();
+  }
+
   /** Creates a {@link Batcher}, by using the {@link ViewRegistry} to do the actual work. */
   Batcher createBatcher(
       InstrumentDescriptor descriptor,
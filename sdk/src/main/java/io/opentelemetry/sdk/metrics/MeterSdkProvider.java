@@ -16,13 +16,21 @@
 
 package io.opentelemetry.sdk.metrics;
 
+import io.opentelemetry.common.Labels;
+import io.opentelemetry.internal.Utils;
 import io.opentelemetry.metrics.MeterProvider;
 import io.opentelemetry.sdk.common.Clock;
 import io.opentelemetry.sdk.common.InstrumentationLibraryInfo;
 import io.opentelemetry.sdk.internal.ComponentRegistry;
 import io.opentelemetry.sdk.internal.MillisClock;
+import io.opentelemetry.sdk.metrics.data.AggregationTemporality;
 import io.opentelemetry.sdk.metrics.data.MetricData;
+import io.opentelemetry.sdk.metrics.data.MetricData.Descriptor;
+import io.opentelemetry.sdk.metrics.data.MetricData.LongPoint;
+import io.opentelemetry.sdk.metrics.data.MetricData.Point;
 import io.opentelemetry.sdk.metrics.export.MetricProducer;
+import io.opentelemetry.sdk.metrics.view.InstrumentSelector;
+import io.opentelemetry.sdk.metrics.view.View;
 import io.opentelemetry.sdk.resources.Resource;
 import java.util.ArrayList;
 import java.util.Collection;
@@ -30,6 +38,7 @@ import java.util.Collections;
 import java.util.List;
 import java.util.Objects;
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 
 /**
  * {@code Meter} provider implementation for {@link MeterProvider}.
@@ -38,15 +47,39 @@ import javax.annotation.Nonnull;
  * io.opentelemetry.OpenTelemetry}.
  */
 public final class MeterSdkProvider implements MeterProvider {
+  /**
+   * The name of the metric that counts the label sets recorded with the overflow labels because a
+   * cardinality limit was reached. Each label set is counted once per instrument, however many
+   * measurements or collections it is rejected by. The metric is only reported once a limit was
+   * reached.
+   *
+   * @since 0.8.0
+   */
+  public static final String REJECTED_LABEL_SETS_METRIC_NAME =
+      "otel.sdk.metrics.rejected_label_sets";
+
+  static final int DEFAULT_EXEMPLAR_RESERVOIR_SIZE = 0;
+  private static final long DEFAULT_COLLECTION_TIMEOUT_MILLIS = 10_000;
+  private static final InstrumentationLibraryInfo SDK_INSTRUMENTATION_LIBRARY_INFO =
+      InstrumentationLibraryInfo.create("io.opentelemetry.sdk.metrics", null);
 
   private final MeterSdkComponentRegistry registry;
+  private final ViewRegistry viewRegistry;
   private final MetricProducer metricProducer;
 
-  private MeterSdkProvider(Clock clock, Resource resource) {
-    this.registry =
-        new MeterSdkComponentRegistry(
-            MeterProviderSharedState.create(clock, resource), new ViewRegistry());
-    this.metricProducer = new MetricProducerSdk(this.registry);
+  private MeterSdkProvider(
+      Clock clock,
+      Resource resource,
+      CardinalityLimiter cardinalityLimiter,
+      int exemplarReservoirSize,
+      @Nullable AggregationTemporality aggregationTemporality,
+      MetricCollector metricCollector) {
+    MeterProviderSharedState meterProviderSharedState =
+        MeterProviderSharedState.create(clock, resource, cardinalityLimiter, exemplarReservoirSize);
+    this.viewRegistry = new ViewRegistry(aggregationTemporality);
+    this.registry = new MeterSdkComponentRegistry(meterProviderSharedState, viewRegistry);
+    this.metricProducer =
+        new MetricProducerSdk(this.registry, meterProviderSharedState, metricCollector);
   }
 
   @Override
@@ -70,6 +103,24 @@ public final class MeterSdkProvider implements MeterProvider {
     return metricProducer;
   }
 
+  /**
+   * Registers a {@link View} for the instruments selected by {@code selector}. The view applies to
+   * the instruments created after its registration. When several views select an instrument, the
+   * first registered one applies; instruments not selected by any view keep the default aggregation
+   * of their type and all their labels.
+   *
+   * @param selector the {@link InstrumentSelector} of the instruments to which the view applies.
+   * @param view the {@link View} that configures the aggregation of the selected instruments.
+   * @throws IllegalArgumentException if the selector selects a type of instrument for which the
+   *     aggregation of the view is not available.
+   * @since 0.8.0
+   */
+  public void registerView(InstrumentSelector selector, View view) {
+    Objects.requireNonNull(selector, "selector");
+    Objects.requireNonNull(view, "view");
+    viewRegistry.registerView(selector, view);
+  }
+
   /**
    * Returns a new {@link Builder} for {@link MeterSdkProvider}.
    *
@@ -89,6 +140,13 @@ public final class MeterSdkProvider implements MeterProvider {
 
     private Clock clock = MillisClock.getInstance();
     private Resource resource = Resource.getTelemetrySdk().merge(Resource.getDefault());
+    private int maxLabelSetsPerInstrument =
+        CardinalityLimiter.DEFAULT_MAX_LABEL_SETS_PER_INSTRUMENT;
+    private int maxLabelSetsPerProvider = CardinalityLimiter.DEFAULT_MAX_LABEL_SETS_PER_PROVIDER;
+    @Nullable private AggregationTemporality aggregationTemporality;
+    private int exemplarReservoirSize = DEFAULT_EXEMPLAR_RESERVOIR_SIZE;
+    private int collectionParallelism = 1;
+    private long collectionTimeoutMillis = DEFAULT_COLLECTION_TIMEOUT_MILLIS;
 
     private Builder() {}
 
@@ -116,13 +174,128 @@ public final class MeterSdkProvider implements MeterProvider {
       return this;
     }
 
+    /**
+     * Sets the maximum number of label sets kept by one instrument. Measurements with more label
+     * sets are recorded with the single label {@code otel.metric.overflow=true} instead of their
+     * own labels, and their label sets counted by the {@value #REJECTED_LABEL_SETS_METRIC_NAME}
+     * metric. The default is 2000.
+     *
+     * @param maxLabelSetsPerInstrument the maximum number of label sets of one instrument.
+     * @return this
+     * @throws IllegalArgumentException if {@code maxLabelSetsPerInstrument} is not positive.
+     * @since 0.8.0
+     */
+    public Builder setMaxLabelSetsPerInstrument(int maxLabelSetsPerInstrument) {
+      Utils.checkArgument(
+          maxLabelSetsPerInstrument > 0, "maxLabelSetsPerInstrument must be positive.");
+      this.maxLabelSetsPerInstrument = maxLabelSetsPerInstrument;
+      return this;
+    }
+
+    /**
+     * Sets the maximum number of label sets kept by all the instruments of the {@code
+     * MeterSdkProvider} together. Beyond this limit, measurements with new label sets are recorded
+     * as with {@link #setMaxLabelSetsPerInstrument(int)}. The default is 100000.
+     *
+     * @param maxLabelSetsPerProvider the maximum number of label sets of all instruments.
+     * @return this
+     * @throws IllegalArgumentException if {@code maxLabelSetsPerProvider} is not positive.
+     * @since 0.8.0
+     */
+    public Builder setMaxLabelSetsPerProvider(int maxLabelSetsPerProvider) {
+      Utils.checkArgument(maxLabelSetsPerProvider > 0, "maxLabelSetsPerProvider must be positive.");
+      this.maxLabelSetsPerProvider = maxLabelSetsPerProvider;
+      return this;
+    }
+
+    /**
+     * Sets the maximum number of exemplars sampled per series and collection. Exemplars are
+     * measurements of synchronous instruments recorded while a sampled span is current, reported
+     * with the span by {@link MetricData.Point#getExemplars()} to link the metric to a trace.
+     * Recording without a sampled span only pays for reading the current span, recording with one
+     * pays for an atomic increment shared by the threads recording to the same series. The default
+     * is 0, which disables exemplars.
+     *
+     * @param exemplarReservoirSize the maximum number of exemplars per series and collection.
+     * @return this
+     * @throws IllegalArgumentException if {@code exemplarReservoirSize} is negative.
+     * @since 0.8.0
+     */
+    public Builder setExemplarReservoirSize(int exemplarReservoirSize) {
+      Utils.checkArgument(
+          exemplarReservoirSize >= 0, "exemplarReservoirSize must not be negative.");
+      this.exemplarReservoirSize = exemplarReservoirSize;
+      return this;
+    }
+
+    /**
+     * Sets the {@link AggregationTemporality} of all the metrics, except the ones whose {@link
+     * View} sets a temporality, and the ones of sum observers, which are always {@link
+     * AggregationTemporality#CUMULATIVE}. Set it to the temporality expected by the exporter, e.g.
+     * {@link AggregationTemporality#DELTA} for a backend that sums the exported values itself. By
+     * default, sums are cumulative and distributions are delta.
+     *
+     * @param aggregationTemporality the {@code AggregationTemporality} of the metrics.
+     * @return this
+     * @since 0.8.0
+     */
+    public Builder setAggregationTemporality(AggregationTemporality aggregationTemporality) {
+      this.aggregationTemporality =
+          Objects.requireNonNull(aggregationTemporality, "aggregationTemporality");
+      return this;
+    }
+
+    /**
+     * Sets the number of threads collecting the instruments in parallel. With the default of 1, all
+     * instruments are collected serially on the thread calling {@link
+     * MetricProducer#collectAllMetrics()}. Otherwise they are collected on a dedicated pool of
+     * {@code collectionParallelism} daemon threads, which helps when observer callbacks are slow,
+     * and the metrics are still returned in the same order as a serial collection.
+     *
+     * @param collectionParallelism the number of threads collecting the instruments.
+     * @return this
+     * @throws IllegalArgumentException if {@code collectionParallelism} is not positive.
+     * @since 0.8.0
+     */
+    public Builder setCollectionParallelism(int collectionParallelism) {
+      Utils.checkArgument(collectionParallelism > 0, "collectionParallelism must be positive.");
+      this.collectionParallelism = collectionParallelism;
+      return this;
+    }
+
+    /**
+     * Sets the maximum time a parallel collection waits for the callbacks of the batch observers,
+     * and then for the instruments, see {@link #setCollectionParallelism(int)}. Instruments or
+     * batch observers not complete in time, e.g. because of a stuck callback, are skipped and are
+     * not collected again until their running collection completes; its metrics are then reported
+     * by the next collection. The default is 10 seconds.
+     *
+     * @param collectionTimeoutMillis the maximum time to wait for the instruments in milliseconds.
+     * @return this
+     * @throws IllegalArgumentException if {@code collectionTimeoutMillis} is not positive.
+     * @since 0.8.0
+     */
+    public Builder setCollectionTimeoutMillis(long collectionTimeoutMillis) {
+      Utils.checkArgument(collectionTimeoutMillis > 0, "collectionTimeoutMillis must be positive.");
+      this.collectionTimeoutMillis = collectionTimeoutMillis;
+      return this;
+    }
+
     /**
      * Create a new TracerSdkFactory instance.
      *
      * @return An initialized TracerSdkFactory.
      */
     public MeterSdkProvider build() {
-      return new MeterSdkProvider(clock, resource);
+      return new MeterSdkProvider(
+          clock,
+          resource,
+          new CardinalityLimiter(maxLabelSetsPerInstrument, maxLabelSetsPerProvider),
+          exemplarReservoirSize,
+          aggregationTemporality,
+          collectionParallelism == 1
+              ? MetricCollector.serial()
+              : MetricCollector.parallel(collectionParallelism, collectionTimeoutMillis));
     }
   }
 
@@ -144,17 +317,49 @@ public final class MeterSdkProvider implements MeterProvider {
 
   private static final class MetricProducerSdk implements MetricProducer {
     private final MeterSdkComponentRegistry registry;
+    private final MeterProviderSharedState meterProviderSharedState;
+    private final MetricCollector metricCollector;
+    private final long startEpochNanos;
 
-    private MetricProducerSdk(MeterSdkComponentRegistry registry) {
+    private MetricProducerSdk(
+        MeterSdkComponentRegistry registry,
+        MeterProviderSharedState meterProviderSharedState,
+        MetricCollector metricCollector) {
       this.registry = registry;
+      this.meterProviderSharedState = meterProviderSharedState;
+      this.metricCollector = metricCollector;
+      this.startEpochNanos = meterProviderSharedState.getClock().now();
     }
 
     @Override
     public Collection<MetricData> collectAllMetrics() {
-      Collection<MeterSdk> meters = registry.getComponents();
-      List<MetricData> result = new ArrayList<>(meters.size());
-      for (MeterSdk meter : meters) {
-        result.addAll(meter.collectAll());
+      List<BatchObserverSdk> batchObservers = new ArrayList<>();
+      List<AbstractInstrument> instruments = new ArrayList<>();
+      for (MeterSdk meter : registry.getComponents()) {
+        batchObservers.addAll(meter.getBatchObservers());
+        instruments.addAll(meter.getInstruments());
+      }
+      List<MetricData> result = metricCollector.collect(batchObservers, instruments);
+      long rejectedLabelSets =
+          meterProviderSharedState.getCardinalityLimiter().getRejectedLabelSets();
+      if (rejectedLabelSets != 0) {
+        result.add(
+            MetricData.create(
+                Descriptor.create(
+                    REJECTED_LABEL_SETS_METRIC_NAME,
+                    "Label sets recorded with the overflow labels because a cardinality limit "
+                        + "was reached, counted once per instrument.",
+                    "1",
+                    Descriptor.Type.MONOTONIC_LONG,
+                    Labels.empty()),
+                meterProviderSharedState.getResource(),
+                SDK_INSTRUMENTATION_LIBRARY_INFO,
+                Collections.<Point>singletonList(
+                    LongPoint.create(
+                        startEpochNanos,
+                        meterProviderSharedState.getClock().now(),
+                        Labels.empty(),
+                        rejectedLabelSets))));
       }
       return Collections.unmodifiableCollection(result);
     }
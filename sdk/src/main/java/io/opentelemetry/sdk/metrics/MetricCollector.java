@@ -0,0 +1,260 @@
+/*
+ * Copyright 2020, OpenTelemetry Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.opentelemetry.sdk.metrics;
+
+import io.opentelemetry.sdk.metrics.data.MetricData;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.ThreadSafe;
+
+/**
+ * Collects the instruments of a {@link MeterSdkProvider}, either serially on the calling thread or
+ * in parallel on a bounded {@link ForkJoinPool}.
+ *
+ * <p>The callbacks of the batch observers are run first, as they fill observations of the
+ * instruments. In parallel mode the collection waits at most the configured timeout for all the
+ * batch observers, then at most the timeout for all the instruments. An instrument whose
+ * collection, e.g. a slow observer callback, is not complete by then is left running and is not
+ * collected again until it completes; its metrics are then reported by the next collection. The
+ * metrics are always returned in the order of the instruments, regardless of the order in which
+ * their collections complete.
+ */
+@ThreadSafe
+final class MetricCollector {
+  private static final Logger logger = Logger.getLogger(MetricCollector.class.getName());
+  private static final String WORKER_THREAD_NAME = "MetricCollector";
+
+  @Nullable private final ForkJoinPool pool;
+  private final long timeoutNanos;
+  // The collections of instruments, or callbacks of batch observers, not complete by the end of the
+  // collection that submitted them.
+  private final ConcurrentMap<Object, ForkJoinTask<List<MetricData>>> lateCollections =
+      new ConcurrentHashMap<>();
+
+  /**
+   * Returns a {@code MetricCollector} that collects every instrument on the calling thread.
+   *
+   * @return a serial {@code MetricCollector}.
+   */
+  static MetricCollector serial() {
+    return new MetricCollector(null, 0);
+  }
+
+  /**
+   * Returns a {@code MetricCollector} that collects up to {@code parallelism} instruments at a time
+   * and waits at most {@code timeoutMillis} for a collection.
+   *
+   * @param parallelism the number of threads collecting the instruments.
+   * @param timeoutMillis the maximum time to wait for the instruments in milliseconds.
+   * @return a parallel {@code MetricCollector}.
+   */
+  static MetricCollector parallel(int parallelism, long timeoutMillis) {
+    return new MetricCollector(
+        new ForkJoinPool(parallelism, new WorkerThreadFactory(), null, false),
+        TimeUnit.MILLISECONDS.toNanos(timeoutMillis));
+  }
+
+  private MetricCollector(@Nullable ForkJoinPool pool, long timeoutNanos) {
+    this.pool = pool;
+    this.timeoutNanos = timeoutNanos;
+  }
+
+  /**
+   * Collects the given instruments and returns their metrics in the order of the instruments.
+   *
+   * @param instruments the instruments to collect.
+   * @return the collected metrics.
+   */
+  List<MetricData> collect(List<AbstractInstrument> instruments) {
+    return collect(Collections.<BatchObserverSdk>emptyList(), instruments);
+  }
+
+  /**
+   * Runs the callbacks of the given batch observers, then collects the given instruments and
+   * returns their metrics in the order of the instruments. In parallel mode the collection waits at
+   * most the timeout for the batch observers, then at most the timeout for the instruments. A batch
+   * observer that is not complete by then is left running like a late instrument, and its
+   * observations are reported by a later collection.
+   *
+   * @param batchObservers the batch observers filling observations of the instruments.
+   * @param instruments the instruments to collect.
+   * @return the collected metrics.
+   */
+  List<MetricData> collect(
+      List<BatchObserverSdk> batchObservers, List<AbstractInstrument> instruments) {
+    List<MetricData> result = new ArrayList<>(instruments.size());
+    if (pool == null) {
+      for (BatchObserverSdk batchObserver : batchObservers) {
+        batchObserver.observe();
+      }
+      for (AbstractInstrument instrument : instruments) {
+        result.addAll(instrument.collectAll());
+      }
+      return result;
+    }
+
+    List<CollectTask> observeTasks = new ArrayList<>(batchObservers.size());
+    for (BatchObserverSdk batchObserver : batchObservers) {
+      observeTasks.add(new ObserveTask(batchObserver));
+    }
+    // The batch observers fill observations of the instruments, so they are waited for before the
+    // instruments are submitted.
+    boolean interrupted = await(pool, observeTasks, result, false);
+    List<CollectTask> collectTasks = new ArrayList<>(instruments.size());
+    for (AbstractInstrument instrument : instruments) {
+      collectTasks.add(new InstrumentCollectTask(instrument));
+    }
+    interrupted = await(pool, collectTasks, result, interrupted);
+    if (interrupted) {
+      Thread.currentThread().interrupt();
+    }
+    return result;
+  }
+
+  /**
+   * Submits the given tasks, except those whose previous submission is still running, and waits at
+   * most the timeout for them. Adds their metrics to {@code result}, in the order of the tasks, and
+   * returns whether the waiting was interrupted.
+   */
+  private boolean await(
+      ForkJoinPool pool,
+      List<CollectTask> collectTasks,
+      List<MetricData> result,
+      boolean interrupted) {
+    List<ForkJoinTask<List<MetricData>>> tasks = new ArrayList<>(collectTasks.size());
+    for (CollectTask collectTask : collectTasks) {
+      // A source still running its previous collection is not collected again, so that a stuck
+      // callback occupies at most one worker thread.
+      ForkJoinTask<List<MetricData>> task = lateCollections.remove(collectTask.getSource());
+      if (task == null) {
+        task = pool.submit(collectTask);
+      }
+      tasks.add(task);
+    }
+
+    long deadline = System.nanoTime() + timeoutNanos;
+    for (int i = 0; i < tasks.size(); i++) {
+      CollectTask collectTask = collectTasks.get(i);
+      ForkJoinTask<List<MetricData>> task = tasks.get(i);
+      if (interrupted && !task.isDone()) {
+        lateCollections.put(collectTask.getSource(), task);
+        continue;
+      }
+      try {
+        result.addAll(task.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS));
+      } catch (TimeoutException e) {
+        logger.log(
+            Level.WARNING,
+            "Collection of "
+                + collectTask.describe()
+                + " timed out, its metrics will be reported by a later collection.");
+        lateCollections.put(collectTask.getSource(), task);
+      } catch (ExecutionException e) {
+        logger.log(
+            Level.WARNING,
+            "Exception thrown by the collection of " + collectTask.describe() + ".",
+            e.getCause());
+      } catch (InterruptedException e) {
+        interrupted = true;
+        lateCollections.put(collectTask.getSource(), task);
+      }
+    }
+    return interrupted;
+  }
+
+  private abstract static class CollectTask implements Callable<List<MetricData>> {
+    /** Returns the instrument or batch observer collected by this task. */
+    abstract Object getSource();
+
+    /** Returns the description of the collected source used in log messages. */
+    abstract String describe();
+  }
+
+  private static final class InstrumentCollectTask extends CollectTask {
+    private final AbstractInstrument instrument;
+
+    private InstrumentCollectTask(AbstractInstrument instrument) {
+      this.instrument = instrument;
+    }
+
+    @Override
+    public List<MetricData> call() {
+      return instrument.collectAll();
+    }
+
+    @Override
+    Object getSource() {
+      return instrument;
+    }
+
+    @Override
+    String describe() {
+      return "instrument " + instrument.getDescriptor().getName();
+    }
+  }
+
+  private static final class ObserveTask extends CollectTask {
+    private final BatchObserverSdk batchObserver;
+
+    private ObserveTask(BatchObserverSdk batchObserver) {
+      this.batchObserver = batchObserver;
+    }
+
+    @Override
+    public List<MetricData> call() {
+      batchObserver.observe();
+      return Collections.emptyList();
+    }
+
+    @Override
+    Object getSource() {
+      return batchObserver;
+    }
+
+    @Override
+    String describe() {
+      return "batch observer " + batchObserver.getName();
+    }
+  }
+
+  private static final class WorkerThreadFactory
+      implements ForkJoinPool.ForkJoinWorkerThreadFactory {
+    private final AtomicInteger counter = new AtomicInteger();
+
+    @Override
+    public ForkJoinWorkerThread newThread(ForkJoinPool pool) {
+      ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+      // Worker threads of a ForkJoinPool are daemon threads, and the pool stops them when idle.
+      thread.setName(WORKER_THREAD_NAME + "_" + counter.incrementAndGet());
+      return thread;
+    }
+  }
+}
@@ -16,27 +16,52 @@
 
 package io.opentelemetry.sdk.metrics;
 
+import io.opentelemetry.sdk.metrics.data.AggregationTemporality;
 import io.opentelemetry.sdk.metrics.view.Aggregation;
 import io.opentelemetry.sdk.metrics.view.Aggregations;
-
-// notes:
-//  specify by pieces of the descriptor.
-//    instrument type
-//    instrument value type
-//    instrument name  (wildcards allowed?)
-//    constant labels (?)
-//    units (?)
-
-// what you can choose:
-//   aggregation
-//   all labels vs. a list of labels
-//   delta vs. cumulative
+import io.opentelemetry.sdk.metrics.view.InstrumentSelector;
+import io.opentelemetry.sdk.metrics.view.View;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import javax.annotation.Nullable;
 
 /**
- * Central location for Views to be registered. Registration of a view should eventually be done via
- * the {@link io.opentelemetry.sdk.metrics.MeterSdkProvider}.
+ * Central location for Views to be registered. Views are registered via the {@link
+ * io.opentelemetry.sdk.metrics.MeterSdkProvider}, and apply to the instruments created after their
+ * registration.
  */
 class ViewRegistry {
+  private static final View DEFAULT_VIEW = View.newBuilder().build();
+
+  private final List<RegisteredView> registeredViews = new CopyOnWriteArrayList<>();
+  @Nullable private final AggregationTemporality defaultTemporality;
+
+  ViewRegistry() {
+    this(null);
+  }
+
+  /**
+   * Creates a registry where the metrics of instruments whose view configures no temporality use
+   * {@code defaultTemporality}, or, if {@code null}, the default temporality of their type.
+   */
+  ViewRegistry(@Nullable AggregationTemporality defaultTemporality) {
+    this.defaultTemporality = defaultTemporality;
+  }
+
+  /**
+   * Registers a {@link View} for the instruments selected by {@code selector}. When several views
+   * select an instrument, the first registered one applies.
+   */
+  void registerView(InstrumentSelector selector, View view) {
+    Aggregation aggregation = view.getAggregation();
+    if (aggregation != null && selector.getInstrumentType() != null) {
+      if (!aggregation.availableForInstrument(selector.getInstrumentType())) {
+        throw new IllegalArgumentException(
+            "Aggregation is not available for instruments of type " + selector.getInstrumentType());
+      }
+    }
+    registeredViews.add(new RegisteredView(selector, view));
+  }
 
   /**
    * Create a new {@link io.opentelemetry.sdk.metrics.Batcher} for use in metric recording
@@ -46,29 +71,57 @@ class ViewRegistry {
       MeterProviderSharedState meterProviderSharedState,
       MeterSharedState meterSharedState,
       InstrumentDescriptor descriptor) {
+    View view = findView(descriptor);
+    Aggregation aggregation = view.getAggregation();
+    if (aggregation == null || !aggregation.availableForInstrument(descriptor.getType())) {
+      aggregation = getDefaultAggregation(descriptor);
+    }
+    LabelsProjection labelsProjection = LabelsProjection.create(view.getLabelKeys());
 
-    Aggregation aggregation = getRegisteredAggregation(descriptor);
+    switch (getTemporality(view, aggregation, descriptor)) {
+      case CUMULATIVE:
+        return Batchers.getCumulativeAllLabels(
+            descriptor, meterProviderSharedState, meterSharedState, aggregation, labelsProjection);
+      case DELTA:
+        return Batchers.getDeltaAllLabels(
+            descriptor, meterProviderSharedState, meterSharedState, aggregation, labelsProjection);
+    }
+    throw new IllegalArgumentException("Unknown descriptor type: " + descriptor.getType());
+  }
 
-    // todo: don't just use the defaults!
+  private AggregationTemporality getTemporality(
+      View view, Aggregation aggregation, InstrumentDescriptor descriptor) {
     switch (descriptor.getType()) {
-      case COUNTER:
-      case UP_DOWN_COUNTER:
       case SUM_OBSERVER:
       case UP_DOWN_SUM_OBSERVER:
-        return Batchers.getCumulativeAllLabels(
-            descriptor, meterProviderSharedState, meterSharedState, aggregation);
+        // The observed values are already cumulative sums.
+        return AggregationTemporality.CUMULATIVE;
+      case COUNTER:
+      case UP_DOWN_COUNTER:
       case VALUE_RECORDER:
-        // TODO: Revisit the batcher used here for value observers,
-        // currently this does not remove duplicate records in the same cycle.
       case VALUE_OBSERVER:
-        return Batchers.getDeltaAllLabels(
-            descriptor, meterProviderSharedState, meterSharedState, aggregation);
+        break;
     }
-    throw new IllegalArgumentException("Unknown descriptor type: " + descriptor.getType());
+    if (view.getAggregationTemporality() != null) {
+      return view.getAggregationTemporality();
+    }
+    if (defaultTemporality != null) {
+      return defaultTemporality;
+    }
+    return AggregationTemporality.getDefault(
+        aggregation.getDescriptorType(descriptor.getType(), descriptor.getValueType()));
+  }
+
+  private View findView(InstrumentDescriptor descriptor) {
+    for (RegisteredView registeredView : registeredViews) {
+      if (registeredView.selector.matches(descriptor.getName(), descriptor.getType())) {
+        return registeredView.view;
+      }
+    }
+    return DEFAULT_VIEW;
   }
 
-  private static Aggregation getRegisteredAggregation(InstrumentDescriptor descriptor) {
-    // todo look up based on fields of the descriptor.
+  private static Aggregation getDefaultAggregation(InstrumentDescriptor descriptor) {
     switch (descriptor.getType()) {
       case COUNTER:
       case UP_DOWN_COUNTER:
@@ -82,4 +135,14 @@ class ViewRegistry {
     }
     throw new IllegalArgumentException("Unknown descriptor type: " + descriptor.getType());
   }
+
+  private static final class RegisteredView {
+    private final InstrumentSelector selector;
+    private final View view;
+
+    private RegisteredView(InstrumentSelector selector, View view) {
+      this.selector = selector;
+      this.view = view;
+    }
+  }
 }
@@ -37,6 +37,13 @@ abstract class AbstractAggregator implements Aggregator {
    */
   abstract void doMergeAndReset(Aggregator aggregator);
 
+  /**
+   * Resets the current value in this {@code Aggregator} in place, keeping whatever it allocated, so
+   * that an {@code Aggregator} can be reused from one collection to the next.
+   */
+  @Override
+  public abstract void reset();
+
   @Override
   public void recordLong(long value) {
     throw new UnsupportedOperationException("This Aggregator does not support long values");
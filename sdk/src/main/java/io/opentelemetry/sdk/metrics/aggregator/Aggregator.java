@@ -33,6 +33,12 @@ public interface Aggregator {
    */
   void mergeToAndReset(Aggregator aggregator);
 
+  /**
+   * Drops the current value of this {@code Aggregator} in place, as if nothing was recorded. Unlike
+   * {@link #mergeToAndReset(Aggregator)}, the value is not copied anywhere.
+   */
+  void reset();
+
   /**
    * Returns the {@code Point} with the given properties and the value from this Aggregation.
    *
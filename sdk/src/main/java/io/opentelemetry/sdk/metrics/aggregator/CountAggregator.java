@@ -0,0 +1,72 @@
+/*
+ * Copyright 2020, OpenTelemetry Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.opentelemetry.sdk.metrics.aggregator;
+
+import io.opentelemetry.common.Labels;
+import io.opentelemetry.sdk.internal.StripedLongAdder;
+import io.opentelemetry.sdk.metrics.data.MetricData.LongPoint;
+import io.opentelemetry.sdk.metrics.data.MetricData.Point;
+
+/** Counts the recorded {@code long} and {@code double} values. */
+public final class CountAggregator extends AbstractAggregator {
+
+  private static final AggregatorFactory AGGREGATOR_FACTORY =
+      new AggregatorFactory() {
+        @Override
+        public Aggregator getAggregator() {
+          return new CountAggregator();
+        }
+      };
+
+  private final StripedLongAdder current = new StripedLongAdder();
+
+  /**
+   * Returns an {@link AggregatorFactory} that produces {@link CountAggregator} instances.
+   *
+   * @return an {@link AggregatorFactory} that produces {@link CountAggregator} instances.
+   * @since 0.8.0
+   */
+  public static AggregatorFactory getFactory() {
+    return AGGREGATOR_FACTORY;
+  }
+
+  @Override
+  void doMergeAndReset(Aggregator aggregator) {
+    CountAggregator other = (CountAggregator) aggregator;
+    other.current.add(this.current.sumThenReset());
+  }
+
+  @Override
+  public void reset() {
+    current.sumThenReset();
+  }
+
+  @Override
+  public Point toPoint(long startEpochNanos, long epochNanos, Labels labels) {
+    return LongPoint.create(startEpochNanos, epochNanos, labels, current.sum());
+  }
+
+  @Override
+  public void recordLong(long value) {
+    current.add(1);
+  }
+
+  @Override
+  public void recordDouble(double value) {
+    current.add(1);
+  }
+}
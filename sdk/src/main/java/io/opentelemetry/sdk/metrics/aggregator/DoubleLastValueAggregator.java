@@ -58,6 +58,11 @@ public final class DoubleLastValueAggregator extends AbstractAggregator {
     other.current.set(this.current.getAndSet(DEFAULT_VALUE));
   }
 
+  @Override
+  public void reset() {
+    current.set(DEFAULT_VALUE);
+  }
+
   @Override
   @Nullable
   public Point toPoint(long startEpochNanos, long epochNanos, Labels labels) {
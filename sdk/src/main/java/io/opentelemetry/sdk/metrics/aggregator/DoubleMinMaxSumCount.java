@@ -18,16 +18,35 @@ package io.opentelemetry.sdk.metrics.aggregator;
 
 import com.google.errorprone.annotations.concurrent.GuardedBy;
 import io.opentelemetry.common.Labels;
+import io.opentelemetry.sdk.internal.StripedDoubleAdder;
 import io.opentelemetry.sdk.metrics.data.MetricData.Point;
 import io.opentelemetry.sdk.metrics.data.MetricData.SummaryPoint;
 import io.opentelemetry.sdk.metrics.data.MetricData.ValueAtPercentile;
 import java.util.Arrays;
-import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
 import javax.annotation.Nullable;
 import javax.annotation.concurrent.ThreadSafe;
 
+/**
+ * Aggregator that computes the minimum, maximum, sum and count of the recorded values.
+ *
+ * <p>Records are lock-free. They update the active one of two cells, holding an in-flight count on
+ * it meanwhile. {@link #mergeToAndReset(Aggregator)} swaps in the other cell and waits for the
+ * in-flight records of the old one to drain before reading it, so that the minimum, maximum, sum
+ * and count of an interval are always consistent with each other.
+ */
 @ThreadSafe
 public final class DoubleMinMaxSumCount extends AbstractAggregator {
+  private static final long POSITIVE_INFINITY_BITS =
+      Double.doubleToRawLongBits(Double.POSITIVE_INFINITY);
+  private static final long NEGATIVE_INFINITY_BITS =
+      Double.doubleToRawLongBits(Double.NEGATIVE_INFINITY);
+
+  // The state of a cell holds the number of records in flight in its low bits.
+  private static final int COUNT_SHIFT = 24;
+  private static final long IN_FLIGHT_MASK = (1L << COUNT_SHIFT) - 1;
+  private static final long COUNTED = 1L << COUNT_SHIFT;
 
   private static final AggregatorFactory AGGREGATOR_FACTORY =
       new AggregatorFactory() {
@@ -37,9 +56,12 @@ public final class DoubleMinMaxSumCount extends AbstractAggregator {
         }
       };
 
-  // The current value. This controls its own internal thread-safety via method access. Don't
-  // try to use its fields directly.
-  private final DoubleSummary current = new DoubleSummary();
+  // The cell recorded to.
+  private final AtomicReference<DoubleSummary> current = new AtomicReference<>(new DoubleSummary());
+
+  // The cell swapped in by the next mergeToAndReset or reset.
+  @GuardedBy("this")
+  private DoubleSummary spare = new DoubleSummary();
 
   public static AggregatorFactory getFactory() {
     return AGGREGATOR_FACTORY;
@@ -50,96 +72,139 @@ public final class DoubleMinMaxSumCount extends AbstractAggregator {
   @Override
   void doMergeAndReset(Aggregator target) {
     DoubleMinMaxSumCount other = (DoubleMinMaxSumCount) target;
-    current.mergeAndReset(other.current);
+    synchronized (this) {
+      DoubleSummary summary = swapAndDrain();
+      long count = summary.getCount();
+      if (count != 0) {
+        other.acquire().merge(summary, count);
+        summary.clear(count);
+      }
+      spare = summary;
+    }
+  }
+
+  @Override
+  public void reset() {
+    synchronized (this) {
+      DoubleSummary summary = swapAndDrain();
+      summary.clear(summary.getCount());
+      spare = summary;
+    }
   }
 
   @Nullable
   @Override
   public Point toPoint(long startEpochNanos, long epochNanos, Labels labels) {
-    return current.toPoint(startEpochNanos, epochNanos, labels);
+    // Points are made of the aggregators merged to at collection, which are not recorded to
+    // concurrently, so the active cell is read in place.
+    return current.get().toPoint(startEpochNanos, epochNanos, labels);
   }
 
   @Override
   public void recordDouble(double value) {
-    current.record(value);
+    acquire().record(value);
   }
 
-  private static final class DoubleSummary {
+  // Returns the active cell with an in-flight count held on it.
+  private DoubleSummary acquire() {
+    while (true) {
+      DoubleSummary summary = current.get();
+      summary.state.incrementAndGet();
+      // If the cell was swapped out before the count was taken, its collection may not wait for
+      // this record: try again with the new one.
+      if (current.get() == summary) {
+        return summary;
+      }
+      summary.state.decrementAndGet();
+    }
+  }
 
-    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+  // Swaps in the spare cell and returns the old one once no record is updating it.
+  @GuardedBy("this")
+  private DoubleSummary swapAndDrain() {
+    DoubleSummary summary = current.getAndSet(spare);
+    while ((summary.state.get() & IN_FLIGHT_MASK) != 0) {
+      Thread.yield();
+    }
+    return summary;
+  }
 
-    @GuardedBy("lock")
-    private double sum = 0;
+  private static final class DoubleSummary {
+    // The number of values counted, shifted by COUNT_SHIFT, plus the number of records in flight.
+    // Packing both lets a record count its value and release the cell in one update.
+    private final AtomicLong state = new AtomicLong();
+    private final StripedDoubleAdder sum = new StripedDoubleAdder();
+    private final AtomicLong min = new AtomicLong(POSITIVE_INFINITY_BITS);
+    private final AtomicLong max = new AtomicLong(NEGATIVE_INFINITY_BITS);
+
+    private long getCount() {
+      return state.get() >>> COUNT_SHIFT;
+    }
 
-    @GuardedBy("lock")
-    private long count = 0;
+    private void record(double value) {
+      sum.add(value);
+      updateMin(min, value);
+      updateMax(max, value);
+      // Counts the value and releases the cell.
+      state.addAndGet(COUNTED - 1);
+    }
 
-    @GuardedBy("lock")
-    private double min = Double.POSITIVE_INFINITY;
+    // Adds the values of a drained cell, and releases this one.
+    private void merge(DoubleSummary other, long count) {
+      sum.add(other.sum.sum());
+      updateMin(min, Double.longBitsToDouble(other.min.get()));
+      updateMax(max, Double.longBitsToDouble(other.max.get()));
+      state.addAndGet(count * COUNTED - 1);
+    }
 
-    @GuardedBy("lock")
-    private double max = Double.NEGATIVE_INFINITY;
+    // Only called on a drained cell. Records that saw it swapped out may still be releasing it, so
+    // only the count is cleared.
+    private void clear(long count) {
+      state.addAndGet(-count * COUNTED);
+      sum.sumThenReset();
+      min.set(POSITIVE_INFINITY_BITS);
+      max.set(NEGATIVE_INFINITY_BITS);
+    }
 
-    private void record(double value) {
-      lock.writeLock().lock();
-      try {
-        count++;
-        sum += value;
-        min = Math.min(value, min);
-        max = Math.max(value, max);
-      } finally {
-        lock.writeLock().unlock();
-      }
+    @Nullable
+    private SummaryPoint toPoint(long startEpochNanos, long epochNanos, Labels labels) {
+      long count = getCount();
+      return count == 0
+          ? null
+          : SummaryPoint.create(
+              startEpochNanos,
+              epochNanos,
+              labels,
+              count,
+              sum.sum(),
+              Arrays.asList(
+                  ValueAtPercentile.create(0.0, Double.longBitsToDouble(min.get())),
+                  ValueAtPercentile.create(100.0, Double.longBitsToDouble(max.get()))));
     }
 
-    public void mergeAndReset(DoubleSummary other) {
-      long myCount;
-      double mySum;
-      double myMin;
-      double myMax;
-      lock.writeLock().lock();
-      try {
-        if (this.count == 0) {
+    private static void updateMin(AtomicLong min, double value) {
+      while (true) {
+        long current = min.get();
+        // Only the first values of an interval usually get past this check, so the common case
+        // does not write to the shared cache line.
+        if (!(value < Double.longBitsToDouble(current))) {
+          return;
+        }
+        if (min.compareAndSet(current, Double.doubleToRawLongBits(value))) {
           return;
         }
-        myCount = this.count;
-        mySum = this.sum;
-        myMin = this.min;
-        myMax = this.max;
-        this.count = 0;
-        this.sum = 0;
-        this.min = Double.POSITIVE_INFINITY;
-        this.max = Double.NEGATIVE_INFINITY;
-      } finally {
-        lock.writeLock().unlock();
-      }
-      other.lock.writeLock().lock();
-      try {
-        other.count += myCount;
-        other.sum += mySum;
-        other.min = Math.min(myMin, other.min);
-        other.max = Math.max(myMax, other.max);
-      } finally {
-        other.lock.writeLock().unlock();
       }
     }
 
-    @Nullable
-    private SummaryPoint toPoint(long startEpochNanos, long epochNanos, Labels labels) {
-      lock.readLock().lock();
-      try {
-        return count == 0
-            ? null
-            : SummaryPoint.create(
-                startEpochNanos,
-                epochNanos,
-                labels,
-                count,
-                sum,
-                Arrays.asList(
-                    ValueAtPercentile.create(0.0, min), ValueAtPercentile.create(100.0, max)));
-      } finally {
-        lock.readLock().unlock();
+    private static void updateMax(AtomicLong max, double value) {
+      while (true) {
+        long current = max.get();
+        if (!(value > Double.longBitsToDouble(current))) {
+          return;
+        }
+        if (max.compareAndSet(current, Double.doubleToRawLongBits(value))) {
+          return;
+        }
       }
     }
   }
@@ -0,0 +1,154 @@
+/*
+ * Copyright 2020, OpenTelemetry Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.opentelemetry.sdk.metrics.aggregator;
+
+import io.opentelemetry.common.Labels;
+import io.opentelemetry.internal.Utils;
+import io.opentelemetry.sdk.internal.StripedDoubleAdder;
+import io.opentelemetry.sdk.metrics.data.MetricData.HistogramPoint;
+import io.opentelemetry.sdk.metrics.data.MetricData.Point;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLongArray;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.ThreadSafe;
+
+/**
+ * Counts the recorded values per bucket, in an array of atomic counters, and sums them. Long values
+ * are recorded as doubles, and NaN values are dropped.
+ *
+ * <p>Aggregators can only be merged into aggregators of the same factory, merging into a histogram
+ * with other buckets throws {@link IllegalArgumentException}.
+ */
+@ThreadSafe
+public final class HistogramAggregator extends AbstractAggregator {
+
+  private final HistogramBuckets buckets;
+  private final AtomicLongArray counts;
+  private final StripedDoubleAdder sum = new StripedDoubleAdder();
+
+  /**
+   * Returns an {@link AggregatorFactory} that produces {@link HistogramAggregator} instances with
+   * the given bucket boundaries.
+   *
+   * @param boundaries the strictly increasing upper boundaries of all but the last bucket.
+   * @return an {@link AggregatorFactory} that produces {@link HistogramAggregator} instances.
+   * @throws IllegalArgumentException if the boundaries are not strictly increasing.
+   * @since 0.8.0
+   */
+  public static AggregatorFactory getFactory(double[] boundaries) {
+    return new Factory(HistogramBuckets.explicit(boundaries));
+  }
+
+  /**
+   * Returns an {@link AggregatorFactory} that produces {@link HistogramAggregator} instances with
+   * log-linear buckets: each power of two from {@code lowestBound} to {@code highestBound} is split
+   * in {@code subBuckets} buckets of equal width, so that the relative error of the bucket of any
+   * value in between is less than {@code 1 / subBuckets}. Values up to {@code lowestBound} and
+   * above {@code highestBound} are counted in one bucket each.
+   *
+   * @param lowestBound the upper boundary of the first bucket, rounded down to a power of two.
+   * @param highestBound the lower boundary of the last bucket, rounded up to a power of two.
+   * @param subBuckets the number of buckets per power of two, a power of two up to 1024.
+   * @return an {@link AggregatorFactory} that produces {@link HistogramAggregator} instances.
+   * @throws IllegalArgumentException if the bounds are not positive and increasing, if {@code
+   *     subBuckets} is not a power of two, or if the layout needs more than 4096 buckets.
+   * @since 0.8.0
+   */
+  public static AggregatorFactory getLogLinearFactory(
+      double lowestBound, double highestBound, int subBuckets) {
+    return new Factory(HistogramBuckets.logLinear(lowestBound, highestBound, subBuckets));
+  }
+
+  private HistogramAggregator(HistogramBuckets buckets) {
+    this.buckets = buckets;
+    this.counts = new AtomicLongArray(buckets.bucketCount());
+  }
+
+  @Override
+  void doMergeAndReset(Aggregator aggregator) {
+    HistogramAggregator other = (HistogramAggregator) aggregator;
+    Utils.checkArgument(other.buckets == buckets, "Cannot merge histograms with different buckets");
+    for (int i = 0; i < counts.length(); i++) {
+      // Most buckets of a histogram are usually empty, skip writing to them.
+      if (counts.get(i) != 0) {
+        other.counts.getAndAdd(i, counts.getAndSet(i, 0));
+      }
+    }
+    other.sum.add(sum.sumThenReset());
+  }
+
+  @Override
+  public void reset() {
+    for (int i = 0; i < counts.length(); i++) {
+      if (counts.get(i) != 0) {
+        counts.set(i, 0);
+      }
+    }
+    sum.sumThenReset();
+  }
+
+  @Nullable
+  @Override
+  public Point toPoint(long startEpochNanos, long epochNanos, Labels labels) {
+    long count = 0;
+    List<Long> bucketCounts = new ArrayList<>(counts.length());
+    for (int i = 0; i < counts.length(); i++) {
+      long bucketCount = counts.get(i);
+      count += bucketCount;
+      bucketCounts.add(bucketCount);
+    }
+    return count == 0
+        ? null
+        : HistogramPoint.create(
+            startEpochNanos,
+            epochNanos,
+            labels,
+            count,
+            sum.sum(),
+            buckets.getBoundaries(),
+            bucketCounts);
+  }
+
+  @Override
+  public void recordLong(long value) {
+    recordDouble(value);
+  }
+
+  @Override
+  public void recordDouble(double value) {
+    if (Double.isNaN(value)) {
+      // NaN has no bucket, and would turn the sum into NaN for the rest of the interval.
+      return;
+    }
+    counts.getAndIncrement(buckets.bucketIndex(value));
+    sum.add(value);
+  }
+
+  private static final class Factory implements AggregatorFactory {
+    private final HistogramBuckets buckets;
+
+    private Factory(HistogramBuckets buckets) {
+      this.buckets = buckets;
+    }
+
+    @Override
+    public Aggregator getAggregator() {
+      return new HistogramAggregator(buckets);
+    }
+  }
+}
@@ -0,0 +1,184 @@
+/*
+ * Copyright 2020, OpenTelemetry Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.opentelemetry.sdk.metrics.aggregator;
+
+import io.opentelemetry.internal.Utils;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import javax.annotation.concurrent.Immutable;
+
+/**
+ * The bucket layout of a histogram: sorted upper boundaries, and a lookup from a value to the index
+ * of its bucket. For {@code N} boundaries there are {@code N + 1} buckets, bucket {@code i} counts
+ * the values greater than {@code boundaries[i - 1]} and less than or equal to {@code
+ * boundaries[i]}.
+ */
+@Immutable
+abstract class HistogramBuckets {
+  // Log-linear layouts are limited so that every histogram has a small, fixed size.
+  static final int MAX_LOG_LINEAR_BUCKETS = 4096;
+  static final int MAX_SUB_BUCKETS = 1024;
+
+  private static final long EXPONENT_MASK = 0x7FF0000000000000L;
+  private static final long MANTISSA_MASK = 0x000FFFFFFFFFFFFFL;
+  private static final int MANTISSA_BITS = 52;
+
+  private final double[] boundaries;
+  // Shared by all the points of the histograms using this layout.
+  private final List<Double> boundaryList;
+
+  private HistogramBuckets(double[] boundaries) {
+    this.boundaries = boundaries;
+    List<Double> boundaryList = new ArrayList<>(boundaries.length);
+    for (double boundary : boundaries) {
+      boundaryList.add(boundary);
+    }
+    this.boundaryList = Collections.unmodifiableList(boundaryList);
+  }
+
+  /**
+   * Returns the layout with the given boundaries.
+   *
+   * @param boundaries the strictly increasing upper boundaries of all but the last bucket.
+   * @return the layout with the given boundaries.
+   * @throws IllegalArgumentException if the boundaries are not strictly increasing.
+   */
+  static HistogramBuckets explicit(double[] boundaries) {
+    for (int i = 0; i < boundaries.length; i++) {
+      Utils.checkArgument(!Double.isNaN(boundaries[i]), "Bucket boundaries must not be NaN.");
+      Utils.checkArgument(
+          i == 0 || boundaries[i - 1] < boundaries[i],
+          "Bucket boundaries must be strictly increasing.");
+    }
+    return new Explicit(boundaries.clone());
+  }
+
+  /**
+   * Returns a log-linear layout: the powers of two from {@code lowestBound} rounded down to the
+   * power of two to {@code highestBound} rounded up to the power of two, with each power of two
+   * range split in {@code subBuckets} buckets of equal width. The relative error of any value is
+   * less than {@code 1 / subBuckets}.
+   *
+   * @param lowestBound the upper boundary of the first bucket.
+   * @param highestBound the lower boundary of the last bucket.
+   * @param subBuckets the number of buckets per power of two, a power of two.
+   * @return the log-linear layout.
+   * @throws IllegalArgumentException if the bounds are not positive and increasing, if {@code
+   *     subBuckets} is not a power of two, or if the layout needs more than {@value
+   *     #MAX_LOG_LINEAR_BUCKETS} buckets.
+   */
+  static HistogramBuckets logLinear(double lowestBound, double highestBound, int subBuckets) {
+    Utils.checkArgument(
+        lowestBound >= Double.MIN_NORMAL && lowestBound < highestBound,
+        "Bounds must be positive and increasing.");
+    Utils.checkArgument(
+        subBuckets > 0 && subBuckets <= MAX_SUB_BUCKETS && Integer.bitCount(subBuckets) == 1,
+        "subBuckets must be a power of two no larger than " + MAX_SUB_BUCKETS + ".");
+    long lowestBits = Double.doubleToRawLongBits(lowestBound) & EXPONENT_MASK;
+    long highestBits = Double.doubleToRawLongBits(highestBound);
+    if ((highestBits & MANTISSA_MASK) != 0) {
+      highestBits = (highestBits & EXPONENT_MASK) + (1L << MANTISSA_BITS);
+    }
+    Utils.checkArgument(highestBits < EXPONENT_MASK, "highestBound is too large.");
+    int shift = MANTISSA_BITS - Integer.numberOfTrailingZeros(subBuckets);
+    long buckets = ((highestBits - lowestBits) >>> shift) + 2;
+    Utils.checkArgument(
+        buckets <= MAX_LOG_LINEAR_BUCKETS,
+        "Too many buckets, at most " + MAX_LOG_LINEAR_BUCKETS + " are allowed.");
+
+    double[] boundaries = new double[(int) buckets - 1];
+    for (int i = 0; i < boundaries.length; i++) {
+      boundaries[i] = Double.longBitsToDouble(lowestBits + ((long) i << shift));
+    }
+    return new LogLinear(boundaries, lowestBits, shift);
+  }
+
+  /**
+   * Returns the index of the bucket of {@code value}. {@code NaN} is in the first bucket.
+   *
+   * @param value the recorded value.
+   * @return the index of the bucket of {@code value}.
+   */
+  abstract int bucketIndex(double value);
+
+  final int bucketCount() {
+    return boundaries.length + 1;
+  }
+
+  final List<Double> getBoundaries() {
+    return boundaryList;
+  }
+
+  private static final class Explicit extends HistogramBuckets {
+    private final double[] boundaries;
+
+    private Explicit(double[] boundaries) {
+      super(boundaries);
+      this.boundaries = boundaries;
+    }
+
+    @Override
+    int bucketIndex(double value) {
+      // The index of the first boundary greater than or equal to value.
+      int low = 0;
+      int high = boundaries.length;
+      while (low < high) {
+        int mid = (low + high) >>> 1;
+        if (boundaries[mid] < value) {
+          low = mid + 1;
+        } else {
+          high = mid;
+        }
+      }
+      return low;
+    }
+  }
+
+  // Boundaries are 2^e * (1 + k / subBuckets). Since the bits of positive doubles are ordered like
+  // their values, with the exponent above the mantissa, the difference between the bits of a value
+  // and of the lowest boundary, shifted to keep only log2(subBuckets) mantissa bits, is the bucket
+  // index. Subtracting one from the bits of the value, its next lower double, makes the buckets
+  // include their upper boundary.
+  private static final class LogLinear extends HistogramBuckets {
+    private final double lowestBound;
+    private final double highestBound;
+    private final long lowestBits;
+    private final int shift;
+    private final int lastBucket;
+
+    private LogLinear(double[] boundaries, long lowestBits, int shift) {
+      super(boundaries);
+      this.lowestBound = boundaries[0];
+      this.highestBound = boundaries[boundaries.length - 1];
+      this.lowestBits = lowestBits;
+      this.shift = shift;
+      this.lastBucket = boundaries.length;
+    }
+
+    @Override
+    int bucketIndex(double value) {
+      if (!(value > lowestBound)) {
+        return 0;
+      }
+      if (value > highestBound) {
+        return lastBucket;
+      }
+      return (int) ((Double.doubleToRawLongBits(value) - 1 - lowestBits) >>> shift) + 1;
+    }
+  }
+}
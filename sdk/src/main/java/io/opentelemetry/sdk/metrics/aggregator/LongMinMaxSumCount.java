@@ -18,16 +18,26 @@ package io.opentelemetry.sdk.metrics.aggregator;
 
 import com.google.errorprone.annotations.concurrent.GuardedBy;
 import io.opentelemetry.common.Labels;
+import io.opentelemetry.sdk.internal.StripedLongAdder;
 import io.opentelemetry.sdk.metrics.data.MetricData.Point;
 import io.opentelemetry.sdk.metrics.data.MetricData.SummaryPoint;
 import io.opentelemetry.sdk.metrics.data.MetricData.ValueAtPercentile;
 import java.util.Arrays;
-import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
 import javax.annotation.Nullable;
 import javax.annotation.concurrent.ThreadSafe;
 
+/**
+ * Aggregator that computes the minimum, maximum, sum and count of the recorded values. Records are
+ * lock-free and collections consistent, see {@link DoubleMinMaxSumCount}.
+ */
 @ThreadSafe
 public final class LongMinMaxSumCount extends AbstractAggregator {
+  // The state of a cell holds the number of records in flight in its low bits.
+  private static final int COUNT_SHIFT = 24;
+  private static final long IN_FLIGHT_MASK = (1L << COUNT_SHIFT) - 1;
+  private static final long COUNTED = 1L << COUNT_SHIFT;
 
   private static final AggregatorFactory AGGREGATOR_FACTORY =
       new AggregatorFactory() {
@@ -37,9 +47,12 @@ public final class LongMinMaxSumCount extends AbstractAggregator {
         }
       };
 
-  // The current value. This controls its own internal thread-safety via method access. Don't
-  // try to use its fields directly.
-  private final LongSummary current = new LongSummary();
+  // The cell recorded to.
+  private final AtomicReference<LongSummary> current = new AtomicReference<>(new LongSummary());
+
+  // The cell swapped in by the next mergeToAndReset or reset.
+  @GuardedBy("this")
+  private LongSummary spare = new LongSummary();
 
   public static AggregatorFactory getFactory() {
     return AGGREGATOR_FACTORY;
@@ -50,97 +63,131 @@ public final class LongMinMaxSumCount extends AbstractAggregator {
   @Override
   void doMergeAndReset(Aggregator target) {
     LongMinMaxSumCount other = (LongMinMaxSumCount) target;
+    synchronized (this) {
+      LongSummary summary = swapAndDrain();
+      long count = summary.getCount();
+      if (count != 0) {
+        other.acquire().merge(summary, count);
+        summary.clear(count);
+      }
+      spare = summary;
+    }
+  }
 
-    current.mergeAndReset(other.current);
+  @Override
+  public void reset() {
+    synchronized (this) {
+      LongSummary summary = swapAndDrain();
+      summary.clear(summary.getCount());
+      spare = summary;
+    }
   }
 
   @Nullable
   @Override
   public Point toPoint(long startEpochNanos, long epochNanos, Labels labels) {
-    return current.toPoint(startEpochNanos, epochNanos, labels);
+    // Points are made of the aggregators merged to at collection, which are not recorded to
+    // concurrently, so the active cell is read in place.
+    return current.get().toPoint(startEpochNanos, epochNanos, labels);
   }
 
   @Override
   public void recordLong(long value) {
-    current.record(value);
+    acquire().record(value);
   }
 
-  private static final class LongSummary {
+  // Returns the active cell with an in-flight count held on it.
+  private LongSummary acquire() {
+    while (true) {
+      LongSummary summary = current.get();
+      summary.state.incrementAndGet();
+      // If the cell was swapped out before the count was taken, its collection may not wait for
+      // this record: try again with the new one.
+      if (current.get() == summary) {
+        return summary;
+      }
+      summary.state.decrementAndGet();
+    }
+  }
 
-    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+  // Swaps in the spare cell and returns the old one once no record is updating it.
+  @GuardedBy("this")
+  private LongSummary swapAndDrain() {
+    LongSummary summary = current.getAndSet(spare);
+    while ((summary.state.get() & IN_FLIGHT_MASK) != 0) {
+      Thread.yield();
+    }
+    return summary;
+  }
 
-    @GuardedBy("lock")
-    private long sum = 0;
+  private static final class LongSummary {
+    // The number of values counted, shifted by COUNT_SHIFT, plus the number of records in flight.
+    // Packing both lets a record count its value and release the cell in one update.
+    private final AtomicLong state = new AtomicLong();
+    private final StripedLongAdder sum = new StripedLongAdder();
+    private final AtomicLong min = new AtomicLong(Long.MAX_VALUE);
+    private final AtomicLong max = new AtomicLong(Long.MIN_VALUE);
+
+    private long getCount() {
+      return state.get() >>> COUNT_SHIFT;
+    }
 
-    @GuardedBy("lock")
-    private long count = 0;
+    private void record(long value) {
+      sum.add(value);
+      updateMin(min, value);
+      updateMax(max, value);
+      // Counts the value and releases the cell.
+      state.addAndGet(COUNTED - 1);
+    }
 
-    @GuardedBy("lock")
-    private long min = Long.MAX_VALUE;
+    // Adds the values of a drained cell, and releases this one.
+    private void merge(LongSummary other, long count) {
+      sum.add(other.sum.sum());
+      updateMin(min, other.min.get());
+      updateMax(max, other.max.get());
+      state.addAndGet(count * COUNTED - 1);
+    }
 
-    @GuardedBy("lock")
-    private long max = Long.MIN_VALUE;
+    // Only called on a drained cell. Records that saw it swapped out may still be releasing it, so
+    // only the count is cleared.
+    private void clear(long count) {
+      state.addAndGet(-count * COUNTED);
+      sum.sumThenReset();
+      min.set(Long.MAX_VALUE);
+      max.set(Long.MIN_VALUE);
+    }
 
-    private void record(long value) {
-      lock.writeLock().lock();
-      try {
-        count++;
-        sum += value;
-        min = Math.min(value, min);
-        max = Math.max(value, max);
-      } finally {
-        lock.writeLock().unlock();
-      }
+    @Nullable
+    private SummaryPoint toPoint(long startEpochNanos, long epochNanos, Labels labels) {
+      long count = getCount();
+      return count == 0
+          ? null
+          : SummaryPoint.create(
+              startEpochNanos,
+              epochNanos,
+              labels,
+              count,
+              sum.sum(),
+              Arrays.asList(
+                  ValueAtPercentile.create(0.0, min.get()),
+                  ValueAtPercentile.create(100.0, max.get())));
     }
 
-    private void mergeAndReset(LongSummary other) {
-      long myCount;
-      long mySum;
-      long myMin;
-      long myMax;
-      lock.writeLock().lock();
-      try {
-        if (this.count == 0) {
+    private static void updateMin(AtomicLong min, long value) {
+      while (true) {
+        long current = min.get();
+        if (value >= current || min.compareAndSet(current, value)) {
           return;
         }
-        myCount = this.count;
-        mySum = this.sum;
-        myMin = this.min;
-        myMax = this.max;
-        this.count = 0;
-        this.sum = 0;
-        this.min = Long.MAX_VALUE;
-        this.max = Long.MIN_VALUE;
-      } finally {
-        lock.writeLock().unlock();
-      }
-      other.lock.writeLock().lock();
-      try {
-        other.count += myCount;
-        other.sum += mySum;
-        other.min = Math.min(myMin, other.min);
-        other.max = Math.max(myMax, other.max);
-      } finally {
-        other.lock.writeLock().unlock();
       }
     }
 
-    @Nullable
-    private SummaryPoint toPoint(long startEpochNanos, long epochNanos, Labels labels) {
-      lock.readLock().lock();
-      try {
-        return count == 0
-            ? null
-            : SummaryPoint.create(
-                startEpochNanos,
-                epochNanos,
-                labels,
-                count,
-                sum,
-                Arrays.asList(
-                    ValueAtPercentile.create(0.0, min), ValueAtPercentile.create(100.0, max)));
-      } finally {
-        lock.readLock().unlock();
+    private static void updateMax(AtomicLong max, long value) {
+      while (true) {
+        long current = max.get();
+        if (value <= current || max.compareAndSet(current, value)) {
+          return;
+        }
       }
     }
   }
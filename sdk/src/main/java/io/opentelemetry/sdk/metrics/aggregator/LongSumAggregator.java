@@ -17,13 +17,12 @@
 package io.opentelemetry.sdk.metrics.aggregator;
 
 import io.opentelemetry.common.Labels;
+import io.opentelemetry.sdk.internal.StripedLongAdder;
 import io.opentelemetry.sdk.metrics.data.MetricData.LongPoint;
 import io.opentelemetry.sdk.metrics.data.MetricData.Point;
-import java.util.concurrent.atomic.AtomicLong;
 
 public final class LongSumAggregator extends AbstractAggregator {
 
-  private static final long DEFAULT_VALUE = 0L;
   private static final AggregatorFactory AGGREGATOR_FACTORY =
       new AggregatorFactory() {
         @Override
@@ -32,8 +31,7 @@ public final class LongSumAggregator extends AbstractAggregator {
         }
       };
 
-  // TODO: Change to use LongAdder when changed to java8.
-  private final AtomicLong current = new AtomicLong(DEFAULT_VALUE);
+  private final StripedLongAdder current = new StripedLongAdder();
 
   /**
    * Returns an {@link AggregatorFactory} that produces {@link LongSumAggregator} instances.
@@ -47,16 +45,21 @@ public final class LongSumAggregator extends AbstractAggregator {
   @Override
   void doMergeAndReset(Aggregator aggregator) {
     LongSumAggregator other = (LongSumAggregator) aggregator;
-    other.current.getAndAdd(this.current.getAndSet(DEFAULT_VALUE));
+    other.current.add(this.current.sumThenReset());
+  }
+
+  @Override
+  public void reset() {
+    current.sumThenReset();
   }
 
   @Override
   public Point toPoint(long startEpochNanos, long epochNanos, Labels labels) {
-    return LongPoint.create(startEpochNanos, epochNanos, labels, current.get());
+    return LongPoint.create(startEpochNanos, epochNanos, labels, current.sum());
   }
 
   @Override
   public void recordLong(long value) {
-    current.getAndAdd(value);
+    current.add(value);
   }
 }
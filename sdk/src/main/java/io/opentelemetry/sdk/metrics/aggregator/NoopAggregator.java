@@ -39,6 +39,11 @@ public final class NoopAggregator implements Aggregator {
     // Noop
   }
 
+  @Override
+  public void reset() {
+    // Noop
+  }
+
   @Nullable
   @Override
   public Point toPoint(long startEpochNanos, long epochNanos, Labels labels) {
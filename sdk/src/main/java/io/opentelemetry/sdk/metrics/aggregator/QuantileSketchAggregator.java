@@ -0,0 +1,423 @@
+/*
+ * Copyright 2020, OpenTelemetry Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.opentelemetry.sdk.metrics.aggregator;
+
+import io.opentelemetry.common.Labels;
+import io.opentelemetry.internal.Utils;
+import io.opentelemetry.sdk.internal.StripedDoubleAdder;
+import io.opentelemetry.sdk.metrics.data.MetricData.Point;
+import io.opentelemetry.sdk.metrics.data.MetricData.SummaryPoint;
+import io.opentelemetry.sdk.metrics.data.MetricData.ValueAtPercentile;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.ThreadSafe;
+
+/**
+ * Estimates percentiles of the recorded values with a relative error guarantee, like DDSketch.
+ *
+ * <p>Values are counted in log-linear bins: every power of two is split in a power of two number of
+ * bins of equal width, so that the bin of a value is given by the bits of its exponent and the top
+ * bits of its mantissa. The counters of a power of two are only allocated once a value in its range
+ * is recorded. Values from 2^-64 to 2^64 are binned. Smaller values, including zero and negative
+ * values, and larger values are counted in one bin each, whose percentiles are estimated by the
+ * exact minimum and maximum.
+ *
+ * <p>The number of bins of a sketch is capped, {@link #DEFAULT_MAX_BINS} unless configured. Once
+ * the cap is reached, the bins of the lowest powers of two are collapsed into the lowest bin that
+ * is kept, as in the collapsing-lowest store of DDSketch: the high percentiles keep their accuracy
+ * and the low ones are overestimated. The counters of a sketch then take at most {@code maxBins}
+ * times 8 bytes, rounded up to the bins of a whole power of two: 16 KiB by default.
+ *
+ * <p>Sketches are merged by adding their counters, so merging loses no accuracy. Only sketches of
+ * the same factory can be merged, merging into another sketch throws {@link
+ * IllegalArgumentException}. NaN values are dropped.
+ */
+@ThreadSafe
+public final class QuantileSketchAggregator extends AbstractAggregator {
+  private static final int MANTISSA_BITS = 52;
+  private static final int EXPONENT_BIAS = 1023;
+  private static final int MIN_EXPONENT = -64;
+  private static final int MAX_EXPONENT = 63;
+  private static final int MAX_SUB_BINS = 1024;
+
+  /**
+   * The default maximum number of bins of a sketch, as in DDSketch.
+   *
+   * @since 0.8.0
+   */
+  public static final int DEFAULT_MAX_BINS = 2048;
+
+  private static final long POSITIVE_INFINITY_BITS =
+      Double.doubleToRawLongBits(Double.POSITIVE_INFINITY);
+  private static final long NEGATIVE_INFINITY_BITS =
+      Double.doubleToRawLongBits(Double.NEGATIVE_INFINITY);
+
+  private final Config config;
+  // The counters of each power of two from MIN_EXPONENT to MAX_EXPONENT, created on first use.
+  private final AtomicReferenceArray<AtomicLongArray> bins =
+      new AtomicReferenceArray<>(MAX_EXPONENT - MIN_EXPONENT + 1);
+  // Values of the powers of two below this index are counted in its first bin.
+  private volatile int collapsedBelow = 0;
+  // Guards the allocation and the collapsing of bins.
+  private final Object binsLock = new Object();
+  // The number of powers of two with allocated counters, guarded by binsLock.
+  private int allocatedPowersOfTwo = 0;
+  private final AtomicLong lowCount = new AtomicLong();
+  private final AtomicLong highCount = new AtomicLong();
+  private final StripedDoubleAdder sum = new StripedDoubleAdder();
+  private final AtomicLong min = new AtomicLong(POSITIVE_INFINITY_BITS);
+  private final AtomicLong max = new AtomicLong(NEGATIVE_INFINITY_BITS);
+
+  /**
+   * Returns an {@link AggregatorFactory} that produces {@link QuantileSketchAggregator} instances.
+   *
+   * @param relativeAccuracy the maximum relative error of the estimated percentiles, between 0.0005
+   *     and 0.5.
+   * @param percentiles the percentiles to estimate, in addition to 0.0 and 100.0, the minimum and
+   *     maximum.
+   * @return an {@link AggregatorFactory} that produces {@link QuantileSketchAggregator} instances.
+   * @throws IllegalArgumentException if {@code relativeAccuracy} is out of range or a percentile is
+   *     not in the interval [0.0, 100.0].
+   * @since 0.8.0
+   */
+  public static AggregatorFactory getFactory(double relativeAccuracy, double[] percentiles) {
+    return getFactory(relativeAccuracy, percentiles, DEFAULT_MAX_BINS);
+  }
+
+  /**
+   * Returns an {@link AggregatorFactory} that produces {@link QuantileSketchAggregator} instances
+   * with at most {@code maxBins} bins.
+   *
+   * @param relativeAccuracy the maximum relative error of the estimated percentiles, between 0.0005
+   *     and 0.5.
+   * @param percentiles the percentiles to estimate, in addition to 0.0 and 100.0, the minimum and
+   *     maximum.
+   * @param maxBins the maximum number of bins of a sketch, rounded up to the bins of a whole power
+   *     of two. The lowest bins are collapsed beyond it.
+   * @return an {@link AggregatorFactory} that produces {@link QuantileSketchAggregator} instances.
+   * @throws IllegalArgumentException if {@code relativeAccuracy} is out of range, a percentile is
+   *     not in the interval [0.0, 100.0] or {@code maxBins} is not positive.
+   * @since 0.8.0
+   */
+  public static AggregatorFactory getFactory(
+      double relativeAccuracy, double[] percentiles, int maxBins) {
+    final Config config = new Config(relativeAccuracy, percentiles, maxBins);
+    return new AggregatorFactory() {
+      @Override
+      public Aggregator getAggregator() {
+        return new QuantileSketchAggregator(config);
+      }
+    };
+  }
+
+  private QuantileSketchAggregator(Config config) {
+    this.config = config;
+  }
+
+  @Override
+  public void recordLong(long value) {
+    recordDouble(value);
+  }
+
+  @Override
+  public void recordDouble(double value) {
+    if (Double.isNaN(value)) {
+      // NaN has no bin, and would turn the sum into NaN for the rest of the interval.
+      return;
+    }
+    // As in DoubleMinMaxSumCount, min and max are updated both before and after the value is
+    // counted, so that any collected count is covered by the collected min and max.
+    updateMin(min, value);
+    updateMax(max, value);
+    sum.add(value);
+    add(value, 1);
+    updateMin(min, value);
+    updateMax(max, value);
+  }
+
+  private void add(double value, long count) {
+    if (!(value >= 0x1p-64)) {
+      lowCount.getAndAdd(count);
+      return;
+    }
+    long bits = Double.doubleToRawLongBits(value);
+    int exponent = (int) (bits >>> MANTISSA_BITS) - EXPONENT_BIAS;
+    if (exponent > MAX_EXPONENT) {
+      highCount.getAndAdd(count);
+      return;
+    }
+    int subBin = (int) (bits >>> config.shift) & (config.subBins - 1);
+    add(exponent - MIN_EXPONENT, subBin, count);
+  }
+
+  private void add(int index, int subBin, long count) {
+    while (true) {
+      int lowestIndex = collapsedBelow;
+      if (index < lowestIndex) {
+        index = lowestIndex;
+        subBin = 0;
+      }
+      AtomicLongArray powerOfTwoBins = bins.get(index);
+      if (powerOfTwoBins == null) {
+        powerOfTwoBins = allocateBins(index);
+        if (powerOfTwoBins == null) {
+          // Collapsed meanwhile, count in the lowest bins instead.
+          continue;
+        }
+      }
+      powerOfTwoBins.getAndAdd(subBin, count);
+      if (bins.get(index) == powerOfTwoBins) {
+        return;
+      }
+      // The bins were collapsed while counting, and may have been drained before the count was
+      // added. Whatever is left in the counter is taken back and counted again, so that each count
+      // is moved exactly once, either here or by the collapse.
+      count = powerOfTwoBins.getAndSet(subBin, 0);
+      if (count == 0) {
+        return;
+      }
+    }
+  }
+
+  /**
+   * Returns the counters of the power of two at {@code index}, allocating them and collapsing the
+   * lowest ones if needed, or {@code null} if {@code index} was collapsed meanwhile.
+   */
+  @Nullable
+  private AtomicLongArray allocateBins(int index) {
+    synchronized (binsLock) {
+      if (index < collapsedBelow) {
+        return null;
+      }
+      AtomicLongArray powerOfTwoBins = bins.get(index);
+      if (powerOfTwoBins != null) {
+        return powerOfTwoBins;
+      }
+      int lowest = -1;
+      if (allocatedPowersOfTwo == config.maxPowersOfTwo) {
+        lowest = collapsedBelow;
+        while (bins.get(lowest) == null) {
+          lowest++;
+        }
+        if (index < lowest) {
+          // Lower than all the kept bins: counted in the first bin of the lowest one.
+          collapsedBelow = lowest;
+          return null;
+        }
+      }
+      powerOfTwoBins = new AtomicLongArray(config.subBins);
+      bins.set(index, powerOfTwoBins);
+      allocatedPowersOfTwo++;
+      if (lowest >= 0) {
+        collapseBins(lowest);
+      }
+      return powerOfTwoBins;
+    }
+  }
+
+  // Moves the counts of the lowest power of two into the first bin of the next one. Called under
+  // binsLock.
+  private void collapseBins(int lowest) {
+    int next = lowest + 1;
+    while (bins.get(next) == null) {
+      next++;
+    }
+    AtomicLongArray collapsed = bins.get(lowest);
+    collapsedBelow = next;
+    bins.set(lowest, null);
+    allocatedPowersOfTwo--;
+    long collapsedCount = 0;
+    for (int j = 0; j < collapsed.length(); j++) {
+      collapsedCount += collapsed.getAndSet(j, 0);
+    }
+    if (collapsedCount != 0) {
+      bins.get(next).getAndAdd(0, collapsedCount);
+    }
+  }
+
+  @Override
+  void doMergeAndReset(Aggregator aggregator) {
+    QuantileSketchAggregator other = (QuantileSketchAggregator) aggregator;
+    Utils.checkArgument(
+        other.config == config, "Cannot merge quantile sketches of different factories");
+    other.lowCount.getAndAdd(lowCount.getAndSet(0));
+    other.highCount.getAndAdd(highCount.getAndSet(0));
+    for (int i = 0; i < bins.length(); i++) {
+      // Counters are kept allocated, values usually keep the same range from one collection to
+      // the next.
+      AtomicLongArray powerOfTwoBins = bins.get(i);
+      if (powerOfTwoBins == null) {
+        continue;
+      }
+      for (int j = 0; j < powerOfTwoBins.length(); j++) {
+        long count = powerOfTwoBins.get(j) == 0 ? 0 : powerOfTwoBins.getAndSet(j, 0);
+        if (count != 0) {
+          other.add(i, j, count);
+        }
+      }
+    }
+    other.sum.add(sum.sumThenReset());
+    updateMin(other.min, Double.longBitsToDouble(min.getAndSet(POSITIVE_INFINITY_BITS)));
+    updateMax(other.max, Double.longBitsToDouble(max.getAndSet(NEGATIVE_INFINITY_BITS)));
+  }
+
+  @Override
+  public void reset() {
+    lowCount.set(0);
+    highCount.set(0);
+    for (int i = 0; i < bins.length(); i++) {
+      // Counters are kept allocated, as by doMergeAndReset.
+      AtomicLongArray powerOfTwoBins = bins.get(i);
+      if (powerOfTwoBins == null) {
+        continue;
+      }
+      for (int j = 0; j < powerOfTwoBins.length(); j++) {
+        if (powerOfTwoBins.get(j) != 0) {
+          powerOfTwoBins.set(j, 0);
+        }
+      }
+    }
+    sum.sumThenReset();
+    min.set(POSITIVE_INFINITY_BITS);
+    max.set(NEGATIVE_INFINITY_BITS);
+  }
+
+  @Nullable
+  @Override
+  public Point toPoint(long startEpochNanos, long epochNanos, Labels labels) {
+    // Points are made of the aggregators merged to at collection, which are not recorded to
+    // concurrently, so the counters are read in place rather than copied. Under concurrent
+    // recording the percentiles are still those of values recorded in the interval.
+    long low = lowCount.get();
+    long count = low + highCount.get();
+    for (int i = 0; i < bins.length(); i++) {
+      AtomicLongArray powerOfTwoBins = bins.get(i);
+      if (powerOfTwoBins != null) {
+        for (int j = 0; j < powerOfTwoBins.length(); j++) {
+          count += powerOfTwoBins.get(j);
+        }
+      }
+    }
+    if (count == 0) {
+      return null;
+    }
+
+    double minValue = Double.longBitsToDouble(min.get());
+    double maxValue = Double.longBitsToDouble(max.get());
+    double[] percentiles = config.percentiles;
+    List<ValueAtPercentile> values = new ArrayList<>(percentiles.length + 2);
+    values.add(ValueAtPercentile.create(0.0, minValue));
+    // Percentiles are sorted, so a single pass over the bins finds all of them.
+    long cumulativeCount = low;
+    int i = 0;
+    int j = -1;
+    for (double percentile : percentiles) {
+      // The 1-based rank of the value at the percentile, the nearest-rank method.
+      long rank = Math.max(1, (long) Math.ceil(percentile / 100.0 * count));
+      double value;
+      if (rank <= low) {
+        value = minValue;
+      } else {
+        while (cumulativeCount < rank && i < bins.length()) {
+          AtomicLongArray powerOfTwoBins = bins.get(i);
+          if (powerOfTwoBins != null && ++j < powerOfTwoBins.length()) {
+            cumulativeCount += powerOfTwoBins.get(j);
+          } else {
+            i++;
+            j = -1;
+          }
+        }
+        value = cumulativeCount < rank ? maxValue : estimate(i, j);
+      }
+      values.add(
+          ValueAtPercentile.create(percentile, Math.min(Math.max(value, minValue), maxValue)));
+    }
+    values.add(ValueAtPercentile.create(100.0, maxValue));
+    return SummaryPoint.create(startEpochNanos, epochNanos, labels, count, sum.sum(), values);
+  }
+
+  // The value with the same relative error to both bounds of the bin.
+  private double estimate(int index, int subBin) {
+    long lowerBits =
+        ((long) (index + MIN_EXPONENT + EXPONENT_BIAS) << MANTISSA_BITS)
+            + ((long) subBin << config.shift);
+    double lower = Double.longBitsToDouble(lowerBits);
+    double upper = Double.longBitsToDouble(lowerBits + (1L << config.shift));
+    return 2 * lower * upper / (lower + upper);
+  }
+
+  private static void updateMin(AtomicLong min, double value) {
+    while (true) {
+      long current = min.get();
+      if (!(value < Double.longBitsToDouble(current))
+          || min.compareAndSet(current, Double.doubleToRawLongBits(value))) {
+        return;
+      }
+    }
+  }
+
+  private static void updateMax(AtomicLong max, double value) {
+    while (true) {
+      long current = max.get();
+      if (!(value > Double.longBitsToDouble(current))
+          || max.compareAndSet(current, Double.doubleToRawLongBits(value))) {
+        return;
+      }
+    }
+  }
+
+  private static final class Config {
+    private final int subBins;
+    private final int shift;
+    private final int maxPowersOfTwo;
+    private final double[] percentiles;
+
+    private Config(double relativeAccuracy, double[] percentiles, int maxBins) {
+      Utils.checkArgument(
+          relativeAccuracy >= 0.0005 && relativeAccuracy <= 0.5,
+          "relativeAccuracy must be between 0.0005 and 0.5.");
+      // The estimate of a bin [l, l * (1 + 1 / subBins)) has a relative error of at most
+      // 1 / (2 * subBins + 1).
+      int subBins = 1;
+      while (1.0 / (2 * subBins + 1) > relativeAccuracy && subBins < MAX_SUB_BINS) {
+        subBins <<= 1;
+      }
+      this.subBins = subBins;
+      this.shift = MANTISSA_BITS - Integer.numberOfTrailingZeros(subBins);
+      Utils.checkArgument(maxBins > 0, "maxBins must be positive.");
+      this.maxPowersOfTwo = maxBins / subBins + (maxBins % subBins == 0 ? 0 : 1);
+      double[] sorted = percentiles.clone();
+      Arrays.sort(sorted);
+      int length = 0;
+      for (double percentile : sorted) {
+        Utils.checkArgument(
+            percentile >= 0.0 && percentile <= 100.0,
+            "Percentiles must be in the interval [0.0, 100.0].");
+        // The minimum and maximum are always reported.
+        if (percentile > 0.0 && percentile < 100.0) {
+          sorted[length++] = percentile;
+        }
+      }
+      this.percentiles = Arrays.copyOf(sorted, length);
+    }
+  }
+}
@@ -0,0 +1,59 @@
+/*
+ * Copyright 2020, OpenTelemetry Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.opentelemetry.sdk.metrics.data;
+
+/**
+ * The time span over which the values of the points of a {@link MetricData} are aggregated.
+ *
+ * @since 0.8.0
+ */
+public enum AggregationTemporality {
+  /**
+   * Each point aggregates all the measurements since the start of the series, e.g. since the
+   * instrument was created. This is what Prometheus expects.
+   */
+  CUMULATIVE,
+  /**
+   * Each point aggregates only the measurements of one collection interval, and the next point
+   * starts from scratch. Backends that sum the points themselves, e.g. StatsD like ones, expect
+   * this.
+   */
+  DELTA;
+
+  /**
+   * Returns the temporality used by default for metrics of the given type: {@link #DELTA} for
+   * distributions, i.e. {@link MetricData.Descriptor.Type#SUMMARY} and {@link
+   * MetricData.Descriptor.Type#HISTOGRAM}, and {@link #CUMULATIVE} for sums.
+   *
+   * @param type the type of the metric.
+   * @return the temporality used by default for metrics of the given type.
+   * @since 0.8.0
+   */
+  public static AggregationTemporality getDefault(MetricData.Descriptor.Type type) {
+    switch (type) {
+      case SUMMARY:
+      case HISTOGRAM:
+        return DELTA;
+      case NON_MONOTONIC_LONG:
+      case NON_MONOTONIC_DOUBLE:
+      case MONOTONIC_LONG:
+      case MONOTONIC_DOUBLE:
+        return CUMULATIVE;
+    }
+    throw new IllegalArgumentException("Unknown descriptor type: " + type);
+  }
+}
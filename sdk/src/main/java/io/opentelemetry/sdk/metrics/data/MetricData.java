@@ -20,7 +20,9 @@ import com.google.auto.value.AutoValue;
 import io.opentelemetry.common.Labels;
 import io.opentelemetry.sdk.common.InstrumentationLibraryInfo;
 import io.opentelemetry.sdk.resources.Resource;
+import io.opentelemetry.trace.SpanContext;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 import javax.annotation.concurrent.Immutable;
 
@@ -69,12 +71,44 @@ public abstract class MetricData {
    */
   public abstract Collection<Point> getPoints();
 
+  /**
+   * Returns the {@link AggregationTemporality} of the points of this metric.
+   *
+   * @return the {@code AggregationTemporality} of the points of this metric.
+   * @since 0.8.0
+   */
+  public abstract AggregationTemporality getAggregationTemporality();
+
+  /**
+   * Returns a new {@link MetricData} with the {@linkplain AggregationTemporality#getDefault
+   * default} temporality of the type of the {@code descriptor}.
+   */
   public static MetricData create(
       Descriptor descriptor,
       Resource resource,
       InstrumentationLibraryInfo instrumentationLibraryInfo,
       Collection<Point> points) {
-    return new AutoValue_MetricData(descriptor, resource, instrumentationLibraryInfo, points);
+    return create(
+        descriptor,
+        resource,
+        instrumentationLibraryInfo,
+        points,
+        AggregationTemporality.getDefault(descriptor.getType()));
+  }
+
+  /**
+   * Returns a new {@link MetricData}.
+   *
+   * @since 0.8.0
+   */
+  public static MetricData create(
+      Descriptor descriptor,
+      Resource resource,
+      InstrumentationLibraryInfo instrumentationLibraryInfo,
+      Collection<Point> points,
+      AggregationTemporality aggregationTemporality) {
+    return new AutoValue_MetricData(
+        descriptor, resource, instrumentationLibraryInfo, points, aggregationTemporality);
   }
 
   @Immutable
@@ -105,6 +139,16 @@ public abstract class MetricData {
      * @return the labels associated with this {@code Point}.
      */
     public abstract Labels getLabels();
+
+    /**
+     * Returns the measurements sampled while recording this {@code Point}, each with the sampled
+     * span it was recorded in. Only the measurements recorded since the previous collection are
+     * sampled, also for cumulative points.
+     *
+     * @return the exemplars of this {@code Point}, empty if none were sampled.
+     * @since 0.8.0
+     */
+    public abstract List<Exemplar> getExemplars();
   }
 
   /**
@@ -127,7 +171,22 @@ public abstract class MetricData {
 
     public static LongPoint create(
         long startEpochNanos, long epochNanos, Labels labels, long value) {
-      return new AutoValue_MetricData_LongPoint(startEpochNanos, epochNanos, labels, value);
+      return create(startEpochNanos, epochNanos, labels, value, Collections.<Exemplar>emptyList());
+    }
+
+    /**
+     * Returns a new {@code LongPoint} with exemplars.
+     *
+     * @since 0.8.0
+     */
+    public static LongPoint create(
+        long startEpochNanos,
+        long epochNanos,
+        Labels labels,
+        long value,
+        List<Exemplar> exemplars) {
+      return new AutoValue_MetricData_LongPoint(
+          startEpochNanos, epochNanos, labels, exemplars, value);
     }
   }
 
@@ -149,7 +208,22 @@ public abstract class MetricData {
 
     public static DoublePoint create(
         long startEpochNanos, long epochNanos, Labels labels, double value) {
-      return new AutoValue_MetricData_DoublePoint(startEpochNanos, epochNanos, labels, value);
+      return create(startEpochNanos, epochNanos, labels, value, Collections.<Exemplar>emptyList());
+    }
+
+    /**
+     * Returns a new {@code DoublePoint} with exemplars.
+     *
+     * @since 0.8.0
+     */
+    public static DoublePoint create(
+        long startEpochNanos,
+        long epochNanos,
+        Labels labels,
+        double value,
+        List<Exemplar> exemplars) {
+      return new AutoValue_MetricData_DoublePoint(
+          startEpochNanos, epochNanos, labels, exemplars, value);
     }
   }
 
@@ -185,6 +259,7 @@ public abstract class MetricData {
      */
     public abstract List<ValueAtPercentile> getPercentileValues();
 
+    /** Returns a new {@code SummaryPoint} without exemplars. */
     public static SummaryPoint create(
         long startEpochNanos,
         long epochNanos,
@@ -192,8 +267,115 @@ public abstract class MetricData {
         long count,
         double sum,
         List<ValueAtPercentile> percentileValues) {
+      return create(
+          startEpochNanos,
+          epochNanos,
+          labels,
+          count,
+          sum,
+          percentileValues,
+          Collections.<Exemplar>emptyList());
+    }
+
+    /**
+     * Returns a new {@code SummaryPoint} with exemplars.
+     *
+     * @since 0.8.0
+     */
+    public static SummaryPoint create(
+        long startEpochNanos,
+        long epochNanos,
+        Labels labels,
+        long count,
+        double sum,
+        List<ValueAtPercentile> percentileValues,
+        List<Exemplar> exemplars) {
       return new AutoValue_MetricData_SummaryPoint(
-          startEpochNanos, epochNanos, labels, count, sum, percentileValues);
+          startEpochNanos, epochNanos, labels, exemplars, count, sum, percentileValues);
+    }
+  }
+
+  /**
+   * HistogramPoint is a single data point that counts the values in a time series of numeric values
+   * per bucket.
+   *
+   * <p>For {@code N} boundaries there are {@code N + 1} buckets: bucket {@code 0} counts the values
+   * less than or equal to {@code boundaries[0]}, bucket {@code i} the values greater than {@code
+   * boundaries[i - 1]} and less than or equal to {@code boundaries[i]}, and bucket {@code N} the
+   * values greater than {@code boundaries[N - 1]}.
+   *
+   * @since 0.8.0
+   */
+  @Immutable
+  @AutoValue
+  public abstract static class HistogramPoint extends Point {
+
+    HistogramPoint() {}
+
+    /**
+     * The number of values that are being counted, the sum of the bucket counts.
+     *
+     * @return the number of values that are being counted.
+     */
+    public abstract long getCount();
+
+    /**
+     * The sum of all the values that are being counted.
+     *
+     * @return the sum of the values that are being counted.
+     */
+    public abstract double getSum();
+
+    /**
+     * The sorted upper boundaries of all but the last bucket.
+     *
+     * @return the bucket boundaries.
+     */
+    public abstract List<Double> getBoundaries();
+
+    /**
+     * The number of values in each bucket, one more than the number of boundaries.
+     *
+     * @return the bucket counts.
+     */
+    public abstract List<Long> getCounts();
+
+    /** Returns a new {@code HistogramPoint} without exemplars. */
+    public static HistogramPoint create(
+        long startEpochNanos,
+        long epochNanos,
+        Labels labels,
+        long count,
+        double sum,
+        List<Double> boundaries,
+        List<Long> counts) {
+      return create(
+          startEpochNanos,
+          epochNanos,
+          labels,
+          count,
+          sum,
+          boundaries,
+          counts,
+          Collections.<Exemplar>emptyList());
+    }
+
+    /**
+     * Returns a new {@code HistogramPoint} with exemplars.
+     *
+     * @since 0.8.0
+     */
+    public static HistogramPoint create(
+        long startEpochNanos,
+        long epochNanos,
+        Labels labels,
+        long count,
+        double sum,
+        List<Double> boundaries,
+        List<Long> counts,
+        List<Exemplar> exemplars) {
+      return new AutoValue_MetricData_HistogramPoint(
+          startEpochNanos, epochNanos, labels, exemplars, count, sum, boundaries, counts);
     }
   }
 
@@ -221,6 +403,43 @@ public abstract class MetricData {
     }
   }
 
+  /**
+   * An {@link Exemplar} is a measurement sampled while a sampled span was current, linking a {@link
+   * Point} to a trace recorded at the same time.
+   *
+   * @since 0.8.0
+   */
+  @Immutable
+  @AutoValue
+  public abstract static class Exemplar {
+    Exemplar() {}
+
+    /**
+     * Returns the recorded value.
+     *
+     * @return the recorded value.
+     */
+    public abstract double getValue();
+
+    /**
+     * Returns the epoch timestamp in nanos when the value was recorded.
+     *
+     * @return the epoch timestamp in nanos.
+     */
+    public abstract long getEpochNanos();
+
+    /**
+     * Returns the {@link SpanContext} of the span current when the value was recorded.
+     *
+     * @return the {@code SpanContext} of the span.
+     */
+    public abstract SpanContext getSpanContext();
+
+    public static Exemplar create(double value, long epochNanos, SpanContext spanContext) {
+      return new AutoValue_MetricData_Exemplar(value, epochNanos, spanContext);
+    }
+  }
+
   /**
    * {@link Descriptor} defines metadata about the {@code MetricData} type and its schema.
    *
@@ -273,6 +492,15 @@ public abstract class MetricData {
        * recorded.
        */
       SUMMARY,
+
+      /**
+       * A histogram of measurements of numeric values, containing the number of measurements in
+       * each bucket, the sum of all measurements and the total number of measurements recorded.
+       * Reports {@link HistogramPoint} points.
+       *
+       * @since 0.8.0
+       */
+      HISTOGRAM,
     }
 
     /**
@@ -0,0 +1,402 @@
+/*
+ * Copyright 2020, OpenTelemetry Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.opentelemetry.sdk.metrics.export;
+
+import io.opentelemetry.common.Labels;
+import io.opentelemetry.internal.Utils;
+import io.opentelemetry.sdk.common.Clock;
+import io.opentelemetry.sdk.common.InstrumentationLibraryInfo;
+import io.opentelemetry.sdk.internal.MillisClock;
+import io.opentelemetry.sdk.metrics.data.AggregationTemporality;
+import io.opentelemetry.sdk.metrics.data.MetricData;
+import io.opentelemetry.sdk.metrics.data.MetricData.Descriptor;
+import io.opentelemetry.sdk.metrics.data.MetricData.DoublePoint;
+import io.opentelemetry.sdk.metrics.data.MetricData.Exemplar;
+import io.opentelemetry.sdk.metrics.data.MetricData.HistogramPoint;
+import io.opentelemetry.sdk.metrics.data.MetricData.LongPoint;
+import io.opentelemetry.sdk.metrics.data.MetricData.Point;
+import io.opentelemetry.sdk.metrics.data.MetricData.SummaryPoint;
+import io.opentelemetry.sdk.metrics.data.MetricData.ValueAtPercentile;
+import io.opentelemetry.sdk.resources.Resource;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.GuardedBy;
+import javax.annotation.concurrent.ThreadSafe;
+
+/**
+ * A {@link MetricProducer} that collects the metrics of another {@code MetricProducer} at most once
+ * per cache window, and serves every call within the window, e.g. the scrapes of several Prometheus
+ * servers, from the same immutable snapshot.
+ *
+ * <p>Collecting the SDK resets the state of its delta aggregations, so when several readers, e.g. a
+ * push exporter and a Prometheus endpoint, read the same SDK, each of them should use its own
+ * {@link #newReader(AggregationTemporality) reader}. All the readers share the collections of this
+ * {@code CachingMetricProducer}, and each one accumulates the delta metrics of every collection in
+ * its own state, so that no reader misses the deltas collected on behalf of another one:
+ *
+ * <pre>{@code
+ * CachingMetricProducer cachingProducer =
+ *     CachingMetricProducer.create(meterSdkProvider.getMetricProducer(), 1000);
+ * PrometheusCollector.newBuilder()
+ *     .setMetricProducer(cachingProducer.newReader(AggregationTemporality.CUMULATIVE))
+ *     .buildAndRegister();
+ * IntervalMetricReader.builder()
+ *     .setMetricProducers(
+ *         Collections.singletonList(cachingProducer.newReader(AggregationTemporality.DELTA)))
+ *     .setMetricExporter(exporter)
+ *     .build();
+ * }</pre>
+ *
+ * @since 0.8.0
+ */
+@ThreadSafe
+public final class CachingMetricProducer implements MetricProducer {
+  // Long enough for the scrapes of a Prometheus server, whose staleness period is 5 minutes too.
+  private static final long DEFAULT_STALE_AFTER_MILLIS = TimeUnit.MINUTES.toMillis(5);
+
+  private final MetricProducer delegate;
+  private final long cacheWindowNanos;
+  private final Clock clock;
+
+  @GuardedBy("this")
+  private final List<Reader> readers = new ArrayList<>();
+
+  @GuardedBy("this")
+  @Nullable
+  private Collection<MetricData> snapshot;
+
+  @GuardedBy("this")
+  private long snapshotNanoTime;
+
+  /**
+   * Returns a new {@code CachingMetricProducer} collecting {@code delegate} at most once every
+   * {@code cacheWindowMillis}.
+   *
+   * @param delegate the {@code MetricProducer} to collect.
+   * @param cacheWindowMillis the minimum time between two collections of {@code delegate}, in
+   *     milliseconds.
+   * @return a new {@code CachingMetricProducer}.
+   * @throws IllegalArgumentException if {@code cacheWindowMillis} is negative.
+   * @since 0.8.0
+   */
+  public static CachingMetricProducer create(MetricProducer delegate, long cacheWindowMillis) {
+    return create(delegate, cacheWindowMillis, MillisClock.getInstance());
+  }
+
+  static CachingMetricProducer create(
+      MetricProducer delegate, long cacheWindowMillis, Clock clock) {
+    Objects.requireNonNull(delegate, "delegate");
+    Utils.checkArgument(cacheWindowMillis >= 0, "cacheWindowMillis must not be negative.");
+    return new CachingMetricProducer(
+        delegate, TimeUnit.MILLISECONDS.toNanos(cacheWindowMillis), clock);
+  }
+
+  private CachingMetricProducer(MetricProducer delegate, long cacheWindowNanos, Clock clock) {
+    this.delegate = delegate;
+    this.cacheWindowNanos = cacheWindowNanos;
+    this.clock = clock;
+  }
+
+  /**
+   * Returns the metrics of the last collection of the delegate {@code MetricProducer}, after
+   * collecting it again if the cache window elapsed since.
+   *
+   * @return the metrics of the last collection.
+   */
+  @Override
+  public synchronized Collection<MetricData> collectAllMetrics() {
+    long nanoTime = clock.nanoTime();
+    if (snapshot == null || nanoTime - snapshotNanoTime >= cacheWindowNanos) {
+      snapshot = Collections.unmodifiableList(new ArrayList<>(delegate.collectAllMetrics()));
+      snapshotNanoTime = nanoTime;
+      for (Reader reader : readers) {
+        reader.accumulate(snapshot, nanoTime);
+      }
+    }
+    return snapshot;
+  }
+
+  /**
+   * Returns a new reader of this {@code CachingMetricProducer}, with its own state. A {@link
+   * AggregationTemporality#CUMULATIVE} reader returns the sum of all the deltas collected since its
+   * creation, as a Prometheus endpoint needs. A {@link AggregationTemporality#DELTA} reader returns
+   * the sum of the deltas collected since its previous call, as a push exporter of delta metrics
+   * needs. Cumulative metrics are returned as collected by both kinds of readers.
+   *
+   * <p>Delta sums, min/max summaries and histograms are accumulated exactly. For other summaries,
+   * e.g. quantile sketches, and for histograms whose boundaries changed, the last collected point
+   * is returned with the accumulated time interval.
+   *
+   * <p>A point that no collection reported for 5 minutes, e.g. of a label set no longer used, is
+   * dropped by the reader, so that a cumulative reader does not keep every label set ever
+   * collected. If it is reported again later, its sum restarts from that collection, like after a
+   * restart of the process.
+   *
+   * <p>Readers stay registered for the lifetime of this {@code CachingMetricProducer}, so they
+   * should be created once per exporter.
+   *
+   * @param temporality the {@code AggregationTemporality} of the metrics returned by the reader.
+   * @return a new reader.
+   */
+  public MetricProducer newReader(AggregationTemporality temporality) {
+    return newReader(temporality, DEFAULT_STALE_AFTER_MILLIS);
+  }
+
+  /**
+   * Returns a new reader of this {@code CachingMetricProducer}, as {@link
+   * #newReader(AggregationTemporality)}, that drops the points no collection reported for {@code
+   * staleAfterMillis}.
+   *
+   * @param temporality the {@code AggregationTemporality} of the metrics returned by the reader.
+   * @param staleAfterMillis the time after which a point no collection reported is dropped, in
+   *     milliseconds.
+   * @return a new reader.
+   * @throws IllegalArgumentException if {@code staleAfterMillis} is not positive.
+   * @since 0.8.0
+   */
+  public synchronized MetricProducer newReader(
+      AggregationTemporality temporality, long staleAfterMillis) {
+    Utils.checkArgument(staleAfterMillis > 0, "staleAfterMillis must be positive.");
+    Reader reader =
+        new Reader(
+            Objects.requireNonNull(temporality, "temporality"),
+            TimeUnit.MILLISECONDS.toNanos(staleAfterMillis));
+    readers.add(reader);
+    return reader;
+  }
+
+  private final class Reader implements MetricProducer {
+    private final AggregationTemporality temporality;
+    private final long staleNanos;
+
+    @GuardedBy("CachingMetricProducer.this")
+    private final Map<MetricKey, Map<Labels, CollectedPoint>> metrics = new LinkedHashMap<>();
+
+    private Reader(AggregationTemporality temporality, long staleNanos) {
+      this.temporality = temporality;
+      this.staleNanos = staleNanos;
+    }
+
+    @Override
+    public Collection<MetricData> collectAllMetrics() {
+      synchronized (CachingMetricProducer.this) {
+        CachingMetricProducer.this.collectAllMetrics();
+        List<MetricData> result = new ArrayList<>(metrics.size());
+        for (Map.Entry<MetricKey, Map<Labels, CollectedPoint>> entry : metrics.entrySet()) {
+          MetricKey key = entry.getKey();
+          List<Point> points = new ArrayList<>(entry.getValue().size());
+          for (CollectedPoint collectedPoint : entry.getValue().values()) {
+            points.add(collectedPoint.point);
+          }
+          result.add(
+              MetricData.create(
+                  key.descriptor,
+                  key.resource,
+                  key.instrumentationLibraryInfo,
+                  points,
+                  temporality == AggregationTemporality.CUMULATIVE
+                      ? AggregationTemporality.CUMULATIVE
+                      : key.temporality));
+        }
+        if (temporality == AggregationTemporality.DELTA) {
+          metrics.clear();
+        }
+        return Collections.unmodifiableList(result);
+      }
+    }
+
+    @GuardedBy("CachingMetricProducer.this")
+    private void accumulate(Collection<MetricData> collected, long nanoTime) {
+      for (MetricData metricData : collected) {
+        MetricKey key = new MetricKey(metricData);
+        Map<Labels, CollectedPoint> points = metrics.get(key);
+        if (points == null) {
+          points = new LinkedHashMap<>();
+          metrics.put(key, points);
+        }
+        boolean merge = metricData.getAggregationTemporality() == AggregationTemporality.DELTA;
+        for (Point point : metricData.getPoints()) {
+          CollectedPoint previous = points.get(point.getLabels());
+          if (previous == null) {
+            points.put(point.getLabels(), new CollectedPoint(point, nanoTime));
+          } else {
+            previous.point = merge ? merge(previous.point, point) : point;
+            previous.nanoTime = nanoTime;
+          }
+        }
+      }
+      Iterator<Map<Labels, CollectedPoint>> metricIterator = metrics.values().iterator();
+      while (metricIterator.hasNext()) {
+        Map<Labels, CollectedPoint> points = metricIterator.next();
+        Iterator<CollectedPoint> pointIterator = points.values().iterator();
+        while (pointIterator.hasNext()) {
+          if (nanoTime - pointIterator.next().nanoTime >= staleNanos) {
+            pointIterator.remove();
+          }
+        }
+        if (points.isEmpty()) {
+          metricIterator.remove();
+        }
+      }
+    }
+  }
+
+  // A point accumulated by a Reader, with the clock.nanoTime() of the last collection reporting it.
+  private static final class CollectedPoint {
+    private Point point;
+    private long nanoTime;
+
+    private CollectedPoint(Point point, long nanoTime) {
+      this.point = point;
+      this.nanoTime = nanoTime;
+    }
+  }
+
+  /** Returns the sum of two consecutive delta points of the same metric and labels. */
+  private static Point merge(Point previous, Point point) {
+    long startEpochNanos = previous.getStartEpochNanos();
+    // Keeps the most recent exemplars.
+    List<Exemplar> exemplars =
+        point.getExemplars().isEmpty() ? previous.getExemplars() : point.getExemplars();
+    if (point instanceof LongPoint) {
+      return LongPoint.create(
+          startEpochNanos,
+          point.getEpochNanos(),
+          point.getLabels(),
+          ((LongPoint) previous).getValue() + ((LongPoint) point).getValue(),
+          exemplars);
+    }
+    if (point instanceof DoublePoint) {
+      return DoublePoint.create(
+          startEpochNanos,
+          point.getEpochNanos(),
+          point.getLabels(),
+          ((DoublePoint) previous).getValue() + ((DoublePoint) point).getValue(),
+          exemplars);
+    }
+    if (point instanceof SummaryPoint) {
+      SummaryPoint previousSummary = (SummaryPoint) previous;
+      SummaryPoint summary = (SummaryPoint) point;
+      List<ValueAtPercentile> percentileValues = summary.getPercentileValues();
+      if (isMinMax(previousSummary.getPercentileValues()) && isMinMax(percentileValues)) {
+        percentileValues =
+            Arrays.asList(
+                ValueAtPercentile.create(
+                    0.0,
+                    Math.min(
+                        previousSummary.getPercentileValues().get(0).getValue(),
+                        percentileValues.get(0).getValue())),
+                ValueAtPercentile.create(
+                    100.0,
+                    Math.max(
+                        previousSummary.getPercentileValues().get(1).getValue(),
+                        percentileValues.get(1).getValue())));
+      }
+      return SummaryPoint.create(
+          startEpochNanos,
+          point.getEpochNanos(),
+          point.getLabels(),
+          previousSummary.getCount() + summary.getCount(),
+          previousSummary.getSum() + summary.getSum(),
+          percentileValues,
+          exemplars);
+    }
+    if (point instanceof HistogramPoint) {
+      HistogramPoint previousHistogram = (HistogramPoint) previous;
+      HistogramPoint histogram = (HistogramPoint) point;
+      if (!previousHistogram.getBoundaries().equals(histogram.getBoundaries())) {
+        return HistogramPoint.create(
+            startEpochNanos,
+            point.getEpochNanos(),
+            point.getLabels(),
+            histogram.getCount(),
+            histogram.getSum(),
+            histogram.getBoundaries(),
+            histogram.getCounts(),
+            histogram.getExemplars());
+      }
+      List<Long> counts = new ArrayList<>(histogram.getCounts().size());
+      for (int i = 0; i < histogram.getCounts().size(); i++) {
+        counts.add(previousHistogram.getCounts().get(i) + histogram.getCounts().get(i));
+      }
+      return HistogramPoint.create(
+          startEpochNanos,
+          point.getEpochNanos(),
+          point.getLabels(),
+          previousHistogram.getCount() + histogram.getCount(),
+          previousHistogram.getSum() + histogram.getSum(),
+          histogram.getBoundaries(),
+          Collections.unmodifiableList(counts),
+          exemplars);
+    }
+    return point;
+  }
+
+  private static boolean isMinMax(List<ValueAtPercentile> percentileValues) {
+    return percentileValues.size() == 2
+        && percentileValues.get(0).getPercentile() == 0.0
+        && percentileValues.get(1).getPercentile() == 100.0;
+  }
+
+  // Identifies the points of a metric across collections.
+  private static final class MetricKey {
+    private final Descriptor descriptor;
+    private final Resource resource;
+    private final InstrumentationLibraryInfo instrumentationLibraryInfo;
+    private final AggregationTemporality temporality;
+
+    private MetricKey(MetricData metricData) {
+      this.descriptor = metricData.getDescriptor();
+      this.resource = metricData.getResource();
+      this.instrumentationLibraryInfo = metricData.getInstrumentationLibraryInfo();
+      this.temporality = metricData.getAggregationTemporality();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (!(o instanceof MetricKey)) {
+        return false;
+      }
+      MetricKey that = (MetricKey) o;
+      return descriptor.equals(that.descriptor)
+          && resource.equals(that.resource)
+          && instrumentationLibraryInfo.equals(that.instrumentationLibraryInfo)
+          && temporality == that.temporality;
+    }
+
+    @Override
+    public int hashCode() {
+      int result = descriptor.hashCode();
+      result = 31 * result + resource.hashCode();
+      result = 31 * result + instrumentationLibraryInfo.hashCode();
+      result = 31 * result + temporality.hashCode();
+      return result;
+    }
+  }
+}
@@ -17,26 +17,48 @@
 package io.opentelemetry.sdk.metrics.export;
 
 import com.google.auto.value.AutoValue;
+import com.google.common.annotations.VisibleForTesting;
+import io.opentelemetry.common.Labels;
 import io.opentelemetry.internal.Utils;
 import io.opentelemetry.sdk.common.DaemonThreadFactory;
+import io.opentelemetry.sdk.common.InstrumentationLibraryInfo;
 import io.opentelemetry.sdk.common.export.ConfigBuilder;
+import io.opentelemetry.sdk.internal.MillisClock;
 import io.opentelemetry.sdk.metrics.data.MetricData;
+import io.opentelemetry.sdk.metrics.data.MetricData.Descriptor;
+import io.opentelemetry.sdk.metrics.data.MetricData.Point;
+import io.opentelemetry.sdk.metrics.data.MetricData.SummaryPoint;
+import io.opentelemetry.sdk.metrics.data.MetricData.ValueAtPercentile;
+import io.opentelemetry.sdk.resources.Resource;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
-import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 import java.util.logging.Level;
 import java.util.logging.Logger;
+import javax.annotation.concurrent.GuardedBy;
 import javax.annotation.concurrent.Immutable;
 
 /**
  * Wraps a list of {@link MetricProducer}s and automatically reads and exports the metrics every
  * export interval.
  *
+ * <p>The metrics are collected on one thread and handed off to the exporter running on another
+ * thread, so a slow exporter does not delay the collections. Collections run on the interval
+ * boundaries, counted from the creation of the reader or, when aligned, from the epoch so that all
+ * the readers with the same interval collect at the same time. Boundaries missed while a collection
+ * was running are skipped rather than run back-to-back. The handoff holds at most the metrics of
+ * one collection waiting for the exporter; when a new collection is due while the exporter is still
+ * behind, the {@link OverrunStrategy} decides what happens.
+ *
  * <p>Configuration options for {@link IntervalMetricReader} can be read from system properties,
  * environment variables, or {@link java.util.Properties} objects.
  *
@@ -45,21 +67,80 @@ import javax.annotation.concurrent.Immutable;
  *
  * <ul>
  *   <li>{@code otel.imr.export.interval}: sets the export interval between pushes to the exporter.
+ *   <li>{@code otel.imr.align.interval}: sets whether collections are aligned on multiples of the
+ *       export interval since the epoch.
  * </ul>
  *
  * <p>For environment variables, {@link IntervalMetricReader} will look for the following names:
  *
  * <ul>
  *   <li>{@code OTEL_IMR_EXPORT_INTERVAL}: sets the export interval between pushes to the exporter.
+ *   <li>{@code OTEL_IMR_ALIGN_INTERVAL}: sets whether collections are aligned on multiples of the
+ *       export interval since the epoch.
  * </ul>
  *
  * @since 0.3.0
  */
 public final class IntervalMetricReader {
+  /**
+   * The name of the metric that summarizes the durations of the collections, in milliseconds.
+   *
+   * @since 0.8.0
+   */
+  public static final String COLLECTION_DURATION_METRIC_NAME =
+      "otel.sdk.metrics.collection.duration";
+
+  /**
+   * The name of the metric that summarizes the durations of the exports, in milliseconds.
+   *
+   * @since 0.8.0
+   */
+  public static final String EXPORT_DURATION_METRIC_NAME = "otel.sdk.metrics.export.duration";
+
   private static final Logger logger = Logger.getLogger(IntervalMetricReader.class.getName());
+  // Maximum number of collections coalesced into one export with OverrunStrategy.COALESCE.
+  private static final int MAX_COALESCED_COLLECTIONS = 10;
+  // The Resource of the duration metrics when no metrics were collected, otherwise the Resource of
+  // the first collected metric is used, i.e. the one of the MeterSdkProvider.
+  private static final Resource DEFAULT_DURATION_METRICS_RESOURCE =
+      Resource.getTelemetrySdk().merge(Resource.getDefault());
+  private static final InstrumentationLibraryInfo DURATION_METRICS_INSTRUMENTATION_LIBRARY_INFO =
+      InstrumentationLibraryInfo.create("io.opentelemetry.sdk.metrics", null);
+
+  /**
+   * What an {@link IntervalMetricReader} does when a collection is due while the metrics of the
+   * previous collection are still waiting for the exporter.
+   *
+   * @since 0.8.0
+   */
+  public enum OverrunStrategy {
+    /**
+     * The collection is skipped. The recordings stay in the SDK and are reported by the first
+     * collection after the exporter caught up, so only observer values and the timestamps of the
+     * skipped collection are lost.
+     */
+    SKIP,
+    /**
+     * The collection runs and its metrics are exported together with the waiting ones, in a single
+     * export. At most 10 collections are coalesced; beyond that the oldest ones are dropped.
+     */
+    COALESCE
+  }
+
+  private final InternalState internalState;
+  private final ScheduledThreadPoolExecutor scheduler;
+  private final ExecutorService exportExecutor;
+  private final long startNanos;
+  private final DurationSummary collectionDurations;
+  private final DurationSummary exportDurations;
+  private final Object lock = new Object();
+
+  @GuardedBy("lock")
+  private final ArrayDeque<List<MetricData>> pendingCollections = new ArrayDeque<>();
 
-  private final Exporter exporter;
-  private final ScheduledExecutorService scheduler;
+  // The System.nanoTime() of the last scheduled collection. Only accessed by the constructor, then
+  // by the scheduler thread.
+  private long scheduledNanos;
 
   /**
    * Stops the scheduled task and calls export one more time.
@@ -70,14 +151,17 @@ public final class IntervalMetricReader {
     scheduler.shutdown();
     try {
       scheduler.awaitTermination(5, TimeUnit.SECONDS);
-      exporter.run();
+      collect(/* force= */ true);
+      exportExecutor.shutdown();
+      exportExecutor.awaitTermination(5, TimeUnit.SECONDS);
     } catch (InterruptedException e) {
       // force a shutdown if the export hasn't finished.
       scheduler.shutdownNow();
+      exportExecutor.shutdownNow();
       // reset the interrupted status
       Thread.currentThread().interrupt();
     } finally {
-      exporter.shutdown();
+      internalState.getMetricExporter().shutdown();
     }
   }
 
@@ -110,6 +194,7 @@ public final class IntervalMetricReader {
   public static final class Builder extends ConfigBuilder<Builder> {
     private final InternalState.Builder optionsBuilder;
     private static final String KEY_EXPORT_INTERVAL = "otel.imr.export.interval";
+    private static final String KEY_ALIGN_INTERVAL = "otel.imr.align.interval";
 
     private Builder(InternalState.Builder optionsBuilder) {
       this.optionsBuilder = optionsBuilder;
@@ -127,6 +212,51 @@ public final class IntervalMetricReader {
       return this;
     }
 
+    /**
+     * Sets whether the collections run on multiples of the export interval since the epoch, e.g. at
+     * every full minute for an interval of 60 seconds, instead of every interval since the creation
+     * of the reader. Aligned readers of different processes collect at the same wall-clock times,
+     * which makes their metrics line up in the backend. The default is {@code false}.
+     *
+     * @param alignToInterval whether to align the collections on multiples of the interval.
+     * @return this.
+     * @since 0.8.0
+     */
+    public Builder setAlignToInterval(boolean alignToInterval) {
+      optionsBuilder.setAlignToInterval(alignToInterval);
+      return this;
+    }
+
+    /**
+     * Sets the {@link OverrunStrategy} applied when a collection is due while the metrics of the
+     * previous collection are still waiting for the exporter. The default is {@link
+     * OverrunStrategy#SKIP}.
+     *
+     * @param overrunStrategy the {@code OverrunStrategy}.
+     * @return this.
+     * @since 0.8.0
+     */
+    public Builder setOverrunStrategy(OverrunStrategy overrunStrategy) {
+      optionsBuilder.setOverrunStrategy(overrunStrategy);
+      return this;
+    }
+
+    /**
+     * Sets whether every export also contains the {@value #COLLECTION_DURATION_METRIC_NAME} and
+     * {@value #EXPORT_DURATION_METRIC_NAME} metrics, which summarize the durations of the
+     * collections and of the exports since the previous collection. The duration metrics have the
+     * {@link Resource} of the collected metrics, e.g. the one of the {@code MeterSdkProvider}. The
+     * default is {@code false}.
+     *
+     * @param durationMetricsEnabled whether to export the duration metrics.
+     * @return this.
+     * @since 0.8.0
+     */
+    public Builder setDurationMetricsEnabled(boolean durationMetricsEnabled) {
+      optionsBuilder.setDurationMetricsEnabled(durationMetricsEnabled);
+      return this;
+    }
+
     /**
      * Sets the exporter to be called when export metrics.
      *
@@ -180,45 +310,241 @@ public final class IntervalMetricReader {
       if (value != null) {
         this.setExportIntervalMillis(value);
       }
+      Boolean alignValue = getBooleanProperty(KEY_ALIGN_INTERVAL, configMap);
+      if (alignValue != null) {
+        this.setAlignToInterval(alignValue);
+      }
       return this;
     }
   }
 
-  @SuppressWarnings("FutureReturnValueIgnored")
   private IntervalMetricReader(InternalState internalState) {
-    this.exporter = new Exporter(internalState);
+    this.internalState = internalState;
     this.scheduler =
-        Executors.newScheduledThreadPool(1, new DaemonThreadFactory("IntervalMetricReader"));
-    this.scheduler.scheduleAtFixedRate(
-        exporter,
-        internalState.getExportIntervalMillis(),
-        internalState.getExportIntervalMillis(),
-        TimeUnit.MILLISECONDS);
+        new ScheduledThreadPoolExecutor(1, new DaemonThreadFactory("IntervalMetricReader"));
+    // Pending collections are dropped on shutdown, which runs a last collection itself.
+    this.scheduler.setExecuteExistingDelayedTasksAfterShutdownPolicy(false);
+    this.exportExecutor =
+        Executors.newSingleThreadExecutor(new DaemonThreadFactory("IntervalMetricReader_Exporter"));
+    this.startNanos = System.nanoTime();
+    this.scheduledNanos =
+        startNanos - TimeUnit.MILLISECONDS.toNanos(internalState.getExportIntervalMillis());
+    long startEpochNanos = MillisClock.getInstance().now();
+    this.collectionDurations =
+        new DurationSummary(
+            COLLECTION_DURATION_METRIC_NAME,
+            "Durations of the metric collections.",
+            startEpochNanos);
+    this.exportDurations =
+        new DurationSummary(
+            EXPORT_DURATION_METRIC_NAME, "Durations of the metric exports.", startEpochNanos);
+    scheduleNextCollection();
   }
 
-  private static final class Exporter implements Runnable {
+  @SuppressWarnings("FutureReturnValueIgnored")
+  private void scheduleNextCollection() {
+    long nowNanos = System.nanoTime();
+    scheduledNanos =
+        nextCollectionNanos(
+            nowNanos,
+            System.currentTimeMillis(),
+            startNanos,
+            scheduledNanos,
+            internalState.getExportIntervalMillis(),
+            internalState.getAlignToInterval());
+    try {
+      scheduler.schedule(new CollectionTask(), scheduledNanos - nowNanos, TimeUnit.NANOSECONDS);
+    } catch (RejectedExecutionException e) {
+      // The reader was shut down.
+    }
+  }
 
-    private final InternalState internalState;
+  /**
+   * Returns the {@link System#nanoTime()} of the collection following the one scheduled at {@code
+   * scheduledNanos}: the next interval boundary strictly after {@code nowNanos}, which skips the
+   * boundaries missed by a long collection. The boundaries are counted from {@code startNanos}, or
+   * when aligned from the epoch, in which case the wall clock {@code nowEpochMillis} only picks the
+   * boundary. The delay is always measured with {@code System.nanoTime()}, so that a step of the
+   * wall clock cannot stall the collections, and a timer firing slightly early never runs the same
+   * boundary twice.
+   */
+  @VisibleForTesting
+  static long nextCollectionNanos(
+      long nowNanos,
+      long nowEpochMillis,
+      long startNanos,
+      long scheduledNanos,
+      long intervalMillis,
+      boolean alignToInterval) {
+    long intervalNanos = TimeUnit.MILLISECONDS.toNanos(intervalMillis);
+    if (!alignToInterval) {
+      long next = startNanos + ((nowNanos - startNanos) / intervalNanos + 1) * intervalNanos;
+      // Only a timer firing early finds the scheduled boundary still ahead, nanoTime never steps
+      // back.
+      return next - scheduledNanos < intervalNanos ? scheduledNanos + intervalNanos : next;
+    }
+    long next =
+        nowNanos + TimeUnit.MILLISECONDS.toNanos(intervalMillis - nowEpochMillis % intervalMillis);
+    // The wall clock may have stepped back since the last collection, so the boundary is only
+    // skipped when it is clearly the one just run.
+    return next - scheduledNanos < intervalNanos / 2 ? next + intervalNanos : next;
+  }
 
-    private Exporter(InternalState internalState) {
-      this.internalState = internalState;
+  /**
+   * Collects the metrics and hands them off to the exporter.
+   *
+   * @param force whether to collect even if the exporter is behind, used by the last collection.
+   */
+  @SuppressWarnings("FutureReturnValueIgnored")
+  private void collect(boolean force) {
+    if (!force && internalState.getOverrunStrategy() == OverrunStrategy.SKIP) {
+      synchronized (lock) {
+        if (!pendingCollections.isEmpty()) {
+          logger.log(Level.WARNING, "Metric Exporter is behind, skipping a collection.");
+          return;
+        }
+      }
+    }
+
+    List<MetricData> metricsList = new ArrayList<>();
+    long startNanos = System.nanoTime();
+    try {
+      for (MetricProducer metricProducer : internalState.getMetricProducers()) {
+        metricsList.addAll(metricProducer.collectAllMetrics());
+      }
+    } catch (Exception e) {
+      logger.log(Level.WARNING, "Metric Producer threw an Exception", e);
+      return;
+    }
+    collectionDurations.record(System.nanoTime() - startNanos);
+    if (internalState.getDurationMetricsEnabled()) {
+      long epochNanos = MillisClock.getInstance().now();
+      Resource resource =
+          metricsList.isEmpty()
+              ? DEFAULT_DURATION_METRICS_RESOURCE
+              : metricsList.get(0).getResource();
+      collectionDurations.addMetricAndReset(metricsList, resource, epochNanos);
+      exportDurations.addMetricAndReset(metricsList, resource, epochNanos);
+    }
+
+    boolean submitExport;
+    synchronized (lock) {
+      if (pendingCollections.size() >= MAX_COALESCED_COLLECTIONS) {
+        logger.log(Level.WARNING, "Metric Exporter is behind, dropping the oldest collection.");
+        pendingCollections.removeFirst();
+      }
+      // One export task is submitted for every run of collections found empty by the exporter.
+      submitExport = pendingCollections.isEmpty();
+      pendingCollections.addLast(metricsList);
+    }
+    if (submitExport) {
+      try {
+        exportExecutor.submit(new ExportTask());
+      } catch (RejectedExecutionException e) {
+        logger.log(Level.WARNING, "Metric Exporter was shut down, dropping a collection.");
+      }
     }
+  }
 
+  private void export() {
+    List<MetricData> metricsList;
+    synchronized (lock) {
+      if (pendingCollections.size() == 1) {
+        metricsList = pendingCollections.removeFirst();
+      } else {
+        metricsList = new ArrayList<>();
+        while (!pendingCollections.isEmpty()) {
+          metricsList.addAll(pendingCollections.removeFirst());
+        }
+      }
+    }
+    long startNanos = System.nanoTime();
+    try {
+      internalState.getMetricExporter().export(Collections.unmodifiableList(metricsList));
+    } catch (Exception e) {
+      logger.log(Level.WARNING, "Metric Exporter threw an Exception", e);
+    }
+    exportDurations.record(System.nanoTime() - startNanos);
+  }
+
+  private final class CollectionTask implements Runnable {
     @Override
     public void run() {
       try {
-        List<MetricData> metricsList = new ArrayList<>();
-        for (MetricProducer metricProducer : internalState.getMetricProducers()) {
-          metricsList.addAll(metricProducer.collectAllMetrics());
-        }
-        internalState.getMetricExporter().export(Collections.unmodifiableList(metricsList));
-      } catch (Exception e) {
-        logger.log(Level.WARNING, "Metric Exporter threw an Exception", e);
+        collect(/* force= */ false);
+      } finally {
+        scheduleNextCollection();
       }
     }
+  }
 
-    void shutdown() {
-      internalState.getMetricExporter().shutdown();
+  private final class ExportTask implements Runnable {
+    @Override
+    public void run() {
+      export();
+    }
+  }
+
+  // Summary of the durations recorded since the last report, in milliseconds.
+  private static final class DurationSummary {
+    private final Descriptor descriptor;
+
+    @GuardedBy("this")
+    private long startEpochNanos;
+
+    @GuardedBy("this")
+    private long count;
+
+    @GuardedBy("this")
+    private double sum;
+
+    @GuardedBy("this")
+    private double min;
+
+    @GuardedBy("this")
+    private double max;
+
+    private DurationSummary(String name, String description, long startEpochNanos) {
+      this.descriptor =
+          Descriptor.create(name, description, "ms", Descriptor.Type.SUMMARY, Labels.empty());
+      this.startEpochNanos = startEpochNanos;
+    }
+
+    private synchronized void record(long durationNanos) {
+      double durationMillis = durationNanos / 1e6;
+      if (count == 0) {
+        min = durationMillis;
+        max = durationMillis;
+      } else {
+        min = Math.min(min, durationMillis);
+        max = Math.max(max, durationMillis);
+      }
+      count++;
+      sum += durationMillis;
+    }
+
+    private synchronized void addMetricAndReset(
+        List<MetricData> metricsList, Resource resource, long epochNanos) {
+      if (count != 0) {
+        metricsList.add(
+            MetricData.create(
+                descriptor,
+                resource,
+                DURATION_METRICS_INSTRUMENTATION_LIBRARY_INFO,
+                Collections.<Point>singletonList(
+                    SummaryPoint.create(
+                        startEpochNanos,
+                        epochNanos,
+                        Labels.empty(),
+                        count,
+                        sum,
+                        Arrays.asList(
+                            ValueAtPercentile.create(0.0, min),
+                            ValueAtPercentile.create(100.0, max))))));
+      }
+      startEpochNanos = epochNanos;
+      count = 0;
+      sum = 0;
     }
   }
 
@@ -231,11 +557,20 @@ public final class IntervalMetricReader {
 
     abstract long getExportIntervalMillis();
 
+    abstract boolean getAlignToInterval();
+
+    abstract OverrunStrategy getOverrunStrategy();
+
+    abstract boolean getDurationMetricsEnabled();
+
     abstract Collection<MetricProducer> getMetricProducers();
 
     static Builder builder() {
       return new AutoValue_IntervalMetricReader_InternalState.Builder()
-          .setExportIntervalMillis(DEFAULT_INTERVAL_MILLIS);
+          .setExportIntervalMillis(DEFAULT_INTERVAL_MILLIS)
+          .setAlignToInterval(false)
+          .setOverrunStrategy(OverrunStrategy.SKIP)
+          .setDurationMetricsEnabled(false);
     }
 
     @AutoValue.Builder
@@ -243,6 +578,12 @@ public final class IntervalMetricReader {
 
       abstract Builder setExportIntervalMillis(long exportIntervalMillis);
 
+      abstract Builder setAlignToInterval(boolean alignToInterval);
+
+      abstract Builder setOverrunStrategy(OverrunStrategy overrunStrategy);
+
+      abstract Builder setDurationMetricsEnabled(boolean durationMetricsEnabled);
+
       abstract Builder setMetricExporter(MetricExporter metricExporter);
 
       abstract Builder setMetricProducers(Collection<MetricProducer> metricProducers);
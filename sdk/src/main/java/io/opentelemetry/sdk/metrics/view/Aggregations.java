@@ -17,13 +17,15 @@
 package io.opentelemetry.sdk.metrics.view;
 
 import io.opentelemetry.sdk.metrics.aggregator.AggregatorFactory;
+import io.opentelemetry.sdk.metrics.aggregator.CountAggregator;
 import io.opentelemetry.sdk.metrics.aggregator.DoubleLastValueAggregator;
 import io.opentelemetry.sdk.metrics.aggregator.DoubleMinMaxSumCount;
 import io.opentelemetry.sdk.metrics.aggregator.DoubleSumAggregator;
+import io.opentelemetry.sdk.metrics.aggregator.HistogramAggregator;
 import io.opentelemetry.sdk.metrics.aggregator.LongLastValueAggregator;
 import io.opentelemetry.sdk.metrics.aggregator.LongMinMaxSumCount;
 import io.opentelemetry.sdk.metrics.aggregator.LongSumAggregator;
-import io.opentelemetry.sdk.metrics.aggregator.NoopAggregator;
+import io.opentelemetry.sdk.metrics.aggregator.QuantileSketchAggregator;
 import io.opentelemetry.sdk.metrics.common.InstrumentType;
 import io.opentelemetry.sdk.metrics.common.InstrumentValueType;
 import io.opentelemetry.sdk.metrics.data.MetricData;
@@ -55,16 +57,49 @@ public class Aggregations {
 
   /**
    * Returns an {@code Aggregation} that calculates distribution stats on recorded measurements.
-   * Distribution includes sum, count, histogram, and sum of squared deviations.
+   * Distribution includes sum, count, and a histogram of the measurements.
    *
-   * <p>The boundaries for the buckets in the underlying histogram needs to be sorted.
+   * <p>The boundaries for the buckets in the underlying histogram needs to be sorted. Bucket {@code
+   * i} counts the measurements greater than {@code bucketBoundaries[i - 1]} and less than or equal
+   * to {@code bucketBoundaries[i]}, and one more bucket counts the measurements greater than the
+   * last boundary.
    *
    * @param bucketBoundaries bucket boundaries to use for distribution.
    * @return an {@code Aggregation} that calculates distribution stats on recorded measurements.
+   * @throws IllegalArgumentException if the boundaries are not strictly increasing.
    * @since 0.1.0
    */
   public static Aggregation distributionWithExplicitBounds(Double... bucketBoundaries) {
-    return new Distribution(bucketBoundaries);
+    double[] boundaries = new double[bucketBoundaries.length];
+    for (int i = 0; i < bucketBoundaries.length; i++) {
+      boundaries[i] = bucketBoundaries[i];
+    }
+    return new Distribution(HistogramAggregator.getFactory(boundaries));
+  }
+
+  /**
+   * Returns an {@code Aggregation} that calculates distribution stats on recorded measurements,
+   * with a fixed size histogram of log-linear buckets: every power of two between {@code
+   * lowestBound} and {@code highestBound} is split in {@code subBuckets} buckets of equal width, so
+   * the relative error of the histogram is less than {@code 1 / subBuckets}. Measurements up to
+   * {@code lowestBound} and above {@code highestBound} are counted in one bucket each.
+   *
+   * <p>For example {@code distributionWithLogLinearBounds(1e3, 1e10, 8)}, for latencies in
+   * nanoseconds from a microsecond to ten seconds, has 202 buckets with a relative error of less
+   * than 12.5%.
+   *
+   * @param lowestBound the upper boundary of the first bucket, rounded down to a power of two.
+   * @param highestBound the lower boundary of the last bucket, rounded up to a power of two.
+   * @param subBuckets the number of buckets per power of two, a power of two up to 1024.
+   * @return an {@code Aggregation} that calculates distribution stats on recorded measurements.
+   * @throws IllegalArgumentException if the bounds are not positive and increasing, if {@code
+   *     subBuckets} is not a power of two, or if the histogram needs more than 4096 buckets.
+   * @since 0.8.0
+   */
+  public static Aggregation distributionWithLogLinearBounds(
+      double lowestBound, double highestBound, int subBuckets) {
+    return new Distribution(
+        HistogramAggregator.getLogLinearFactory(lowestBound, highestBound, subBuckets));
   }
 
   /**
@@ -89,6 +124,79 @@ public class Aggregations {
     return MinMaxSumCount.INSTANCE;
   }
 
+  /**
+   * Returns an {@code Aggregation} that estimates percentiles of all recorded measurements with a
+   * relative error guarantee, using a mergeable sketch of bounded size. The summary consists of the
+   * count of measurements, the sum of all measurements, the exact minimum and maximum value
+   * recorded, and the estimated values at the given percentiles.
+   *
+   * <p>For example {@code quantileSketch(0.01, 50.0, 99.0, 99.9)} estimates the median, 99th and
+   * 99.9th percentiles with a relative error of at most 1%.
+   *
+   * @param relativeAccuracy the maximum relative error of the estimated percentiles, between 0.0005
+   *     and 0.5.
+   * @param percentiles the percentiles to estimate, in the interval [0.0, 100.0].
+   * @return an {@code Aggregation} that estimates percentiles of all recorded measurements.
+   * @throws IllegalArgumentException if {@code relativeAccuracy} is out of range or a percentile is
+   *     not in the interval [0.0, 100.0].
+   * @since 0.8.0
+   */
+  public static Aggregation quantileSketch(double relativeAccuracy, double... percentiles) {
+    return new QuantileSketch(QuantileSketchAggregator.getFactory(relativeAccuracy, percentiles));
+  }
+
+  /**
+   * Returns an {@code Aggregation} like {@link #quantileSketch(double, double...)} whose sketches
+   * have at most {@code maxBins} bins. Beyond it the lowest bins are collapsed, which keeps the
+   * accuracy of the high percentiles and overestimates the low ones.
+   *
+   * @param relativeAccuracy the maximum relative error of the estimated percentiles, between 0.0005
+   *     and 0.5.
+   * @param percentiles the percentiles to estimate, in the interval [0.0, 100.0].
+   * @param maxBins the maximum number of bins of a sketch, {@link
+   *     QuantileSketchAggregator#DEFAULT_MAX_BINS} by default.
+   * @return an {@code Aggregation} that estimates percentiles of all recorded measurements.
+   * @throws IllegalArgumentException if {@code relativeAccuracy} is out of range, a percentile is
+   *     not in the interval [0.0, 100.0] or {@code maxBins} is not positive.
+   * @since 0.8.0
+   */
+  public static Aggregation quantileSketch(
+      double relativeAccuracy, double[] percentiles, int maxBins) {
+    return new QuantileSketch(
+        QuantileSketchAggregator.getFactory(relativeAccuracy, percentiles, maxBins));
+  }
+
+  @Immutable
+  private static final class QuantileSketch implements Aggregation {
+    private final AggregatorFactory factory;
+
+    QuantileSketch(AggregatorFactory factory) {
+      this.factory = factory;
+    }
+
+    @Override
+    public AggregatorFactory getAggregatorFactory(InstrumentValueType instrumentValueType) {
+      return factory;
+    }
+
+    @Override
+    public MetricData.Descriptor.Type getDescriptorType(
+        InstrumentType instrumentType, InstrumentValueType instrumentValueType) {
+      return MetricData.Descriptor.Type.SUMMARY;
+    }
+
+    @Override
+    public String getUnit(String initialUnit) {
+      return initialUnit;
+    }
+
+    @Override
+    public boolean availableForInstrument(InstrumentType instrumentType) {
+      return instrumentType == InstrumentType.VALUE_OBSERVER
+          || instrumentType == InstrumentType.VALUE_RECORDER;
+    }
+  }
+
   private enum MinMaxSumCount implements Aggregation {
     INSTANCE;
 
@@ -166,8 +274,7 @@ public class Aggregations {
 
     @Override
     public AggregatorFactory getAggregatorFactory(InstrumentValueType instrumentValueType) {
-      // TODO: Implement count aggregator and use it here.
-      return NoopAggregator.getFactory();
+      return CountAggregator.getFactory();
     }
 
     @Override
@@ -192,9 +299,8 @@ public class Aggregations {
   private static final class Distribution implements Aggregation {
     private final AggregatorFactory factory;
 
-    Distribution(Double... bucketBoundaries) {
-      // TODO: Implement distribution aggregator and use it here.
-      this.factory = NoopAggregator.getFactory();
+    Distribution(AggregatorFactory factory) {
+      this.factory = factory;
     }
 
     @Override
@@ -205,7 +311,7 @@ public class Aggregations {
     @Override
     public MetricData.Descriptor.Type getDescriptorType(
         InstrumentType instrumentType, InstrumentValueType instrumentValueType) {
-      throw new UnsupportedOperationException("Implement this");
+      return MetricData.Descriptor.Type.HISTOGRAM;
     }
 
     @Override
@@ -215,7 +321,8 @@ public class Aggregations {
 
     @Override
     public boolean availableForInstrument(InstrumentType instrumentType) {
-      throw new UnsupportedOperationException("Implement this");
+      return instrumentType == InstrumentType.VALUE_OBSERVER
+          || instrumentType == InstrumentType.VALUE_RECORDER;
     }
   }
 
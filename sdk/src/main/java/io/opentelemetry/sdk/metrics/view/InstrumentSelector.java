@@ -0,0 +1,131 @@
+/*
+ * Copyright 2020, OpenTelemetry Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.opentelemetry.sdk.metrics.view;
+
+import com.google.auto.value.AutoValue;
+import io.opentelemetry.sdk.metrics.common.InstrumentType;
+import java.util.Objects;
+import java.util.regex.Pattern;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.Immutable;
+
+/**
+ * Selects the instruments to which a {@link View} applies, by the type and the name of the
+ * instrument.
+ *
+ * <pre>{@code
+ * InstrumentSelector selector =
+ *     InstrumentSelector.newBuilder()
+ *         .setInstrumentType(InstrumentType.VALUE_RECORDER)
+ *         .setInstrumentNameRegex("http\\.server\\..*")
+ *         .build();
+ * }</pre>
+ *
+ * @since 0.8.0
+ */
+@Immutable
+@AutoValue
+public abstract class InstrumentSelector {
+  private static final Pattern ANY_NAME = Pattern.compile(".*");
+
+  /**
+   * Returns a new {@link Builder} that selects all the instruments.
+   *
+   * @return a new {@code Builder}.
+   * @since 0.8.0
+   */
+  public static Builder newBuilder() {
+    return new AutoValue_InstrumentSelector.Builder().setInstrumentNamePattern(ANY_NAME);
+  }
+
+  /**
+   * Returns the type of the selected instruments, or {@code null} if instruments of all types are
+   * selected.
+   *
+   * @return the type of the selected instruments.
+   * @since 0.8.0
+   */
+  @Nullable
+  public abstract InstrumentType getInstrumentType();
+
+  /**
+   * Returns the pattern that the whole name of a selected instrument matches.
+   *
+   * @return the pattern of the names of the selected instruments.
+   * @since 0.8.0
+   */
+  public abstract Pattern getInstrumentNamePattern();
+
+  /**
+   * Returns {@code true} if the instrument with the given name and type is selected.
+   *
+   * @param instrumentName the name of the instrument.
+   * @param instrumentType the type of the instrument.
+   * @return {@code true} if the instrument is selected.
+   * @since 0.8.0
+   */
+  public boolean matches(String instrumentName, InstrumentType instrumentType) {
+    InstrumentType selectedType = getInstrumentType();
+    return (selectedType == null || selectedType == instrumentType)
+        && getInstrumentNamePattern().matcher(instrumentName).matches();
+  }
+
+  /**
+   * Builder class for {@link InstrumentSelector}.
+   *
+   * @since 0.8.0
+   */
+  @AutoValue.Builder
+  public abstract static class Builder {
+    /**
+     * Selects only the instruments of the given type.
+     *
+     * @param instrumentType the type of the selected instruments.
+     * @return this.
+     * @since 0.8.0
+     */
+    public abstract Builder setInstrumentType(InstrumentType instrumentType);
+
+    /**
+     * Selects only the instruments whose whole name matches the given regular expression.
+     *
+     * @param instrumentNameRegex the regular expression matching the selected names.
+     * @return this.
+     * @throws java.util.regex.PatternSyntaxException if {@code instrumentNameRegex} is not a valid
+     *     regular expression.
+     * @since 0.8.0
+     */
+    public Builder setInstrumentNameRegex(String instrumentNameRegex) {
+      Objects.requireNonNull(instrumentNameRegex, "instrumentNameRegex");
+      return setInstrumentNamePattern(Pattern.compile(instrumentNameRegex));
+    }
+
+    abstract Builder setInstrumentNamePattern(Pattern instrumentNamePattern);
+
+    /**
+     * Builds and returns an {@code InstrumentSelector} with the desired settings.
+     *
+     * @return an {@code InstrumentSelector} with the desired settings.
+     * @since 0.8.0
+     */
+    public abstract InstrumentSelector build();
+
+    Builder() {}
+  }
+
+  InstrumentSelector() {}
+}
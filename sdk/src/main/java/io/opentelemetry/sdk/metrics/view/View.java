@@ -0,0 +1,149 @@
+/*
+ * Copyright 2020, OpenTelemetry Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.opentelemetry.sdk.metrics.view;
+
+import com.google.auto.value.AutoValue;
+import io.opentelemetry.sdk.metrics.data.AggregationTemporality;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.TreeSet;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.Immutable;
+
+/**
+ * Configures how the measurements of the instruments selected by an {@link InstrumentSelector} are
+ * aggregated into metrics.
+ *
+ * <p>A {@code View} can keep only some of the label keys of the measurements. Measurements that
+ * only differ by the dropped labels are aggregated into the same series, before they are recorded,
+ * so an instrument keeps one series per combination of the kept labels only:
+ *
+ * <pre>{@code
+ * meterSdkProvider.registerView(
+ *     InstrumentSelector.newBuilder().setInstrumentNameRegex("http\\.server\\.duration").build(),
+ *     View.newBuilder()
+ *         .setAggregation(Aggregations.distributionWithLogLinearBounds(1, 60_000, 4))
+ *         .setLabelKeys("http.method", "http.status_code")
+ *         .build());
+ * }</pre>
+ *
+ * @since 0.8.0
+ */
+@Immutable
+@AutoValue
+public abstract class View {
+
+  /**
+   * Returns a new {@link Builder} for a {@code View} that keeps the default aggregation and
+   * temporality of the instrument and all the labels.
+   *
+   * @return a new {@code Builder}.
+   * @since 0.8.0
+   */
+  public static Builder newBuilder() {
+    return new AutoValue_View.Builder();
+  }
+
+  /**
+   * Returns the {@link Aggregation} of the measurements, or {@code null} if the default aggregation
+   * of the instrument type is used.
+   *
+   * @return the {@code Aggregation} of the measurements.
+   * @since 0.8.0
+   */
+  @Nullable
+  public abstract Aggregation getAggregation();
+
+  /**
+   * Returns the {@link AggregationTemporality} of the metrics, or {@code null} if the default
+   * temporality of the {@code MeterSdkProvider} is used.
+   *
+   * @return the {@code AggregationTemporality} of the metrics.
+   * @since 0.8.0
+   */
+  @Nullable
+  public abstract AggregationTemporality getAggregationTemporality();
+
+  /**
+   * Returns the sorted label keys that are kept, or {@code null} if all the labels are kept.
+   *
+   * @return the sorted label keys that are kept.
+   * @since 0.8.0
+   */
+  @Nullable
+  public abstract List<String> getLabelKeys();
+
+  /**
+   * Builder class for {@link View}.
+   *
+   * @since 0.8.0
+   */
+  @AutoValue.Builder
+  public abstract static class Builder {
+    /**
+     * Sets the {@link Aggregation} of the measurements. It must be available for the type of every
+     * selected instrument.
+     *
+     * @param aggregation the {@code Aggregation} of the measurements.
+     * @return this.
+     * @since 0.8.0
+     */
+    public abstract Builder setAggregation(Aggregation aggregation);
+
+    /**
+     * Sets the {@link AggregationTemporality} of the metrics. Sum observers observe cumulative
+     * sums, their metrics are always {@link AggregationTemporality#CUMULATIVE}.
+     *
+     * @param aggregationTemporality the {@code AggregationTemporality} of the metrics.
+     * @return this.
+     * @since 0.8.0
+     */
+    public abstract Builder setAggregationTemporality(
+        AggregationTemporality aggregationTemporality);
+
+    /**
+     * Keeps only the labels with the given keys, all other labels are dropped from the
+     * measurements.
+     *
+     * @param labelKeys the label keys to keep.
+     * @return this.
+     * @since 0.8.0
+     */
+    public Builder setLabelKeys(String... labelKeys) {
+      Objects.requireNonNull(labelKeys, "labelKeys");
+      TreeSet<String> sortedKeys = new TreeSet<>(Arrays.asList(labelKeys));
+      return setLabelKeys(Collections.unmodifiableList(new ArrayList<>(sortedKeys)));
+    }
+
+    abstract Builder setLabelKeys(List<String> labelKeys);
+
+    /**
+     * Builds and returns a {@code View} with the desired settings.
+     *
+     * @return a {@code View} with the desired settings.
+     * @since 0.8.0
+     */
+    public abstract View build();
+
+    Builder() {}
+  }
+
+  View() {}
+}
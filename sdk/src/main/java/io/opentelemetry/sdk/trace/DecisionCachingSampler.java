@@ -0,0 +1,141 @@
+/*
+ * Copyright 2020, OpenTelemetry Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.opentelemetry.sdk.trace;
+
+import com.google.common.base.Preconditions;
+import io.opentelemetry.common.ReadableAttributes;
+import io.opentelemetry.trace.Link;
+import io.opentelemetry.trace.Span.Kind;
+import io.opentelemetry.trace.SpanContext;
+import io.opentelemetry.trace.TraceId;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.Immutable;
+import javax.annotation.concurrent.ThreadSafe;
+
+/**
+ * A {@link Sampler} that memoizes the decisions of a delegate {@code Sampler} keyed by the span
+ * name, the span kind and the sampling state of the parent.
+ *
+ * <p>Decisions are kept in a fixed size, direct-mapped table: every key maps to exactly one slot
+ * and a colliding key simply replaces the previous entry, so the table never grows and reads and
+ * writes need no locking. Decisions carrying the {@link Samplers#SAMPLING_PROBABILITY} attribute
+ * depend on the trace id and are never cached; the slot instead remembers to always ask the
+ * delegate for that key. Spans with links are always forwarded to the delegate because links are
+ * not part of the key.
+ */
+@ThreadSafe
+final class DecisionCachingSampler implements Sampler {
+  static final int DEFAULT_MAX_CACHED_DECISIONS = 1024;
+
+  private static final int PARENT_NONE = 0;
+  private static final int PARENT_NOT_SAMPLED = 1;
+  private static final int PARENT_SAMPLED = 2;
+
+  private final Sampler delegateSampler;
+  private final int mask;
+  // Replaced as a whole on invalidation so readers never observe a partially cleared table.
+  private volatile AtomicReferenceArray<CachedDecision> decisions;
+
+  DecisionCachingSampler(Sampler delegateSampler, int maxCachedDecisions) {
+    Preconditions.checkArgument(maxCachedDecisions > 0, "maxCachedDecisions must be positive");
+    this.delegateSampler = delegateSampler;
+    int capacity = Integer.highestOneBit(maxCachedDecisions);
+    if (capacity < maxCachedDecisions) {
+      capacity <<= 1;
+    }
+    this.mask = capacity - 1;
+    this.decisions = new AtomicReferenceArray<>(capacity);
+  }
+
+  @Override
+  public SamplingResult shouldSample(
+      @Nullable SpanContext parentContext,
+      TraceId traceId,
+      String name,
+      Kind spanKind,
+      ReadableAttributes attributes,
+      @Nullable List<Link> parentLinks) {
+    if (parentLinks != null && !parentLinks.isEmpty()) {
+      return delegateSampler.shouldSample(
+          parentContext, traceId, name, spanKind, attributes, parentLinks);
+    }
+    int parentState =
+        parentContext == null
+            ? PARENT_NONE
+            : parentContext.getTraceFlags().isSampled() ? PARENT_SAMPLED : PARENT_NOT_SAMPLED;
+    AtomicReferenceArray<CachedDecision> decisions = this.decisions;
+    int index = hash(name, spanKind, parentState) & mask;
+    CachedDecision cached = decisions.get(index);
+    if (cached != null && cached.matches(name, spanKind, parentState)) {
+      if (cached.samplingResult != null) {
+        return cached.samplingResult;
+      }
+      return delegateSampler.shouldSample(
+          parentContext, traceId, name, spanKind, attributes, parentLinks);
+    }
+    SamplingResult samplingResult =
+        delegateSampler.shouldSample(
+            parentContext, traceId, name, spanKind, attributes, parentLinks);
+    decisions.lazySet(
+        index,
+        new CachedDecision(
+            name, spanKind, parentState, isCacheable(samplingResult) ? samplingResult : null));
+    return samplingResult;
+  }
+
+  @Override
+  public String getDescription() {
+    return String.format("DecisionCachingSampler{%s}", delegateSampler.getDescription());
+  }
+
+  /** Drops all cached decisions. */
+  void invalidate() {
+    decisions = new AtomicReferenceArray<>(mask + 1);
+  }
+
+  private static boolean isCacheable(SamplingResult samplingResult) {
+    return samplingResult.getAttributes().get(Samplers.SAMPLING_PROBABILITY.key()) == null;
+  }
+
+  private static int hash(String name, Kind spanKind, int parentState) {
+    int h = (name.hashCode() * 31 + spanKind.ordinal()) * 3 + parentState;
+    return h ^ (h >>> 16);
+  }
+
+  @Immutable
+  private static final class CachedDecision {
+    private final String name;
+    private final Kind spanKind;
+    private final int parentState;
+    // null if the delegate must be asked every time.
+    @Nullable private final SamplingResult samplingResult;
+
+    private CachedDecision(
+        String name, Kind spanKind, int parentState, @Nullable SamplingResult samplingResult) {
+      this.name = name;
+      this.spanKind = spanKind;
+      this.parentState = parentState;
+      this.samplingResult = samplingResult;
+    }
+
+    private boolean matches(String name, Kind spanKind, int parentState) {
+      return this.parentState == parentState && this.spanKind == spanKind && this.name.equals(name);
+    }
+  }
+}
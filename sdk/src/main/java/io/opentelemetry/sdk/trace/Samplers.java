@@ -169,6 +169,41 @@ public final class Samplers {
     return Probability.create(probability);
   }
 
+  /**
+   * Returns a {@link Sampler} that memoizes the decisions of {@code delegateSampler} for spans with
+   * the same name, kind and parent sampling state, caching up to {@code 1024} decisions.
+   *
+   * @param delegateSampler the {@code Sampler} whose decisions are cached.
+   * @return a {@code Sampler} caching the decisions of {@code delegateSampler}.
+   * @see #withDecisionCache(Sampler, int)
+   * @since 0.8.0
+   */
+  public static Sampler withDecisionCache(Sampler delegateSampler) {
+    return withDecisionCache(delegateSampler, DecisionCachingSampler.DEFAULT_MAX_CACHED_DECISIONS);
+  }
+
+  /**
+   * Returns a {@link Sampler} that memoizes the decisions of {@code delegateSampler} for spans with
+   * the same name, kind and parent sampling state.
+   *
+   * <p>This is only correct for delegates whose decision does not depend on anything else, such as
+   * samplers choosing a fixed decision per operation name. Decisions made by a {@link
+   * #probability(double) probability} sampler, also when reached through a composite sampler, are
+   * detected and never cached. Spans with links always reach the delegate. The cache is cleared
+   * every time a {@link io.opentelemetry.sdk.trace.config.TraceConfig} using this sampler is made
+   * active through {@link TracerSdkProvider#updateActiveTraceConfig}.
+   *
+   * @param delegateSampler the {@code Sampler} whose decisions are cached.
+   * @param maxCachedDecisions the maximum number of decisions kept, rounded up to a power of two.
+   * @return a {@code Sampler} caching the decisions of {@code delegateSampler}.
+   * @throws IllegalArgumentException if {@code maxCachedDecisions} is not positive.
+   * @since 0.8.0
+   */
+  public static Sampler withDecisionCache(Sampler delegateSampler, int maxCachedDecisions) {
+    Objects.requireNonNull(delegateSampler, "delegateSampler");
+    return new DecisionCachingSampler(delegateSampler, maxCachedDecisions);
+  }
+
   @Immutable
   private enum AlwaysOnSampler implements Sampler {
     INSTANCE;
@@ -72,6 +72,10 @@ final class TracerSharedState {
    * @param traceConfig the new active {@code TraceConfig}.
    */
   void updateActiveTraceConfig(TraceConfig traceConfig) {
+    Sampler sampler = traceConfig.getSampler();
+    if (sampler instanceof DecisionCachingSampler) {
+      ((DecisionCachingSampler) sampler).invalidate();
+    }
     activeTraceConfig = traceConfig;
   }
 
@@ -28,6 +28,8 @@ import io.opentelemetry.correlationcontext.CorrelationContextManager;
 import io.opentelemetry.correlationcontext.CorrelationsContextUtils;
 import io.opentelemetry.correlationcontext.Entry;
 import io.opentelemetry.correlationcontext.EntryMetadata;
+import java.util.Arrays;
+import java.util.Collection;
 import org.junit.jupiter.api.Test;
 
 /**
@@ -76,6 +78,55 @@ class CorrelationContextSdkTest {
     assertThat(distContext.getEntries()).containsExactly(t1alt, T2);
   }
 
+  @Test
+  void getEntries_deepChain() {
+    CorrelationContext distContext = contextManager.contextBuilder().setNoParent().build();
+    for (int i = 0; i < 20; i++) {
+      distContext =
+          contextManager.contextBuilder().setParent(distContext).put("key" + i, V1, TMD).build();
+    }
+    distContext =
+        contextManager
+            .contextBuilder()
+            .setParent(distContext)
+            .remove("key7")
+            .put(K1, V2, TMD)
+            .build();
+
+    assertThat(distContext.getEntries()).hasSize(20);
+    assertThat(distContext.getEntries()).contains(Entry.create(K1, V2, TMD));
+    assertThat(distContext.getEntries()).doesNotContain(Entry.create("key7", V1, TMD));
+    assertThat(distContext.getEntryValue("key0")).isEqualTo(V1);
+    assertThat(distContext.getEntryValue("key19")).isEqualTo(V1);
+    assertThat(distContext.getEntryValue("key7")).isNull();
+  }
+
+  @Test
+  void getEntries_nonSdkParent() {
+    CorrelationContext parent =
+        new CorrelationContext() {
+          @Override
+          public Collection<Entry> getEntries() {
+            return Arrays.asList(T2, T1);
+          }
+
+          @Override
+          public String getEntryValue(String entryKey) {
+            throw new UnsupportedOperationException();
+          }
+        };
+    CorrelationContext distContext =
+        contextManager.contextBuilder().setParent(parent).put("k0", V1, TMD).build();
+    assertThat(distContext.getEntries()).containsExactly(Entry.create("k0", V1, TMD), T1, T2);
+    assertThat(distContext.getEntryValue(K2)).isEqualTo(V2);
+  }
+
+  @Test
+  void build_noChanges() {
+    CorrelationContextSdk parent = listToCorrelationContext(T1, T2);
+    assertThat(contextManager.contextBuilder().setParent(parent).build()).isSameAs(parent);
+  }
+
   @Test
   void put_newKey() {
     CorrelationContextSdk distContext = listToCorrelationContext(T1);
@@ -205,7 +256,13 @@ class CorrelationContextSdkTest {
             contextManager.contextBuilder().put(K1, V1, TMD).put(K2, V2, TMD).build(),
             contextManager.contextBuilder().put(K1, V1, TMD).put(K2, V2, TMD).build(),
             contextManager.contextBuilder().put(K2, V2, TMD).put(K1, V1, TMD).build())
-        .addEqualityGroup(contextManager.contextBuilder().put(K1, V1, TMD).put(K2, V1, TMD).build())
+        .addEqualityGroup(
+            contextManager.contextBuilder().put(K1, V1, TMD).put(K2, V1, TMD).build(),
+            contextManager
+                .contextBuilder()
+                .setParent(contextManager.contextBuilder().put(K1, V1, TMD).build())
+                .put(K2, V1, TMD)
+                .build())
         .addEqualityGroup(contextManager.contextBuilder().put(K1, V2, TMD).put(K2, V1, TMD).build())
         .testEquals();
   }
@@ -0,0 +1,131 @@
+/*
+ * Copyright 2019, OpenTelemetry Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.opentelemetry.sdk.internal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+/** Unit tests for {@link StripedLongAdder} and {@link StripedDoubleAdder}. */
+class StripedLongAdderTest {
+  private static final int THREADS = 8;
+  private static final int ADDS_PER_THREAD = 100_000;
+
+  @Test
+  void addSumThenReset() {
+    StripedLongAdder adder = new StripedLongAdder();
+    assertThat(adder.sum()).isEqualTo(0);
+    adder.add(12);
+    adder.add(-2);
+    assertThat(adder.sum()).isEqualTo(10);
+    assertThat(adder.sumThenReset()).isEqualTo(10);
+    assertThat(adder.sum()).isEqualTo(0);
+  }
+
+  @Test
+  void addSumThenReset_Double() {
+    StripedDoubleAdder adder = new StripedDoubleAdder();
+    assertThat(adder.sum()).isEqualTo(0.0);
+    adder.add(1.5);
+    adder.add(-0.25);
+    assertThat(adder.sum()).isEqualTo(1.25);
+    assertThat(adder.sumThenReset()).isEqualTo(1.25);
+    assertThat(adder.sum()).isEqualTo(0.0);
+  }
+
+  @Test
+  void cellsCreatedOnContention() {
+    StripedLongAdder adder = new StripedLongAdder();
+    adder.add(1);
+    // No cells without contention.
+    assertThat(adder.getCells()).isNull();
+
+    // As after a failed update of the base.
+    adder.addContended(2, true);
+    AbstractStripedAdder.Cell[] cells = adder.getCells();
+    assertThat(cells).hasSize(2);
+    assertThat(countCells(cells)).isEqualTo(1);
+    // As after a failed update of the cell: moves to another cell.
+    adder.addContended(3, false);
+    adder.add(4);
+    assertThat(adder.sum()).isEqualTo(10);
+    assertThat(adder.sumThenReset()).isEqualTo(10);
+    assertThat(adder.sum()).isEqualTo(0);
+
+    StripedDoubleAdder doubleAdder = new StripedDoubleAdder();
+    doubleAdder.add(0.5);
+    doubleAdder.addContended(Double.doubleToRawLongBits(1.5), true);
+    doubleAdder.add(2.0);
+    assertThat(doubleAdder.sumThenReset()).isEqualTo(4.0);
+    assertThat(doubleAdder.sum()).isEqualTo(0.0);
+  }
+
+  @Test
+  void concurrentAdds() throws Exception {
+    final StripedLongAdder adder = new StripedLongAdder();
+    final StripedDoubleAdder doubleAdder = new StripedDoubleAdder();
+    final StripedLongAdder collected = new StripedLongAdder();
+    List<Thread> threads = new ArrayList<>();
+    for (int i = 0; i < THREADS; i++) {
+      threads.add(
+          new Thread(
+              new Runnable() {
+                @Override
+                public void run() {
+                  for (int j = 0; j < ADDS_PER_THREAD; j++) {
+                    adder.add(1);
+                    doubleAdder.add(1.0);
+                  }
+                }
+              }));
+    }
+    for (Thread thread : threads) {
+      thread.start();
+    }
+    // Resetting concurrently with the updates must not lose or double count any of them.
+    while (threads.get(THREADS - 1).isAlive()) {
+      collected.add(adder.sumThenReset());
+    }
+    for (Thread thread : threads) {
+      thread.join();
+    }
+    collected.add(adder.sumThenReset());
+    assertThat(collected.sum()).isEqualTo(THREADS * ADDS_PER_THREAD);
+    // Integral doubles below 2^53 are added exactly.
+    assertThat(doubleAdder.sum()).isEqualTo((double) THREADS * ADDS_PER_THREAD);
+  }
+
+  @Test
+  void stripes() {
+    assertThat(AbstractStripedAdder.stripes(1)).isEqualTo(1);
+    assertThat(AbstractStripedAdder.stripes(6)).isEqualTo(8);
+    assertThat(AbstractStripedAdder.stripes(8)).isEqualTo(8);
+    assertThat(AbstractStripedAdder.stripes(1000)).isEqualTo(64);
+  }
+
+  private static int countCells(AbstractStripedAdder.Cell[] cells) {
+    int count = 0;
+    for (AbstractStripedAdder.Cell cell : cells) {
+      if (cell != null) {
+        count++;
+      }
+    }
+    return count;
+  }
+}
@@ -19,6 +19,9 @@ package io.opentelemetry.sdk.metrics;
 import static org.assertj.core.api.Assertions.assertThat;
 
 import io.opentelemetry.sdk.metrics.aggregator.Aggregator;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mock;
@@ -89,6 +92,110 @@ class AbstractBoundInstrumentTest {
     testBoundInstrument.unbind();
   }
 
+  @Test
+  void bind_ConcurrentWithTryUnmap() throws Exception {
+    final TestBoundInstrument testBoundInstrument = new TestBoundInstrument(aggregator);
+    testBoundInstrument.unbind();
+    final AtomicBoolean unmapped = new AtomicBoolean();
+    final AtomicBoolean boundWhileUnmapped = new AtomicBoolean();
+    List<Thread> threads = new ArrayList<>();
+    for (int i = 0; i < 4; i++) {
+      threads.add(
+          new Thread(
+              new Runnable() {
+                @Override
+                public void run() {
+                  for (int j = 0; j < 10_000; j++) {
+                    if (testBoundInstrument.bind()) {
+                      // No collector can unmap the binding while it is referenced.
+                      if (unmapped.get()) {
+                        boundWhileUnmapped.set(true);
+                      }
+                      testBoundInstrument.unbind();
+                    }
+                  }
+                }
+              }));
+    }
+    for (Thread thread : threads) {
+      thread.start();
+    }
+    while (!unmapped.get() && threads.get(0).isAlive()) {
+      if (testBoundInstrument.tryUnmap()) {
+        unmapped.set(true);
+      }
+    }
+    for (Thread thread : threads) {
+      thread.join();
+    }
+    assertThat(boundWhileUnmapped.get()).isFalse();
+    if (!unmapped.get()) {
+      assertThat(testBoundInstrument.tryUnmap()).isTrue();
+    }
+    assertThat(testBoundInstrument.bind()).isFalse();
+  }
+
+  @Test
+  void tryUnmap_AcquiredInstrument() {
+    TestBoundInstrument testBoundInstrument = new TestBoundInstrument(aggregator);
+    testBoundInstrument.unbind();
+    assertThat(testBoundInstrument.acquire()).isTrue();
+    assertThat(testBoundInstrument.acquire()).isTrue();
+    assertThat(testBoundInstrument.tryUnmap()).isFalse();
+    testBoundInstrument.release();
+    assertThat(testBoundInstrument.tryUnmap()).isFalse();
+    assertThat(testBoundInstrument.bind()).isTrue();
+    testBoundInstrument.release();
+    assertThat(testBoundInstrument.tryUnmap()).isFalse();
+    testBoundInstrument.unbind();
+    assertThat(testBoundInstrument.tryUnmap()).isTrue();
+    assertThat(testBoundInstrument.acquire()).isFalse();
+    assertThat(testBoundInstrument.tryUnmap()).isFalse();
+  }
+
+  @Test
+  void acquire_ConcurrentWithTryUnmap() throws Exception {
+    final TestBoundInstrument testBoundInstrument = new TestBoundInstrument(aggregator);
+    testBoundInstrument.unbind();
+    final AtomicBoolean unmapped = new AtomicBoolean();
+    final AtomicBoolean acquiredWhileUnmapped = new AtomicBoolean();
+    List<Thread> threads = new ArrayList<>();
+    for (int i = 0; i < 4; i++) {
+      threads.add(
+          new Thread(
+              new Runnable() {
+                @Override
+                public void run() {
+                  for (int j = 0; j < 10_000; j++) {
+                    if (testBoundInstrument.acquire()) {
+                      // No collector can unmap the binding while it is referenced.
+                      if (unmapped.get()) {
+                        acquiredWhileUnmapped.set(true);
+                      }
+                      testBoundInstrument.release();
+                    }
+                  }
+                }
+              }));
+    }
+    for (Thread thread : threads) {
+      thread.start();
+    }
+    while (!unmapped.get() && threads.get(0).isAlive()) {
+      if (testBoundInstrument.tryUnmap()) {
+        unmapped.set(true);
+      }
+    }
+    for (Thread thread : threads) {
+      thread.join();
+    }
+    assertThat(acquiredWhileUnmapped.get()).isFalse();
+    if (!unmapped.get()) {
+      assertThat(testBoundInstrument.tryUnmap()).isTrue();
+    }
+    assertThat(testBoundInstrument.acquire()).isFalse();
+  }
+
   @Test
   void recordDoubleValue() {
     TestBoundInstrument testBoundInstrument = new TestBoundInstrument(aggregator);
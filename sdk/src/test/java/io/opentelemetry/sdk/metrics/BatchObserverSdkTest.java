@@ -0,0 +1,260 @@
+/*
+ * Copyright 2020, OpenTelemetry Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.opentelemetry.sdk.metrics;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import io.opentelemetry.common.Labels;
+import io.opentelemetry.metrics.BatchObserver;
+import io.opentelemetry.metrics.DefaultMeter;
+import io.opentelemetry.metrics.LongSumObserver;
+import io.opentelemetry.sdk.common.InstrumentationLibraryInfo;
+import io.opentelemetry.sdk.internal.TestClock;
+import io.opentelemetry.sdk.metrics.aggregator.Aggregator;
+import io.opentelemetry.sdk.metrics.common.InstrumentType;
+import io.opentelemetry.sdk.metrics.common.InstrumentValueType;
+import io.opentelemetry.sdk.metrics.data.MetricData;
+import io.opentelemetry.sdk.metrics.data.MetricData.DoublePoint;
+import io.opentelemetry.sdk.metrics.data.MetricData.Exemplar;
+import io.opentelemetry.sdk.metrics.data.MetricData.LongPoint;
+import io.opentelemetry.sdk.metrics.data.MetricData.Point;
+import io.opentelemetry.sdk.resources.Resource;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+/** Unit tests for {@link BatchObserverSdk}. */
+class BatchObserverSdkTest {
+  private static final InstrumentationLibraryInfo INSTRUMENTATION_LIBRARY_INFO =
+      InstrumentationLibraryInfo.create("io.opentelemetry.sdk.metrics.BatchObserverSdkTest", null);
+  private final TestClock testClock = TestClock.create();
+  private final MeterSdk testSdk =
+      new MeterSdk(
+          MeterProviderSharedState.create(testClock, Resource.getEmpty()),
+          INSTRUMENTATION_LIBRARY_INFO,
+          new ViewRegistry());
+
+  @Test
+  void collectAll_ReportsObservedValues() {
+    LongSumObserverSdk longSumObserver = testSdk.longSumObserverBuilder("longObserver").build();
+    DoubleUpDownSumObserverSdk doubleObserver =
+        testSdk.doubleUpDownSumObserverBuilder("doubleObserver").build();
+    BatchObserver batchObserver = testSdk.newBatchObserver("batch");
+    final BatchObserver.LongObservation first =
+        batchObserver.bindLong(longSumObserver, Labels.of("k", "first"));
+    final BatchObserver.LongObservation second =
+        batchObserver.bindLong(longSumObserver, Labels.of("k", "second"));
+    final BatchObserver.DoubleObservation third =
+        batchObserver.bindDouble(doubleObserver, Labels.of("k", "third"));
+    final long[] value = {10};
+    batchObserver.setCallback(
+        () -> {
+          first.observe(value[0]);
+          second.observe(value[0] + 1);
+          third.observe(-value[0] / 2.0);
+        });
+
+    assertThat(getPoints(testSdk.collectAll()))
+        .containsExactlyInAnyOrder(
+            LongPoint.create(testClock.now(), testClock.now(), Labels.of("k", "first"), 10),
+            LongPoint.create(testClock.now(), testClock.now(), Labels.of("k", "second"), 11),
+            DoublePoint.create(testClock.now(), testClock.now(), Labels.of("k", "third"), -5));
+    value[0] = 20;
+    assertThat(getPoints(testSdk.collectAll()))
+        .containsExactlyInAnyOrder(
+            LongPoint.create(testClock.now(), testClock.now(), Labels.of("k", "first"), 20),
+            LongPoint.create(testClock.now(), testClock.now(), Labels.of("k", "second"), 21),
+            DoublePoint.create(testClock.now(), testClock.now(), Labels.of("k", "third"), -10));
+  }
+
+  @Test
+  void collectAll_CombinesWithInstrumentCallback() {
+    LongSumObserverSdk longSumObserver = testSdk.longSumObserverBuilder("longObserver").build();
+    longSumObserver.setCallback(result -> result.observe(1, Labels.of("k", "callback")));
+    BatchObserver batchObserver = testSdk.newBatchObserver("batch");
+    final BatchObserver.LongObservation observation =
+        batchObserver.bindLong(longSumObserver, Labels.of("k", "batch"));
+    batchObserver.setCallback(() -> observation.observe(2));
+
+    assertThat(getPoints(testSdk.collectAll()))
+        .containsExactlyInAnyOrder(
+            LongPoint.create(testClock.now(), testClock.now(), Labels.of("k", "callback"), 1),
+            LongPoint.create(testClock.now(), testClock.now(), Labels.of("k", "batch"), 2));
+  }
+
+  @Test
+  void collectAll_UnboundObservationNotReported() {
+    LongSumObserverSdk longSumObserver = testSdk.longSumObserverBuilder("longObserver").build();
+    BatchObserver batchObserver = testSdk.newBatchObserver("batch");
+    BatchObserver.LongObservation observation =
+        batchObserver.bindLong(longSumObserver, Labels.of("k", "v"));
+    observation.unbind();
+    observation.observe(5);
+    assertThat(longSumObserver.collectAll()).isEmpty();
+  }
+
+  @Test
+  void collectAll_FailingCallbackDoesNotStopOthers() {
+    LongSumObserverSdk longSumObserver = testSdk.longSumObserverBuilder("longObserver").build();
+    testSdk
+        .newBatchObserver("failing")
+        .setCallback(
+            () -> {
+              throw new IllegalStateException("failure");
+            });
+    BatchObserver batchObserver = testSdk.newBatchObserver("batch");
+    final BatchObserver.LongObservation observation =
+        batchObserver.bindLong(longSumObserver, Labels.empty());
+    batchObserver.setCallback(() -> observation.observe(3));
+
+    assertThat(getPoints(testSdk.collectAll()))
+        .containsExactly(LongPoint.create(testClock.now(), testClock.now(), Labels.empty(), 3));
+  }
+
+  @Test
+  void collectAllMetrics_RunsBatchObservers() {
+    MeterSdkProvider meterSdkProvider = MeterSdkProvider.builder().setClock(testClock).build();
+    MeterSdk meterSdk = meterSdkProvider.get("batch");
+    LongSumObserverSdk longSumObserver = meterSdk.longSumObserverBuilder("longObserver").build();
+    BatchObserver batchObserver = meterSdk.newBatchObserver("batch");
+    final BatchObserver.LongObservation observation =
+        batchObserver.bindLong(longSumObserver, Labels.empty());
+    batchObserver.setCallback(() -> observation.observe(4));
+
+    assertThat(getPoints(meterSdkProvider.getMetricProducer().collectAllMetrics()))
+        .contains(LongPoint.create(testClock.now(), testClock.now(), Labels.empty(), 4));
+  }
+
+  @Test
+  void collectAll_ConcurrentObservationsNeverLost() throws InterruptedException {
+    LongSumObserverSdk longSumObserver = testSdk.longSumObserverBuilder("longObserver").build();
+    BatchObserver batchObserver = testSdk.newBatchObserver("batch");
+    final BatchObserver.LongObservation observation =
+        batchObserver.bindLong(longSumObserver, Labels.empty());
+    final int observations = 100_000;
+    // Observes from another thread, like a late callback still running during a collection.
+    Thread observer =
+        new Thread(
+            () -> {
+              for (int i = 1; i <= observations; i++) {
+                observation.observe(i);
+              }
+            });
+    observation.observe(0);
+    observer.start();
+
+    long lastValue = -1;
+    while (observer.isAlive()) {
+      List<Point> points = getPoints(longSumObserver.collectAll());
+      // Once observed, the series is reported by every collection with an increasing value.
+      assertThat(points).hasSize(1);
+      long value = ((LongPoint) points.get(0)).getValue();
+      assertThat(value).isGreaterThanOrEqualTo(lastValue);
+      lastValue = value;
+    }
+    observer.join();
+
+    assertThat(getPoints(longSumObserver.collectAll()))
+        .containsExactly(
+            LongPoint.create(testClock.now(), testClock.now(), Labels.empty(), observations));
+  }
+
+  @Test
+  void collectAll_ObservationDuringBatchReportedOnce() {
+    MeterProviderSharedState meterProviderSharedState =
+        MeterProviderSharedState.create(testClock, Resource.getEmpty());
+    MeterSharedState meterSharedState = MeterSharedState.create(INSTRUMENTATION_LIBRARY_INFO);
+    InstrumentDescriptor descriptor =
+        InstrumentDescriptor.create(
+            "longObserver",
+            "",
+            "1",
+            Labels.empty(),
+            InstrumentType.SUM_OBSERVER,
+            InstrumentValueType.LONG);
+    final BatchObserver.LongObservation[] observation = new BatchObserver.LongObservation[1];
+    final Batcher delegate =
+        new ViewRegistry().createBatcher(meterProviderSharedState, meterSharedState, descriptor);
+    // Observes while the first observation is being batched, like a late callback running on
+    // another thread.
+    Batcher batcher =
+        new Batcher() {
+          private boolean observedDuringBatch;
+
+          @Override
+          public Aggregator getAggregator() {
+            return delegate.getAggregator();
+          }
+
+          @Override
+          public Labels projectLabels(Labels labels) {
+            return delegate.projectLabels(labels);
+          }
+
+          @Override
+          public void batch(
+              Labels labelSet,
+              Aggregator aggregator,
+              boolean mappedAggregator,
+              List<Exemplar> exemplars) {
+            if (!observedDuringBatch) {
+              observedDuringBatch = true;
+              observation[0].observe(2);
+            }
+            delegate.batch(labelSet, aggregator, mappedAggregator, exemplars);
+          }
+
+          @Override
+          public List<MetricData> completeCollectionCycle() {
+            return delegate.completeCollectionCycle();
+          }
+        };
+    LongSumObserverSdk longSumObserver =
+        new LongSumObserverSdk(descriptor, meterProviderSharedState, meterSharedState, batcher);
+    observation[0] = testSdk.newBatchObserver("batch").bindLong(longSumObserver, Labels.empty());
+
+    observation[0].observe(1);
+    assertThat(getPoints(longSumObserver.collectAll()))
+        .containsExactly(LongPoint.create(testClock.now(), testClock.now(), Labels.empty(), 1));
+    // The value observed during the first collection is reported by the next one.
+    assertThat(getPoints(longSumObserver.collectAll()))
+        .containsExactly(LongPoint.create(testClock.now(), testClock.now(), Labels.empty(), 2));
+    assertThat(getPoints(longSumObserver.collectAll()))
+        .containsExactly(LongPoint.create(testClock.now(), testClock.now(), Labels.empty(), 2));
+  }
+
+  @Test
+  void bind_RejectsNonSdkInstrument() {
+    LongSumObserver longSumObserver =
+        DefaultMeter.getInstance().longSumObserverBuilder("longObserver").build();
+    BatchObserver batchObserver = testSdk.newBatchObserver("batch");
+    assertThrows(
+        IllegalArgumentException.class,
+        () -> batchObserver.bindLong(longSumObserver, Labels.empty()),
+        "instrument must be created by the SDK.");
+  }
+
+  private static List<Point> getPoints(Collection<MetricData> metrics) {
+    List<Point> points = new ArrayList<>();
+    for (MetricData metricData : metrics) {
+      points.addAll(metricData.getPoints());
+    }
+    return points;
+  }
+}
@@ -22,14 +22,18 @@ import static org.junit.jupiter.api.Assertions.assertThrows;
 import io.opentelemetry.common.AttributeValue;
 import io.opentelemetry.common.Attributes;
 import io.opentelemetry.common.Labels;
+import io.opentelemetry.metrics.BatchRecorder;
 import io.opentelemetry.sdk.common.InstrumentationLibraryInfo;
 import io.opentelemetry.sdk.internal.TestClock;
 import io.opentelemetry.sdk.metrics.data.MetricData;
 import io.opentelemetry.sdk.metrics.data.MetricData.Descriptor;
 import io.opentelemetry.sdk.metrics.data.MetricData.DoublePoint;
 import io.opentelemetry.sdk.metrics.data.MetricData.LongPoint;
+import io.opentelemetry.sdk.metrics.data.MetricData.Point;
 import io.opentelemetry.sdk.resources.Resource;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.List;
 import org.junit.jupiter.api.Test;
 
 /** Unit tests for {@link BatchRecorderSdk}. */
@@ -122,4 +126,58 @@ class BatchRecorderSdkTest {
                 Collections.singletonList(
                     LongPoint.create(testClock.now(), testClock.now(), labelSet, -12))));
   }
+
+  @Test
+  void batchRecorder_NothingRecordedBeforeRecord() {
+    LongCounterSdk longCounter = testSdk.longCounterBuilder("testLongCounter").build();
+    testSdk.newBatchRecorder("key", "value").put(longCounter, 12);
+    assertThat(getLongValues(longCounter)).isEmpty();
+  }
+
+  @Test
+  void batchRecorder_PutOverwritesPreviousValue() {
+    LongCounterSdk longCounter = testSdk.longCounterBuilder("testLongCounter").build();
+    testSdk.newBatchRecorder("key", "value").put(longCounter, 12).put(longCounter, 5).record();
+    assertThat(getLongValues(longCounter)).containsExactly(5L);
+  }
+
+  @Test
+  void batchRecorder_RecordsEveryCall() {
+    LongCounterSdk longCounter = testSdk.longCounterBuilder("testLongCounter").build();
+    DoubleValueRecorderSdk doubleValueRecorder =
+        testSdk.doubleValueRecorderBuilder("testDoubleValueRecorder").build();
+    BatchRecorder batchRecorder =
+        testSdk.newBatchRecorder("key", "value").put(longCounter, 3).put(doubleValueRecorder, 1.5);
+    batchRecorder.record();
+    // The collection unmaps the bindings, the next record must bind again.
+    assertThat(getLongValues(longCounter)).containsExactly(3L);
+    batchRecorder.record();
+    batchRecorder.record();
+    assertThat(getLongValues(longCounter)).containsExactly(9L);
+  }
+
+  @Test
+  void batchRecorder_NegativeCounterIncrement() {
+    LongCounterSdk longCounter = testSdk.longCounterBuilder("testLongCounter").build();
+    DoubleCounterSdk doubleCounter = testSdk.doubleCounterBuilder("testDoubleCounter").build();
+    BatchRecorder batchRecorder = testSdk.newBatchRecorder("key", "value");
+    assertThrows(
+        IllegalArgumentException.class,
+        () -> batchRecorder.put(longCounter, -1),
+        "Counters can only increase");
+    assertThrows(
+        IllegalArgumentException.class,
+        () -> batchRecorder.put(doubleCounter, -1.0),
+        "Counters can only increase");
+  }
+
+  private static List<Long> getLongValues(LongCounterSdk longCounter) {
+    List<Long> values = new ArrayList<>();
+    for (MetricData metricData : longCounter.collectAll()) {
+      for (Point point : metricData.getPoints()) {
+        values.add(((LongPoint) point).getValue());
+      }
+    }
+    return values;
+  }
 }
@@ -0,0 +1,236 @@
+/*
+ * Copyright 2020, OpenTelemetry Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.opentelemetry.sdk.metrics;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import io.opentelemetry.common.Labels;
+import io.opentelemetry.metrics.LongCounter.BoundLongCounter;
+import io.opentelemetry.sdk.common.InstrumentationLibraryInfo;
+import io.opentelemetry.sdk.internal.TestClock;
+import io.opentelemetry.sdk.metrics.data.MetricData;
+import io.opentelemetry.sdk.metrics.data.MetricData.LongPoint;
+import io.opentelemetry.sdk.metrics.data.MetricData.Point;
+import io.opentelemetry.sdk.resources.Resource;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+
+/** Unit tests for {@link CardinalityLimiter}. */
+class CardinalityLimiterTest {
+  private static final InstrumentationLibraryInfo INSTRUMENTATION_LIBRARY_INFO =
+      InstrumentationLibraryInfo.create(
+          "io.opentelemetry.sdk.metrics.CardinalityLimiterTest", null);
+  private final TestClock testClock = TestClock.create();
+  private final CardinalityLimiter cardinalityLimiter = new CardinalityLimiter(3, 5);
+  private final MeterSdk testSdk =
+      new MeterSdk(
+          MeterProviderSharedState.create(testClock, Resource.getEmpty(), cardinalityLimiter),
+          INSTRUMENTATION_LIBRARY_INFO,
+          new ViewRegistry());
+
+  @Test
+  void tryAcquire() {
+    assertThat(cardinalityLimiter.tryAcquire(0)).isTrue();
+    assertThat(cardinalityLimiter.tryAcquire(2)).isTrue();
+    assertThat(cardinalityLimiter.tryAcquire(3)).isFalse();
+    assertThat(cardinalityLimiter.tryAcquire(0)).isTrue();
+    assertThat(cardinalityLimiter.tryAcquire(0)).isTrue();
+    assertThat(cardinalityLimiter.tryAcquire(0)).isTrue();
+    // Provider limit reached.
+    assertThat(cardinalityLimiter.tryAcquire(0)).isFalse();
+    cardinalityLimiter.release(1);
+    assertThat(cardinalityLimiter.tryAcquire(0)).isTrue();
+  }
+
+  @Test
+  void synchronousInstrument_FoldsIntoOverflow() {
+    LongCounterSdk longCounter = testSdk.longCounterBuilder("testCounter").build();
+    for (int i = 0; i < 5; i++) {
+      longCounter.add(1, Labels.of("user", "user" + i));
+    }
+    assertThat(cardinalityLimiter.getRejectedLabelSets()).isEqualTo(2);
+    // Recording again with a rejected label set does not count it again.
+    longCounter.add(1, Labels.of("user", "user4"));
+    assertThat(cardinalityLimiter.getRejectedLabelSets()).isEqualTo(2);
+    assertThat(getLabels(longCounter.collectAll()))
+        .containsExactlyInAnyOrder(
+            Labels.of("user", "user0"),
+            Labels.of("user", "user1"),
+            Labels.of("user", "user2"),
+            CardinalityLimiter.OVERFLOW_LABELS);
+    assertThat(getValue(longCounter.collectAll(), CardinalityLimiter.OVERFLOW_LABELS)).isEqualTo(3);
+  }
+
+  @Test
+  void synchronousInstrument_BoundLabelsNotRejected() {
+    LongCounterSdk longCounter = testSdk.longCounterBuilder("testCounter").build();
+    BoundLongCounter bound = longCounter.bind(Labels.of("user", "user0"));
+    longCounter.add(1, Labels.of("user", "user1"));
+    longCounter.add(1, Labels.of("user", "user2"));
+    longCounter.add(1, Labels.of("user", "user3"));
+    bound.add(5);
+    bound.unbind();
+
+    assertThat(cardinalityLimiter.getRejectedLabelSets()).isEqualTo(1);
+    assertThat(getValue(longCounter.collectAll(), Labels.of("user", "user0"))).isEqualTo(5);
+  }
+
+  @Test
+  void cumulativeBatcher_KeepsLimitAcrossCollections() {
+    LongCounterSdk longCounter = testSdk.longCounterBuilder("testCounter").build();
+    for (int i = 0; i < 6; i++) {
+      // Only one label set is bound per collection, the limit is reached in the Batcher.
+      longCounter.add(1, Labels.of("user", "user" + i));
+      longCounter.collectAll();
+    }
+    assertThat(cardinalityLimiter.getRejectedLabelSets()).isEqualTo(3);
+    List<MetricData> metricData = longCounter.collectAll();
+    assertThat(getLabels(metricData)).hasSize(4);
+    assertThat(getValue(metricData, CardinalityLimiter.OVERFLOW_LABELS)).isEqualTo(3);
+  }
+
+  @Test
+  void deltaBatcher_ReleasesLabelSets() {
+    LongValueRecorderSdk valueRecorder = testSdk.longValueRecorderBuilder("testRecorder").build();
+    for (int i = 0; i < 3; i++) {
+      valueRecorder.record(1, Labels.of("user", "user" + i));
+    }
+    assertThat(getLabels(valueRecorder.collectAll())).hasSize(3);
+    for (int i = 3; i < 6; i++) {
+      valueRecorder.record(1, Labels.of("user", "user" + i));
+    }
+    assertThat(getLabels(valueRecorder.collectAll())).hasSize(3);
+    assertThat(cardinalityLimiter.getRejectedLabelSets()).isEqualTo(0);
+  }
+
+  @Test
+  void providerLimit() {
+    LongCounterSdk longCounter1 = testSdk.longCounterBuilder("testCounter1").build();
+    LongCounterSdk longCounter2 = testSdk.longCounterBuilder("testCounter2").build();
+    for (int i = 0; i < 3; i++) {
+      longCounter1.add(1, Labels.of("user", "user" + i));
+      longCounter2.add(1, Labels.of("user", "user" + i));
+    }
+    assertThat(getLabels(longCounter1.collectAll())).hasSize(3);
+    // Which label set is folded depends on the order of the bound labels.
+    assertThat(getLabels(longCounter2.collectAll()))
+        .hasSize(3)
+        .contains(CardinalityLimiter.OVERFLOW_LABELS);
+    assertThat(cardinalityLimiter.getRejectedLabelSets()).isEqualTo(1);
+  }
+
+  @Test
+  void asynchronousInstrument_FoldsIntoOverflow() {
+    LongSumObserverSdk sumObserver = testSdk.longSumObserverBuilder("testObserver").build();
+    sumObserver.setCallback(
+        result -> {
+          for (int i = 0; i < 5; i++) {
+            result.observe(10, Labels.of("user", "user" + i));
+          }
+        });
+    assertThat(getLabels(sumObserver.collectAll()))
+        .containsExactlyInAnyOrder(
+            Labels.of("user", "user0"),
+            Labels.of("user", "user1"),
+            Labels.of("user", "user2"),
+            CardinalityLimiter.OVERFLOW_LABELS);
+    assertThat(cardinalityLimiter.getRejectedLabelSets()).isEqualTo(2);
+    // The same label sets are rejected again by the next collection but not counted again.
+    assertThat(getLabels(sumObserver.collectAll())).hasSize(4);
+    assertThat(cardinalityLimiter.getRejectedLabelSets()).isEqualTo(2);
+  }
+
+  @Test
+  void recordRejected_ForgetsBeyondInstrumentLimit() {
+    Set<Labels> rejectedLabels = new HashSet<>();
+    for (int i = 0; i < 4; i++) {
+      cardinalityLimiter.recordRejected("test", Labels.of("user", "user" + i), rejectedLabels);
+    }
+    assertThat(cardinalityLimiter.getRejectedLabelSets()).isEqualTo(4);
+    assertThat(rejectedLabels).hasSize(1);
+    cardinalityLimiter.recordRejected("test", Labels.of("user", "user3"), rejectedLabels);
+    assertThat(cardinalityLimiter.getRejectedLabelSets()).isEqualTo(4);
+    cardinalityLimiter.recordRejected("test", Labels.of("user", "user0"), rejectedLabels);
+    assertThat(cardinalityLimiter.getRejectedLabelSets()).isEqualTo(5);
+  }
+
+  @Test
+  void meterSdkProvider_ReportsRejectedLabelSets() {
+    MeterSdkProvider meterSdkProvider =
+        MeterSdkProvider.builder()
+            .setClock(testClock)
+            .setResource(Resource.getEmpty())
+            .setMaxLabelSetsPerInstrument(1)
+            .build();
+    LongCounterSdk longCounter = meterSdkProvider.get("test").longCounterBuilder("counter").build();
+    longCounter.add(1, Labels.of("user", "user0"));
+    assertThat(meterSdkProvider.getMetricProducer().collectAllMetrics()).hasSize(1);
+
+    longCounter.add(1, Labels.of("user", "user1"));
+    longCounter.add(1, Labels.of("user", "user2"));
+    MetricData rejected = null;
+    for (MetricData metricData : meterSdkProvider.getMetricProducer().collectAllMetrics()) {
+      if (metricData
+          .getDescriptor()
+          .getName()
+          .equals(MeterSdkProvider.REJECTED_LABEL_SETS_METRIC_NAME)) {
+        rejected = metricData;
+      }
+    }
+    assertThat(rejected).isNotNull();
+    assertThat(rejected.getDescriptor().getType())
+        .isEqualTo(MetricData.Descriptor.Type.MONOTONIC_LONG);
+    assertThat(rejected.getPoints())
+        .containsExactly(LongPoint.create(testClock.now(), testClock.now(), Labels.empty(), 2));
+  }
+
+  @Test
+  void meterSdkProvider_InvalidLimits() {
+    assertThrows(
+        IllegalArgumentException.class,
+        () -> MeterSdkProvider.builder().setMaxLabelSetsPerInstrument(0),
+        "maxLabelSetsPerInstrument must be positive.");
+    assertThrows(
+        IllegalArgumentException.class,
+        () -> MeterSdkProvider.builder().setMaxLabelSetsPerProvider(-1),
+        "maxLabelSetsPerProvider must be positive.");
+  }
+
+  private static Collection<Labels> getLabels(List<MetricData> metricData) {
+    assertThat(metricData).hasSize(1);
+    List<Labels> labels = new ArrayList<>();
+    for (Point point : metricData.get(0).getPoints()) {
+      labels.add(point.getLabels());
+    }
+    return labels;
+  }
+
+  private static long getValue(List<MetricData> metricData, Labels labels) {
+    assertThat(metricData).hasSize(1);
+    for (Point point : metricData.get(0).getPoints()) {
+      if (point.getLabels().equals(labels)) {
+        return ((LongPoint) point).getValue();
+      }
+    }
+    throw new AssertionError("No point with labels " + labels);
+  }
+}
@@ -0,0 +1,103 @@
+/*
+ * Copyright 2020, OpenTelemetry Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.opentelemetry.sdk.metrics;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.opentelemetry.context.Scope;
+import io.opentelemetry.sdk.internal.TestClock;
+import io.opentelemetry.sdk.metrics.data.MetricData.Exemplar;
+import io.opentelemetry.trace.DefaultSpan;
+import io.opentelemetry.trace.SpanContext;
+import io.opentelemetry.trace.SpanId;
+import io.opentelemetry.trace.TraceFlags;
+import io.opentelemetry.trace.TraceId;
+import io.opentelemetry.trace.TraceState;
+import io.opentelemetry.trace.TracingContextUtils;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+/** Unit tests for {@link ExemplarReservoir}. */
+class ExemplarReservoirTest {
+  static final SpanContext SAMPLED_SPAN_CONTEXT =
+      SpanContext.create(
+          new TraceId(1, 2),
+          new SpanId(3),
+          TraceFlags.builder().setIsSampled(true).build(),
+          TraceState.getDefault());
+  private static final SpanContext NOT_SAMPLED_SPAN_CONTEXT =
+      SpanContext.create(
+          new TraceId(1, 2), new SpanId(4), TraceFlags.getDefault(), TraceState.getDefault());
+
+  private final TestClock testClock = TestClock.create();
+
+  @Test
+  void offer_WithSampledSpan() {
+    ExemplarReservoir exemplarReservoir = new ExemplarReservoir(testClock, 2);
+    try (Scope ignored = withSpan(SAMPLED_SPAN_CONTEXT)) {
+      exemplarReservoir.offer(12.5);
+    }
+    assertThat(exemplarReservoir.collectAndReset())
+        .containsExactly(Exemplar.create(12.5, testClock.now(), SAMPLED_SPAN_CONTEXT));
+  }
+
+  @Test
+  void offer_WithoutSampledSpan() {
+    ExemplarReservoir exemplarReservoir = new ExemplarReservoir(testClock, 2);
+    exemplarReservoir.offer(1);
+    try (Scope ignored = withSpan(NOT_SAMPLED_SPAN_CONTEXT)) {
+      exemplarReservoir.offer(2);
+    }
+    assertThat(exemplarReservoir.collectAndReset()).isEmpty();
+  }
+
+  @Test
+  void offer_KeepsAtMostSize() {
+    ExemplarReservoir exemplarReservoir = new ExemplarReservoir(testClock, 3);
+    try (Scope ignored = withSpan(SAMPLED_SPAN_CONTEXT)) {
+      for (int i = 0; i < 1000; i++) {
+        exemplarReservoir.offer(i);
+      }
+    }
+    List<Exemplar> exemplars = exemplarReservoir.collectAndReset();
+    assertThat(exemplars).hasSize(3);
+    for (Exemplar exemplar : exemplars) {
+      assertThat(exemplar.getValue()).isBetween(0.0, 999.0);
+    }
+  }
+
+  @Test
+  void collectAndReset_EmptiesReservoir() {
+    ExemplarReservoir exemplarReservoir = new ExemplarReservoir(testClock, 2);
+    try (Scope ignored = withSpan(SAMPLED_SPAN_CONTEXT)) {
+      exemplarReservoir.offer(1);
+      assertThat(exemplarReservoir.collectAndReset()).hasSize(1);
+      assertThat(exemplarReservoir.collectAndReset()).isEmpty();
+      // The reservoir fills from the start again.
+      exemplarReservoir.offer(2);
+      exemplarReservoir.offer(3);
+    }
+    assertThat(exemplarReservoir.collectAndReset())
+        .containsExactly(
+            Exemplar.create(2, testClock.now(), SAMPLED_SPAN_CONTEXT),
+            Exemplar.create(3, testClock.now(), SAMPLED_SPAN_CONTEXT));
+  }
+
+  static Scope withSpan(SpanContext spanContext) {
+    return TracingContextUtils.currentContextWith(DefaultSpan.create(spanContext));
+  }
+}
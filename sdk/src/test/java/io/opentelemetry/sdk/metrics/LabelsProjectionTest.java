@@ -0,0 +1,59 @@
+/*
+ * Copyright 2020, OpenTelemetry Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.opentelemetry.sdk.metrics;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.opentelemetry.common.Labels;
+import java.util.Arrays;
+import java.util.Collections;
+import org.junit.jupiter.api.Test;
+
+/** Unit tests for {@link LabelsProjection}. */
+class LabelsProjectionTest {
+  private static final Labels LABELS =
+      Labels.of("http.method", "GET", "http.status_code", "200", "user", "1234");
+
+  @Test
+  void allLabels() {
+    assertThat(LabelsProjection.create(null).project(LABELS)).isSameAs(LABELS);
+  }
+
+  @Test
+  void keepsConfiguredKeys() {
+    LabelsProjection projection =
+        LabelsProjection.create(Arrays.asList("http.method", "http.status_code"));
+    assertThat(projection.project(LABELS))
+        .isEqualTo(Labels.of("http.method", "GET", "http.status_code", "200"));
+    assertThat(projection.project(Labels.of("http.method", "GET", "user", "1234")))
+        .isEqualTo(Labels.of("http.method", "GET"));
+  }
+
+  @Test
+  void allKept_SameInstance() {
+    LabelsProjection projection =
+        LabelsProjection.create(Arrays.asList("http.method", "http.status_code", "user", "zone"));
+    assertThat(projection.project(LABELS)).isSameAs(LABELS);
+  }
+
+  @Test
+  void noneKept() {
+    LabelsProjection projection = LabelsProjection.create(Collections.singletonList("zone"));
+    assertThat(projection.project(LABELS)).isEqualTo(Labels.empty());
+    assertThat(projection.project(Labels.empty())).isEqualTo(Labels.empty());
+  }
+}
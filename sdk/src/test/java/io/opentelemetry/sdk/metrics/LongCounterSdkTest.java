@@ -22,6 +22,7 @@ import static org.junit.jupiter.api.Assertions.assertThrows;
 import io.opentelemetry.common.AttributeValue;
 import io.opentelemetry.common.Attributes;
 import io.opentelemetry.common.Labels;
+import io.opentelemetry.context.Scope;
 import io.opentelemetry.metrics.LongCounter;
 import io.opentelemetry.metrics.LongCounter.BoundLongCounter;
 import io.opentelemetry.sdk.common.InstrumentationLibraryInfo;
@@ -29,8 +30,11 @@ import io.opentelemetry.sdk.internal.TestClock;
 import io.opentelemetry.sdk.metrics.StressTestRunner.OperationUpdater;
 import io.opentelemetry.sdk.metrics.data.MetricData;
 import io.opentelemetry.sdk.metrics.data.MetricData.Descriptor;
+import io.opentelemetry.sdk.metrics.data.MetricData.Exemplar;
 import io.opentelemetry.sdk.metrics.data.MetricData.LongPoint;
+import io.opentelemetry.sdk.metrics.data.MetricData.Point;
 import io.opentelemetry.sdk.resources.Resource;
+import java.util.Collections;
 import java.util.List;
 import org.junit.jupiter.api.Test;
 
@@ -56,6 +60,72 @@ class LongCounterSdkTest {
         "labels");
   }
 
+  @Test
+  void collectMetrics_WithExemplars() {
+    LongCounterSdk longCounter = newMeterSdk(4, 100_000).longCounterBuilder("testCounter").build();
+    longCounter.add(1, Labels.of("K", "V"));
+    try (Scope ignored =
+        ExemplarReservoirTest.withSpan(ExemplarReservoirTest.SAMPLED_SPAN_CONTEXT)) {
+      longCounter.add(2, Labels.of("K", "V"));
+    }
+    List<MetricData> metricDataList = longCounter.collectAll();
+    assertThat(metricDataList).hasSize(1);
+    assertThat(metricDataList.get(0).getPoints())
+        .containsExactly(
+            LongPoint.create(
+                testClock.now(),
+                testClock.now(),
+                Labels.of("K", "V"),
+                3,
+                Collections.singletonList(
+                    Exemplar.create(
+                        2, testClock.now(), ExemplarReservoirTest.SAMPLED_SPAN_CONTEXT))));
+
+    // Exemplars are only reported by the collection following their recording.
+    longCounter.add(4, Labels.of("K", "V"));
+    assertThat(longCounter.collectAll().get(0).getPoints())
+        .containsExactly(
+            LongPoint.create(testClock.now(), testClock.now(), Labels.of("K", "V"), 7));
+  }
+
+  @Test
+  void collectMetrics_ExemplarsDisabledByDefault() {
+    LongCounterSdk longCounter = testSdk.longCounterBuilder("testCounter").build();
+    try (Scope ignored =
+        ExemplarReservoirTest.withSpan(ExemplarReservoirTest.SAMPLED_SPAN_CONTEXT)) {
+      longCounter.add(2, Labels.of("K", "V"));
+    }
+    assertThat(longCounter.collectAll().get(0).getPoints())
+        .containsExactly(
+            LongPoint.create(testClock.now(), testClock.now(), Labels.of("K", "V"), 2));
+  }
+
+  @Test
+  void collectMetrics_ExemplarsCappedPerSeries() {
+    // Beyond the first label set, the bindings are folded into the overflow series when batched.
+    LongCounterSdk longCounter = newMeterSdk(2, 1).longCounterBuilder("testCounter").build();
+    try (Scope ignored =
+        ExemplarReservoirTest.withSpan(ExemplarReservoirTest.SAMPLED_SPAN_CONTEXT)) {
+      for (int i = 0; i < 5; i++) {
+        longCounter.add(1, Labels.of("K", "V" + i));
+        longCounter.add(2, Labels.of("K", "V" + i));
+      }
+    }
+    List<MetricData> metricDataList = longCounter.collectAll();
+    Point overflowPoint = null;
+    for (Point point : metricDataList.get(0).getPoints()) {
+      if (point.getLabels().equals(CardinalityLimiter.OVERFLOW_LABELS)) {
+        overflowPoint = point;
+      }
+    }
+    assertThat(overflowPoint).isNotNull();
+    final List<Exemplar> exemplars = overflowPoint.getExemplars();
+    assertThat(exemplars).hasSize(2);
+    assertThrows(
+        UnsupportedOperationException.class,
+        () -> exemplars.add(Exemplar.create(3, 0, ExemplarReservoirTest.SAMPLED_SPAN_CONTEXT)));
+  }
+
   @Test
   void bound_PreventNullLabels() {
     assertThrows(
@@ -253,6 +323,18 @@ class LongCounterSdkTest {
                 testClock.now(), testClock.now(), Labels.of(keys[3], values[3]), 20_000));
   }
 
+  private MeterSdk newMeterSdk(int exemplarReservoirSize, int maxLabelSetsPerProvider) {
+    return new MeterSdk(
+        MeterProviderSharedState.create(
+            testClock,
+            RESOURCE,
+            new CardinalityLimiter(
+                CardinalityLimiter.DEFAULT_MAX_LABEL_SETS_PER_INSTRUMENT, maxLabelSetsPerProvider),
+            exemplarReservoirSize),
+        INSTRUMENTATION_LIBRARY_INFO,
+        new ViewRegistry());
+  }
+
   private static class OperationUpdaterWithBinding extends OperationUpdater {
     private final LongCounter.BoundLongCounter boundLongCounter;
 
@@ -0,0 +1,193 @@
+/*
+ * Copyright 2020, OpenTelemetry Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.opentelemetry.sdk.metrics;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.opentelemetry.common.Labels;
+import io.opentelemetry.metrics.BatchObserver;
+import io.opentelemetry.sdk.common.InstrumentationLibraryInfo;
+import io.opentelemetry.sdk.internal.TestClock;
+import io.opentelemetry.sdk.metrics.data.MetricData;
+import io.opentelemetry.sdk.resources.Resource;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+
+/** Unit tests for {@link MetricCollector}. */
+class MetricCollectorTest {
+  private final MeterSdk testSdk =
+      new MeterSdk(
+          MeterProviderSharedState.create(TestClock.create(), Resource.getEmpty()),
+          InstrumentationLibraryInfo.create(
+              "io.opentelemetry.sdk.metrics.MetricCollectorTest", null),
+          new ViewRegistry());
+
+  @Test
+  void parallel_SameOrderAsSerial() {
+    List<AbstractInstrument> instruments = new ArrayList<>();
+    for (int i = 0; i < 50; i++) {
+      LongCounterSdk counter = testSdk.longCounterBuilder("counter" + i).build();
+      counter.add(i, Labels.empty());
+      instruments.add(counter);
+      LongValueObserverSdk observer = testSdk.longValueObserverBuilder("observer" + i).build();
+      final long value = i;
+      observer.setCallback(result -> result.observe(value, Labels.empty()));
+      instruments.add(observer);
+    }
+
+    List<MetricData> serial = MetricCollector.serial().collect(instruments);
+    List<MetricData> parallel = MetricCollector.parallel(4, 10_000).collect(instruments);
+    assertThat(serial).hasSize(100);
+    assertThat(names(parallel)).isEqualTo(names(serial));
+  }
+
+  @Test
+  void parallel_SlowCallbackReportedByNextCollection() throws InterruptedException {
+    LongCounterSdk counter = testSdk.longCounterBuilder("counter").build();
+    counter.add(1, Labels.empty());
+    LongValueObserverSdk slowObserver = testSdk.longValueObserverBuilder("slow").build();
+    final CountDownLatch release = new CountDownLatch(1);
+    final CountDownLatch completed = new CountDownLatch(1);
+    final AtomicInteger callbacks = new AtomicInteger();
+    slowObserver.setCallback(
+        result -> {
+          callbacks.incrementAndGet();
+          try {
+            release.await();
+          } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+          }
+          result.observe(1, Labels.empty());
+          completed.countDown();
+        });
+    List<AbstractInstrument> instruments = new ArrayList<>();
+    instruments.add(slowObserver);
+    instruments.add(counter);
+    MetricCollector collector = MetricCollector.parallel(2, 100);
+
+    assertThat(names(collector.collect(instruments))).containsExactly("counter");
+    // The running collection is not started again.
+    assertThat(names(collector.collect(instruments))).containsExactly("counter");
+    assertThat(callbacks.get()).isEqualTo(1);
+
+    release.countDown();
+    assertThat(completed.await(10, TimeUnit.SECONDS)).isTrue();
+    assertThat(names(collector.collect(instruments))).containsExactly("slow", "counter");
+    assertThat(callbacks.get()).isEqualTo(1);
+    assertThat(names(collector.collect(instruments))).containsExactly("slow", "counter");
+    assertThat(callbacks.get()).isEqualTo(2);
+  }
+
+  @Test
+  void parallel_SlowBatchObserverReportedByNextCollection() throws InterruptedException {
+    LongCounterSdk counter = testSdk.longCounterBuilder("counter").build();
+    counter.add(1, Labels.empty());
+    LongSumObserverSdk batchObserved = testSdk.longSumObserverBuilder("batchObserved").build();
+    BatchObserverSdk batchObserver = testSdk.newBatchObserver("slow");
+    final BatchObserver.LongObservation observation =
+        batchObserver.bindLong(batchObserved, Labels.empty());
+    final CountDownLatch release = new CountDownLatch(1);
+    final CountDownLatch completed = new CountDownLatch(1);
+    final AtomicInteger callbacks = new AtomicInteger();
+    batchObserver.setCallback(
+        () -> {
+          callbacks.incrementAndGet();
+          try {
+            release.await();
+          } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+          }
+          observation.observe(1);
+          completed.countDown();
+        });
+    List<BatchObserverSdk> batchObservers = Collections.singletonList(batchObserver);
+    List<AbstractInstrument> instruments = new ArrayList<>();
+    instruments.add(batchObserved);
+    instruments.add(counter);
+    MetricCollector collector = MetricCollector.parallel(2, 100);
+
+    // The collection does not wait for the batch observer past the timeout.
+    assertThat(pointCounts(collector.collect(batchObservers, instruments))).containsExactly(0, 1);
+    // The running callback is not started again.
+    assertThat(pointCounts(collector.collect(batchObservers, instruments))).containsExactly(0, 1);
+    assertThat(callbacks.get()).isEqualTo(1);
+
+    release.countDown();
+    assertThat(completed.await(10, TimeUnit.SECONDS)).isTrue();
+    assertThat(pointCounts(collector.collect(batchObservers, instruments))).containsExactly(1, 1);
+    assertThat(callbacks.get()).isEqualTo(1);
+  }
+
+  @Test
+  void parallel_FailingCallbackSkipped() {
+    LongCounterSdk counter = testSdk.longCounterBuilder("counter").build();
+    counter.add(1, Labels.empty());
+    LongValueObserverSdk failingObserver = testSdk.longValueObserverBuilder("failing").build();
+    failingObserver.setCallback(
+        result -> {
+          throw new IllegalStateException("callback failed");
+        });
+    List<AbstractInstrument> instruments = new ArrayList<>();
+    instruments.add(failingObserver);
+    instruments.add(counter);
+
+    assertThat(names(MetricCollector.parallel(2, 10_000).collect(instruments)))
+        .containsExactly("counter");
+  }
+
+  @Test
+  void meterSdkProvider_CollectionParallelism() {
+    MeterSdkProvider meterSdkProvider =
+        MeterSdkProvider.builder()
+            .setCollectionParallelism(4)
+            .setCollectionTimeoutMillis(10_000)
+            .build();
+    List<String> expected = new ArrayList<>();
+    for (int i = 0; i < 10; i++) {
+      LongCounterSdk counter =
+          meterSdkProvider.get("meter" + i).longCounterBuilder("counter" + i).build();
+      counter.add(1, Labels.empty());
+      expected.add("counter" + i);
+    }
+
+    List<String> collected =
+        names(new ArrayList<>(meterSdkProvider.getMetricProducer().collectAllMetrics()));
+    Collections.sort(collected);
+    assertThat(collected).isEqualTo(expected);
+  }
+
+  private static List<Integer> pointCounts(List<MetricData> metrics) {
+    List<Integer> pointCounts = new ArrayList<>(metrics.size());
+    for (MetricData metric : metrics) {
+      pointCounts.add(metric.getPoints().size());
+    }
+    return pointCounts;
+  }
+
+  private static List<String> names(List<MetricData> metrics) {
+    List<String> names = new ArrayList<>(metrics.size());
+    for (MetricData metric : metrics) {
+      names.add(metric.getDescriptor().getName());
+    }
+    return names;
+  }
+}
@@ -0,0 +1,255 @@
+/*
+ * Copyright 2020, OpenTelemetry Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.opentelemetry.sdk.metrics;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import io.opentelemetry.common.Labels;
+import io.opentelemetry.metrics.LongCounter.BoundLongCounter;
+import io.opentelemetry.sdk.internal.TestClock;
+import io.opentelemetry.sdk.metrics.common.InstrumentType;
+import io.opentelemetry.sdk.metrics.data.AggregationTemporality;
+import io.opentelemetry.sdk.metrics.data.MetricData;
+import io.opentelemetry.sdk.metrics.data.MetricData.Descriptor;
+import io.opentelemetry.sdk.metrics.data.MetricData.LongPoint;
+import io.opentelemetry.sdk.metrics.data.MetricData.SummaryPoint;
+import io.opentelemetry.sdk.metrics.view.Aggregations;
+import io.opentelemetry.sdk.metrics.view.InstrumentSelector;
+import io.opentelemetry.sdk.metrics.view.View;
+import io.opentelemetry.sdk.resources.Resource;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+/** Unit tests for {@link ViewRegistry}. */
+class ViewRegistryTest {
+  private static final long SECOND_NANOS = 1_000_000_000;
+  private final TestClock testClock = TestClock.create();
+  private final MeterSdkProvider meterSdkProvider =
+      MeterSdkProvider.builder().setClock(testClock).setResource(Resource.getEmpty()).build();
+  private final MeterSdk meterSdk = meterSdkProvider.get("ViewRegistryTest");
+
+  @Test
+  void defaultView() {
+    LongCounterSdk longCounter = meterSdk.longCounterBuilder("counter").build();
+    longCounter.add(1, Labels.of("http.method", "GET", "http.status_code", "200"));
+    List<MetricData> metricData = longCounter.collectAll();
+    assertThat(metricData).hasSize(1);
+    assertThat(metricData.get(0).getDescriptor().getType())
+        .isEqualTo(Descriptor.Type.MONOTONIC_LONG);
+    assertThat(metricData.get(0).getPoints())
+        .containsExactly(
+            LongPoint.create(
+                testClock.now(),
+                testClock.now(),
+                Labels.of("http.method", "GET", "http.status_code", "200"),
+                1));
+  }
+
+  @Test
+  void labelKeys_SynchronousInstrument() {
+    meterSdkProvider.registerView(
+        InstrumentSelector.newBuilder().setInstrumentNameRegex("http\\..*").build(),
+        View.newBuilder().setLabelKeys("http.method").build());
+    LongCounterSdk longCounter = meterSdk.longCounterBuilder("http.requests").build();
+    longCounter.add(1, Labels.of("http.method", "GET", "user", "1"));
+    longCounter.add(2, Labels.of("http.method", "GET", "user", "2"));
+    longCounter.bind(Labels.of("http.method", "POST", "user", "3")).add(5);
+
+    List<MetricData> metricData = longCounter.collectAll();
+    assertThat(metricData).hasSize(1);
+    assertThat(metricData.get(0).getPoints())
+        .containsExactlyInAnyOrder(
+            LongPoint.create(testClock.now(), testClock.now(), Labels.of("http.method", "GET"), 3),
+            LongPoint.create(
+                testClock.now(), testClock.now(), Labels.of("http.method", "POST"), 5));
+
+    // Not selected by the view.
+    LongCounterSdk otherCounter = meterSdk.longCounterBuilder("other.requests").build();
+    otherCounter.add(1, Labels.of("http.method", "GET", "user", "1"));
+    assertThat(otherCounter.collectAll().get(0).getPoints())
+        .containsExactly(
+            LongPoint.create(
+                testClock.now(), testClock.now(), Labels.of("http.method", "GET", "user", "1"), 1));
+  }
+
+  @Test
+  void labelKeys_AsynchronousInstrument() {
+    meterSdkProvider.registerView(
+        InstrumentSelector.newBuilder().setInstrumentType(InstrumentType.VALUE_OBSERVER).build(),
+        View.newBuilder().setLabelKeys("pool").setAggregation(Aggregations.count()).build());
+    LongValueObserverSdk valueObserver = meterSdk.longValueObserverBuilder("observer").build();
+    valueObserver.setCallback(
+        result -> {
+          result.observe(10, Labels.of("pool", "a", "thread", "1"));
+          result.observe(20, Labels.of("pool", "a", "thread", "2"));
+          result.observe(30, Labels.of("pool", "b", "thread", "3"));
+        });
+
+    List<MetricData> metricData = valueObserver.collectAll();
+    assertThat(metricData).hasSize(1);
+    assertThat(metricData.get(0).getPoints())
+        .containsExactlyInAnyOrder(
+            LongPoint.create(testClock.now(), testClock.now(), Labels.of("pool", "a"), 2),
+            LongPoint.create(testClock.now(), testClock.now(), Labels.of("pool", "b"), 1));
+  }
+
+  @Test
+  void aggregation() {
+    meterSdkProvider.registerView(
+        InstrumentSelector.newBuilder().setInstrumentType(InstrumentType.VALUE_RECORDER).build(),
+        View.newBuilder().setAggregation(Aggregations.count()).build());
+    LongValueRecorderSdk valueRecorder = meterSdk.longValueRecorderBuilder("recorder").build();
+    valueRecorder.record(10, Labels.empty());
+    valueRecorder.record(20, Labels.empty());
+
+    List<MetricData> metricData = valueRecorder.collectAll();
+    assertThat(metricData).hasSize(1);
+    assertThat(metricData.get(0).getDescriptor().getType())
+        .isEqualTo(Descriptor.Type.MONOTONIC_LONG);
+    assertThat(metricData.get(0).getPoints())
+        .containsExactly(LongPoint.create(testClock.now(), testClock.now(), Labels.empty(), 2));
+  }
+
+  @Test
+  void firstRegisteredViewApplies() {
+    meterSdkProvider.registerView(
+        InstrumentSelector.newBuilder().setInstrumentNameRegex("requests").build(),
+        View.newBuilder().setLabelKeys("a").build());
+    meterSdkProvider.registerView(
+        InstrumentSelector.newBuilder().build(), View.newBuilder().setLabelKeys("b").build());
+    LongCounterSdk requests = meterSdk.longCounterBuilder("requests").build();
+    requests.add(1, Labels.of("a", "1", "b", "2"));
+    LongCounterSdk other = meterSdk.longCounterBuilder("other").build();
+    other.add(1, Labels.of("a", "1", "b", "2"));
+
+    assertThat(requests.collectAll().get(0).getPoints().iterator().next().getLabels())
+        .isEqualTo(Labels.of("a", "1"));
+    assertThat(other.collectAll().get(0).getPoints().iterator().next().getLabels())
+        .isEqualTo(Labels.of("b", "2"));
+  }
+
+  @Test
+  void aggregationNotAvailable() {
+    assertThrows(
+        IllegalArgumentException.class,
+        () ->
+            meterSdkProvider.registerView(
+                InstrumentSelector.newBuilder().setInstrumentType(InstrumentType.COUNTER).build(),
+                View.newBuilder()
+                    .setAggregation(Aggregations.distributionWithExplicitBounds(1.0, 2.0))
+                    .build()));
+  }
+
+  @Test
+  void aggregationNotAvailable_DefaultForUnselectedType() {
+    meterSdkProvider.registerView(
+        InstrumentSelector.newBuilder().build(),
+        View.newBuilder().setAggregation(Aggregations.distributionWithExplicitBounds(1.0)).build());
+    LongCounterSdk longCounter = meterSdk.longCounterBuilder("counter").build();
+    longCounter.add(1, Labels.empty());
+    assertThat(longCounter.collectAll().get(0).getDescriptor().getType())
+        .isEqualTo(Descriptor.Type.MONOTONIC_LONG);
+  }
+
+  @Test
+  void temporality_Default() {
+    LongCounterSdk longCounter = meterSdk.longCounterBuilder("counter").build();
+    longCounter.add(1, Labels.empty());
+    assertThat(longCounter.collectAll().get(0).getAggregationTemporality())
+        .isEqualTo(AggregationTemporality.CUMULATIVE);
+    LongValueRecorderSdk valueRecorder = meterSdk.longValueRecorderBuilder("recorder").build();
+    valueRecorder.record(1, Labels.empty());
+    assertThat(valueRecorder.collectAll().get(0).getAggregationTemporality())
+        .isEqualTo(AggregationTemporality.DELTA);
+  }
+
+  @Test
+  void temporality_Provider() {
+    MeterSdk deltaMeterSdk =
+        MeterSdkProvider.builder()
+            .setClock(testClock)
+            .setResource(Resource.getEmpty())
+            .setAggregationTemporality(AggregationTemporality.DELTA)
+            .build()
+            .get("ViewRegistryTest");
+    LongCounterSdk longCounter = deltaMeterSdk.longCounterBuilder("counter").build();
+    BoundLongCounter bound = longCounter.bind(Labels.of("k", "bound"));
+    long startTime = testClock.now();
+    bound.add(1);
+    longCounter.add(2, Labels.of("k", "unbound"));
+    testClock.advanceNanos(SECOND_NANOS);
+    List<MetricData> metricData = longCounter.collectAll();
+    assertThat(metricData).hasSize(1);
+    assertThat(metricData.get(0).getAggregationTemporality())
+        .isEqualTo(AggregationTemporality.DELTA);
+    assertThat(metricData.get(0).getPoints())
+        .containsExactlyInAnyOrder(
+            LongPoint.create(startTime, testClock.now(), Labels.of("k", "bound"), 1),
+            LongPoint.create(startTime, testClock.now(), Labels.of("k", "unbound"), 2));
+
+    // Both series are reused from the previous cycle, and only report this cycle's values.
+    startTime = testClock.now();
+    bound.add(3);
+    longCounter.add(4, Labels.of("k", "unbound"));
+    testClock.advanceNanos(SECOND_NANOS);
+    assertThat(longCounter.collectAll().get(0).getPoints())
+        .containsExactlyInAnyOrder(
+            LongPoint.create(startTime, testClock.now(), Labels.of("k", "bound"), 3),
+            LongPoint.create(startTime, testClock.now(), Labels.of("k", "unbound"), 4));
+
+    // Series without measurements in a cycle report nothing.
+    startTime = testClock.now();
+    bound.add(5);
+    testClock.advanceNanos(SECOND_NANOS);
+    assertThat(longCounter.collectAll().get(0).getPoints())
+        .containsExactly(LongPoint.create(startTime, testClock.now(), Labels.of("k", "bound"), 5));
+    startTime = testClock.now();
+    longCounter.add(6, Labels.of("k", "unbound"));
+    testClock.advanceNanos(SECOND_NANOS);
+    assertThat(longCounter.collectAll().get(0).getPoints())
+        .containsExactlyInAnyOrder(
+            LongPoint.create(startTime, testClock.now(), Labels.of("k", "bound"), 0),
+            LongPoint.create(startTime, testClock.now(), Labels.of("k", "unbound"), 6));
+    bound.unbind();
+  }
+
+  @Test
+  void temporality_View() {
+    meterSdkProvider.registerView(
+        InstrumentSelector.newBuilder().setInstrumentType(InstrumentType.VALUE_RECORDER).build(),
+        View.newBuilder().setAggregationTemporality(AggregationTemporality.CUMULATIVE).build());
+    meterSdkProvider.registerView(
+        InstrumentSelector.newBuilder().build(),
+        View.newBuilder().setAggregationTemporality(AggregationTemporality.DELTA).build());
+    LongValueRecorderSdk valueRecorder = meterSdk.longValueRecorderBuilder("recorder").build();
+    valueRecorder.record(10, Labels.empty());
+    valueRecorder.collectAll();
+    valueRecorder.record(20, Labels.empty());
+    List<MetricData> metricData = valueRecorder.collectAll();
+    assertThat(metricData.get(0).getAggregationTemporality())
+        .isEqualTo(AggregationTemporality.CUMULATIVE);
+    assertThat(((SummaryPoint) metricData.get(0).getPoints().iterator().next()).getCount())
+        .isEqualTo(2);
+
+    // Sum observers observe cumulative sums.
+    LongSumObserverSdk sumObserver = meterSdk.longSumObserverBuilder("observer").build();
+    sumObserver.setCallback(result -> result.observe(10, Labels.empty()));
+    assertThat(sumObserver.collectAll().get(0).getAggregationTemporality())
+        .isEqualTo(AggregationTemporality.CUMULATIVE);
+  }
+}
@@ -0,0 +1,74 @@
+/*
+ * Copyright 2020, OpenTelemetry Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.opentelemetry.sdk.metrics.aggregator;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.opentelemetry.common.Labels;
+import io.opentelemetry.sdk.metrics.data.MetricData.LongPoint;
+import io.opentelemetry.sdk.metrics.data.MetricData.Point;
+import org.junit.jupiter.api.Test;
+
+/** Unit tests for {@link CountAggregator}. */
+class CountAggregatorTest {
+  @Test
+  void factoryAggregation() {
+    AggregatorFactory factory = CountAggregator.getFactory();
+    assertThat(factory.getAggregator()).isInstanceOf(CountAggregator.class);
+  }
+
+  @Test
+  void multipleRecords() {
+    Aggregator aggregator = CountAggregator.getFactory().getAggregator();
+    assertThat(getPoint(aggregator).getValue()).isEqualTo(0);
+    aggregator.recordLong(12);
+    aggregator.recordLong(-12);
+    aggregator.recordDouble(1.5);
+    assertThat(getPoint(aggregator).getValue()).isEqualTo(3);
+  }
+
+  @Test
+  void mergeAndReset() {
+    Aggregator aggregator = CountAggregator.getFactory().getAggregator();
+    aggregator.recordLong(13);
+    aggregator.recordLong(12);
+    Aggregator mergedAggregator = CountAggregator.getFactory().getAggregator();
+    aggregator.mergeToAndReset(mergedAggregator);
+    assertThat(getPoint(aggregator).getValue()).isEqualTo(0);
+    assertThat(getPoint(mergedAggregator).getValue()).isEqualTo(2);
+    aggregator.recordLong(12);
+    aggregator.mergeToAndReset(mergedAggregator);
+    assertThat(getPoint(mergedAggregator).getValue()).isEqualTo(3);
+  }
+
+  @Test
+  void reset() {
+    Aggregator aggregator = CountAggregator.getFactory().getAggregator();
+    aggregator.recordLong(13);
+    aggregator.recordLong(12);
+    aggregator.reset();
+    assertThat(getPoint(aggregator).getValue()).isEqualTo(0);
+    aggregator.recordLong(12);
+    assertThat(getPoint(aggregator).getValue()).isEqualTo(1);
+  }
+
+  private static LongPoint getPoint(Aggregator aggregator) {
+    Point point = aggregator.toPoint(12345, 12358, Labels.of("key", "value"));
+    assertThat(point).isInstanceOf(LongPoint.class);
+    return (LongPoint) point;
+  }
+}
@@ -63,6 +63,16 @@ class DoubleLastValueAggregatorTest {
     assertThat(getPoint(mergedAggregator).getValue()).isCloseTo(12.1, offset(1e-6));
   }
 
+  @Test
+  void reset() {
+    Aggregator aggregator = DoubleLastValueAggregator.getFactory().getAggregator();
+    aggregator.recordDouble(13.1);
+    aggregator.reset();
+    assertNullPoint(aggregator);
+    aggregator.recordDouble(12.1);
+    assertThat(getPoint(aggregator).getValue()).isCloseTo(12.1, offset(1e-6));
+  }
+
   private static DoublePoint getPoint(Aggregator aggregator) {
     Point point = aggregator.toPoint(12345, 12358, Labels.of("key", "value"));
     assertThat(point).isNotNull();
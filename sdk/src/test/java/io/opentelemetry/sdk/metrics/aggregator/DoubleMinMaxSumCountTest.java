@@ -27,6 +27,7 @@ import java.util.Arrays;
 import java.util.List;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
 import org.junit.jupiter.api.Test;
 
 class DoubleMinMaxSumCountTest {
@@ -68,6 +69,18 @@ class DoubleMinMaxSumCountTest {
     assertThat(aggregator.toPoint(0, 100, Labels.empty())).isNull();
   }
 
+  @Test
+  void testReset() {
+    Aggregator aggregator = DoubleMinMaxSumCount.getFactory().getAggregator();
+    aggregator.recordDouble(100);
+    aggregator.reset();
+    assertThat(aggregator.toPoint(0, 100, Labels.empty())).isNull();
+
+    aggregator.recordDouble(10);
+    assertThat(aggregator.toPoint(0, 100, Labels.empty()))
+        .isEqualTo(SummaryPoint.create(0, 100, Labels.empty(), 1, 10, createPercentiles(10d, 10d)));
+  }
+
   @Test
   void testMultithreadedUpdates() throws Exception {
     final Aggregator aggregator = DoubleMinMaxSumCount.getFactory().getAggregator();
@@ -119,6 +132,43 @@ class DoubleMinMaxSumCountTest {
     assertThat(percentileValues).isEqualTo(createPercentiles(1.1d, 23.1d));
   }
 
+  @Test
+  void testMergeAndReset_ConsistentWithConcurrentRecordings() throws Exception {
+    final Aggregator aggregator = DoubleMinMaxSumCount.getFactory().getAggregator();
+    final AtomicBoolean done = new AtomicBoolean();
+    List<Thread> workers = new ArrayList<>();
+    for (int i = 0; i < 4; i++) {
+      Thread t =
+          new Thread(
+              () -> {
+                while (!done.get()) {
+                  aggregator.recordDouble(3.0);
+                }
+              });
+      workers.add(t);
+      t.start();
+    }
+
+    try {
+      for (int i = 0; i < 10_000; i++) {
+        Aggregator interval = DoubleMinMaxSumCount.getFactory().getAggregator();
+        aggregator.mergeToAndReset(interval);
+        SummaryPoint point = (SummaryPoint) interval.toPoint(0, 100, Labels.empty());
+        if (point == null) {
+          continue;
+        }
+        // A value recorded during the collection is in both the sum and the count of one interval.
+        assertThat(point.getSum()).isEqualTo(point.getCount() * 3.0);
+        assertThat(point.getPercentileValues()).isEqualTo(createPercentiles(3, 3));
+      }
+    } finally {
+      done.set(true);
+      for (Thread worker : workers) {
+        worker.join();
+      }
+    }
+  }
+
   private static List<ValueAtPercentile> createPercentiles(double min, double max) {
     return Arrays.asList(ValueAtPercentile.create(0.0, min), ValueAtPercentile.create(100.0, max));
   }
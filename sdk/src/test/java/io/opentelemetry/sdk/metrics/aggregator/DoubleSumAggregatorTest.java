@@ -78,6 +78,17 @@ class DoubleSumAggregatorTest {
     assertThat(getPoint(mergedAggregator).getValue()).isCloseTo(12.1, offset(1e-6));
   }
 
+  @Test
+  void reset() {
+    Aggregator aggregator = DoubleSumAggregator.getFactory().getAggregator();
+    aggregator.recordDouble(13.1);
+    aggregator.recordDouble(12.1);
+    aggregator.reset();
+    assertThat(getPoint(aggregator).getValue()).isEqualTo(0);
+    aggregator.recordDouble(-12.5);
+    assertThat(getPoint(aggregator).getValue()).isEqualTo(-12.5);
+  }
+
   private static DoublePoint getPoint(Aggregator aggregator) {
     Point point = aggregator.toPoint(12345, 12358, Labels.of("key", "value"));
     assertThat(point).isNotNull();
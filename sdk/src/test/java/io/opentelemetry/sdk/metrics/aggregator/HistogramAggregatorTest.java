@@ -0,0 +1,207 @@
+/*
+ * Copyright 2020, OpenTelemetry Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.opentelemetry.sdk.metrics.aggregator;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import io.opentelemetry.common.Labels;
+import io.opentelemetry.sdk.metrics.data.MetricData.HistogramPoint;
+import io.opentelemetry.sdk.metrics.data.MetricData.Point;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import org.junit.jupiter.api.Test;
+
+/** Unit tests for {@link HistogramAggregator}. */
+class HistogramAggregatorTest {
+  private static final double[] BOUNDARIES = {10, 20, 50};
+
+  @Test
+  void factoryAggregation() {
+    AggregatorFactory factory = HistogramAggregator.getFactory(BOUNDARIES);
+    assertThat(factory.getAggregator()).isInstanceOf(HistogramAggregator.class);
+  }
+
+  @Test
+  void toPoint_NoRecordings() {
+    Aggregator aggregator = HistogramAggregator.getFactory(BOUNDARIES).getAggregator();
+    assertThat(aggregator.toPoint(12345, 12358, Labels.empty())).isNull();
+  }
+
+  @Test
+  void multipleRecords() {
+    Aggregator aggregator = HistogramAggregator.getFactory(BOUNDARIES).getAggregator();
+    aggregator.recordLong(5);
+    aggregator.recordLong(10);
+    aggregator.recordDouble(10.5);
+    aggregator.recordLong(50);
+    aggregator.recordDouble(1e9);
+    HistogramPoint point = getPoint(aggregator);
+    assertThat(point.getCount()).isEqualTo(5);
+    assertThat(point.getSum()).isEqualTo(5 + 10 + 10.5 + 50 + 1e9);
+    assertThat(point.getBoundaries()).containsExactly(10.0, 20.0, 50.0);
+    assertThat(point.getCounts()).containsExactly(2L, 1L, 1L, 1L);
+  }
+
+  @Test
+  void mergeAndReset_DifferentBuckets() {
+    final Aggregator aggregator = HistogramAggregator.getFactory(BOUNDARIES).getAggregator();
+    aggregator.recordLong(13);
+    final Aggregator mergedAggregator = HistogramAggregator.getFactory(BOUNDARIES).getAggregator();
+    assertThatThrownBy(() -> aggregator.mergeToAndReset(mergedAggregator))
+        .isInstanceOf(IllegalArgumentException.class);
+    // Nothing was merged or reset.
+    assertThat(getPoint(aggregator).getCount()).isEqualTo(1);
+    assertThat(mergedAggregator.toPoint(12345, 12358, Labels.empty())).isNull();
+  }
+
+  @Test
+  void recordDouble_NaNDropped() {
+    Aggregator aggregator = HistogramAggregator.getFactory(BOUNDARIES).getAggregator();
+    aggregator.recordDouble(Double.NaN);
+    assertThat(aggregator.toPoint(12345, 12358, Labels.empty())).isNull();
+    aggregator.recordDouble(15);
+    aggregator.recordDouble(Double.NaN);
+    HistogramPoint point = getPoint(aggregator);
+    assertThat(point.getCount()).isEqualTo(1);
+    assertThat(point.getSum()).isEqualTo(15);
+    assertThat(point.getCounts()).containsExactly(0L, 1L, 0L, 0L);
+  }
+
+  @Test
+  void mergeAndReset() {
+    AggregatorFactory factory = HistogramAggregator.getFactory(BOUNDARIES);
+    Aggregator aggregator = factory.getAggregator();
+    aggregator.recordLong(13);
+    aggregator.recordLong(60);
+    Aggregator mergedAggregator = factory.getAggregator();
+    aggregator.mergeToAndReset(mergedAggregator);
+    assertThat(aggregator.toPoint(12345, 12358, Labels.empty())).isNull();
+    aggregator.recordLong(1);
+    aggregator.mergeToAndReset(mergedAggregator);
+    HistogramPoint point = getPoint(mergedAggregator);
+    assertThat(point.getCount()).isEqualTo(3);
+    assertThat(point.getSum()).isEqualTo(74);
+    assertThat(point.getCounts()).containsExactly(1L, 1L, 0L, 1L);
+  }
+
+  @Test
+  void explicitBuckets_UpperBoundaryInclusive() {
+    HistogramBuckets buckets = HistogramBuckets.explicit(BOUNDARIES);
+    assertThat(buckets.bucketCount()).isEqualTo(4);
+    assertThat(buckets.bucketIndex(Double.NEGATIVE_INFINITY)).isEqualTo(0);
+    assertThat(buckets.bucketIndex(10)).isEqualTo(0);
+    assertThat(buckets.bucketIndex(Math.nextUp(10.0))).isEqualTo(1);
+    assertThat(buckets.bucketIndex(20)).isEqualTo(1);
+    assertThat(buckets.bucketIndex(49)).isEqualTo(2);
+    assertThat(buckets.bucketIndex(50)).isEqualTo(2);
+    assertThat(buckets.bucketIndex(51)).isEqualTo(3);
+    assertThat(buckets.bucketIndex(Double.POSITIVE_INFINITY)).isEqualTo(3);
+    assertThat(buckets.bucketIndex(Double.NaN)).isEqualTo(0);
+    assertThat(HistogramBuckets.explicit(new double[0]).bucketIndex(42)).isEqualTo(0);
+  }
+
+  @Test
+  void explicitBuckets_InvalidBoundaries() {
+    assertThatThrownBy(() -> HistogramBuckets.explicit(new double[] {1, 1}))
+        .isInstanceOf(IllegalArgumentException.class);
+    assertThatThrownBy(() -> HistogramBuckets.explicit(new double[] {2, 1}))
+        .isInstanceOf(IllegalArgumentException.class);
+    assertThatThrownBy(() -> HistogramBuckets.explicit(new double[] {1, Double.NaN}))
+        .isInstanceOf(IllegalArgumentException.class);
+  }
+
+  @Test
+  void logLinearBuckets_Boundaries() {
+    HistogramBuckets buckets = HistogramBuckets.logLinear(3, 7, 4);
+    // Rounded to [2, 8], 2 powers of two with 4 sub-buckets each.
+    assertThat(buckets.getBoundaries())
+        .containsExactly(2.0, 2.5, 3.0, 3.5, 4.0, 5.0, 6.0, 7.0, 8.0);
+    assertThat(buckets.bucketCount()).isEqualTo(10);
+  }
+
+  @Test
+  void logLinearBuckets_MatchExplicitBuckets() {
+    HistogramBuckets logLinear = HistogramBuckets.logLinear(1e-3, 1e6, 16);
+    List<Double> boundaries = logLinear.getBoundaries();
+    double[] explicitBoundaries = new double[boundaries.size()];
+    for (int i = 0; i < explicitBoundaries.length; i++) {
+      explicitBoundaries[i] = boundaries.get(i);
+    }
+    HistogramBuckets explicit = HistogramBuckets.explicit(explicitBoundaries);
+
+    List<Double> values = new ArrayList<>();
+    for (double boundary : explicitBoundaries) {
+      values.add(boundary);
+      values.add(Math.nextUp(boundary));
+      values.add(Math.nextDown(boundary));
+    }
+    for (int i = 0; i < 10_000; i++) {
+      values.add(Math.pow(10, ThreadLocalRandom.current().nextDouble(-5, 8)));
+    }
+    values.add(0.0);
+    values.add(-1.0);
+    values.add(Double.NaN);
+    values.add(Double.POSITIVE_INFINITY);
+    values.add(Double.NEGATIVE_INFINITY);
+    for (double value : values) {
+      assertThat(logLinear.bucketIndex(value))
+          .as("%s", value)
+          .isEqualTo(explicit.bucketIndex(value));
+    }
+  }
+
+  @Test
+  void logLinearBuckets_InvalidArguments() {
+    assertThatThrownBy(() -> HistogramBuckets.logLinear(0, 10, 4))
+        .isInstanceOf(IllegalArgumentException.class);
+    assertThatThrownBy(() -> HistogramBuckets.logLinear(10, 10, 4))
+        .isInstanceOf(IllegalArgumentException.class);
+    assertThatThrownBy(() -> HistogramBuckets.logLinear(1, 10, 3))
+        .isInstanceOf(IllegalArgumentException.class);
+    assertThatThrownBy(() -> HistogramBuckets.logLinear(1, 10, 2048))
+        .isInstanceOf(IllegalArgumentException.class);
+    assertThatThrownBy(() -> HistogramBuckets.logLinear(1, Double.MAX_VALUE, 1))
+        .isInstanceOf(IllegalArgumentException.class);
+    assertThatThrownBy(() -> HistogramBuckets.logLinear(1e-9, 1e9, 1024))
+        .isInstanceOf(IllegalArgumentException.class);
+  }
+
+  @Test
+  void reset() {
+    Aggregator aggregator = HistogramAggregator.getFactory(BOUNDARIES).getAggregator();
+    aggregator.recordLong(13);
+    aggregator.recordLong(60);
+    aggregator.reset();
+    assertThat(aggregator.toPoint(12345, 12358, Labels.empty())).isNull();
+    aggregator.recordLong(1);
+    HistogramPoint point = getPoint(aggregator);
+    assertThat(point.getCount()).isEqualTo(1);
+    assertThat(point.getSum()).isEqualTo(1);
+    assertThat(point.getCounts()).containsExactly(1L, 0L, 0L, 0L);
+  }
+
+  private static HistogramPoint getPoint(Aggregator aggregator) {
+    Point point = aggregator.toPoint(12345, 12358, Labels.of("key", "value"));
+    assertThat(point.getStartEpochNanos()).isEqualTo(12345);
+    assertThat(point.getEpochNanos()).isEqualTo(12358);
+    assertThat(point.getLabels().get("key")).isEqualTo("value");
+    assertThat(point).isInstanceOf(HistogramPoint.class);
+    return (HistogramPoint) point;
+  }
+}
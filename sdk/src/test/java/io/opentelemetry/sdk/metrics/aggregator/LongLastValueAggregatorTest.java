@@ -62,6 +62,16 @@ class LongLastValueAggregatorTest {
     assertThat(getPoint(mergedAggregator).getValue()).isEqualTo(12);
   }
 
+  @Test
+  void reset() {
+    Aggregator aggregator = LongLastValueAggregator.getFactory().getAggregator();
+    aggregator.recordLong(13);
+    aggregator.reset();
+    assertNullPoint(aggregator);
+    aggregator.recordLong(12);
+    assertThat(getPoint(aggregator).getValue()).isEqualTo(12);
+  }
+
   private static LongPoint getPoint(Aggregator aggregator) {
     Point point = aggregator.toPoint(12345, 12358, Labels.of("key", "value"));
     assertThat(point).isNotNull();
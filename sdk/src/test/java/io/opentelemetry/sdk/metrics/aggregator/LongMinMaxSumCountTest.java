@@ -26,6 +26,7 @@ import java.util.Arrays;
 import java.util.List;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
 import org.junit.jupiter.api.Test;
 
 class LongMinMaxSumCountTest {
@@ -69,6 +70,19 @@ class LongMinMaxSumCountTest {
     assertThat(aggregator.toPoint(0, 100, Labels.empty())).isNull();
   }
 
+  @Test
+  void testReset() {
+    Aggregator aggregator = LongMinMaxSumCount.getFactory().getAggregator();
+    aggregator.recordLong(100);
+    aggregator.reset();
+    assertThat(aggregator.toPoint(0, 100, Labels.empty())).isNull();
+
+    aggregator.recordLong(10);
+    assertThat(aggregator.toPoint(0, 100, Labels.empty()))
+        .isEqualTo(
+            SummaryPoint.create(0, 100, Labels.empty(), 1, 10, createPercentileValues(10L, 10L)));
+  }
+
   @Test
   void testMultithreadedUpdates() throws Exception {
     final Aggregator aggregator = LongMinMaxSumCount.getFactory().getAggregator();
@@ -120,6 +134,43 @@ class LongMinMaxSumCountTest {
                 createPercentileValues(1L, 23L)));
   }
 
+  @Test
+  void testMergeAndReset_ConsistentWithConcurrentRecordings() throws Exception {
+    final Aggregator aggregator = LongMinMaxSumCount.getFactory().getAggregator();
+    final AtomicBoolean done = new AtomicBoolean();
+    List<Thread> workers = new ArrayList<>();
+    for (int i = 0; i < 4; i++) {
+      Thread t =
+          new Thread(
+              () -> {
+                while (!done.get()) {
+                  aggregator.recordLong(3);
+                }
+              });
+      workers.add(t);
+      t.start();
+    }
+
+    try {
+      for (int i = 0; i < 10_000; i++) {
+        Aggregator interval = LongMinMaxSumCount.getFactory().getAggregator();
+        aggregator.mergeToAndReset(interval);
+        SummaryPoint point = (SummaryPoint) interval.toPoint(0, 100, Labels.empty());
+        if (point == null) {
+          continue;
+        }
+        // A value recorded during the collection is in both the sum and the count of one interval.
+        assertThat(point.getSum()).isEqualTo(point.getCount() * 3.0);
+        assertThat(point.getPercentileValues()).isEqualTo(createPercentileValues(3, 3));
+      }
+    } finally {
+      done.set(true);
+      for (Thread worker : workers) {
+        worker.join();
+      }
+    }
+  }
+
   private static List<ValueAtPercentile> createPercentileValues(long min, long max) {
     return Arrays.asList(ValueAtPercentile.create(0.0, min), ValueAtPercentile.create(100.0, max));
   }
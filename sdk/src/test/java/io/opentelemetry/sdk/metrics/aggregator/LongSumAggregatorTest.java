@@ -77,6 +77,17 @@ class LongSumAggregatorTest {
     assertThat(getPoint(mergedAggregator).getValue()).isEqualTo(12);
   }
 
+  @Test
+  void reset() {
+    Aggregator aggregator = LongSumAggregator.getFactory().getAggregator();
+    aggregator.recordLong(13);
+    aggregator.recordLong(12);
+    aggregator.reset();
+    assertThat(getPoint(aggregator).getValue()).isEqualTo(0);
+    aggregator.recordLong(-12);
+    assertThat(getPoint(aggregator).getValue()).isEqualTo(-12);
+  }
+
   private static LongPoint getPoint(Aggregator aggregator) {
     Point point = aggregator.toPoint(12345, 12358, Labels.of("key", "value"));
     assertThat(point).isNotNull();
@@ -35,6 +35,7 @@ class NoopAggregatorTest {
     aggregator.recordLong(12);
     aggregator.recordDouble(12.1);
     aggregator.mergeToAndReset(aggregator);
+    aggregator.reset();
     assertThat(aggregator.toPoint(1, 2, Labels.empty())).isNull();
   }
 }
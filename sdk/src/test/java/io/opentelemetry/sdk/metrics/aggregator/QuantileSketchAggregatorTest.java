@@ -0,0 +1,294 @@
+/*
+ * Copyright 2020, OpenTelemetry Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.opentelemetry.sdk.metrics.aggregator;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.offset;
+import static org.assertj.core.api.Assertions.withinPercentage;
+
+import io.opentelemetry.common.Labels;
+import io.opentelemetry.sdk.metrics.data.MetricData.SummaryPoint;
+import io.opentelemetry.sdk.metrics.data.MetricData.ValueAtPercentile;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+/** Unit tests for {@link QuantileSketchAggregator}. */
+class QuantileSketchAggregatorTest {
+  private static final double[] PERCENTILES = {50.0, 90.0, 99.0, 99.9};
+
+  @Test
+  void factoryAggregation() {
+    AggregatorFactory factory = QuantileSketchAggregator.getFactory(0.01, PERCENTILES);
+    assertThat(factory.getAggregator()).isInstanceOf(QuantileSketchAggregator.class);
+  }
+
+  @Test
+  void toPoint_NoRecordings() {
+    Aggregator aggregator = QuantileSketchAggregator.getFactory(0.01, PERCENTILES).getAggregator();
+    assertThat(aggregator.toPoint(0, 100, Labels.empty())).isNull();
+  }
+
+  @Test
+  void singleValue() {
+    Aggregator aggregator = QuantileSketchAggregator.getFactory(0.01, PERCENTILES).getAggregator();
+    aggregator.recordLong(42);
+    SummaryPoint point = getPoint(aggregator);
+    assertThat(point.getCount()).isEqualTo(1);
+    assertThat(point.getSum()).isEqualTo(42);
+    // Every estimate is clamped to the exact minimum and maximum.
+    for (ValueAtPercentile valueAtPercentile : point.getPercentileValues()) {
+      assertThat(valueAtPercentile.getValue()).isEqualTo(42);
+    }
+    assertThat(point.getPercentileValues())
+        .extracting(ValueAtPercentile::getPercentile)
+        .containsExactly(0.0, 50.0, 90.0, 99.0, 99.9, 100.0);
+  }
+
+  @Test
+  void relativeAccuracy() {
+    for (double relativeAccuracy : new double[] {0.1, 0.01, 0.001}) {
+      // The values span more powers of two than the default number of bins at 0.001.
+      Aggregator aggregator =
+          QuantileSketchAggregator.getFactory(relativeAccuracy, PERCENTILES, Integer.MAX_VALUE)
+              .getAggregator();
+      Random random = new Random(1234);
+      double[] values = new double[100_000];
+      for (int i = 0; i < values.length; i++) {
+        // Log-normal latencies around a millisecond, in nanoseconds.
+        values[i] = Math.exp(random.nextGaussian() * 2 + 14);
+        aggregator.recordDouble(values[i]);
+      }
+      Arrays.sort(values);
+
+      SummaryPoint point = getPoint(aggregator);
+      assertThat(point.getCount()).isEqualTo(values.length);
+      List<ValueAtPercentile> percentileValues = point.getPercentileValues();
+      assertThat(percentileValues.get(0).getValue()).isEqualTo(values[0]);
+      assertThat(percentileValues.get(percentileValues.size() - 1).getValue())
+          .isEqualTo(values[values.length - 1]);
+      for (int i = 1; i < percentileValues.size() - 1; i++) {
+        double percentile = percentileValues.get(i).getPercentile();
+        double expected = values[(int) Math.ceil(percentile / 100 * values.length) - 1];
+        assertThat(percentileValues.get(i).getValue())
+            .as("p%s with relative accuracy %s", percentile, relativeAccuracy)
+            .isCloseTo(expected, withinPercentage(relativeAccuracy * 100));
+      }
+    }
+  }
+
+  @Test
+  void valuesOutsideOfBinnedRange() {
+    Aggregator aggregator =
+        QuantileSketchAggregator.getFactory(0.01, new double[] {10, 50, 90}).getAggregator();
+    for (int i = 0; i < 20; i++) {
+      aggregator.recordDouble(-5);
+    }
+    for (int i = 0; i < 60; i++) {
+      aggregator.recordDouble(0);
+    }
+    for (int i = 0; i < 20; i++) {
+      aggregator.recordDouble(1e30);
+    }
+    List<ValueAtPercentile> percentileValues = getPoint(aggregator).getPercentileValues();
+    assertThat(percentileValues)
+        .containsExactly(
+            ValueAtPercentile.create(0, -5),
+            ValueAtPercentile.create(10, -5),
+            ValueAtPercentile.create(50, -5),
+            ValueAtPercentile.create(90, 1e30),
+            ValueAtPercentile.create(100, 1e30));
+  }
+
+  @Test
+  void maxBins_CollapsesLowestBins() {
+    // 64 bins per power of two at 1%, so only one power of two is kept.
+    Aggregator aggregator =
+        QuantileSketchAggregator.getFactory(0.01, new double[] {1, 50, 99}, 64).getAggregator();
+    for (int i = 0; i < 50; i++) {
+      aggregator.recordDouble(1.5);
+    }
+    for (int i = 0; i < 50; i++) {
+      aggregator.recordDouble(1000);
+    }
+    // Counted in the lowest bin that is kept.
+    aggregator.recordDouble(0.25);
+
+    SummaryPoint point = getPoint(aggregator);
+    assertThat(point.getCount()).isEqualTo(101);
+    List<ValueAtPercentile> percentileValues = point.getPercentileValues();
+    assertThat(percentileValues.get(0).getValue()).isEqualTo(0.25);
+    // The low percentiles are overestimated by the lowest bin kept, [512, 520).
+    assertThat(percentileValues.get(1).getValue()).isBetween(512.0, 520.0);
+    assertThat(percentileValues.get(2).getValue()).isBetween(512.0, 520.0);
+    assertThat(percentileValues.get(3).getValue()).isCloseTo(1000, withinPercentage(1));
+    assertThat(percentileValues.get(4).getValue()).isEqualTo(1000);
+  }
+
+  @Test
+  void maxBins_MergeKeepsCounts() {
+    AggregatorFactory factory = QuantileSketchAggregator.getFactory(0.01, PERCENTILES, 128);
+    Aggregator aggregator = factory.getAggregator();
+    Aggregator mergedAggregator = factory.getAggregator();
+    for (int i = 0; i < 40; i++) {
+      aggregator.recordDouble(Math.scalb(1.0, i));
+      if (i % 10 == 9) {
+        aggregator.mergeToAndReset(mergedAggregator);
+      }
+    }
+    SummaryPoint point = getPoint(mergedAggregator);
+    assertThat(point.getCount()).isEqualTo(40);
+    assertThat(point.getPercentileValues().get(0).getValue()).isEqualTo(1);
+    // The two highest powers of two are kept.
+    assertThat(point.getPercentileValues().get(4).getValue())
+        .isCloseTo(Math.scalb(1.0, 39), withinPercentage(1));
+  }
+
+  @Test
+  void maxBins_ConcurrentCollapses() throws Exception {
+    final Aggregator aggregator =
+        QuantileSketchAggregator.getFactory(0.01, PERCENTILES, 64).getAggregator();
+    List<Thread> workers = new ArrayList<>();
+    for (int i = 0; i < 4; i++) {
+      final int offset = i;
+      Thread t =
+          new Thread(
+              () -> {
+                // Every thread moves up and down the powers of two, collapsing the bins of the
+                // others.
+                for (int j = 0; j < 10_000; j++) {
+                  aggregator.recordDouble(Math.scalb(1.0, (j + offset * 7) % 40 - 20));
+                }
+              });
+      workers.add(t);
+      t.start();
+    }
+    for (Thread worker : workers) {
+      worker.join();
+    }
+    assertThat(getPoint(aggregator).getCount()).isEqualTo(40_000);
+  }
+
+  @Test
+  void mergeAndReset() {
+    AggregatorFactory factory = QuantileSketchAggregator.getFactory(0.01, PERCENTILES);
+    Aggregator aggregator = factory.getAggregator();
+    Aggregator mergedAggregator = factory.getAggregator();
+    for (int i = 1; i <= 100; i++) {
+      aggregator.recordLong(i);
+      if (i % 10 == 0) {
+        aggregator.mergeToAndReset(mergedAggregator);
+        assertThat(aggregator.toPoint(0, 100, Labels.empty())).isNull();
+      }
+    }
+    SummaryPoint point = getPoint(mergedAggregator);
+    assertThat(point.getCount()).isEqualTo(100);
+    assertThat(point.getSum()).isEqualTo(5050);
+    assertThat(point.getPercentileValues().get(0).getValue()).isEqualTo(1);
+    assertThat(point.getPercentileValues().get(1).getValue()).isCloseTo(50, offset(0.5));
+    assertThat(point.getPercentileValues().get(5).getValue()).isEqualTo(100);
+  }
+
+  @Test
+  void reset() {
+    Aggregator aggregator = QuantileSketchAggregator.getFactory(0.01, PERCENTILES).getAggregator();
+    aggregator.recordDouble(-5);
+    aggregator.recordDouble(1e30);
+    aggregator.recordLong(100);
+    aggregator.reset();
+    assertThat(aggregator.toPoint(0, 100, Labels.empty())).isNull();
+    aggregator.recordLong(10);
+    SummaryPoint point = getPoint(aggregator);
+    assertThat(point.getCount()).isEqualTo(1);
+    assertThat(point.getSum()).isEqualTo(10);
+    assertThat(point.getPercentileValues().get(0).getValue()).isEqualTo(10);
+    assertThat(point.getPercentileValues().get(5).getValue()).isEqualTo(10);
+  }
+
+  @Test
+  void mergeAndReset_DifferentFactories() {
+    final Aggregator aggregator =
+        QuantileSketchAggregator.getFactory(0.01, PERCENTILES).getAggregator();
+    final Aggregator mergedAggregator =
+        QuantileSketchAggregator.getFactory(0.01, PERCENTILES).getAggregator();
+    aggregator.recordLong(1);
+    assertThatThrownBy(() -> aggregator.mergeToAndReset(mergedAggregator))
+        .isInstanceOf(IllegalArgumentException.class);
+    // Nothing was merged or reset.
+    assertThat(getPoint(aggregator).getCount()).isEqualTo(1);
+    assertThat(mergedAggregator.toPoint(0, 100, Labels.empty())).isNull();
+  }
+
+  @Test
+  void recordDouble_NaNDropped() {
+    Aggregator aggregator = QuantileSketchAggregator.getFactory(0.01, PERCENTILES).getAggregator();
+    aggregator.recordDouble(Double.NaN);
+    assertThat(aggregator.toPoint(0, 100, Labels.empty())).isNull();
+    aggregator.recordDouble(10);
+    aggregator.recordDouble(Double.NaN);
+    SummaryPoint point = getPoint(aggregator);
+    assertThat(point.getCount()).isEqualTo(1);
+    assertThat(point.getSum()).isEqualTo(10);
+  }
+
+  @Test
+  void concurrentRecords() throws Exception {
+    final Aggregator aggregator =
+        QuantileSketchAggregator.getFactory(0.01, PERCENTILES).getAggregator();
+    List<Thread> workers = new ArrayList<>();
+    for (int i = 0; i < 4; i++) {
+      Thread t =
+          new Thread(
+              () -> {
+                for (int j = 1; j <= 10_000; j++) {
+                  aggregator.recordLong(j);
+                }
+              });
+      workers.add(t);
+      t.start();
+    }
+    for (Thread worker : workers) {
+      worker.join();
+    }
+    SummaryPoint point = getPoint(aggregator);
+    assertThat(point.getCount()).isEqualTo(40_000);
+    assertThat(point.getPercentileValues().get(1).getValue()).isCloseTo(5000, withinPercentage(1));
+  }
+
+  @Test
+  void invalidArguments() {
+    assertThatThrownBy(() -> QuantileSketchAggregator.getFactory(0, PERCENTILES))
+        .isInstanceOf(IllegalArgumentException.class);
+    assertThatThrownBy(() -> QuantileSketchAggregator.getFactory(0.6, PERCENTILES))
+        .isInstanceOf(IllegalArgumentException.class);
+    assertThatThrownBy(() -> QuantileSketchAggregator.getFactory(0.01, new double[] {101}))
+        .isInstanceOf(IllegalArgumentException.class);
+    assertThatThrownBy(() -> QuantileSketchAggregator.getFactory(0.01, new double[] {Double.NaN}))
+        .isInstanceOf(IllegalArgumentException.class);
+    assertThatThrownBy(() -> QuantileSketchAggregator.getFactory(0.01, PERCENTILES, 0))
+        .isInstanceOf(IllegalArgumentException.class);
+  }
+
+  private static SummaryPoint getPoint(Aggregator aggregator) {
+    SummaryPoint point = (SummaryPoint) aggregator.toPoint(0, 100, Labels.empty());
+    assertThat(point).isNotNull();
+    return point;
+  }
+}
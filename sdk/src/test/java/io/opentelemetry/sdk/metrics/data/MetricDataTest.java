@@ -24,6 +24,7 @@ import io.opentelemetry.common.Labels;
 import io.opentelemetry.sdk.common.InstrumentationLibraryInfo;
 import io.opentelemetry.sdk.metrics.data.MetricData.Descriptor;
 import io.opentelemetry.sdk.metrics.data.MetricData.DoublePoint;
+import io.opentelemetry.sdk.metrics.data.MetricData.HistogramPoint;
 import io.opentelemetry.sdk.metrics.data.MetricData.LongPoint;
 import io.opentelemetry.sdk.metrics.data.MetricData.SummaryPoint;
 import io.opentelemetry.sdk.metrics.data.MetricData.ValueAtPercentile;
@@ -73,6 +74,15 @@ class MetricDataTest {
           Arrays.asList(
               ValueAtPercentile.create(0.0, DOUBLE_VALUE),
               ValueAtPercentile.create(100, DOUBLE_VALUE)));
+  private static final HistogramPoint HISTOGRAM_POINT =
+      HistogramPoint.create(
+          START_EPOCH_NANOS,
+          EPOCH_NANOS,
+          Labels.of("key", "value"),
+          LONG_VALUE,
+          DOUBLE_VALUE,
+          Arrays.asList(1.0, 2.0),
+          Arrays.asList(4L, 0L, 6L));
 
   @Test
   void metricData_NullDescriptor() {
@@ -136,6 +146,27 @@ class MetricDataTest {
     assertThat(metricData.getInstrumentationLibraryInfo())
         .isEqualTo(InstrumentationLibraryInfo.getEmpty());
     assertThat(metricData.getPoints()).isEmpty();
+    assertThat(metricData.getAggregationTemporality()).isEqualTo(AggregationTemporality.CUMULATIVE);
+  }
+
+  @Test
+  void metricData_AggregationTemporality() {
+    MetricData metricData =
+        MetricData.create(
+            LONG_METRIC_DESCRIPTOR,
+            Resource.getEmpty(),
+            InstrumentationLibraryInfo.getEmpty(),
+            Collections.emptyList(),
+            AggregationTemporality.DELTA);
+    assertThat(metricData.getAggregationTemporality()).isEqualTo(AggregationTemporality.DELTA);
+    assertThat(
+            MetricData.create(
+                    Descriptor.create("name", "", "1", Descriptor.Type.SUMMARY, Labels.empty()),
+                    Resource.getEmpty(),
+                    InstrumentationLibraryInfo.getEmpty(),
+                    Collections.emptyList())
+                .getAggregationTemporality())
+        .isEqualTo(AggregationTemporality.DELTA);
   }
 
   @Test
@@ -173,6 +204,25 @@ class MetricDataTest {
     assertThat(metricData.getPoints()).containsExactly(SUMMARY_POINT);
   }
 
+  @Test
+  void metricData_HistogramPoints() {
+    assertThat(HISTOGRAM_POINT.getStartEpochNanos()).isEqualTo(START_EPOCH_NANOS);
+    assertThat(HISTOGRAM_POINT.getEpochNanos()).isEqualTo(EPOCH_NANOS);
+    assertThat(HISTOGRAM_POINT.getLabels().size()).isEqualTo(1);
+    assertThat(HISTOGRAM_POINT.getLabels().get("key")).isEqualTo("value");
+    assertThat(HISTOGRAM_POINT.getCount()).isEqualTo(LONG_VALUE);
+    assertThat(HISTOGRAM_POINT.getSum()).isEqualTo(DOUBLE_VALUE);
+    assertThat(HISTOGRAM_POINT.getBoundaries()).containsExactly(1.0, 2.0);
+    assertThat(HISTOGRAM_POINT.getCounts()).containsExactly(4L, 0L, 6L);
+    MetricData metricData =
+        MetricData.create(
+            DOUBLE_METRIC_DESCRIPTOR,
+            Resource.getEmpty(),
+            InstrumentationLibraryInfo.getEmpty(),
+            Collections.singletonList(HISTOGRAM_POINT));
+    assertThat(metricData.getPoints()).containsExactly(HISTOGRAM_POINT);
+  }
+
   @Test
   void metricData_DoublePoints() {
     assertThat(DOUBLE_POINT.getStartEpochNanos()).isEqualTo(START_EPOCH_NANOS);
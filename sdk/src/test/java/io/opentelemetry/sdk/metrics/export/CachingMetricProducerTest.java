@@ -0,0 +1,257 @@
+/*
+ * Copyright 2020, OpenTelemetry Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.opentelemetry.sdk.metrics.export;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import io.opentelemetry.common.Labels;
+import io.opentelemetry.sdk.common.InstrumentationLibraryInfo;
+import io.opentelemetry.sdk.internal.TestClock;
+import io.opentelemetry.sdk.metrics.data.AggregationTemporality;
+import io.opentelemetry.sdk.metrics.data.MetricData;
+import io.opentelemetry.sdk.metrics.data.MetricData.Descriptor;
+import io.opentelemetry.sdk.metrics.data.MetricData.HistogramPoint;
+import io.opentelemetry.sdk.metrics.data.MetricData.LongPoint;
+import io.opentelemetry.sdk.metrics.data.MetricData.Point;
+import io.opentelemetry.sdk.metrics.data.MetricData.SummaryPoint;
+import io.opentelemetry.sdk.metrics.data.MetricData.ValueAtPercentile;
+import io.opentelemetry.sdk.resources.Resource;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+/** Unit tests for {@link CachingMetricProducer}. */
+class CachingMetricProducerTest {
+  private static final long SECOND_NANOS = 1_000_000_000;
+  private static final Labels LABELS = Labels.of("key", "value");
+  private static final InstrumentationLibraryInfo INSTRUMENTATION_LIBRARY_INFO =
+      InstrumentationLibraryInfo.create("io.opentelemetry.sdk.metrics.export", null);
+  private static final Descriptor COUNTER_DESCRIPTOR =
+      Descriptor.create("counter", "", "1", Descriptor.Type.MONOTONIC_LONG, Labels.empty());
+  private static final Descriptor RECORDER_DESCRIPTOR =
+      Descriptor.create("recorder", "", "ms", Descriptor.Type.SUMMARY, Labels.empty());
+  private static final Descriptor HISTOGRAM_DESCRIPTOR =
+      Descriptor.create("histogram", "", "ms", Descriptor.Type.HISTOGRAM, Labels.empty());
+
+  private final TestClock testClock = TestClock.create(SECOND_NANOS);
+  private final QueueMetricProducer delegate = new QueueMetricProducer();
+  private final CachingMetricProducer cachingProducer =
+      CachingMetricProducer.create(delegate, 1000, testClock);
+
+  @Test
+  void collectAllMetrics_CachedWithinWindow() {
+    delegate.add(counter(1, 2, 5, AggregationTemporality.DELTA));
+    delegate.add(counter(2, 3, 7, AggregationTemporality.DELTA));
+
+    Collection<MetricData> first = cachingProducer.collectAllMetrics();
+    testClock.advanceMillis(999);
+    assertThat(cachingProducer.collectAllMetrics()).isSameAs(first);
+    assertThat(delegate.collections).isEqualTo(1);
+
+    testClock.advanceMillis(1);
+    assertThat(cachingProducer.collectAllMetrics())
+        .containsExactly(counter(2, 3, 7, AggregationTemporality.DELTA));
+    assertThat(delegate.collections).isEqualTo(2);
+  }
+
+  @Test
+  void newReader_Cumulative() {
+    MetricProducer reader = cachingProducer.newReader(AggregationTemporality.CUMULATIVE);
+    delegate.add(counter(1, 2, 5, AggregationTemporality.DELTA));
+    delegate.add(counter(2, 3, 7, AggregationTemporality.DELTA));
+
+    assertThat(reader.collectAllMetrics())
+        .containsExactly(counter(1, 2, 5, AggregationTemporality.CUMULATIVE));
+    testClock.advanceMillis(1000);
+    assertThat(reader.collectAllMetrics())
+        .containsExactly(counter(1, 3, 12, AggregationTemporality.CUMULATIVE));
+    // Served from the cache, the state does not change.
+    assertThat(reader.collectAllMetrics())
+        .containsExactly(counter(1, 3, 12, AggregationTemporality.CUMULATIVE));
+  }
+
+  @Test
+  void newReader_DeltaSeesDeltasCollectedForOtherReaders() {
+    MetricProducer cumulativeReader = cachingProducer.newReader(AggregationTemporality.CUMULATIVE);
+    MetricProducer deltaReader = cachingProducer.newReader(AggregationTemporality.DELTA);
+    delegate.add(counter(1, 2, 5, AggregationTemporality.DELTA));
+    delegate.add(counter(2, 3, 7, AggregationTemporality.DELTA));
+
+    cumulativeReader.collectAllMetrics();
+    testClock.advanceMillis(1000);
+    cumulativeReader.collectAllMetrics();
+
+    assertThat(deltaReader.collectAllMetrics())
+        .containsExactly(counter(1, 3, 12, AggregationTemporality.DELTA));
+    assertThat(deltaReader.collectAllMetrics()).isEmpty();
+    assertThat(cumulativeReader.collectAllMetrics())
+        .containsExactly(counter(1, 3, 12, AggregationTemporality.CUMULATIVE));
+  }
+
+  @Test
+  void newReader_DropsStalePoints() {
+    MetricProducer reader = cachingProducer.newReader(AggregationTemporality.CUMULATIVE, 1500);
+    delegate.add(counter(1, 2, 5, AggregationTemporality.DELTA));
+    delegate.add(counter(2, 3, 7, AggregationTemporality.DELTA));
+    delegate.add();
+    delegate.add();
+    delegate.add(counter(5, 6, 3, AggregationTemporality.DELTA));
+
+    reader.collectAllMetrics();
+    testClock.advanceMillis(1000);
+    assertThat(reader.collectAllMetrics())
+        .containsExactly(counter(1, 3, 12, AggregationTemporality.CUMULATIVE));
+    testClock.advanceMillis(1000);
+    // Not reported for 1 second only.
+    assertThat(reader.collectAllMetrics())
+        .containsExactly(counter(1, 3, 12, AggregationTemporality.CUMULATIVE));
+    testClock.advanceMillis(1000);
+    assertThat(reader.collectAllMetrics()).isEmpty();
+    testClock.advanceMillis(1000);
+    // Reported again, the sum restarts.
+    assertThat(reader.collectAllMetrics())
+        .containsExactly(counter(5, 6, 3, AggregationTemporality.CUMULATIVE));
+  }
+
+  @Test
+  void newReader_InvalidStaleAfter() {
+    assertThrows(
+        IllegalArgumentException.class,
+        () -> cachingProducer.newReader(AggregationTemporality.CUMULATIVE, 0));
+  }
+
+  @Test
+  void newReader_CumulativeMetricsNotSummed() {
+    MetricProducer reader = cachingProducer.newReader(AggregationTemporality.CUMULATIVE);
+    delegate.add(counter(1, 2, 5, AggregationTemporality.CUMULATIVE));
+    delegate.add(counter(1, 3, 7, AggregationTemporality.CUMULATIVE));
+
+    reader.collectAllMetrics();
+    testClock.advanceMillis(1000);
+    assertThat(reader.collectAllMetrics())
+        .containsExactly(counter(1, 3, 7, AggregationTemporality.CUMULATIVE));
+  }
+
+  @Test
+  void newReader_SummariesAndHistograms() {
+    MetricProducer reader = cachingProducer.newReader(AggregationTemporality.CUMULATIVE);
+    delegate.add(summary(1, 2, 2, 5, 1, 4), histogram(1, 2, 3, 6, Arrays.asList(1L, 2L)));
+    delegate.add(summary(2, 3, 1, 7, 7, 7), histogram(2, 3, 2, 5, Arrays.asList(0L, 2L)));
+
+    reader.collectAllMetrics();
+    testClock.advanceMillis(1000);
+    assertThat(reader.collectAllMetrics())
+        .containsExactly(
+            MetricData.create(
+                RECORDER_DESCRIPTOR,
+                Resource.getEmpty(),
+                INSTRUMENTATION_LIBRARY_INFO,
+                Collections.<Point>singletonList(
+                    SummaryPoint.create(
+                        SECOND_NANOS,
+                        3 * SECOND_NANOS,
+                        LABELS,
+                        3,
+                        12,
+                        Arrays.asList(
+                            ValueAtPercentile.create(0.0, 1), ValueAtPercentile.create(100.0, 7)))),
+                AggregationTemporality.CUMULATIVE),
+            MetricData.create(
+                HISTOGRAM_DESCRIPTOR,
+                Resource.getEmpty(),
+                INSTRUMENTATION_LIBRARY_INFO,
+                Collections.<Point>singletonList(
+                    HistogramPoint.create(
+                        SECOND_NANOS,
+                        3 * SECOND_NANOS,
+                        LABELS,
+                        5,
+                        11,
+                        Collections.singletonList(10.0),
+                        Arrays.asList(1L, 4L))),
+                AggregationTemporality.CUMULATIVE));
+  }
+
+  private static MetricData counter(
+      long startSeconds, long endSeconds, long value, AggregationTemporality temporality) {
+    return MetricData.create(
+        COUNTER_DESCRIPTOR,
+        Resource.getEmpty(),
+        INSTRUMENTATION_LIBRARY_INFO,
+        Collections.<Point>singletonList(
+            LongPoint.create(
+                startSeconds * SECOND_NANOS, endSeconds * SECOND_NANOS, LABELS, value)),
+        temporality);
+  }
+
+  private static MetricData summary(
+      long startSeconds, long endSeconds, long count, double sum, double min, double max) {
+    return MetricData.create(
+        RECORDER_DESCRIPTOR,
+        Resource.getEmpty(),
+        INSTRUMENTATION_LIBRARY_INFO,
+        Collections.<Point>singletonList(
+            SummaryPoint.create(
+                startSeconds * SECOND_NANOS,
+                endSeconds * SECOND_NANOS,
+                LABELS,
+                count,
+                sum,
+                Arrays.asList(
+                    ValueAtPercentile.create(0.0, min), ValueAtPercentile.create(100.0, max)))),
+        AggregationTemporality.DELTA);
+  }
+
+  private static MetricData histogram(
+      long startSeconds, long endSeconds, long count, double sum, List<Long> counts) {
+    return MetricData.create(
+        HISTOGRAM_DESCRIPTOR,
+        Resource.getEmpty(),
+        INSTRUMENTATION_LIBRARY_INFO,
+        Collections.<Point>singletonList(
+            HistogramPoint.create(
+                startSeconds * SECOND_NANOS,
+                endSeconds * SECOND_NANOS,
+                LABELS,
+                count,
+                sum,
+                Collections.singletonList(10.0),
+                counts)),
+        AggregationTemporality.DELTA);
+  }
+
+  // Returns the given collections in order.
+  private static final class QueueMetricProducer implements MetricProducer {
+    private final Deque<Collection<MetricData>> queue = new ArrayDeque<>();
+    private int collections;
+
+    void add(MetricData... metrics) {
+      queue.add(Arrays.asList(metrics));
+    }
+
+    @Override
+    public Collection<MetricData> collectAllMetrics() {
+      collections++;
+      return queue.isEmpty() ? Collections.<MetricData>emptyList() : queue.poll();
+    }
+  }
+}
@@ -26,6 +26,7 @@ import io.opentelemetry.sdk.metrics.data.MetricData;
 import io.opentelemetry.sdk.metrics.data.MetricData.Descriptor;
 import io.opentelemetry.sdk.metrics.data.MetricData.LongPoint;
 import io.opentelemetry.sdk.metrics.data.MetricData.Point;
+import io.opentelemetry.sdk.metrics.data.MetricData.SummaryPoint;
 import io.opentelemetry.sdk.resources.Resource;
 import java.util.ArrayList;
 import java.util.Collection;
@@ -33,6 +34,8 @@ import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import javax.annotation.Nullable;
 import javax.annotation.concurrent.GuardedBy;
@@ -81,6 +84,16 @@ class IntervalMetricReaderTest {
     Mockito.verify(spy).setExportIntervalMillis(12);
   }
 
+  @Test
+  void configTest_AlignToInterval() {
+    Map<String, String> options = new HashMap<>();
+    options.put("otel.imr.align.interval", "true");
+    IntervalMetricReader.Builder config = IntervalMetricReader.builder();
+    IntervalMetricReader.Builder spy = Mockito.spy(config);
+    spy.fromConfigMap(options, ConfigTester.getNamingDot());
+    Mockito.verify(spy).setAlignToInterval(true);
+  }
+
   @Test
   void intervalExport() {
     WaitingMetricExporter waitingMetricExporter = new WaitingMetricExporter();
@@ -146,11 +159,197 @@ class IntervalMetricReaderTest {
     assertThat(waitingMetricExporter.hasShutdown.get()).isTrue();
   }
 
+  @Test
+  @Timeout(10)
+  void slowExporter_SkipsCollections() throws InterruptedException {
+    CountDownLatch releaseExports = new CountDownLatch(1);
+    WaitingMetricExporter waitingMetricExporter = new WaitingMetricExporter(releaseExports);
+    IntervalMetricReader intervalMetricReader =
+        IntervalMetricReader.builder()
+            .setExportIntervalMillis(50)
+            .setMetricExporter(waitingMetricExporter)
+            .setMetricProducers(Collections.singletonList(metricProducer))
+            .build();
+
+    try {
+      waitingMetricExporter.waitForNumberOfExports(1);
+      // The first collection is being exported and the second one waits for the exporter, all
+      // the following ones are skipped.
+      Thread.sleep(500);
+      Mockito.verify(metricProducer, Mockito.times(2)).collectAllMetrics();
+
+      releaseExports.countDown();
+      assertThat(waitingMetricExporter.waitForNumberOfExports(1))
+          .containsExactly(Collections.singletonList(METRIC_DATA));
+    } finally {
+      intervalMetricReader.shutdown();
+    }
+  }
+
+  @Test
+  @Timeout(10)
+  void slowExporter_CoalescesCollections() throws InterruptedException {
+    CountDownLatch releaseExports = new CountDownLatch(1);
+    WaitingMetricExporter waitingMetricExporter = new WaitingMetricExporter(releaseExports);
+    IntervalMetricReader intervalMetricReader =
+        IntervalMetricReader.builder()
+            .setExportIntervalMillis(50)
+            .setOverrunStrategy(IntervalMetricReader.OverrunStrategy.COALESCE)
+            .setMetricExporter(waitingMetricExporter)
+            .setMetricProducers(Collections.singletonList(metricProducer))
+            .build();
+
+    try {
+      waitingMetricExporter.waitForNumberOfExports(1);
+      Thread.sleep(500);
+      releaseExports.countDown();
+
+      // The collections that ran while the exporter was blocked are exported together, at most 10
+      // of them.
+      List<List<MetricData>> exports = waitingMetricExporter.waitForNumberOfExports(1);
+      assertThat(exports.get(0)).hasSizeBetween(3, 10).containsOnly(METRIC_DATA);
+    } finally {
+      intervalMetricReader.shutdown();
+    }
+  }
+
+  @Test
+  @Timeout(10)
+  void alignToInterval() {
+    final List<Long> collectionTimes = Collections.synchronizedList(new ArrayList<Long>());
+    MetricProducer timedMetricProducer =
+        () -> {
+          collectionTimes.add(System.currentTimeMillis());
+          return Collections.singletonList(METRIC_DATA);
+        };
+    WaitingMetricExporter waitingMetricExporter = new WaitingMetricExporter();
+    IntervalMetricReader intervalMetricReader =
+        IntervalMetricReader.builder()
+            .setExportIntervalMillis(500)
+            .setAlignToInterval(true)
+            .setMetricExporter(waitingMetricExporter)
+            .setMetricProducers(Collections.singletonList(timedMetricProducer))
+            .build();
+
+    try {
+      waitingMetricExporter.waitForNumberOfExports(2);
+      // The first collection may be delayed by the warm-up of the threads.
+      assertThat(collectionTimes.get(1) % 500).isLessThan(150);
+    } finally {
+      intervalMetricReader.shutdown();
+    }
+  }
+
+  @Test
+  @Timeout(10)
+  void durationMetrics() {
+    WaitingMetricExporter waitingMetricExporter = new WaitingMetricExporter();
+    IntervalMetricReader intervalMetricReader =
+        IntervalMetricReader.builder()
+            .setExportIntervalMillis(100)
+            .setDurationMetricsEnabled(true)
+            .setMetricExporter(waitingMetricExporter)
+            .setMetricProducers(Collections.singletonList(metricProducer))
+            .build();
+
+    try {
+      List<MetricData> first = waitingMetricExporter.waitForNumberOfExports(1).get(0);
+      assertThat(names(first))
+          .containsExactly("my metric", IntervalMetricReader.COLLECTION_DURATION_METRIC_NAME);
+
+      List<MetricData> second = waitingMetricExporter.waitForNumberOfExports(1).get(0);
+      assertThat(names(second))
+          .containsExactly(
+              "my metric",
+              IntervalMetricReader.COLLECTION_DURATION_METRIC_NAME,
+              IntervalMetricReader.EXPORT_DURATION_METRIC_NAME);
+      MetricData exportDuration = second.get(2);
+      assertThat(exportDuration.getDescriptor().getType()).isEqualTo(Descriptor.Type.SUMMARY);
+      assertThat(((SummaryPoint) exportDuration.getPoints().iterator().next()).getCount())
+          .isEqualTo(1);
+      // The duration metrics have the Resource of the collected metrics.
+      assertThat(exportDuration.getResource()).isEqualTo(METRIC_DATA.getResource());
+    } finally {
+      intervalMetricReader.shutdown();
+    }
+  }
+
+  @Test
+  void nextCollectionNanos() {
+    long start = 1_000_000_000L;
+    long interval = TimeUnit.MILLISECONDS.toNanos(100);
+    // The first collection, one interval after the start.
+    assertThat(
+            IntervalMetricReader.nextCollectionNanos(
+                start, 12_345, start, start - interval, 100, false))
+        .isEqualTo(start + interval);
+    // A timer firing early does not run the same boundary twice.
+    assertThat(
+            IntervalMetricReader.nextCollectionNanos(
+                start + interval - 1000, 12_345, start, start + interval, 100, false))
+        .isEqualTo(start + 2 * interval);
+    // Boundaries missed by a long collection are skipped.
+    assertThat(
+            IntervalMetricReader.nextCollectionNanos(
+                start + 3 * interval + 10, 12_345, start, start + interval, 100, false))
+        .isEqualTo(start + 4 * interval);
+  }
+
+  @Test
+  void nextCollectionNanos_Aligned() {
+    long now = 1_000_000_000L;
+    long interval = TimeUnit.MILLISECONDS.toNanos(100);
+    long millis = TimeUnit.MILLISECONDS.toNanos(1);
+    // The wall clock picks the boundary, 30ms ahead.
+    assertThat(
+            IntervalMetricReader.nextCollectionNanos(now, 12_370, now, now - interval, 100, true))
+        .isEqualTo(now + 30 * millis);
+    // A timer firing 1ms early does not run the same boundary twice.
+    assertThat(
+            IntervalMetricReader.nextCollectionNanos(
+                now + 29 * millis, 12_399, now, now + 30 * millis, 100, true))
+        .isEqualTo(now + 130 * millis);
+  }
+
+  @Test
+  void nextCollectionNanos_WallClockSteps() {
+    long now = 1_000_000_000L;
+    long interval = TimeUnit.MILLISECONDS.toNanos(100);
+    long millis = TimeUnit.MILLISECONDS.toNanos(1);
+    long epochMillis = 1_600_000_012_400L;
+    // Right after the collection of the boundary epochMillis, the wall clock stepped back by an
+    // hour: the next collection is still at most an interval and a half away.
+    assertThat(
+            IntervalMetricReader.nextCollectionNanos(
+                now, epochMillis - 3_600_000 + 1, now, now, 100, true))
+        .isEqualTo(now + 99 * millis);
+    // The wall clock stepped back by 70ms, the same boundary is run again 70ms later.
+    assertThat(IntervalMetricReader.nextCollectionNanos(now, epochMillis - 70, now, now, 100, true))
+        .isEqualTo(now + 70 * millis);
+    // The wall clock stepped back by 30ms, the same boundary is not run again.
+    assertThat(IntervalMetricReader.nextCollectionNanos(now, epochMillis - 30, now, now, 100, true))
+        .isEqualTo(now + 30 * millis + interval);
+    // The wall clock stepped forward by an hour, the next boundary is still within an interval.
+    assertThat(
+            IntervalMetricReader.nextCollectionNanos(
+                now, epochMillis + 3_600_000 + 20, now, now, 100, true))
+        .isEqualTo(now + 80 * millis);
+  }
+
+  private static List<String> names(List<MetricData> metrics) {
+    List<String> names = new ArrayList<>(metrics.size());
+    for (MetricData metric : metrics) {
+      names.add(metric.getDescriptor().getName());
+    }
+    return names;
+  }
+
   private static class WaitingMetricExporter implements MetricExporter {
 
     private final Object monitor = new Object();
     private final AtomicBoolean hasShutdown = new AtomicBoolean(false);
     private final boolean shouldThrow;
+    @Nullable private final CountDownLatch releaseExports;
 
     @GuardedBy("monitor")
     private List<List<MetricData>> exportedMetrics = new ArrayList<>();
@@ -161,6 +360,13 @@ class IntervalMetricReaderTest {
 
     private WaitingMetricExporter(boolean shouldThrow) {
       this.shouldThrow = shouldThrow;
+      this.releaseExports = null;
+    }
+
+    // Blocks every export until releaseExports is released.
+    private WaitingMetricExporter(CountDownLatch releaseExports) {
+      this.shouldThrow = false;
+      this.releaseExports = releaseExports;
     }
 
     @Override
@@ -169,6 +375,13 @@ class IntervalMetricReaderTest {
         this.exportedMetrics.add(new ArrayList<>(metricList));
         monitor.notifyAll();
       }
+      if (releaseExports != null) {
+        try {
+          releaseExports.await();
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+        }
+      }
       if (shouldThrow) {
         throw new RuntimeException("Export Failed!");
       }
@@ -18,7 +18,7 @@ package io.opentelemetry.sdk.metrics.view;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
-import io.opentelemetry.sdk.metrics.aggregator.NoopAggregator;
+import io.opentelemetry.sdk.metrics.aggregator.CountAggregator;
 import io.opentelemetry.sdk.metrics.common.InstrumentType;
 import io.opentelemetry.sdk.metrics.common.InstrumentValueType;
 import io.opentelemetry.sdk.metrics.data.MetricData.Descriptor;
@@ -39,12 +39,11 @@ class CountAggregationTest {
 
   @Test
   void getAggregatorFactory() {
-    // TODO: Change this to CountAggregator when available.
     Aggregation count = Aggregations.count();
     assertThat(count.getAggregatorFactory(InstrumentValueType.LONG))
-        .isInstanceOf(NoopAggregator.getFactory().getClass());
+        .isSameAs(CountAggregator.getFactory());
     assertThat(count.getAggregatorFactory(InstrumentValueType.DOUBLE))
-        .isInstanceOf(NoopAggregator.getFactory().getClass());
+        .isSameAs(CountAggregator.getFactory());
   }
 
   @Test
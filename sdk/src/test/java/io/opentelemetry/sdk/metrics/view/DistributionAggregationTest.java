@@ -0,0 +1,111 @@
+/*
+ * Copyright 2020, OpenTelemetry Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.opentelemetry.sdk.metrics.view;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import io.opentelemetry.common.Labels;
+import io.opentelemetry.sdk.metrics.aggregator.Aggregator;
+import io.opentelemetry.sdk.metrics.aggregator.HistogramAggregator;
+import io.opentelemetry.sdk.metrics.common.InstrumentType;
+import io.opentelemetry.sdk.metrics.common.InstrumentValueType;
+import io.opentelemetry.sdk.metrics.data.MetricData.Descriptor;
+import io.opentelemetry.sdk.metrics.data.MetricData.HistogramPoint;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for {@link Aggregations#distributionWithExplicitBounds(Double...)} and {@link
+ * Aggregations#distributionWithLogLinearBounds(double, double, int)}.
+ */
+class DistributionAggregationTest {
+  private static final Aggregation EXPLICIT =
+      Aggregations.distributionWithExplicitBounds(1.0, 10.0, 100.0);
+  private static final Aggregation LOG_LINEAR =
+      Aggregations.distributionWithLogLinearBounds(1, 1024, 4);
+
+  @Test
+  void getDescriptorType() {
+    for (InstrumentType type : InstrumentType.values()) {
+      for (InstrumentValueType valueType : InstrumentValueType.values()) {
+        assertThat(EXPLICIT.getDescriptorType(type, valueType))
+            .isEqualTo(Descriptor.Type.HISTOGRAM);
+        assertThat(LOG_LINEAR.getDescriptorType(type, valueType))
+            .isEqualTo(Descriptor.Type.HISTOGRAM);
+      }
+    }
+  }
+
+  @Test
+  void getAggregatorFactory() {
+    for (InstrumentValueType valueType : InstrumentValueType.values()) {
+      assertThat(EXPLICIT.getAggregatorFactory(valueType).getAggregator())
+          .isInstanceOf(HistogramAggregator.class);
+      assertThat(LOG_LINEAR.getAggregatorFactory(valueType).getAggregator())
+          .isInstanceOf(HistogramAggregator.class);
+    }
+  }
+
+  @Test
+  void explicitBounds_Buckets() {
+    Aggregator aggregator = EXPLICIT.getAggregatorFactory(InstrumentValueType.LONG).getAggregator();
+    aggregator.recordLong(1);
+    aggregator.recordLong(50);
+    aggregator.recordLong(500);
+    HistogramPoint point = (HistogramPoint) aggregator.toPoint(0, 100, Labels.empty());
+    assertThat(point).isNotNull();
+    assertThat(point.getBoundaries()).containsExactly(1.0, 10.0, 100.0);
+    assertThat(point.getCounts()).containsExactly(1L, 0L, 1L, 1L);
+  }
+
+  @Test
+  void explicitBounds_NotSorted() {
+    assertThatThrownBy(() -> Aggregations.distributionWithExplicitBounds(10.0, 1.0))
+        .isInstanceOf(IllegalArgumentException.class);
+  }
+
+  @Test
+  void logLinearBounds_Buckets() {
+    Aggregator aggregator =
+        LOG_LINEAR.getAggregatorFactory(InstrumentValueType.DOUBLE).getAggregator();
+    aggregator.recordDouble(0.5);
+    aggregator.recordDouble(700);
+    aggregator.recordDouble(2048);
+    HistogramPoint point = (HistogramPoint) aggregator.toPoint(0, 100, Labels.empty());
+    assertThat(point).isNotNull();
+    // 10 powers of two with 4 buckets each, plus the first and last buckets.
+    assertThat(point.getBoundaries()).hasSize(41);
+    assertThat(point.getBoundaries().get(0)).isEqualTo(1.0);
+    assertThat(point.getBoundaries().get(40)).isEqualTo(1024.0);
+    assertThat(point.getCount()).isEqualTo(3);
+    assertThat(point.getCounts().get(0)).isEqualTo(1L);
+    // 700 is in (640, 768].
+    assertThat(point.getBoundaries().get(38)).isEqualTo(768.0);
+    assertThat(point.getCounts().get(38)).isEqualTo(1L);
+    assertThat(point.getCounts().get(41)).isEqualTo(1L);
+  }
+
+  @Test
+  void availableForInstrument() {
+    for (InstrumentType type : InstrumentType.values()) {
+      boolean expected =
+          type == InstrumentType.VALUE_OBSERVER || type == InstrumentType.VALUE_RECORDER;
+      assertThat(EXPLICIT.availableForInstrument(type)).isEqualTo(expected);
+      assertThat(LOG_LINEAR.availableForInstrument(type)).isEqualTo(expected);
+    }
+  }
+}
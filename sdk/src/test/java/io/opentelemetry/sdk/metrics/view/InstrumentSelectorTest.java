@@ -0,0 +1,68 @@
+/*
+ * Copyright 2020, OpenTelemetry Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.opentelemetry.sdk.metrics.view;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import io.opentelemetry.sdk.metrics.common.InstrumentType;
+import java.util.regex.PatternSyntaxException;
+import org.junit.jupiter.api.Test;
+
+/** Unit tests for {@link InstrumentSelector}. */
+class InstrumentSelectorTest {
+  @Test
+  void defaultSelectsAll() {
+    InstrumentSelector selector = InstrumentSelector.newBuilder().build();
+    assertThat(selector.getInstrumentType()).isNull();
+    for (InstrumentType type : InstrumentType.values()) {
+      assertThat(selector.matches("any.name", type)).isTrue();
+    }
+  }
+
+  @Test
+  void matchesType() {
+    InstrumentSelector selector =
+        InstrumentSelector.newBuilder().setInstrumentType(InstrumentType.COUNTER).build();
+    assertThat(selector.matches("name", InstrumentType.COUNTER)).isTrue();
+    assertThat(selector.matches("name", InstrumentType.UP_DOWN_COUNTER)).isFalse();
+  }
+
+  @Test
+  void matchesWholeName() {
+    InstrumentSelector selector =
+        InstrumentSelector.newBuilder()
+            .setInstrumentType(InstrumentType.VALUE_RECORDER)
+            .setInstrumentNameRegex("http\\.server\\..*")
+            .build();
+    assertThat(selector.matches("http.server.duration", InstrumentType.VALUE_RECORDER)).isTrue();
+    assertThat(selector.matches("http.server.duration", InstrumentType.COUNTER)).isFalse();
+    assertThat(selector.matches("http.client.duration", InstrumentType.VALUE_RECORDER)).isFalse();
+    assertThat(selector.matches("my.http.server.duration", InstrumentType.VALUE_RECORDER))
+        .isFalse();
+  }
+
+  @Test
+  void invalidRegex() {
+    assertThrows(
+        PatternSyntaxException.class,
+        () -> InstrumentSelector.newBuilder().setInstrumentNameRegex("http["));
+    assertThrows(
+        NullPointerException.class,
+        () -> InstrumentSelector.newBuilder().setInstrumentNameRegex(null));
+  }
+}
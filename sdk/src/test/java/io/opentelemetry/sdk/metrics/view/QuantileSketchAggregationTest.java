@@ -0,0 +1,69 @@
+/*
+ * Copyright 2020, OpenTelemetry Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.opentelemetry.sdk.metrics.view;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import io.opentelemetry.sdk.metrics.aggregator.QuantileSketchAggregator;
+import io.opentelemetry.sdk.metrics.common.InstrumentType;
+import io.opentelemetry.sdk.metrics.common.InstrumentValueType;
+import io.opentelemetry.sdk.metrics.data.MetricData.Descriptor;
+import org.junit.jupiter.api.Test;
+
+/** Unit tests for {@link Aggregations#quantileSketch(double, double...)}. */
+class QuantileSketchAggregationTest {
+  private static final Aggregation QUANTILE_SKETCH = Aggregations.quantileSketch(0.01, 50, 99);
+
+  @Test
+  void getDescriptorType() {
+    for (InstrumentType type : InstrumentType.values()) {
+      for (InstrumentValueType valueType : InstrumentValueType.values()) {
+        assertThat(QUANTILE_SKETCH.getDescriptorType(type, valueType))
+            .isEqualTo(Descriptor.Type.SUMMARY);
+      }
+    }
+  }
+
+  @Test
+  void getAggregatorFactory() {
+    for (InstrumentValueType valueType : InstrumentValueType.values()) {
+      assertThat(QUANTILE_SKETCH.getAggregatorFactory(valueType).getAggregator())
+          .isInstanceOf(QuantileSketchAggregator.class);
+    }
+  }
+
+  @Test
+  void getAggregatorFactory_MaxBins() {
+    Aggregation quantileSketch = Aggregations.quantileSketch(0.01, new double[] {50, 99}, 128);
+    for (InstrumentValueType valueType : InstrumentValueType.values()) {
+      assertThat(quantileSketch.getAggregatorFactory(valueType).getAggregator())
+          .isInstanceOf(QuantileSketchAggregator.class);
+    }
+    assertThatThrownBy(() -> Aggregations.quantileSketch(0.01, new double[] {50}, 0))
+        .isInstanceOf(IllegalArgumentException.class);
+  }
+
+  @Test
+  void availableForInstrument() {
+    for (InstrumentType type : InstrumentType.values()) {
+      assertThat(QUANTILE_SKETCH.availableForInstrument(type))
+          .isEqualTo(
+              type == InstrumentType.VALUE_OBSERVER || type == InstrumentType.VALUE_RECORDER);
+    }
+  }
+}
@@ -0,0 +1,42 @@
+/*
+ * Copyright 2020, OpenTelemetry Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.opentelemetry.sdk.metrics.view;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+/** Unit tests for {@link View}. */
+class ViewTest {
+  @Test
+  void defaultView() {
+    View view = View.newBuilder().build();
+    assertThat(view.getAggregation()).isNull();
+    assertThat(view.getLabelKeys()).isNull();
+  }
+
+  @Test
+  void labelKeys_SortedAndDeduped() {
+    View view =
+        View.newBuilder()
+            .setAggregation(Aggregations.count())
+            .setLabelKeys("http.status_code", "http.method", "http.status_code")
+            .build();
+    assertThat(view.getAggregation()).isSameAs(Aggregations.count());
+    assertThat(view.getLabelKeys()).containsExactly("http.method", "http.status_code");
+  }
+}
@@ -0,0 +1,182 @@
+/*
+ * Copyright 2020, OpenTelemetry Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.opentelemetry.sdk.trace;
+
+import static io.opentelemetry.common.AttributeValue.stringAttributeValue;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import io.opentelemetry.common.Attributes;
+import io.opentelemetry.common.ReadableAttributes;
+import io.opentelemetry.sdk.trace.Sampler.Decision;
+import io.opentelemetry.sdk.trace.Sampler.SamplingResult;
+import io.opentelemetry.sdk.trace.config.TraceConfig;
+import io.opentelemetry.sdk.trace.data.SpanData.Link;
+import io.opentelemetry.trace.Span.Kind;
+import io.opentelemetry.trace.SpanContext;
+import io.opentelemetry.trace.TraceFlags;
+import io.opentelemetry.trace.TraceId;
+import io.opentelemetry.trace.TraceState;
+import java.util.Collections;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+/** Unit tests for {@link DecisionCachingSampler}. */
+class DecisionCachingSamplerTest {
+  private final IdsGenerator idsGenerator = new RandomIdsGenerator();
+  private final TraceId traceId = idsGenerator.generateTraceId();
+  private final SpanContext sampledSpanContext =
+      SpanContext.create(
+          traceId,
+          idsGenerator.generateSpanId(),
+          TraceFlags.builder().setIsSampled(true).build(),
+          TraceState.getDefault());
+  private final SpanContext notSampledSpanContext =
+      SpanContext.create(
+          traceId, idsGenerator.generateSpanId(), TraceFlags.getDefault(), TraceState.getDefault());
+  private final CountingSampler countingSampler = new CountingSampler();
+
+  @Test
+  void cachesDecisionPerNameKindAndParent() {
+    Sampler sampler = Samplers.withDecisionCache(countingSampler);
+
+    SamplingResult first = shouldSample(sampler, null, "span", Kind.SERVER);
+    assertThat(shouldSample(sampler, null, "span", Kind.SERVER)).isSameAs(first);
+    assertThat(countingSampler.calls).isEqualTo(1);
+
+    shouldSample(sampler, null, "span", Kind.CLIENT);
+    shouldSample(sampler, null, "other", Kind.SERVER);
+    shouldSample(sampler, sampledSpanContext, "span", Kind.SERVER);
+    shouldSample(sampler, notSampledSpanContext, "span", Kind.SERVER);
+    assertThat(countingSampler.calls).isEqualTo(5);
+  }
+
+  @Test
+  void linksBypassCache() {
+    Sampler sampler = Samplers.withDecisionCache(countingSampler);
+    List<io.opentelemetry.trace.Link> links =
+        Collections.<io.opentelemetry.trace.Link>singletonList(Link.create(sampledSpanContext));
+
+    sampler.shouldSample(null, traceId, "span", Kind.SERVER, Attributes.empty(), links);
+    sampler.shouldSample(null, traceId, "span", Kind.SERVER, Attributes.empty(), links);
+    assertThat(countingSampler.calls).isEqualTo(2);
+  }
+
+  @Test
+  void probabilisticDecisionsAreNotCached() {
+    Sampler sampler = Samplers.withDecisionCache(Samplers.probability(0.5));
+    int sampled = 0;
+    for (int i = 0; i < 1000; i++) {
+      SamplingResult samplingResult =
+          sampler.shouldSample(
+              null,
+              idsGenerator.generateTraceId(),
+              "span",
+              Kind.SERVER,
+              Attributes.empty(),
+              Collections.<io.opentelemetry.trace.Link>emptyList());
+      if (samplingResult.getDecision() == Decision.RECORD_AND_SAMPLED) {
+        sampled++;
+      }
+    }
+    assertThat(sampled).isBetween(1, 999);
+  }
+
+  @Test
+  void parentOrElse_ParentDecisionsAreCached() {
+    Sampler sampler = Samplers.withDecisionCache(Samplers.parentOrElse(Samplers.probability(0.0)));
+    assertThat(shouldSample(sampler, sampledSpanContext, "span", Kind.SERVER).getDecision())
+        .isEqualTo(Decision.RECORD_AND_SAMPLED);
+    assertThat(shouldSample(sampler, notSampledSpanContext, "span", Kind.SERVER).getDecision())
+        .isEqualTo(Decision.NOT_RECORD);
+    assertThat(shouldSample(sampler, null, "span", Kind.SERVER).getDecision())
+        .isEqualTo(Decision.NOT_RECORD);
+  }
+
+  @Test
+  void collidingKeysReplaceEachOther() {
+    Sampler sampler = Samplers.withDecisionCache(countingSampler, 1);
+    shouldSample(sampler, null, "a", Kind.SERVER);
+    shouldSample(sampler, null, "b", Kind.SERVER);
+    shouldSample(sampler, null, "a", Kind.SERVER);
+    assertThat(countingSampler.calls).isEqualTo(3);
+    shouldSample(sampler, null, "a", Kind.SERVER);
+    assertThat(countingSampler.calls).isEqualTo(3);
+  }
+
+  @Test
+  void updateActiveTraceConfig_InvalidatesCache() {
+    Sampler sampler = Samplers.withDecisionCache(countingSampler);
+    TracerSdkProvider tracerSdkProvider = TracerSdkProvider.builder().build();
+    TraceConfig traceConfig =
+        tracerSdkProvider.getActiveTraceConfig().toBuilder().setSampler(sampler).build();
+
+    tracerSdkProvider.updateActiveTraceConfig(traceConfig);
+    shouldSample(sampler, null, "span", Kind.SERVER);
+    shouldSample(sampler, null, "span", Kind.SERVER);
+    assertThat(countingSampler.calls).isEqualTo(1);
+
+    tracerSdkProvider.updateActiveTraceConfig(traceConfig);
+    shouldSample(sampler, null, "span", Kind.SERVER);
+    assertThat(countingSampler.calls).isEqualTo(2);
+  }
+
+  @Test
+  void invalidMaxCachedDecisions() {
+    assertThrows(
+        IllegalArgumentException.class, () -> Samplers.withDecisionCache(countingSampler, 0));
+  }
+
+  @Test
+  void getDescription() {
+    assertThat(Samplers.withDecisionCache(Samplers.alwaysOn()).getDescription())
+        .isEqualTo("DecisionCachingSampler{AlwaysOnSampler}");
+  }
+
+  private SamplingResult shouldSample(
+      Sampler sampler, SpanContext parentContext, String name, Kind spanKind) {
+    return sampler.shouldSample(
+        parentContext,
+        traceId,
+        name,
+        spanKind,
+        Attributes.empty(),
+        Collections.<io.opentelemetry.trace.Link>emptyList());
+  }
+
+  private static final class CountingSampler implements Sampler {
+    private int calls;
+
+    @Override
+    public SamplingResult shouldSample(
+        SpanContext parentContext,
+        TraceId traceId,
+        String name,
+        Kind spanKind,
+        ReadableAttributes attributes,
+        List<io.opentelemetry.trace.Link> parentLinks) {
+      calls++;
+      return Samplers.samplingResult(
+          Decision.RECORD_AND_SAMPLED, Attributes.of("name", stringAttributeValue(name)));
+    }
+
+    @Override
+    public String getDescription() {
+      return "CountingSampler";
+    }
+  }
+}